@@ -0,0 +1,121 @@
+package com.chamberlain.benchmark;
+
+import com.chamberlain.entity.Config;
+import com.chamberlain.entity.Config.Condition;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 基准测试数据构造
+ * <p>
+ * 数据按参数确定性生成，保证不同提交之间的结果可比较。
+ */
+final class BenchmarkData {
+    
+    static final String SCENE_ID = "benchmark_scene";
+    
+    static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    
+    /**
+     * 基准的类路径上同时有 reactive-reader 的 R2DBC 依赖，进程内启动后端时排除其自动配置，
+     * 否则 Spring Data 进入多模块严格模式，后端的 JPA 仓库不会被注册
+     */
+    static final String EXCLUDE_R2DBC = "--spring.autoconfigure.exclude="
+        + "org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration,"
+        + "org.springframework.boot.autoconfigure.data.r2dbc.R2dbcDataAutoConfiguration,"
+        + "org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration";
+    
+    private BenchmarkData() {
+    }
+    
+    /**
+     * 构造 JSON Schema：properties 个字段，类型在 string / integer / boolean / 对象数组之间轮换
+     */
+    static ObjectNode schema(int properties) {
+        ObjectNode schema = OBJECT_MAPPER.createObjectNode();
+        schema.put("type", "object");
+        ObjectNode props = schema.putObject("properties");
+        ArrayNode required = schema.putArray("required");
+        for (int i = 0; i < properties; i++) {
+            String name = "field" + i;
+            ObjectNode prop = props.putObject(name);
+            switch (i % 4) {
+                case 0 -> prop.put("type", "string").put("maxLength", 64);
+                case 1 -> prop.put("type", "integer").put("minimum", 0).put("maximum", 65535);
+                case 2 -> prop.put("type", "boolean");
+                default -> {
+                    prop.put("type", "array");
+                    ObjectNode item = prop.putObject("items");
+                    item.put("type", "object");
+                    item.putObject("properties").putObject("id").put("type", "integer");
+                    item.withObject("/properties").putObject("name").put("type", "string");
+                    item.putArray("required").add("id");
+                }
+            }
+            if (i % 2 == 0) {
+                required.add(name);
+            }
+        }
+        return schema;
+    }
+    
+    /**
+     * 构造符合 {@link #schema(int)} 的配置数据，数组字段各含 arrayItems 个元素
+     */
+    static ObjectNode payload(int properties, int arrayItems) {
+        ObjectNode payload = OBJECT_MAPPER.createObjectNode();
+        for (int i = 0; i < properties; i++) {
+            String name = "field" + i;
+            switch (i % 4) {
+                case 0 -> payload.put(name, "value-" + i);
+                case 1 -> payload.put(name, i * 7);
+                case 2 -> payload.put(name, i % 3 == 0);
+                default -> {
+                    ArrayNode array = payload.putArray(name);
+                    for (int j = 0; j < arrayItems; j++) {
+                        array.addObject().put("id", j).put("name", "item-" + j);
+                    }
+                }
+            }
+        }
+        return payload;
+    }
+    
+    /**
+     * 构造 count 个条件，key 逆序生成以覆盖排序开销
+     */
+    static List<Condition> conditions(int count) {
+        List<Condition> conditions = new ArrayList<>(count);
+        for (int i = count - 1; i >= 0; i--) {
+            Condition condition = new Condition();
+            condition.setKey("key" + i);
+            condition.setValue("value-" + i);
+            conditions.add(condition);
+        }
+        return conditions;
+    }
+    
+    /**
+     * 构造配置实体
+     */
+    static Config config(int conditionCount, JsonNode data) {
+        Config config = new Config();
+        config.setSceneId(SCENE_ID);
+        config.setSchemeVersion(1);
+        config.setConditionList(conditions(conditionCount));
+        config.setConfigData(data);
+        config.setRevision(1L);
+        config.setCreatedAt(LocalDateTime.of(2025, 1, 1, 0, 0));
+        config.setUpdatedAt(LocalDateTime.of(2025, 1, 1, 0, 0));
+        config.setCreatedBy("benchmark");
+        config.setUpdatedBy("benchmark");
+        config.generateIdAndHash();
+        return config;
+    }
+}
@@ -0,0 +1,55 @@
+package com.chamberlain.benchmark;
+
+import com.chamberlain.entity.Config.Condition;
+import com.chamberlain.util.CanonicalConditions;
+import com.chamberlain.util.ConditionHashUtil;
+import com.chamberlain.util.ConfigIdGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ConfigIdGenerator#generate}、{@link ConditionHashUtil#hash} 和 {@link CanonicalConditions#of} 基准
+ * <p>
+ * 配合 {@code -prof gc} 查看每次调用的分配量，除返回的 ID 字符串和 16 字节哈希外应接近 0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConditionBenchmark {
+    
+    /**
+     * 条件数
+     */
+    @Param({"0", "1", "4", "16"})
+    public int conditionCount;
+    
+    private List<Condition> conditions;
+    
+    @Setup
+    public void setUp() {
+        conditions = BenchmarkData.conditions(conditionCount);
+    }
+    
+    @Benchmark
+    public String generateId() {
+        return ConfigIdGenerator.generate(BenchmarkData.SCENE_ID, conditions);
+    }
+    
+    @Benchmark
+    public byte[] hash() {
+        return ConditionHashUtil.hash(conditions);
+    }
+    
+    @Benchmark
+    public void idAndHash(Blackhole blackhole) {
+        CanonicalConditions canonical = CanonicalConditions.of(BenchmarkData.SCENE_ID, conditions);
+        blackhole.consume(canonical.id());
+        blackhole.consume(canonical.hash());
+    }
+}
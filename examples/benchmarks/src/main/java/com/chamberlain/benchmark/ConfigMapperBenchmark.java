@@ -0,0 +1,47 @@
+package com.chamberlain.benchmark;
+
+import com.chamberlain.dto.response.ConfigResponse;
+import com.chamberlain.entity.Config;
+import com.chamberlain.mapper.ConfigMapper;
+import com.chamberlain.mapper.ConfigMapperImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ConfigMapper#toResponse} 基准
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConfigMapperBenchmark {
+    
+    /**
+     * 条件数
+     */
+    @Param({"1", "8"})
+    public int conditionCount;
+    
+    /**
+     * 配置数据字段数
+     */
+    @Param({"8", "1024"})
+    public int payloadFields;
+    
+    private ConfigMapper mapper;
+    private Config config;
+    
+    @Setup
+    public void setUp() {
+        mapper = new ConfigMapperImpl();
+        config = BenchmarkData.config(conditionCount, BenchmarkData.payload(payloadFields, 4));
+    }
+    
+    @Benchmark
+    public ConfigResponse toResponse() {
+        return mapper.toResponse(config);
+    }
+}
@@ -0,0 +1,80 @@
+package com.chamberlain.benchmark;
+
+import com.chamberlain.entity.Config.Condition;
+import com.chamberlain.entity.converter.ConditionListConverter;
+import com.chamberlain.entity.converter.JsonNodeConverter;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JPA 属性转换器基准：往返（实体属性 -> 列值 -> 实体属性）和读取（驱动返回的 UTF-8 字节 -> 实体属性）
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConverterBenchmark {
+    
+    /**
+     * 配置数据
+     */
+    @State(Scope.Benchmark)
+    public static class ConfigDataState {
+        
+        /**
+         * 配置数据字段数
+         */
+        @Param({"8", "128", "1024"})
+        public int payloadFields;
+        
+        final JsonNodeConverter converter = new JsonNodeConverter();
+        JsonNode data;
+        byte[] column;
+        
+        @Setup
+        public void setUp() {
+            data = BenchmarkData.payload(payloadFields, 4);
+            column = converter.convertToDatabaseColumn(data);
+        }
+    }
+    
+    /**
+     * 条件列表
+     */
+    @State(Scope.Benchmark)
+    public static class ConditionState {
+        
+        /**
+         * 条件数
+         */
+        @Param({"1", "4", "16"})
+        public int conditionCount;
+        
+        final ConditionListConverter converter = new ConditionListConverter();
+        List<Condition> conditions;
+        
+        @Setup
+        public void setUp() {
+            conditions = BenchmarkData.conditions(conditionCount);
+        }
+    }
+    
+    @Benchmark
+    public JsonNode jsonNodeRoundTrip(ConfigDataState state) {
+        return state.converter.convertToEntityAttribute(state.converter.convertToDatabaseColumn(state.data));
+    }
+    
+    @Benchmark
+    public JsonNode jsonNodeRead(ConfigDataState state) {
+        return state.converter.convertToEntityAttribute(state.column);
+    }
+    
+    @Benchmark
+    public List<Condition> conditionListRoundTrip(ConditionState state) {
+        return state.converter.convertToEntityAttribute(state.converter.convertToDatabaseColumn(state.conditions));
+    }
+}
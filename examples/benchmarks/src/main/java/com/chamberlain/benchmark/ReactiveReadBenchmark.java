@@ -0,0 +1,285 @@
+package com.chamberlain.benchmark;
+
+import com.chamberlain.ChamberlainApplication;
+import com.chamberlain.dto.request.CreateConfigRequest;
+import com.chamberlain.dto.request.CreateSceneRequest;
+import com.chamberlain.entity.Config.Condition;
+import com.chamberlain.reactive.ReactiveReaderApplication;
+import com.chamberlain.service.ConfigService;
+import com.chamberlain.service.SceneService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import io.r2dbc.spi.Statement;
+import io.r2dbc.spi.Wrapped;
+import org.openjdk.jmh.annotations.*;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * Servlet（Spring MVC + JPA）与响应式（WebFlux + R2DBC）读取路径在并发 HTTP 负载下的对比
+ * <p>
+ * 同一进程内启动后端（Tomcat，local 配置）和 reactive-reader（Netty），两者通过 JDBC 和 R2DBC 访问同一个 H2 内存库，
+ * 连接池都为 20。每次调用通过 HTTP 并发发出 concurrency 个请求并等待全部完成，stack 决定请求发往哪一端。
+ * Setup 中比较两端返回的同一配置，响应格式不一致时直接失败。H2 内存库没有网络往返，jdbcLatencyMillis 模拟
+ * 每条语句的往返时间：JDBC 一侧阻塞请求线程休眠，R2DBC 一侧延迟订阅执行结果，不占用线程。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReactiveReadBenchmark {
+    
+    private static final int CONFIGS = 200;
+    private static final int POOL_SIZE = 20;
+    private static final String DATABASE = "reactive_read_bench";
+    
+    @Param({"servlet", "reactive"})
+    public String stack;
+    
+    /**
+     * 每次调用并发发出的请求数
+     */
+    @Param({"256"})
+    public int concurrency;
+    
+    /**
+     * 每条 SQL 语句模拟的数据库往返时间
+     */
+    @Param({"0", "2"})
+    public int jdbcLatencyMillis;
+    
+    private ConfigurableApplicationContext servletContext;
+    private ConfigurableApplicationContext reactiveContext;
+    private HttpClient httpClient;
+    private String baseUrl;
+    private String[] configIds;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        // 后端负责建表和写入数据
+        SpringApplication servlet = new SpringApplication(ChamberlainApplication.class, ThreadingBenchmark.JdbcLatency.class);
+        servletContext = servlet.run(
+            "--spring.profiles.active=local",
+            "--server.port=0",
+            "--spring.datasource.url=jdbc:h2:mem:" + DATABASE + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+            "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+            "--spring.jpa.show-sql=false",
+            BenchmarkData.EXCLUDE_R2DBC,
+            "--logging.level.root=WARN",
+            "--logging.level.com.chamberlain=WARN",
+            "--logging.level.org.springframework.web=WARN",
+            "--logging.level.org.hibernate=ERROR",
+            "--logging.level.org.hibernate.SQL=WARN",
+            "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN");
+        seed(servletContext);
+        
+        // 类路径上还有后端的 JDBC、JPA、Flyway、Redis 依赖，只读服务不使用
+        SpringApplication reactive = ReactiveReaderApplication.application();
+        reactive.addPrimarySources(List.of(R2dbcLatency.class));
+        reactiveContext = reactive.run(
+            "--spring.profiles.active=benchmark",  // 不使用默认的 dev（MySQL）配置
+            "--server.port=0",
+            "--spring.r2dbc.url=r2dbc:h2:mem:///" + DATABASE + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+            "--spring.r2dbc.username=sa",
+            "--spring.r2dbc.pool.initial-size=" + POOL_SIZE,
+            "--spring.r2dbc.pool.max-size=" + POOL_SIZE,
+            "--spring.autoconfigure.exclude="
+                + "org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration,"
+                + "org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration,"
+                + "org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration,"
+                + "org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration,"
+                + "org.springframework.boot.autoconfigure.data.redis.RedisReactiveAutoConfiguration",
+            "--logging.level.root=WARN",
+            "--logging.level.com.chamberlain=WARN");
+        
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        String servletUrl = "http://localhost:" + port(servletContext);
+        String reactiveUrl = "http://localhost:" + port(reactiveContext);
+        checkSameResponse(servletUrl, reactiveUrl, "/api/configs/" + configIds[0]);
+        checkSameResponse(servletUrl, reactiveUrl, "/api/configs?sceneId=" + BenchmarkData.SCENE_ID
+            + "&page=2&pageSize=20&sort=id:asc");
+        checkSameResponse(servletUrl, reactiveUrl, "/api/configs:resolve?sceneId=" + BenchmarkData.SCENE_ID
+            + "&environment=env_1");
+        baseUrl = "reactive".equals(stack) ? reactiveUrl : servletUrl;
+        
+        // 数据准备完成后才开始模拟延迟
+        ThreadingBenchmark.JdbcLatency.millis = jdbcLatencyMillis;
+        R2dbcLatency.millis = jdbcLatencyMillis;
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ThreadingBenchmark.JdbcLatency.millis = 0;
+        R2dbcLatency.millis = 0;
+        reactiveContext.close();
+        servletContext.close();
+    }
+    
+    @Benchmark
+    public int getById() {
+        return send(i -> "/api/configs/" + configIds[i % CONFIGS]);
+    }
+    
+    @Benchmark
+    public int list() {
+        return send(i -> "/api/configs?sceneId=" + BenchmarkData.SCENE_ID + "&page=" + (i % 10 + 1) + "&pageSize=20");
+    }
+    
+    @Benchmark
+    public int resolve() {
+        return send(i -> "/api/configs:resolve?sceneId=" + BenchmarkData.SCENE_ID + "&environment=env_" + i % CONFIGS);
+    }
+    
+    /**
+     * 并发发出 concurrency 个请求并等待全部完成，返回响应体总字节数
+     */
+    private int send(IntFunction<String> path) {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[concurrency];
+        int[] bytes = new int[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            int index = i;
+            futures[i] = httpClient.sendAsync(request(baseUrl + path.apply(i)), HttpResponse.BodyHandlers.ofByteArray())
+                .thenAccept(response -> {
+                    if (response.statusCode() != 200) {
+                        throw new IllegalStateException(response.uri() + " returned " + response.statusCode());
+                    }
+                    bytes[index] = response.body().length;
+                });
+        }
+        CompletableFuture.allOf(futures).join();
+        int total = 0;
+        for (int length : bytes) {
+            total += length;
+        }
+        return total;
+    }
+    
+    private void seed(ConfigurableApplicationContext context) {
+        CreateSceneRequest scene = new CreateSceneRequest();
+        scene.setId(BenchmarkData.SCENE_ID);
+        scene.setName(BenchmarkData.SCENE_ID);
+        scene.setSchema(BenchmarkData.schema(8));
+        context.getBean(SceneService.class).create(scene);
+        
+        ConfigService configService = context.getBean(ConfigService.class);
+        configIds = new String[CONFIGS];
+        for (int i = 0; i < CONFIGS; i++) {
+            Condition condition = new Condition();
+            condition.setKey("environment");
+            condition.setValue("env_" + i);
+            CreateConfigRequest request = new CreateConfigRequest();
+            request.setSceneId(BenchmarkData.SCENE_ID);
+            request.setSchemeVersion(1);
+            request.setConditions(List.of(condition));
+            request.setConfig(BenchmarkData.payload(8, 2));
+            configIds[i] = configService.create(request).getId();
+        }
+    }
+    
+    /**
+     * 两端对同一请求的响应体（JSON 树）必须相同
+     */
+    private void checkSameResponse(String servletUrl, String reactiveUrl, String path) throws Exception {
+        ObjectMapper objectMapper = servletContext.getBean(ObjectMapper.class);
+        JsonNode servlet = objectMapper.readTree(httpClient.send(request(servletUrl + path),
+            HttpResponse.BodyHandlers.ofByteArray()).body());
+        JsonNode reactive = objectMapper.readTree(httpClient.send(request(reactiveUrl + path),
+            HttpResponse.BodyHandlers.ofByteArray()).body());
+        if (!servlet.equals(reactive)) {
+            throw new IllegalStateException("Responses differ for " + path + "\nservlet:  " + servlet
+                + "\nreactive: " + reactive);
+        }
+    }
+    
+    private static HttpRequest request(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).header("Accept", "application/json").build();
+    }
+    
+    private static int port(ConfigurableApplicationContext context) {
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+    
+    /**
+     * 延迟 R2DBC 语句执行结果的订阅，模拟数据库往返时间（不阻塞线程）
+     */
+    static class R2dbcLatency {
+        
+        static volatile int millis;
+        
+        @Bean
+        static BeanPostProcessor r2dbcLatencyPostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof ConnectionFactory factory ? new LatencyConnectionFactory(factory) : bean;
+                }
+            };
+        }
+    }
+    
+    private record LatencyConnectionFactory(ConnectionFactory target)
+        implements ConnectionFactory, Wrapped<ConnectionFactory> {
+        
+        @Override
+        public Publisher<? extends Connection> create() {
+            return Mono.from(target.create()).map(connection -> proxy(Connection.class, connection,
+                result -> result instanceof Statement statement ? proxy(Statement.class, statement, null) : result));
+        }
+        
+        @Override
+        public ConnectionFactoryMetadata getMetadata() {
+            return target.getMetadata();
+        }
+        
+        @Override
+        public ConnectionFactory unwrap() {
+            return target;
+        }
+        
+        /**
+         * 代理 Connection 或 Statement：Statement 的 execute 结果延迟订阅，返回自身的方法（bind 等）返回代理
+         */
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, T target, UnaryOperator<Object> wrapResult) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+                Object result;
+                try {
+                    result = method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getTargetException();
+                }
+                if (result == target) {
+                    return proxy;
+                }
+                if (type == Statement.class && "execute".equals(method.getName()) && R2dbcLatency.millis > 0) {
+                    return Flux.from((Publisher<?>) result).delaySubscription(Duration.ofMillis(R2dbcLatency.millis));
+                }
+                return wrapResult != null ? wrapResult.apply(result) : result;
+            });
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.chamberlain.benchmark;
+
+import com.chamberlain.service.SchemaValidationService;
+import com.chamberlain.service.SchemaValidationService.ValidationResult;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.networknt.schema.JsonSchema;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link SchemaValidationService#validate} 基准
+ * <p>
+ * validateCompiled 为写路径实际使用的已编译 Schema 校验，validateSchemaNode 包含每次编译的开销。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SchemaValidationBenchmark {
+    
+    /**
+     * Schema 字段数
+     */
+    @Param({"4", "32", "256"})
+    public int schemaProperties;
+    
+    /**
+     * 配置数据中每个数组字段的元素数
+     */
+    @Param({"1", "64"})
+    public int arrayItems;
+    
+    private SchemaValidationService service;
+    private JsonNode schemaNode;
+    private JsonSchema schema;
+    private JsonNode payload;
+    
+    @Setup
+    public void setUp() {
+        service = new SchemaValidationService();
+        schemaNode = BenchmarkData.schema(schemaProperties);
+        schema = service.compile(schemaNode).orElseThrow();
+        payload = BenchmarkData.payload(schemaProperties, arrayItems);
+        if (!service.validate(schema, payload).isValid()) {
+            throw new IllegalStateException("Benchmark payload does not match schema");
+        }
+    }
+    
+    @Benchmark
+    public ValidationResult validateCompiled() {
+        return service.validate(schema, payload);
+    }
+    
+    @Benchmark
+    public ValidationResult validateSchemaNode() {
+        return service.validate(schemaNode, payload);
+    }
+}
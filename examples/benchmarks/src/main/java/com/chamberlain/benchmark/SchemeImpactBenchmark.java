@@ -0,0 +1,115 @@
+package com.chamberlain.benchmark;
+
+import com.chamberlain.ChamberlainApplication;
+import com.chamberlain.dto.request.CreateSceneRequest;
+import com.chamberlain.dto.request.SchemeImpactRequest;
+import com.chamberlain.dto.response.SchemeImpactResponse;
+import com.chamberlain.service.ConfigImportService;
+import com.chamberlain.service.SceneService;
+import com.chamberlain.service.SchemeImpactService;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.BufferedWriter;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * schemes:impact 在大场景上的耗时
+ * <p>
+ * 在进程内以 local 配置（H2 内存库）启动服务端，通过 NDJSON 导入 configCount 个配置后，
+ * 每次调用用收紧了一个约束的候选 Schema 分析整个场景。parallelism 为验证线程数，sampleRatio 为采样比例。
+ * 默认 10 万配置以控制准备时间，评估 50 万配置时使用 -p configCount=500000，并相应增大堆（-jvmArgs -Xmx2g）。
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SchemeImpactBenchmark {
+    
+    private static final int PAYLOAD_FIELDS = 8;
+    
+    @Param({"100000"})
+    public int configCount;
+    
+    @Param({"1", "4"})
+    public int parallelism;
+    
+    @Param({"1.0", "0.1"})
+    public double sampleRatio;
+    
+    private ConfigurableApplicationContext context;
+    private SchemeImpactService schemeImpactService;
+    private SchemeImpactRequest request;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        SpringApplication application = new SpringApplication(ChamberlainApplication.class);
+        context = application.run(
+            "--spring.profiles.active=local",
+            "--spring.main.web-application-type=none",
+            "--spring.jpa.show-sql=false",
+            BenchmarkData.EXCLUDE_R2DBC,
+            "--chamberlain.impact.parallelism=" + parallelism,
+            "--logging.level.root=WARN",
+            "--logging.level.com.chamberlain=WARN",
+            "--logging.level.org.hibernate=ERROR",
+            "--logging.level.org.hibernate.SQL=WARN",
+            "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN");
+        schemeImpactService = context.getBean(SchemeImpactService.class);
+        
+        CreateSceneRequest scene = new CreateSceneRequest();
+        scene.setId(BenchmarkData.SCENE_ID);
+        scene.setName(BenchmarkData.SCENE_ID);
+        scene.setSchema(BenchmarkData.schema(PAYLOAD_FIELDS));
+        context.getBean(SceneService.class).create(scene);
+        importConfigs();
+        
+        // 候选 Schema 收紧 field0 的长度上限，已有配置（"value-0"）仍然通过
+        ObjectNode candidate = BenchmarkData.schema(PAYLOAD_FIELDS);
+        candidate.withObject("/properties/field0").put("maxLength", 7);
+        request = new SchemeImpactRequest();
+        request.setSchema(candidate);
+        request.setSampleRatio(sampleRatio);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public SchemeImpactResponse analyze() {
+        return schemeImpactService.analyze(BenchmarkData.SCENE_ID, request);
+    }
+    
+    /**
+     * 通过导入接口写入配置，比逐个创建快得多
+     */
+    private void importConfigs() throws Exception {
+        Path file = Files.createTempFile("impact-benchmark", ".ndjson");
+        try {
+            String config = BenchmarkData.OBJECT_MAPPER.writeValueAsString(BenchmarkData.payload(PAYLOAD_FIELDS, 2));
+            try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+                for (int i = 0; i < configCount; i++) {
+                    writer.write("{\"conditions\":[{\"key\":\"instance\",\"value\":\"i" + i + "\"}],\"config\":"
+                        + config + "}\n");
+                }
+            }
+            try (InputStream body = Files.newInputStream(file)) {
+                context.getBean(ConfigImportService.class)
+                    .importConfigs(BenchmarkData.SCENE_ID, null, ConfigImportService.MAX_CHUNK_SIZE, true, false, body)
+                    .writeTo(OutputStream.nullOutputStream());
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.chamberlain.benchmark;
+
+import com.chamberlain.ChamberlainApplication;
+import com.chamberlain.dto.request.CreateConfigRequest;
+import com.chamberlain.dto.request.CreateSceneRequest;
+import com.chamberlain.entity.Config.Condition;
+import com.chamberlain.service.ConfigService;
+import com.chamberlain.service.SceneService;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tomcat 请求处理在平台线程与虚拟线程两种模式下，并发 getById / list HTTP 负载的对比
+ * <p>
+ * 在进程内以 local 配置（H2 内存库）启动带内嵌 Tomcat 的服务端，threads=virtual 时设置 spring.threads.virtual.enabled，
+ * 请求由虚拟线程处理；platform 时使用 Tomcat 默认的 200 个工作线程。两种模式都开启数据库并发限制，连接池为 20。
+ * 每次调用通过 HTTP 并发发出 concurrency 个请求（getById 与 list 交替）并等待全部完成，客户端一侧两种模式相同。
+ * Setup 中检查 Tomcat 实际使用的执行器与模式一致。H2 内存库没有网络往返，jdbcLatencyMillis 在每条语句前休眠，
+ * 模拟实际部署中阻塞在 JDBC 上的时间。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ThreadingBenchmark {
+    
+    private static final int CONFIGS = 200;
+    
+    @Param({"platform", "virtual"})
+    public String threads;
+    
+    /**
+     * 每次调用并发发出的请求数
+     */
+    @Param({"1000"})
+    public int concurrency;
+    
+    /**
+     * 每条 SQL 语句前模拟的 JDBC 往返时间
+     */
+    @Param({"0", "2"})
+    public int jdbcLatencyMillis;
+    
+    private ConfigurableApplicationContext context;
+    private ExecutorService clientExecutor;
+    private HttpClient httpClient;
+    private String baseUrl;
+    private String[] configIds;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        boolean virtual = "virtual".equals(threads);
+        SpringApplication application = new SpringApplication(ChamberlainApplication.class, JdbcLatency.class);
+        context = application.run(
+            "--spring.profiles.active=local",
+            "--server.port=0",
+            "--spring.threads.virtual.enabled=" + virtual,
+            "--spring.jpa.show-sql=false",
+            BenchmarkData.EXCLUDE_R2DBC,
+            "--spring.datasource.hikari.maximum-pool-size=20",
+            "--chamberlain.db.limiter.enabled=true",
+            "--logging.level.root=WARN",
+            "--logging.level.com.chamberlain=WARN",
+            "--logging.level.org.springframework.web=WARN",
+            "--logging.level.org.hibernate=ERROR",
+            "--logging.level.org.hibernate.SQL=WARN",
+            "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN");
+        
+        TomcatWebServer webServer = (TomcatWebServer) ((WebServerApplicationContext) context).getWebServer();
+        boolean tomcatVirtual = webServer.getTomcat().getConnector().getProtocolHandler().getExecutor()
+            instanceof VirtualThreadExecutor;
+        if (tomcatVirtual != virtual) {
+            throw new IllegalStateException("Tomcat executor does not match threads=" + threads);
+        }
+        baseUrl = "http://localhost:" + webServer.getPort();
+        
+        CreateSceneRequest scene = new CreateSceneRequest();
+        scene.setId(BenchmarkData.SCENE_ID);
+        scene.setName(BenchmarkData.SCENE_ID);
+        scene.setSchema(BenchmarkData.schema(8));
+        context.getBean(SceneService.class).create(scene);
+        
+        ConfigService configService = context.getBean(ConfigService.class);
+        configIds = new String[CONFIGS];
+        for (int i = 0; i < CONFIGS; i++) {
+            Condition condition = new Condition();
+            condition.setKey("environment");
+            condition.setValue("env_" + i);
+            CreateConfigRequest request = new CreateConfigRequest();
+            request.setSceneId(BenchmarkData.SCENE_ID);
+            request.setSchemeVersion(1);
+            request.setConditions(List.of(condition));
+            request.setConfig(BenchmarkData.payload(8, 2));
+            configIds[i] = configService.create(request).getId();
+        }
+        
+        // 客户端不随模式变化，响应在虚拟线程上处理，避免客户端线程数影响结果
+        clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(clientExecutor).build();
+        // 数据准备完成后才开始模拟延迟
+        JdbcLatency.millis = jdbcLatencyMillis;
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        JdbcLatency.millis = 0;
+        context.close();
+        clientExecutor.shutdownNow();
+    }
+    
+    @Benchmark
+    public int getByIdAndList() {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            String path = i % 2 == 0
+                ? "/api/configs/" + configIds[i % CONFIGS]
+                : "/api/configs?sceneId=" + BenchmarkData.SCENE_ID + "&page=1&pageSize=20";
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Accept", "application/json")
+                .build();
+            futures[i] = httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .thenAccept(response -> {
+                    if (response.statusCode() != 200) {
+                        throw new IllegalStateException(response.uri() + " returned " + response.statusCode());
+                    }
+                });
+        }
+        CompletableFuture.allOf(futures).join();
+        return concurrency;
+    }
+    
+    /**
+     * 在每条语句准备前休眠，模拟 JDBC 往返时间
+     */
+    @Configuration
+    static class JdbcLatency {
+        
+        static volatile int millis;
+        
+        @Bean
+        static BeanPostProcessor jdbcLatencyPostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? new LatencyDataSource(dataSource) : bean;
+                }
+            };
+        }
+    }
+    
+    private static final class LatencyDataSource extends DelegatingDataSource {
+        
+        LatencyDataSource(DataSource target) {
+            super(target);
+        }
+        
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection connection = super.getConnection();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().startsWith("prepare") && JdbcLatency.millis > 0) {
+                        Thread.sleep(JdbcLatency.millis);
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package com.chamberlain.client;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chamberlain 客户端
+ * <p>
+ * 启动时拉取指定场景的全部配置，之后在后台线程按固定间隔以 If-None-Match 条件请求刷新，
+ * 未变更的场景服务端只返回 304。每个场景的配置是不可变的 {@link SceneConfigs}，刷新时整体替换，
+ * 请求路径上的 {@link #resolve} 只读取一个 volatile 引用，不分配对象、不加锁、不阻塞。
+ * <p>
+ * 配置了本地缓存文件时，每次获取到新数据后写入文件；启动时服务端不可达的场景从文件恢复。
+ *
+ * <pre>
+ * ChamberlainClient client = ChamberlainClient.builder()
+ *     .baseUrl("http://localhost:8080")
+ *     .scenes("mysql_config")
+ *     .cacheFile(Path.of("/var/cache/chamberlain/configs.json"))
+ *     .build()
+ *     .start();
+ * Conditions production = Conditions.of("environment", "production");  // 创建一次后复用
+ * int port = client.resolve("mysql_config", production).getInt("port", 3306);
+ * </pre>
+ */
+public final class ChamberlainClient implements AutoCloseable {
+    
+    private static final System.Logger LOG = System.getLogger(ChamberlainClient.class.getName());
+    
+    private final List<String> sceneIds;
+    private final ChamberlainHttp http;
+    private final LocalCacheFile cacheFile;
+    private final Duration refreshInterval;
+    private final ObjectMapper objectMapper;
+    private final ScheduledExecutorService scheduler;
+    
+    /**
+     * 场景 ID -> 配置，刷新时整体替换
+     */
+    private volatile Map<String, SceneConfigs> scenes = Map.of();
+    
+    private ChamberlainClient(Builder builder) {
+        this.sceneIds = List.copyOf(builder.sceneIds);
+        this.objectMapper = builder.objectMapper != null
+            ? builder.objectMapper
+            : new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        HttpClient httpClient = builder.httpClient != null
+            ? builder.httpClient
+            : HttpClient.newBuilder().connectTimeout(builder.requestTimeout).build();
+        this.http = new ChamberlainHttp(builder.baseUrl, httpClient, builder.requestTimeout, objectMapper);
+        this.cacheFile = builder.cacheFile == null ? null : new LocalCacheFile(builder.cacheFile, objectMapper);
+        this.refreshInterval = builder.refreshInterval;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "chamberlain-client-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    public static Builder builder() {
+        return new Builder();
+    }
+    
+    /**
+     * 加载全部场景并启动后台刷新
+     * 服务端不可达的场景从本地缓存文件恢复，两者都没有时抛出异常
+     *
+     * @return 当前客户端
+     */
+    public ChamberlainClient start() {
+        Map<String, Payloads.CachedScene> cached = new HashMap<>();
+        if (cacheFile != null) {
+            cacheFile.read().ifPresent(file ->
+                file.scenes().forEach(scene -> cached.put(scene.scene().id(), scene)));
+        }
+        
+        Map<String, SceneConfigs> loaded = new HashMap<>();
+        boolean fetched = false;
+        for (String sceneId : sceneIds) {
+            try {
+                loaded.put(sceneId, fetch(sceneId, null));
+                fetched = true;
+            } catch (ChamberlainClientException e) {
+                Payloads.CachedScene fallback = cached.get(sceneId);
+                if (fallback == null) {
+                    throw new ChamberlainClientException("Cannot load scene " + sceneId
+                        + " from server and no cached copy is available", e);
+                }
+                LOG.log(System.Logger.Level.WARNING, "Loaded scene " + sceneId + " from cache file "
+                    + cacheFile.path() + ": " + e.getMessage());
+                loaded.put(sceneId, new SceneConfigs(fallback, objectMapper));
+            }
+        }
+        scenes = Map.copyOf(loaded);
+        if (fetched) {
+            persist();
+        }
+        
+        long interval = refreshInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::refreshQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        return this;
+    }
+    
+    /**
+     * 以条件请求刷新全部场景，单个场景失败时保留已有数据
+     *
+     * @return 是否有场景发生变化
+     */
+    public boolean refresh() {
+        Map<String, SceneConfigs> current = scenes;
+        Map<String, SceneConfigs> updated = null;
+        for (String sceneId : sceneIds) {
+            SceneConfigs previous = current.get(sceneId);
+            try {
+                SceneConfigs refreshed = fetch(sceneId, previous);
+                if (refreshed != previous) {
+                    if (updated == null) {
+                        updated = new HashMap<>(current);
+                    }
+                    updated.put(sceneId, refreshed);
+                }
+            } catch (ChamberlainClientException e) {
+                LOG.log(System.Logger.Level.WARNING, "Failed to refresh scene " + sceneId + ", keeping revision "
+                    + (previous == null ? "none" : previous.getRevision()) + ": " + e.getMessage());
+            }
+        }
+        if (updated == null) {
+            return false;
+        }
+        scenes = Map.copyOf(updated);
+        persist();
+        return true;
+    }
+    
+    /**
+     * @param sceneId 场景 ID
+     * @return 场景配置
+     */
+    public SceneConfigs scene(String sceneId) {
+        SceneConfigs scene = scenes.get(sceneId);
+        if (scene == null) {
+            throw new ChamberlainClientException("Scene " + sceneId + " is not loaded by this client");
+        }
+        return scene;
+    }
+    
+    /**
+     * 按场景的冲突策略解析生效配置，不分配对象、不阻塞
+     *
+     * @param sceneId    场景 ID
+     * @param conditions 请求条件
+     * @return 生效的配置，没有匹配时为 null
+     */
+    public ConfigEntry resolve(String sceneId, Conditions conditions) {
+        return scene(sceneId).resolve(conditions);
+    }
+    
+    /**
+     * 解析生效配置并转换为指定类型，转换结果按配置缓存
+     *
+     * @param sceneId    场景 ID
+     * @param conditions 请求条件
+     * @param type       目标类型
+     * @return 转换结果（共享实例），没有匹配时为 null
+     */
+    public <T> T resolve(String sceneId, Conditions conditions, Class<T> type) {
+        ConfigEntry entry = resolve(sceneId, conditions);
+        return entry == null ? null : entry.as(type);
+    }
+    
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+    
+    /**
+     * 拉取场景，场景和配置列表均未修改时返回 previous
+     */
+    private SceneConfigs fetch(String sceneId, SceneConfigs previous) {
+        Payloads.CachedScene source = previous == null ? null : previous.source();
+        Payloads.Fetched<Payloads.Scene> scene = http.fetchScene(sceneId,
+            source == null ? null : source.sceneETag());
+        Payloads.Fetched<List<Payloads.Config>> configs = http.fetchConfigs(sceneId,
+            source == null ? null : source.configsETag());
+        if (scene == null && configs == null) {
+            return previous;
+        }
+        return new SceneConfigs(new Payloads.CachedScene(
+            scene != null ? scene.value() : source.scene(),
+            scene != null ? scene.etag() : source.sceneETag(),
+            configs != null ? configs.value() : source.configs(),
+            configs != null ? configs.etag() : source.configsETag()), objectMapper);
+    }
+    
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            LOG.log(System.Logger.Level.WARNING, "Background refresh failed", e);
+        }
+    }
+    
+    private void persist() {
+        if (cacheFile == null) {
+            return;
+        }
+        List<Payloads.CachedScene> sources = new ArrayList<>();
+        scenes.values().forEach(scene -> sources.add(scene.source()));
+        try {
+            cacheFile.write(sources);
+        } catch (IOException e) {
+            LOG.log(System.Logger.Level.WARNING, "Failed to write cache file " + cacheFile.path(), e);
+        }
+    }
+    
+    /**
+     * 客户端构建器
+     */
+    public static final class Builder {
+        
+        private String baseUrl;
+        private final Set<String> sceneIds = new LinkedHashSet<>();
+        private Duration refreshInterval = Duration.ofSeconds(30);
+        private Duration requestTimeout = Duration.ofSeconds(5);
+        private Path cacheFile;
+        private ObjectMapper objectMapper;
+        private HttpClient httpClient;
+        
+        private Builder() {
+        }
+        
+        /**
+         * @param baseUrl 服务端地址，如 http://localhost:8080
+         */
+        public Builder baseUrl(String baseUrl) {
+            this.baseUrl = baseUrl;
+            return this;
+        }
+        
+        /**
+         * @param sceneIds 需要加载的场景
+         */
+        public Builder scenes(String... sceneIds) {
+            this.sceneIds.addAll(Arrays.asList(sceneIds));
+            return this;
+        }
+        
+        /**
+         * @param refreshInterval 后台刷新间隔，默认 30 秒
+         */
+        public Builder refreshInterval(Duration refreshInterval) {
+            this.refreshInterval = refreshInterval;
+            return this;
+        }
+        
+        /**
+         * @param requestTimeout 单次请求超时，默认 5 秒
+         */
+        public Builder requestTimeout(Duration requestTimeout) {
+            this.requestTimeout = requestTimeout;
+            return this;
+        }
+        
+        /**
+         * @param cacheFile 本地缓存文件，为 null 时不落盘
+         */
+        public Builder cacheFile(Path cacheFile) {
+            this.cacheFile = cacheFile;
+            return this;
+        }
+        
+        /**
+         * @param objectMapper 用于解析响应和 {@link ConfigEntry#as} 转换，需关闭 FAIL_ON_UNKNOWN_PROPERTIES
+         */
+        public Builder objectMapper(ObjectMapper objectMapper) {
+            this.objectMapper = objectMapper;
+            return this;
+        }
+        
+        public Builder httpClient(HttpClient httpClient) {
+            this.httpClient = httpClient;
+            return this;
+        }
+        
+        public ChamberlainClient build() {
+            if (baseUrl == null || baseUrl.isBlank()) {
+                throw new IllegalArgumentException("baseUrl is required");
+            }
+            if (sceneIds.isEmpty()) {
+                throw new IllegalArgumentException("At least one scene is required");
+            }
+            if (refreshInterval.isNegative() || refreshInterval.isZero()) {
+                throw new IllegalArgumentException("refreshInterval must be positive");
+            }
+            return new ChamberlainClient(this);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.chamberlain.client;
+
+/**
+ * 客户端异常
+ */
+public class ChamberlainClientException extends RuntimeException {
+    
+    public ChamberlainClientException(String message) {
+        super(message);
+    }
+    
+    public ChamberlainClientException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,152 @@
+package com.chamberlain.client;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 服务端 HTTP 调用，读取均使用 If-None-Match 条件请求
+ */
+final class ChamberlainHttp {
+    
+    private static final int PAGE_SIZE = 500;
+    
+    /**
+     * 分页读取期间列表 ETag 变化（有并发写入）时的重试次数
+     */
+    private static final int MAX_LIST_ATTEMPTS = 3;
+    
+    private final String baseUrl;
+    private final HttpClient httpClient;
+    private final Duration requestTimeout;
+    private final ObjectMapper objectMapper;
+    private final JavaType configPage;
+    
+    ChamberlainHttp(String baseUrl, HttpClient httpClient, Duration requestTimeout, ObjectMapper objectMapper) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.httpClient = httpClient;
+        this.requestTimeout = requestTimeout;
+        this.objectMapper = objectMapper;
+        this.configPage = objectMapper.getTypeFactory().constructCollectionType(List.class, Payloads.Config.class);
+    }
+    
+    /**
+     * 读取场景
+     *
+     * @param sceneId 场景 ID
+     * @param etag    已有数据的 ETag，可为 null
+     * @return 场景，未修改时为 null
+     */
+    Payloads.Fetched<Payloads.Scene> fetchScene(String sceneId, String etag) {
+        HttpResponse<byte[]> response = get("/api/scenes/" + encode(sceneId).replace("+", "%20"), etag);
+        if (response.statusCode() == 304) {
+            return null;
+        }
+        JsonNode data = data(response);
+        return new Payloads.Fetched<>(convert(data, objectMapper.constructType(Payloads.Scene.class)), etag(response));
+    }
+    
+    /**
+     * 分页读取场景下的全部配置，第一页使用条件请求
+     *
+     * @param sceneId 场景 ID
+     * @param etag    已有数据的列表 ETag，可为 null
+     * @return 配置列表，未修改时为 null
+     */
+    Payloads.Fetched<List<Payloads.Config>> fetchConfigs(String sceneId, String etag) {
+        for (int attempt = 1; ; attempt++) {
+            String pageETag = null;
+            List<Payloads.Config> configs = new ArrayList<>();
+            boolean consistent = true;
+            for (int page = 1; ; page++) {
+                HttpResponse<byte[]> response = get("/api/configs?sceneId=" + encode(sceneId)
+                    + "&page=" + page + "&pageSize=" + PAGE_SIZE + "&sort=id:asc", page == 1 ? etag : null);
+                if (response.statusCode() == 304) {
+                    return null;
+                }
+                String responseETag = etag(response);
+                if (page == 1) {
+                    pageETag = responseETag;
+                } else if (pageETag != null && !pageETag.equals(responseETag)) {
+                    consistent = false;
+                    break;
+                }
+                JsonNode data = data(response);
+                List<Payloads.Config> list = convert(data.path("list"), configPage);
+                configs.addAll(list);
+                if (list.size() < PAGE_SIZE || configs.size() >= data.path("total").asLong()) {
+                    break;
+                }
+            }
+            if (consistent) {
+                return new Payloads.Fetched<>(configs, pageETag);
+            }
+            if (attempt == MAX_LIST_ATTEMPTS) {
+                throw new ChamberlainClientException("Configs of scene " + sceneId + " kept changing while paging");
+            }
+        }
+    }
+    
+    private HttpResponse<byte[]> get(String path, String etag) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(requestTimeout)
+            .header("Accept", "application/json")
+            .GET();
+        if (etag != null) {
+            request.header("If-None-Match", etag);
+        }
+        try {
+            return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            throw new ChamberlainClientException("Request to " + baseUrl + path + " failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ChamberlainClientException("Request to " + baseUrl + path + " interrupted", e);
+        }
+    }
+    
+    /**
+     * 解析 ApiResponse 外层，返回 data
+     */
+    private JsonNode data(HttpResponse<byte[]> response) {
+        JsonNode body;
+        try {
+            body = objectMapper.readTree(response.body());
+        } catch (IOException e) {
+            throw new ChamberlainClientException("Invalid response from " + response.uri()
+                + " (HTTP " + response.statusCode() + ")", e);
+        }
+        if (response.statusCode() != 200 || !body.path("success").asBoolean(false)) {
+            throw new ChamberlainClientException("Request to " + response.uri() + " failed (HTTP "
+                + response.statusCode() + "): " + body.path("code").asText() + " " + body.path("message").asText());
+        }
+        return body.path("data");
+    }
+    
+    private <T> T convert(JsonNode node, JavaType type) {
+        try {
+            return objectMapper.treeToValue(node, type);
+        } catch (IOException e) {
+            throw new ChamberlainClientException("Invalid response data: " + e.getMessage(), e);
+        }
+    }
+    
+    private static String etag(HttpResponse<?> response) {
+        return response.headers().firstValue("ETag").orElse(null);
+    }
+    
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,151 @@
+package com.chamberlain.client;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 不可变的条件组合（key -> value），按 key 排序存储
+ * <p>
+ * 创建时会分配对象，应在启动时按调用场景（如环境、地域）创建后复用；
+ * 之后用它进行的查找不再分配对象。
+ */
+public final class Conditions {
+    
+    private static final Conditions EMPTY = new Conditions(new String[0], new String[0]);
+    
+    private final String[] keys;
+    private final String[] values;
+    
+    /**
+     * 预先计算，作为 Map 键查找时不重复计算
+     */
+    private final int hash;
+    
+    private Conditions(String[] keys, String[] values) {
+        this.keys = keys;
+        this.values = values;
+        this.hash = 31 * Arrays.hashCode(keys) + Arrays.hashCode(values);
+    }
+    
+    /**
+     * @return 空条件组合，只匹配默认配置
+     */
+    public static Conditions empty() {
+        return EMPTY;
+    }
+    
+    /**
+     * @param keyValues 交替的 key 和 value，如 of("environment", "production", "region", "cn")
+     * @return 条件组合
+     */
+    public static Conditions of(String... keyValues) {
+        if (keyValues.length % 2 != 0) {
+            throw new IllegalArgumentException("Conditions require key/value pairs");
+        }
+        Map<String, String> map = new TreeMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            put(map, keyValues[i], keyValues[i + 1]);
+        }
+        return of(map);
+    }
+    
+    /**
+     * @param conditions 条件（key -> value）
+     * @return 条件组合
+     */
+    public static Conditions of(Map<String, String> conditions) {
+        if (conditions.isEmpty()) {
+            return EMPTY;
+        }
+        Map<String, String> sorted = new TreeMap<>();
+        conditions.forEach((key, value) -> put(sorted, key, value));
+        return new Conditions(sorted.keySet().toArray(new String[0]), sorted.values().toArray(new String[0]));
+    }
+    
+    private static void put(Map<String, String> map, String key, String value) {
+        if (key == null || value == null) {
+            throw new IllegalArgumentException("Condition key and value cannot be null");
+        }
+        if (map.put(key, value) != null) {
+            throw new IllegalArgumentException("Duplicate condition key: " + key);
+        }
+    }
+    
+    /**
+     * @return 条件数
+     */
+    public int size() {
+        return keys.length;
+    }
+    
+    /**
+     * @param index 下标（按 key 排序）
+     * @return key
+     */
+    public String key(int index) {
+        return keys[index];
+    }
+    
+    /**
+     * @param index 下标（按 key 排序）
+     * @return value
+     */
+    public String value(int index) {
+        return values[index];
+    }
+    
+    /**
+     * @param key 条件 key
+     * @return value，不存在时为 null
+     */
+    public String get(String key) {
+        int index = Arrays.binarySearch(keys, key);
+        return index < 0 ? null : values[index];
+    }
+    
+    /**
+     * 本组合是否为 other 的子集（key 和 value 都相同），两边均已按 key 排序，逐个归并比较
+     */
+    boolean isSubsetOf(Conditions other) {
+        int j = 0;
+        for (int i = 0; i < keys.length; i++) {
+            while (j < other.keys.length && other.keys[j].compareTo(keys[i]) < 0) {
+                j++;
+            }
+            if (j == other.keys.length || !other.keys[j].equals(keys[i]) || !other.values[j].equals(values[i])) {
+                return false;
+            }
+            j++;
+        }
+        return true;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Conditions other)) {
+            return false;
+        }
+        return hash == other.hash && Arrays.equals(keys, other.keys) && Arrays.equals(values, other.values);
+    }
+    
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("{");
+        for (int i = 0; i < keys.length; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(keys[i]).append('=').append(values[i]);
+        }
+        return builder.append('}').toString();
+    }
+}
@@ -0,0 +1,126 @@
+package com.chamberlain.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 单个配置（不可变）
+ * <p>
+ * 字段访问直接读取配置 JSON，不分配对象；{@link #as(Class)} 的转换结果按类型缓存，返回的对象被共享，调用方不应修改。
+ */
+public final class ConfigEntry {
+    
+    private final String id;
+    private final Conditions conditions;
+    private final int schemeVersion;
+    private final long revision;
+    private final JsonNode data;
+    private final ObjectMapper objectMapper;
+    private final Map<Class<?>, Object> typed = new ConcurrentHashMap<>();
+    
+    ConfigEntry(Payloads.Config config, ObjectMapper objectMapper) {
+        Map<String, String> conditions = new HashMap<>();
+        if (config.conditionList() != null) {
+            config.conditionList().forEach(condition -> conditions.put(condition.key(), condition.value()));
+        }
+        this.id = config.id();
+        this.conditions = Conditions.of(conditions);
+        this.schemeVersion = config.schemeVersion() == null ? 0 : config.schemeVersion();
+        this.revision = config.revision() == null ? 0 : config.revision();
+        this.data = config.config();
+        this.objectMapper = objectMapper;
+    }
+    
+    public String getId() {
+        return id;
+    }
+    
+    public Conditions getConditions() {
+        return conditions;
+    }
+    
+    public int getSchemeVersion() {
+        return schemeVersion;
+    }
+    
+    public long getRevision() {
+        return revision;
+    }
+    
+    /**
+     * @return 配置 JSON，只读
+     */
+    public JsonNode node() {
+        return data;
+    }
+    
+    /**
+     * @param field        顶层字段名
+     * @param defaultValue 字段不存在或为 null 时的默认值
+     * @return 字段值
+     */
+    public String getString(String field, String defaultValue) {
+        JsonNode node = field(field);
+        if (node == null) {
+            return defaultValue;
+        }
+        return node.isTextual() ? node.textValue() : node.asText();
+    }
+    
+    public int getInt(String field, int defaultValue) {
+        JsonNode node = field(field);
+        return node == null ? defaultValue : node.asInt(defaultValue);
+    }
+    
+    public long getLong(String field, long defaultValue) {
+        JsonNode node = field(field);
+        return node == null ? defaultValue : node.asLong(defaultValue);
+    }
+    
+    public double getDouble(String field, double defaultValue) {
+        JsonNode node = field(field);
+        return node == null ? defaultValue : node.asDouble(defaultValue);
+    }
+    
+    public boolean getBoolean(String field, boolean defaultValue) {
+        JsonNode node = field(field);
+        return node == null ? defaultValue : node.asBoolean(defaultValue);
+    }
+    
+    /**
+     * 转换为指定类型，首次转换后缓存
+     *
+     * @param type 目标类型
+     * @return 转换结果（共享实例）
+     */
+    public <T> T as(Class<T> type) {
+        Object cached = typed.get(type);
+        if (cached == null) {
+            cached = typed.computeIfAbsent(type, this::convert);
+        }
+        return type.cast(cached);
+    }
+    
+    private Object convert(Class<?> type) {
+        try {
+            return objectMapper.treeToValue(data, type);
+        } catch (JsonProcessingException e) {
+            throw new ChamberlainClientException("Cannot convert config " + id + " to " + type.getName(), e);
+        }
+    }
+    
+    private JsonNode field(String field) {
+        JsonNode node = data == null ? null : data.get(field);
+        return node == null || node.isNull() ? null : node;
+    }
+    
+    @Override
+    public String toString() {
+        return "ConfigEntry{id=" + id + ", revision=" + revision + "}";
+    }
+}
@@ -0,0 +1,22 @@
+package com.chamberlain.client;
+
+/**
+ * 条件冲突策略，与服务端场景的 conditionConflictStrategy 一致
+ */
+public enum ConflictStrategy {
+    
+    /**
+     * 优先级策略：按场景声明的可用条件顺序匹配，高优先级条件命中者优先
+     */
+    PRIORITY,
+    
+    /**
+     * 最匹配策略：匹配条件最多者优先，条件数相同时按优先级
+     */
+    BEST_MATCH,
+    
+    /**
+     * 严格匹配策略：配置条件必须与请求条件完全一致
+     */
+    STRICT
+}
@@ -0,0 +1,69 @@
+package com.chamberlain.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 最后一次成功获取的配置的本地副本，服务端不可达时用于启动
+ * <p>
+ * 先写入同目录下的临时文件，再原子重命名覆盖，进程中途退出不会留下半个文件。
+ */
+final class LocalCacheFile {
+    
+    static final int FORMAT_VERSION = 1;
+    
+    private static final System.Logger LOG = System.getLogger(LocalCacheFile.class.getName());
+    
+    private final Path path;
+    private final ObjectMapper objectMapper;
+    
+    LocalCacheFile(Path path, ObjectMapper objectMapper) {
+        this.path = path;
+        this.objectMapper = objectMapper;
+    }
+    
+    Path path() {
+        return path;
+    }
+    
+    void write(Collection<Payloads.CachedScene> scenes) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try {
+            objectMapper.writeValue(temp.toFile(),
+                new Payloads.CacheFile(FORMAT_VERSION, System.currentTimeMillis(), List.copyOf(scenes)));
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+    
+    /**
+     * @return 缓存文件内容，文件不存在、格式版本不符或无法解析时为空
+     */
+    Optional<Payloads.CacheFile> read() {
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        try {
+            Payloads.CacheFile file = objectMapper.readValue(path.toFile(), Payloads.CacheFile.class);
+            if (file.version() != FORMAT_VERSION || file.scenes() == null) {
+                LOG.log(System.Logger.Level.WARNING, "Ignoring cache file {0} with format version {1}",
+                    path, file.version());
+                return Optional.empty();
+            }
+            return Optional.of(file);
+        } catch (IOException e) {
+            LOG.log(System.Logger.Level.WARNING, "Ignoring unreadable cache file " + path, e);
+            return Optional.empty();
+        }
+    }
+}
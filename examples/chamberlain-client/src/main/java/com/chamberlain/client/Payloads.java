@@ -0,0 +1,45 @@
+package com.chamberlain.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.List;
+
+/**
+ * 服务端响应和本地缓存文件共用的数据结构，字段与服务端 SceneResponse / ConfigResponse 同名
+ */
+final class Payloads {
+    
+    private Payloads() {
+    }
+    
+    record AvailableCondition(String key) {
+    }
+    
+    record Scene(String id, ConflictStrategy conditionConflictStrategy, List<AvailableCondition> availableConditions,
+                 Long revision) {
+    }
+    
+    record Condition(String key, String value) {
+    }
+    
+    record Config(String id, List<Condition> conditionList, Integer schemeVersion, Long revision, JsonNode config) {
+    }
+    
+    /**
+     * 条件 GET 的结果，未修改（304）时不构造
+     */
+    record Fetched<T>(T value, String etag) {
+    }
+    
+    /**
+     * 缓存文件中的单个场景
+     */
+    record CachedScene(Scene scene, String sceneETag, List<Config> configs, String configsETag) {
+    }
+    
+    /**
+     * 缓存文件内容
+     */
+    record CacheFile(int version, long savedAt, List<CachedScene> scenes) {
+    }
+}
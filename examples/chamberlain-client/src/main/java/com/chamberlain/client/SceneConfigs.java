@@ -0,0 +1,183 @@
+package com.chamberlain.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.*;
+
+/**
+ * 单个场景的配置（不可变），按场景的 {@link ConflictStrategy} 解析生效配置
+ * <p>
+ * 构建时按策略把配置排成解析顺序，解析时按顺序找到第一个条件全部命中的配置，
+ * 与服务端 ConfigResolveService 按优先级探测条件子集的结果一致。解析过程不分配对象、不加锁。
+ */
+public final class SceneConfigs {
+    
+    private final String sceneId;
+    private final ConflictStrategy strategy;
+    private final long revision;
+    
+    /**
+     * 至少被一个配置使用的条件 key，按优先级从高到低排列
+     */
+    private final List<String> keyPriority;
+    
+    /**
+     * 按解析顺序排列的配置
+     */
+    private final ConfigEntry[] ordered;
+    
+    /**
+     * 条件组合 -> 配置（STRICT 策略和精确查找）
+     */
+    private final Map<Conditions, ConfigEntry> exact;
+    
+    /**
+     * 构建来源，用于条件请求和写入本地缓存文件
+     */
+    private final Payloads.CachedScene source;
+    
+    SceneConfigs(Payloads.CachedScene source, ObjectMapper objectMapper) {
+        Payloads.Scene scene = source.scene();
+        this.sceneId = scene.id();
+        this.strategy = scene.conditionConflictStrategy() != null
+            ? scene.conditionConflictStrategy()
+            : ConflictStrategy.PRIORITY;
+        this.revision = scene.revision() == null ? 0 : scene.revision();
+        this.source = source;
+        
+        List<ConfigEntry> entries = new ArrayList<>(source.configs().size());
+        Map<Conditions, ConfigEntry> byConditions = new HashMap<>(source.configs().size() * 2);
+        Set<String> usedKeys = new TreeSet<>();
+        for (Payloads.Config config : source.configs()) {
+            ConfigEntry entry = new ConfigEntry(config, objectMapper);
+            entries.add(entry);
+            byConditions.put(entry.getConditions(), entry);
+            for (int i = 0; i < entry.getConditions().size(); i++) {
+                usedKeys.add(entry.getConditions().key(i));
+            }
+        }
+        this.exact = Collections.unmodifiableMap(byConditions);
+        
+        // 优先级：场景声明的可用条件顺序在前，其余按 key 字典序
+        List<String> priority = new ArrayList<>(usedKeys.size());
+        if (scene.availableConditions() != null) {
+            for (Payloads.AvailableCondition available : scene.availableConditions()) {
+                if (usedKeys.remove(available.key())) {
+                    priority.add(available.key());
+                }
+            }
+        }
+        priority.addAll(usedKeys);
+        this.keyPriority = List.copyOf(priority);
+        
+        Map<String, Integer> positions = new HashMap<>(priority.size() * 2);
+        for (int i = 0; i < priority.size(); i++) {
+            positions.put(priority.get(i), i);
+        }
+        Map<ConfigEntry, int[]> masks = new IdentityHashMap<>(entries.size());
+        entries.forEach(entry -> masks.put(entry, mask(entry.getConditions(), positions)));
+        Comparator<ConfigEntry> byMask = (a, b) -> compareMasks(masks.get(b), masks.get(a));
+        if (strategy == ConflictStrategy.BEST_MATCH) {
+            // 匹配条件最多者优先，条件数相同时按优先级
+            entries.sort(Comparator.<ConfigEntry>comparingInt(entry -> -entry.getConditions().size()).thenComparing(byMask));
+        } else {
+            entries.sort(byMask);
+        }
+        this.ordered = entries.toArray(new ConfigEntry[0]);
+    }
+    
+    public String getSceneId() {
+        return sceneId;
+    }
+    
+    public ConflictStrategy getStrategy() {
+        return strategy;
+    }
+    
+    /**
+     * @return 场景修订号
+     */
+    public long getRevision() {
+        return revision;
+    }
+    
+    public List<String> getKeyPriority() {
+        return keyPriority;
+    }
+    
+    /**
+     * @return 配置数
+     */
+    public int size() {
+        return ordered.length;
+    }
+    
+    /**
+     * 按场景的冲突策略解析生效配置
+     *
+     * @param conditions 请求条件
+     * @return 生效的配置，没有匹配时为 null
+     */
+    public ConfigEntry resolve(Conditions conditions) {
+        if (strategy == ConflictStrategy.STRICT) {
+            return exact.get(conditions);
+        }
+        for (ConfigEntry entry : ordered) {
+            if (entry.getConditions().isSubsetOf(conditions)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * 精确查找条件组合完全相同的配置
+     *
+     * @param conditions 条件组合
+     * @return 配置，不存在时为 null
+     */
+    public ConfigEntry get(Conditions conditions) {
+        return exact.get(conditions);
+    }
+    
+    Payloads.CachedScene source() {
+        return source;
+    }
+    
+    /**
+     * 条件 key 在优先级中的位置，升序排列
+     */
+    private static int[] mask(Conditions conditions, Map<String, Integer> positions) {
+        int[] mask = new int[conditions.size()];
+        for (int i = 0; i < mask.length; i++) {
+            mask[i] = positions.get(conditions.key(i));
+        }
+        Arrays.sort(mask);
+        return mask;
+    }
+    
+    /**
+     * 比较两个条件集合在服务端优先级掩码（最高优先级为最高位）下的大小
+     */
+    private static int compareMasks(int[] a, int[] b) {
+        for (int i = 0; i < Math.max(a.length, b.length); i++) {
+            if (i == a.length) {
+                return -1;
+            }
+            if (i == b.length) {
+                return 1;
+            }
+            if (a[i] != b[i]) {
+                // 位置越小优先级越高，先出现者对应的位更高
+                return a[i] < b[i] ? 1 : -1;
+            }
+        }
+        return 0;
+    }
+    
+    @Override
+    public String toString() {
+        return "SceneConfigs{sceneId=" + sceneId + ", strategy=" + strategy + ", revision=" + revision
+            + ", configs=" + ordered.length + "}";
+    }
+}
@@ -0,0 +1,149 @@
+package com.chamberlain.client;
+
+import com.chamberlain.ChamberlainApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 客户端集成测试，在进程内以 local 配置（H2 内存库）启动服务端
+ */
+class ChamberlainClientTest {
+    
+    private static final String SCENE_ID = "client_scene";
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    
+    @TempDir
+    Path tempDir;
+    
+    private ConfigurableApplicationContext server;
+    private String baseUrl;
+    
+    @BeforeEach
+    void setUp() throws Exception {
+        server = SpringApplication.run(ChamberlainApplication.class,
+            "--spring.profiles.active=local",
+            "--server.port=0",
+            "--spring.datasource.url=jdbc:h2:mem:chamberlain_client_" + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+            "--spring.jpa.show-sql=false",
+            "--logging.level.root=WARN",
+            "--logging.level.com.chamberlain=WARN",
+            "--logging.level.org.springframework.web=WARN",
+            "--logging.level.org.hibernate.SQL=WARN",
+            "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN");
+        baseUrl = "http://localhost:" + server.getEnvironment().getProperty("local.server.port");
+        
+        ObjectNode scene = objectMapper.createObjectNode()
+            .put("id", SCENE_ID)
+            .put("name", SCENE_ID);
+        scene.putArray("availableConditions").addObject().put("key", "environment");
+        scene.putObject("schema").put("type", "object")
+            .putObject("properties").putObject("port").put("type", "integer");
+        send("POST", "/api/scenes", scene);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.close();
+        }
+    }
+    
+    @Test
+    void testResolveAndRefresh() throws Exception {
+        createConfig(3306);
+        String production = createConfig(3307, "environment", "production");
+        
+        try (ChamberlainClient client = client(null).start()) {
+            Conditions productionConditions = Conditions.of("environment", "production");
+            assertEquals(3307, client.resolve(SCENE_ID, productionConditions).getInt("port", -1));
+            assertEquals(3306, client.resolve(SCENE_ID, Conditions.of("environment", "staging")).getInt("port", -1));
+            assertEquals(Map.of("port", 3307), client.resolve(SCENE_ID, productionConditions, Map.class));
+            assertThrows(ChamberlainClientException.class, () -> client.resolve("missing_scene", productionConditions));
+            
+            // 未变更时条件请求返回 304，保持原有实例
+            SceneConfigs before = client.scene(SCENE_ID);
+            assertFalse(client.refresh());
+            assertSame(before, client.scene(SCENE_ID));
+            
+            ObjectNode update = objectMapper.createObjectNode();
+            update.putObject("config").put("port", 3308);
+            send("PUT", "/api/configs/" + production, update);
+            assertTrue(client.refresh());
+            assertEquals(3308, client.resolve(SCENE_ID, productionConditions).getInt("port", -1));
+            assertTrue(client.scene(SCENE_ID).getRevision() > before.getRevision());
+        }
+    }
+    
+    @Test
+    void testFallsBackToCacheFileWhenServerIsDown() throws Exception {
+        createConfig(3306);
+        Path cacheFile = tempDir.resolve("cache/configs.json");
+        try (ChamberlainClient client = client(cacheFile).start()) {
+            assertEquals(3306, client.resolve(SCENE_ID, Conditions.empty()).getInt("port", -1));
+        }
+        assertTrue(Files.isRegularFile(cacheFile));
+        
+        server.close();
+        server = null;
+        try (ChamberlainClient client = client(cacheFile).start()) {
+            assertEquals(3306, client.resolve(SCENE_ID, Conditions.empty()).getInt("port", -1));
+            // 服务端不可达时刷新失败，保留已有数据
+            assertFalse(client.refresh());
+            assertEquals(3306, client.resolve(SCENE_ID, Conditions.empty()).getInt("port", -1));
+        }
+        
+        Files.delete(cacheFile);
+        assertThrows(ChamberlainClientException.class, () -> client(cacheFile).start());
+    }
+    
+    private ChamberlainClient client(Path cacheFile) {
+        return ChamberlainClient.builder()
+            .baseUrl(baseUrl)
+            .scenes(SCENE_ID)
+            .refreshInterval(Duration.ofHours(1))
+            .requestTimeout(Duration.ofSeconds(2))
+            .cacheFile(cacheFile)
+            .build();
+    }
+    
+    private String createConfig(int port, String... conditions) throws Exception {
+        ObjectNode request = objectMapper.createObjectNode()
+            .put("sceneId", SCENE_ID)
+            .put("schemeVersion", 1);
+        for (int i = 0; i < conditions.length; i += 2) {
+            request.withArray("conditions").addObject().put("key", conditions[i]).put("value", conditions[i + 1]);
+        }
+        request.putObject("config").put("port", port);
+        return send("POST", "/api/configs", request).path("data").path("id").asText();
+    }
+    
+    private JsonNode send(String method, String path, JsonNode body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .header("Content-Type", "application/json")
+            .method(method, HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+            .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        assertTrue(response.statusCode() < 300, () -> method + " " + path + ": " + response.body());
+        return objectMapper.readTree(response.body());
+    }
+}
@@ -0,0 +1,103 @@
+package com.chamberlain.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 场景配置解析语义测试
+ */
+class SceneConfigsTest {
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    @Test
+    void testPriorityFollowsAvailableConditionOrder() {
+        SceneConfigs scene = scene(ConflictStrategy.PRIORITY,
+            config(1, "environment", "production"),
+            config(2, "region", "us-east"),
+            config(3),
+            config(4, "environment", "production", "region", "us-east"));
+        
+        assertEquals(List.of("environment", "region"), scene.getKeyPriority());
+        assertEquals(4, port(scene, "environment", "production", "region", "us-east"));
+        assertEquals(1, port(scene, "environment", "production", "region", "eu-west"));
+        assertEquals(2, port(scene, "environment", "staging", "region", "us-east"));
+        assertEquals(3, port(scene, "environment", "staging"));
+        assertEquals(3, port(scene));
+    }
+    
+    @Test
+    void testPriorityPrefersHigherKeyOverMoreConditions() {
+        SceneConfigs scene = scene(ConflictStrategy.PRIORITY,
+            config(1, "environment", "production"),
+            config(2, "region", "us-east", "zone", "a"));
+        
+        assertEquals(1, port(scene, "environment", "production", "region", "us-east", "zone", "a"));
+    }
+    
+    @Test
+    void testBestMatchPrefersMoreConditions() {
+        SceneConfigs scene = scene(ConflictStrategy.BEST_MATCH,
+            config(1, "environment", "production"),
+            config(2, "region", "us-east", "zone", "a"),
+            config(3));
+        
+        assertEquals(2, port(scene, "environment", "production", "region", "us-east", "zone", "a"));
+        assertEquals(1, port(scene, "environment", "production", "region", "us-east"));
+        assertEquals(3, port(scene, "region", "us-east"));
+    }
+    
+    @Test
+    void testStrictRequiresExactMatch() {
+        SceneConfigs scene = scene(ConflictStrategy.STRICT,
+            config(1, "environment", "production"),
+            config(2));
+        
+        assertEquals(1, port(scene, "environment", "production"));
+        assertEquals(2, port(scene));
+        assertNull(scene.resolve(Conditions.of("environment", "production", "region", "us-east")));
+    }
+    
+    @Test
+    void testNoMatchWithoutDefault() {
+        SceneConfigs scene = scene(ConflictStrategy.PRIORITY, config(1, "environment", "production"));
+        
+        assertNull(scene.resolve(Conditions.of("environment", "staging")));
+        assertNull(scene.resolve(Conditions.empty()));
+    }
+    
+    @Test
+    void testConditionsAreOrderIndependent() {
+        assertEquals(Conditions.of("a", "1", "b", "2"), Conditions.of("b", "2", "a", "1"));
+        assertTrue(Conditions.of("a", "1").isSubsetOf(Conditions.of("b", "2", "a", "1")));
+        assertFalse(Conditions.of("a", "2").isSubsetOf(Conditions.of("b", "2", "a", "1")));
+        assertThrows(IllegalArgumentException.class, () -> Conditions.of("a", "1", "a", "2"));
+    }
+    
+    private int port(SceneConfigs scene, String... conditions) {
+        ConfigEntry entry = scene.resolve(Conditions.of(conditions));
+        assertNotNull(entry);
+        return entry.getInt("port", -1);
+    }
+    
+    private SceneConfigs scene(ConflictStrategy strategy, Payloads.Config... configs) {
+        Payloads.Scene scene = new Payloads.Scene("test_scene", strategy, List.of(
+            new Payloads.AvailableCondition("environment"),
+            new Payloads.AvailableCondition("region")), 1L);
+        return new SceneConfigs(new Payloads.CachedScene(scene, null, List.of(configs), null), objectMapper);
+    }
+    
+    private Payloads.Config config(int port, String... conditions) {
+        List<Payloads.Condition> conditionList = new ArrayList<>();
+        for (int i = 0; i < conditions.length; i += 2) {
+            conditionList.add(new Payloads.Condition(conditions[i], conditions[i + 1]));
+        }
+        return new Payloads.Config("test_scene:" + port, conditionList, 1, 1L,
+            objectMapper.createObjectNode().put("port", port));
+    }
+}
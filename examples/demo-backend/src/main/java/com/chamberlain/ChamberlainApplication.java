@@ -3,14 +3,19 @@ package com.chamberlain;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Chamberlain 后端服务启动类
  */
 @SpringBootApplication
 @EnableJpaAuditing
-@ComponentScan(basePackages = {"com.chamberlain"})
+@EnableScheduling
+// 响应式只读服务（com.chamberlain.reactive）是独立应用，与后端同进程运行（基准测试）时不扫描其组件
+@ComponentScan(basePackages = {"com.chamberlain"},
+    excludeFilters = @ComponentScan.Filter(type = FilterType.REGEX, pattern = "com\\.chamberlain\\.reactive\\..*"))
 public class ChamberlainApplication {
     
     public static void main(String[] args) {
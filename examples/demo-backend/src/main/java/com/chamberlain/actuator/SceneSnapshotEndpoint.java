@@ -0,0 +1,72 @@
+package com.chamberlain.actuator;
+
+import com.chamberlain.service.SceneSnapshotService;
+import com.chamberlain.service.SceneSnapshotService.SceneSnapshot;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 场景快照监控端点（/actuator/snapshots）
+ * <p>
+ * 输出快照规模、构建耗时、陈旧时间（距最后一次确认与数据库一致的时长）和快照文件状态，
+ * /actuator/snapshots/{sceneId} 输出单个场景的快照信息。
+ */
+@Component
+@Endpoint(id = "snapshots")
+@RequiredArgsConstructor
+public class SceneSnapshotEndpoint {
+    
+    private final SceneSnapshotService sceneSnapshotService;
+    
+    @ReadOperation
+    public Map<String, Object> snapshots() {
+        Instant now = Instant.now();
+        long scenes = 0;
+        long configs = 0;
+        Duration maxStaleness = Duration.ZERO;
+        for (SceneSnapshot snapshot : sceneSnapshotService.all()) {
+            scenes++;
+            configs += snapshot.configs().size();
+            Duration staleness = Duration.between(snapshot.verifiedAt(), now);
+            if (staleness.compareTo(maxStaleness) > 0) {
+                maxStaleness = staleness;
+            }
+        }
+        
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", sceneSnapshotService.isEnabled());
+        result.put("serving", sceneSnapshotService.isServing());
+        result.put("loadedAt", sceneSnapshotService.getLoadedAt());
+        result.put("loadMillis", sceneSnapshotService.getLoadDuration().toMillis());
+        result.put("scenes", scenes);
+        result.put("configs", configs);
+        result.put("maxStalenessMillis", maxStaleness.toMillis());
+        result.put("file", sceneSnapshotService.getFilePath());
+        result.put("restoredFromFile", sceneSnapshotService.isRestoredFromFile());
+        result.put("fileWrittenAt", sceneSnapshotService.getFileWrittenAt());
+        return result;
+    }
+    
+    @ReadOperation
+    public Map<String, Object> scene(@Selector String sceneId) {
+        return sceneSnapshotService.find(sceneId).map(snapshot -> {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("sceneId", sceneId);
+            result.put("revision", snapshot.revision());
+            result.put("configs", snapshot.configs().size());
+            result.put("builtAt", snapshot.builtAt());
+            result.put("buildMillis", snapshot.buildDuration().toMillis());
+            result.put("verifiedAt", snapshot.verifiedAt());
+            result.put("stalenessMillis", Duration.between(snapshot.verifiedAt(), Instant.now()).toMillis());
+            return result;
+        }).orElse(null);
+    }
+}
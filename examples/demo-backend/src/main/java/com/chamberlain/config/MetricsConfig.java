@@ -0,0 +1,46 @@
+package com.chamberlain.config;
+
+import com.chamberlain.metrics.RequestSqlMetricsFilter;
+import com.chamberlain.metrics.RequestSqlStatistics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 指标配置
+ * <p>
+ * chamberlain.metrics.sql.enabled 开启时（默认开启）启用 Hibernate 统计，并注册按请求累计的语句检查器、
+ * JDBC 计时监听器和统计实现，由 {@link RequestSqlMetricsFilter} 输出每个请求的 SQL 语句数、耗时和行数；
+ * chamberlain.metrics.sql.response-header 开启时同时输出 {@value RequestSqlMetricsFilter#HEADER} 响应头。
+ */
+@Configuration
+@ConditionalOnProperty(name = "chamberlain.metrics.sql.enabled", havingValue = "true", matchIfMissing = true)
+public class MetricsConfig {
+    
+    @Bean
+    public HibernatePropertiesCustomizer requestSqlStatisticsCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.GENERATE_STATISTICS, "true");
+            properties.put(AvailableSettings.STATS_BUILDER, RequestSqlStatistics.FACTORY);
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, RequestSqlStatistics.Inspector.INSTANCE);
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, RequestSqlStatistics.JdbcTimer.class.getName());
+            // 统计开启后 Hibernate 默认在每个 Session 结束时输出一条 INFO 日志
+            properties.put(AvailableSettings.LOG_SESSION_METRICS, "false");
+        };
+    }
+    
+    @Bean
+    public FilterRegistrationBean<RequestSqlMetricsFilter> requestSqlMetricsFilter(
+        MeterRegistry registry,
+        @Value("${chamberlain.metrics.sql.response-header:false}") boolean responseHeader) {
+        FilterRegistrationBean<RequestSqlMetricsFilter> registration =
+            new FilterRegistrationBean<>(new RequestSqlMetricsFilter(registry, responseHeader));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
@@ -0,0 +1,55 @@
+package com.chamberlain.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * 虚拟线程执行模式下的数据库并发限制
+ * <p>
+ * spring.threads.virtual.enabled=true 时，Spring Boot 让 Tomcat 请求处理、
+ * 异步任务（applicationTaskExecutor，含流式导出）和定时任务都运行在虚拟线程上。
+ * 请求不再受 Tomcat 线程池约束后，由 {@link ConcurrencyLimitedDataSource} 把同时持有的连接数限制在
+ * chamberlain.db.limiter.max-concurrency（默认等于连接池大小）以内。
+ */
+@Configuration
+@ConditionalOnProperty(name = "chamberlain.db.limiter.enabled", havingValue = "true")
+public class ThreadingConfig {
+    
+    @Bean
+    public static BeanPostProcessor concurrencyLimitedDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConcurrencyLimitedDataSource) {
+                    return bean;
+                }
+                int poolSize = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+                int maxConcurrency = environment.getProperty("chamberlain.db.limiter.max-concurrency", Integer.class, poolSize);
+                Duration acquireTimeout = environment.getProperty("chamberlain.db.limiter.acquire-timeout",
+                    Duration.class, Duration.ofSeconds(30));
+                return new ConcurrencyLimitedDataSource(dataSource, maxConcurrency, acquireTimeout);
+            }
+        };
+    }
+    
+    @Bean
+    public MeterBinder databaseLimiterMetrics(ObjectProvider<DataSource> dataSource) {
+        return registry -> dataSource.ifAvailable(source -> {
+            if (source instanceof ConcurrencyLimitedDataSource limited) {
+                Gauge.builder("chamberlain.db.limiter.active", limited, ConcurrencyLimitedDataSource::getActive)
+                    .register(registry);
+                Gauge.builder("chamberlain.db.limiter.waiting", limited, ConcurrencyLimitedDataSource::getWaiting)
+                    .register(registry);
+            }
+        });
+    }
+}
@@ -0,0 +1,43 @@
+package com.chamberlain.controller;
+
+import com.chamberlain.dto.common.ApiResponse;
+import com.chamberlain.dto.request.BatchCreateConfigRequest;
+import com.chamberlain.dto.request.BatchUpdateConfigRequest;
+import com.chamberlain.dto.response.BatchConfigResponse;
+import com.chamberlain.service.ConfigBatchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 配置批量操作控制器
+ * <p>
+ * 集合级自定义方法 /api/configs:batchXxx，与 {@link ConfigResolveController} 一样映射在 /api 下
+ */
+@RestController
+@RequestMapping("/api")
+@Tag(name = "Configs", description = "配置管理接口")
+@RequiredArgsConstructor
+@Validated
+public class ConfigBatchController {
+    
+    private final ConfigBatchService configBatchService;
+    
+    @PostMapping("/configs:batchCreate")
+    @Operation(summary = "批量创建配置", description = "在同一场景下批量创建配置，返回每个条目的结果")
+    public ApiResponse<BatchConfigResponse> batchCreate(@Valid @RequestBody BatchCreateConfigRequest request) {
+        return ApiResponse.success(configBatchService.batchCreate(request));
+    }
+    
+    @PostMapping("/configs:batchUpdate")
+    @Operation(summary = "批量更新配置", description = "在同一场景下批量更新配置，返回每个条目的结果")
+    public ApiResponse<BatchConfigResponse> batchUpdate(@Valid @RequestBody BatchUpdateConfigRequest request) {
+        return ApiResponse.success(configBatchService.batchUpdate(request));
+    }
+}
@@ -7,6 +7,7 @@ import com.chamberlain.dto.request.CreateConfigRequest;
 import com.chamberlain.dto.request.UpdateConfigRequest;
 import com.chamberlain.dto.response.ConfigResponse;
 import com.chamberlain.service.ConfigService;
+import com.chamberlain.util.KeysetCursor;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -14,6 +15,7 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 /**
  * 配置管理控制器
@@ -27,23 +29,49 @@ public class ConfigController {
     
     private final ConfigService configService;
     
+    /**
+     * 获取配置列表
+     * 传入 cursor 或 limit 时使用游标分页（推荐自动化程序使用），否则使用页码分页
+     * If-None-Match 与当前 ETag（场景修订号和配置数）一致时返回 304
+     */
     @GetMapping
-    @Operation(summary = "获取配置列表", description = "支持分页、按场景和版本过滤")
+    @Operation(summary = "获取配置列表", description = "支持分页、按场景和版本过滤；传入 cursor/limit 时使用游标分页，不返回总数，不支持 sort")
     public ApiResponse<PageResult<ConfigResponse>> list(
         @Parameter(description = "场景ID", required = true) @RequestParam String sceneId,
         @Parameter(description = "Scheme版本") @RequestParam(required = false) Integer schemeVersion,
         @Parameter(description = "页码") @RequestParam(defaultValue = "1") Integer page,
         @Parameter(description = "每页大小") @RequestParam(defaultValue = "10") Integer pageSize,
-        @Parameter(description = "排序字段:排序方向") @RequestParam(required = false) String sort
+        @Parameter(description = "排序字段:排序方向") @RequestParam(required = false) String sort,
+        @Parameter(description = "游标（上一页返回的 nextCursor）") @RequestParam(required = false) String cursor,
+        @Parameter(description = "游标分页每页大小") @RequestParam(required = false) Integer limit,
+        WebRequest webRequest
     ) {
+        String etag = configService.getListETag(sceneId);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        if (cursor != null || limit != null) {
+            KeysetCursor.checkSort(sort);
+            return ApiResponse.success(configService.listByCursor(sceneId, schemeVersion, cursor,
+                limit != null ? limit : pageSize));
+        }
         return ApiResponse.success(configService.list(sceneId, schemeVersion, page, pageSize, sort));
     }
     
+    /**
+     * 获取配置详情
+     * If-None-Match 与当前 ETag 一致时返回 304，只查询修订号，不加载和序列化 config_data
+     */
     @GetMapping("/{id}")
     @Operation(summary = "获取配置详情")
     public ApiResponse<ConfigResponse> getById(
-        @Parameter(description = "配置ID") @PathVariable String id
+        @Parameter(description = "配置ID") @PathVariable String id,
+        WebRequest webRequest
     ) {
+        String etag = configService.getETag(id);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
         return ApiResponse.success(configService.getById(id));
     }
     
@@ -0,0 +1,46 @@
+package com.chamberlain.controller;
+
+import com.chamberlain.dto.common.ApiResponse;
+import com.chamberlain.dto.response.ConfigResponse;
+import com.chamberlain.service.ConfigResolveService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 配置解析控制器
+ * <p>
+ * 集合级自定义方法 /api/configs:resolve 无法挂在 /api/configs 前缀下（Spring 会插入路径分隔符），
+ * 因此单独映射
+ */
+@RestController
+@RequestMapping("/api")
+@Tag(name = "Configs", description = "配置管理接口")
+@RequiredArgsConstructor
+public class ConfigResolveController {
+    
+    private final ConfigResolveService configResolveService;
+    
+    /**
+     * 解析生效配置（Google API 风格的自定义方法）
+     * 除 sceneId 外的查询参数均视为条件，如 ?sceneId=db&environment=production&region=eu
+     */
+    @GetMapping("/configs:resolve")
+    @Operation(summary = "解析生效配置", description = "按场景的条件冲突策略返回与给定条件匹配的配置")
+    public ApiResponse<ConfigResponse> resolve(
+        @Parameter(description = "场景ID", required = true) @RequestParam String sceneId,
+        @Parameter(description = "条件键值对") @RequestParam Map<String, String> params
+    ) {
+        Map<String, String> conditions = new HashMap<>(params);
+        conditions.remove("sceneId");
+        return ApiResponse.success(configResolveService.resolve(sceneId, conditions));
+    }
+}
@@ -3,23 +3,44 @@ package com.chamberlain.controller;
 import com.chamberlain.dto.common.ApiResponse;
 import com.chamberlain.dto.common.PageResult;
 import com.chamberlain.dto.request.CreateSceneRequest;
+import com.chamberlain.dto.request.SchemeImpactRequest;
 import com.chamberlain.dto.request.UpdateSceneRequest;
 import com.chamberlain.dto.request.UpdateSchemeRequest;
+import com.chamberlain.dto.request.UpdateSchemeStatusRequest;
+import com.chamberlain.dto.request.ValidateConfigRequest;
 import com.chamberlain.dto.request.ValidateSchemeRequest;
 import com.chamberlain.dto.response.SceneResponse;
+import com.chamberlain.dto.response.SchemeImpactResponse;
+import com.chamberlain.dto.response.ConfigWatchResponse;
 import com.chamberlain.dto.response.SchemeVersionResponse;
+import com.chamberlain.dto.response.ValidateConfigResponse;
 import com.chamberlain.dto.response.ValidateSchemeResponse;
+import com.chamberlain.service.ConfigExportService;
+import com.chamberlain.service.ConfigImportService;
+import com.chamberlain.service.ConfigService;
+import com.chamberlain.service.ConfigWatchService;
 import com.chamberlain.service.SceneService;
+import com.chamberlain.service.SchemeImpactService;
+import com.chamberlain.util.KeysetCursor;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Pattern;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPInputStream;
 
 /**
  * 场景管理控制器
@@ -32,24 +53,53 @@ import java.util.List;
 public class SceneController {
     
     private final SceneService sceneService;
+    private final ConfigExportService configExportService;
+    private final ConfigImportService configImportService;
+    private final ConfigWatchService configWatchService;
+    private final ConfigService configService;
+    private final SchemeImpactService schemeImpactService;
     
+    /**
+     * 获取场景列表
+     * 传入 cursor 或 limit 时使用游标分页（推荐自动化程序使用），否则使用页码分页
+     * If-None-Match 与当前 ETag 一致时返回 304
+     */
     @GetMapping
-    @Operation(summary = "获取场景列表", description = "支持分页、搜索和排序")
+    @Operation(summary = "获取场景列表", description = "支持分页、搜索和排序；传入 cursor/limit 时使用游标分页，不返回总数，不支持 sort")
     public ApiResponse<PageResult<SceneResponse>> list(
         @Parameter(description = "页码") @RequestParam(defaultValue = "1") Integer page,
         @Parameter(description = "每页大小") @RequestParam(defaultValue = "10") Integer pageSize,
         @Parameter(description = "搜索关键词") @RequestParam(required = false) String keyword,
-        @Parameter(description = "排序字段:排序方向") @RequestParam(required = false) String sort
+        @Parameter(description = "排序字段:排序方向") @RequestParam(required = false) String sort,
+        @Parameter(description = "游标（上一页返回的 nextCursor）") @RequestParam(required = false) String cursor,
+        @Parameter(description = "游标分页每页大小") @RequestParam(required = false) Integer limit,
+        WebRequest webRequest
     ) {
+        if (webRequest.checkNotModified(sceneService.getListETag())) {
+            return null;
+        }
+        if (cursor != null || limit != null) {
+            KeysetCursor.checkSort(sort);
+            return ApiResponse.success(sceneService.listByCursor(cursor, limit != null ? limit : pageSize, keyword));
+        }
         return ApiResponse.success(sceneService.list(page, pageSize, keyword, sort));
     }
     
+    /**
+     * 获取场景详情
+     * If-None-Match 与当前 ETag 一致时返回 304，只查询修订号，不加载场景和 Scheme
+     */
     @GetMapping("/{id}")
     @Operation(summary = "获取场景详情")
     public ApiResponse<SceneResponse> getById(
         @Parameter(description = "场景ID") 
-        @PathVariable @Pattern(regexp = "^[a-z0-9_]+$", message = "场景ID格式不正确") String id
+        @PathVariable @Pattern(regexp = "^[a-z0-9_]+$", message = "场景ID格式不正确") String id,
+        WebRequest webRequest
     ) {
+        String etag = sceneService.getETag(id);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
         return ApiResponse.success(sceneService.getById(id));
     }
     
@@ -84,6 +134,15 @@ public class SceneController {
         return ApiResponse.success(sceneService.validateScheme(id, request));
     }
     
+    @PostMapping("/{id}/schemes:impact")
+    @Operation(summary = "分析 Scheme 影响", description = "用候选 Schema 验证场景下的已有配置（不写入），返回失败数量和失败样本")
+    public ApiResponse<SchemeImpactResponse> analyzeSchemeImpact(
+        @Parameter(description = "场景ID") @PathVariable String id,
+        @Valid @RequestBody SchemeImpactRequest request
+    ) {
+        return ApiResponse.success(schemeImpactService.analyze(id, request));
+    }
+    
     @PostMapping("/{id}/schemes")
     @Operation(summary = "更新场景 Scheme", description = "创建新的 Scheme 版本")
     public ApiResponse<SchemeVersionResponse> updateScheme(
@@ -93,6 +152,17 @@ public class SceneController {
         return ApiResponse.success(sceneService.updateScheme(id, request));
     }
     
+    @PatchMapping("/{id}/schemes/{version}")
+    @Operation(summary = "激活/废弃 Scheme 版本",
+        description = "active 将版本激活为场景当前版本，旧版本配置读取时按升级转换升级；deprecated 废弃非当前版本")
+    public ApiResponse<SchemeVersionResponse> updateSchemeStatus(
+        @Parameter(description = "场景ID") @PathVariable String id,
+        @Parameter(description = "版本号") @PathVariable Integer version,
+        @Valid @RequestBody UpdateSchemeStatusRequest request
+    ) {
+        return ApiResponse.success(sceneService.updateSchemeStatus(id, version, request));
+    }
+    
     @GetMapping("/{id}/schemes")
     @Operation(summary = "获取场景的所有 Scheme 版本")
     public ApiResponse<List<SchemeVersionResponse>> getSchemeVersions(
@@ -100,5 +170,69 @@ public class SceneController {
     ) {
         return ApiResponse.success(sceneService.getSchemeVersions(id));
     }
+    
+    @PostMapping("/{id}/configs:validate")
+    @Operation(summary = "验证配置", description = "验证配置数据是否符合场景的 Scheme（不写入），返回全部错误")
+    public ApiResponse<ValidateConfigResponse> validateConfig(
+        @Parameter(description = "场景ID") @PathVariable String id,
+        @Valid @RequestBody ValidateConfigRequest request
+    ) {
+        return ApiResponse.success(configService.validate(id, request));
+    }
+    
+    /**
+     * 导出场景下的所有配置（NDJSON，每行一个配置）
+     * 响应体流式写出，不在内存中组装完整列表
+     */
+    @GetMapping("/{id}/configs:export")
+    @Operation(summary = "导出场景配置", description = "以 NDJSON 流式导出场景下的所有配置，gzip=true 时使用 gzip 压缩")
+    public ResponseEntity<StreamingResponseBody> exportConfigs(
+        @Parameter(description = "场景ID") @PathVariable String id,
+        @Parameter(description = "是否 gzip 压缩") @RequestParam(defaultValue = "false") boolean gzip
+    ) {
+        StreamingResponseBody body = configExportService.export(id, gzip);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(ConfigExportService.NDJSON_MEDIA_TYPE))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + id + "-configs.ndjson\"");
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+    
+    /**
+     * 导入配置（请求体为 NDJSON，每行一个配置）
+     * 按分块提交，响应为 NDJSON 进度事件：每个分块一行，最后一行汇总
+     */
+    @PostMapping(value = "/{id}/configs:import", produces = ConfigExportService.NDJSON_MEDIA_TYPE)
+    @Operation(summary = "导入场景配置",
+        description = "流式读取 NDJSON 请求体，逐行校验并按分块提交；strict=true 时遇到失败即终止，upsert=true 时覆盖已存在的配置")
+    public ResponseEntity<StreamingResponseBody> importConfigs(
+        @Parameter(description = "场景ID") @PathVariable String id,
+        @Parameter(description = "目标 Scheme 版本，默认为场景当前版本") @RequestParam(required = false) Integer schemeVersion,
+        @Parameter(description = "每个事务提交的行数") @RequestParam(required = false) Integer chunkSize,
+        @Parameter(description = "严格模式") @RequestParam(defaultValue = "false") boolean strict,
+        @Parameter(description = "覆盖已存在的配置") @RequestParam(defaultValue = "false") boolean upsert,
+        @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding,
+        InputStream body
+    ) throws IOException {
+        InputStream input = "gzip".equalsIgnoreCase(contentEncoding) ? new GZIPInputStream(body) : body;
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(ConfigExportService.NDJSON_MEDIA_TYPE))
+            .body(configImportService.importConfigs(id, schemeVersion, chunkSize, strict, upsert, input));
+    }
+    
+    /**
+     * 长轮询等待场景配置变更
+     * 场景修订号超过 sinceRevision 时立即返回，否则挂起请求（不占用线程）直到变更或超时
+     */
+    @GetMapping("/{id}/configs:watch")
+    @Operation(summary = "等待场景配置变更", description = "场景修订号超过 sinceRevision 时返回；超时返回 changed=false")
+    public CompletableFuture<ApiResponse<ConfigWatchResponse>> watchConfigs(
+        @Parameter(description = "场景ID") @PathVariable String id,
+        @Parameter(description = "客户端已知的修订号") @RequestParam long sinceRevision,
+        @Parameter(description = "等待时长，如 30s") @RequestParam(required = false) String timeout
+    ) {
+        return configWatchService.watch(id, sinceRevision, timeout).thenApply(ApiResponse::success);
+    }
 }
-
@@ -41,5 +41,12 @@ public class ApiResponse<T> {
     public static <T> ApiResponse<T> error(String code, String message) {
         return new ApiResponse<>(false, null, code, message);
     }
+    
+    /**
+     * 附带错误详情的失败响应
+     */
+    public static <T> ApiResponse<T> error(String code, String message, T data) {
+        return new ApiResponse<>(false, data, code, message);
+    }
 }
 
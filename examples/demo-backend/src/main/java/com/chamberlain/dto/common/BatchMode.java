@@ -0,0 +1,16 @@
+package com.chamberlain.dto.common;
+
+/**
+ * 批量操作事务模式
+ */
+public enum BatchMode {
+    /**
+     * 全部成功或全部不写入：任一条目失败则整批放弃
+     */
+    ALL_OR_NOTHING,
+    
+    /**
+     * 尽力而为：跳过失败条目，写入其余条目
+     */
+    BEST_EFFORT
+}
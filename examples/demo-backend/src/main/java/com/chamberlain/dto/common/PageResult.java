@@ -31,5 +31,8 @@ public class PageResult<T> {
     
     @Schema(description = "每页大小", example = "10")
     private Integer pageSize;
+    
+    @Schema(description = "下一页游标（仅游标分页模式），为空表示没有更多数据")
+    private String nextCursor;
 }
 
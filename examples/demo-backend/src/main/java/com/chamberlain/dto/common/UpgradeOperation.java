@@ -0,0 +1,57 @@
+package com.chamberlain.dto.common;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+/**
+ * Scheme 升级转换操作
+ * <p>
+ * 声明从上一版本升级到新版本时对配置数据做的转换，路径使用 JSON Pointer（RFC 6901），只支持对象属性
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Scheme 升级转换操作")
+public class UpgradeOperation {
+    
+    @NotNull(message = "转换类型不能为空")
+    @Schema(description = "转换类型：default 字段缺失时补默认值；rename 将 from 处的值移动到 path；remove 删除字段")
+    private Type op;
+    
+    @NotBlank(message = "转换路径不能为空")
+    @Schema(description = "目标路径（JSON Pointer）", example = "/database/port")
+    private String path;
+    
+    @Schema(description = "rename 的源路径（JSON Pointer）", example = "/port")
+    private String from;
+    
+    @Schema(description = "default 的默认值")
+    private JsonNode value;
+    
+    /**
+     * 转换类型
+     */
+    public enum Type {
+        /**
+         * 字段缺失时补默认值，缺失的上级对象一并创建
+         */
+        @JsonProperty("default")
+        DEFAULT,
+        
+        /**
+         * 将 from 处的值移动到 path，path 已有值时不覆盖
+         */
+        @JsonProperty("rename")
+        RENAME,
+        
+        /**
+         * 删除字段
+         */
+        @JsonProperty("remove")
+        REMOVE
+    }
+}
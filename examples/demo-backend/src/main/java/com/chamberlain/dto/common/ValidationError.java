@@ -0,0 +1,29 @@
+package com.chamberlain.dto.common;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 配置数据的 Schema 验证错误
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Schema 验证错误")
+public class ValidationError {
+    
+    @Schema(description = "出错位置（JSON Pointer），缺少必填字段时指向该字段", example = "/database/port")
+    private String pointer;
+    
+    @Schema(description = "未通过的 Schema 关键字", example = "type")
+    private String keyword;
+    
+    @Schema(description = "错误说明", example = "$.database.port: string found, integer expected")
+    private String message;
+}
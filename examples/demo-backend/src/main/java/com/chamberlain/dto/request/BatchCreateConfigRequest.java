@@ -0,0 +1,58 @@
+package com.chamberlain.dto.request;
+
+import com.chamberlain.dto.common.BatchMode;
+import com.chamberlain.entity.Config.Condition;
+import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批量创建配置请求
+ */
+@Data
+@Schema(description = "批量创建配置请求")
+public class BatchCreateConfigRequest {
+    
+    @NotBlank(message = "场景ID不能为空")
+    @Schema(description = "场景ID")
+    private String sceneId;
+    
+    @NotNull(message = "Scheme版本不能为空")
+    @Min(value = 1, message = "版本号必须大于0")
+    @Schema(description = "Scheme版本，所有条目共用")
+    private Integer schemeVersion;
+    
+    @Schema(description = "事务模式，默认全部成功或全部不写入")
+    private BatchMode mode = BatchMode.ALL_OR_NOTHING;
+    
+    @NotEmpty(message = "配置列表不能为空")
+    @Size(max = 1000, message = "单批最多 1000 条配置")
+    @Valid
+    @Schema(description = "配置列表")
+    private List<Item> items;
+    
+    /**
+     * 批量创建条目
+     */
+    @Data
+    public static class Item {
+        
+        @JsonAlias({"conditionList", "conditions"})
+        @Schema(description = "条件列表，空列表表示默认配置")
+        private List<Condition> conditions = new ArrayList<>();
+        
+        @NotNull(message = "配置数据不能为空")
+        @Schema(description = "配置数据，需符合对应 Scheme 的 JSON Schema")
+        private JsonNode config;
+    }
+}
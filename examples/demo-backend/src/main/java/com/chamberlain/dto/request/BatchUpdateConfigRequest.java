@@ -0,0 +1,56 @@
+package com.chamberlain.dto.request;
+
+import com.chamberlain.dto.common.BatchMode;
+import com.chamberlain.entity.Config.Condition;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 批量更新配置请求
+ */
+@Data
+@Schema(description = "批量更新配置请求")
+public class BatchUpdateConfigRequest {
+    
+    @NotBlank(message = "场景ID不能为空")
+    @Schema(description = "场景ID，所有条目必须属于该场景")
+    private String sceneId;
+    
+    @Min(value = 1, message = "版本号必须大于0")
+    @Schema(description = "目标 Scheme 版本，为空时各配置保持原版本")
+    private Integer schemeVersion;
+    
+    @Schema(description = "事务模式，默认全部成功或全部不写入")
+    private BatchMode mode = BatchMode.ALL_OR_NOTHING;
+    
+    @NotEmpty(message = "配置列表不能为空")
+    @Size(max = 1000, message = "单批最多 1000 条配置")
+    @Valid
+    @Schema(description = "配置列表")
+    private List<Item> items;
+    
+    /**
+     * 批量更新条目
+     */
+    @Data
+    public static class Item {
+        
+        @NotBlank(message = "配置ID不能为空")
+        @Schema(description = "配置ID")
+        private String id;
+        
+        @Schema(description = "条件列表")
+        private List<Condition> conditions;
+        
+        @Schema(description = "配置数据")
+        private JsonNode config;
+    }
+}
@@ -0,0 +1,40 @@
+package com.chamberlain.dto.request;
+
+import com.chamberlain.dto.common.UpgradeOperation;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Scheme 影响分析请求
+ */
+@Data
+@Schema(description = "Scheme 影响分析请求")
+public class SchemeImpactRequest {
+    
+    @NotNull(message = "JSON Schema 不能为空")
+    @Schema(description = "候选 JSON Schema")
+    private JsonNode schema;
+    
+    @Valid
+    @Schema(description = "发布时将声明的转换操作，验证前先作用于配置数据")
+    private List<UpgradeOperation> upgrade;
+    
+    @DecimalMin(value = "0.0", inclusive = false, message = "采样比例必须大于 0")
+    @DecimalMax(value = "1.0", message = "采样比例不能大于 1")
+    @Schema(description = "采样比例 (0, 1]，按配置 ID 哈希确定性采样", example = "1.0")
+    private Double sampleRatio = 1.0;
+    
+    @Min(value = 0, message = "失败样本数不能小于 0")
+    @Max(value = 100, message = "失败样本数不能超过 100")
+    @Schema(description = "最多返回的失败配置样本数", example = "20")
+    private Integer maxSamples = 20;
+}
@@ -1,10 +1,14 @@
 package com.chamberlain.dto.request;
 
+import com.chamberlain.dto.common.UpgradeOperation;
 import com.fasterxml.jackson.databind.JsonNode;
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
+import java.util.List;
+
 /**
  * 更新 Scheme 请求（创建新版本）
  */
@@ -18,5 +22,12 @@ public class UpdateSchemeRequest {
     
     @Schema(description = "变更说明")
     private String changeDescription;
+    
+    @Valid
+    @Schema(description = "从上一版本升级到新版本的转换操作，按顺序执行；旧版本配置读取时据此升级到当前版本")
+    private List<UpgradeOperation> upgrade;
+    
+    @Schema(description = "是否立即激活为场景当前版本，为 false 时创建草稿，之后通过 PATCH 激活")
+    private Boolean activate = true;
 }
 
@@ -0,0 +1,17 @@
+package com.chamberlain.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+/**
+ * 更新 Scheme 版本状态请求
+ */
+@Data
+@Schema(description = "更新 Scheme 版本状态请求")
+public class UpdateSchemeStatusRequest {
+    
+    @NotBlank(message = "状态不能为空")
+    @Schema(description = "目标状态：active 激活为场景当前版本；deprecated 废弃（不能废弃当前版本）", example = "active")
+    private String status;
+}
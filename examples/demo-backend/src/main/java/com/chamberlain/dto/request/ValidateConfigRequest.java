@@ -0,0 +1,23 @@
+package com.chamberlain.dto.request;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+/**
+ * 验证配置请求
+ */
+@Data
+@Schema(description = "验证配置请求")
+public class ValidateConfigRequest {
+    
+    @Min(value = 1, message = "版本号必须大于0")
+    @Schema(description = "Scheme版本，不传时使用场景当前版本")
+    private Integer schemeVersion;
+    
+    @NotNull(message = "配置数据不能为空")
+    @Schema(description = "待验证的配置数据")
+    private JsonNode config;
+}
@@ -0,0 +1,64 @@
+package com.chamberlain.dto.response;
+
+import com.chamberlain.dto.common.BatchMode;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 批量配置操作响应
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "批量配置操作响应")
+public class BatchConfigResponse {
+    
+    @Schema(description = "事务模式")
+    private BatchMode mode;
+    
+    @Schema(description = "是否已提交写入")
+    private Boolean committed;
+    
+    @Schema(description = "条目总数")
+    private Integer total;
+    
+    @Schema(description = "成功条目数")
+    private Integer succeeded;
+    
+    @Schema(description = "失败条目数")
+    private Integer failed;
+    
+    @Schema(description = "各条目结果，与请求顺序一致")
+    private List<ItemResult> results;
+    
+    /**
+     * 单个条目结果
+     */
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class ItemResult {
+        
+        @Schema(description = "条目在请求中的序号（从 0 开始）")
+        private Integer index;
+        
+        @Schema(description = "配置ID")
+        private String id;
+        
+        @Schema(description = "是否成功")
+        private Boolean success;
+        
+        @Schema(description = "错误码")
+        private String code;
+        
+        @Schema(description = "错误消息")
+        private String message;
+    }
+}
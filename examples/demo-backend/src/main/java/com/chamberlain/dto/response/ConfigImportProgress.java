@@ -0,0 +1,91 @@
+package com.chamberlain.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 配置导入进度事件
+ * 导入响应为 NDJSON：每个分块一行 CHUNK 事件，最后一行 SUMMARY 事件
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "配置导入进度事件")
+public class ConfigImportProgress {
+    
+    @Schema(description = "事件类型")
+    private Type type;
+    
+    @Schema(description = "分块序号（从 0 开始），仅 CHUNK 事件")
+    private Integer chunk;
+    
+    @Schema(description = "分块首行行号（从 1 开始），仅 CHUNK 事件")
+    private Long firstLine;
+    
+    @Schema(description = "分块末行行号，仅 CHUNK 事件")
+    private Long lastLine;
+    
+    @Schema(description = "分块是否已提交，仅 CHUNK 事件")
+    private Boolean committed;
+    
+    @Schema(description = "已读取的非空行数，仅 SUMMARY 事件")
+    private Long lines;
+    
+    @Schema(description = "已提交的分块数，仅 SUMMARY 事件")
+    private Integer committedChunks;
+    
+    @Schema(description = "是否因严格模式或分块写入失败而提前终止，仅 SUMMARY 事件")
+    private Boolean aborted;
+    
+    @Schema(description = "写入成功的配置数")
+    private Long imported;
+    
+    @Schema(description = "失败的行数")
+    private Long failed;
+    
+    @Schema(description = "行级错误（每个分块最多返回有限条），仅 CHUNK 事件")
+    private List<LineError> errors;
+    
+    /**
+     * 事件类型
+     */
+    public enum Type {
+        /**
+         * 一个分块处理完成
+         */
+        CHUNK,
+        
+        /**
+         * 导入结束
+         */
+        SUMMARY
+    }
+    
+    /**
+     * 行级错误
+     */
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class LineError {
+        
+        @Schema(description = "行号（从 1 开始）")
+        private Long line;
+        
+        @Schema(description = "配置ID（可解析时）")
+        private String id;
+        
+        @Schema(description = "错误码")
+        private String code;
+        
+        @Schema(description = "错误消息")
+        private String message;
+    }
+}
@@ -30,6 +30,9 @@ public class ConfigResponse {
     @Schema(description = "配置数据")
     private JsonNode config;
     
+    @Schema(description = "修订号")
+    private Long revision;
+    
     @Schema(description = "创建时间")
     private LocalDateTime createdAt;
     
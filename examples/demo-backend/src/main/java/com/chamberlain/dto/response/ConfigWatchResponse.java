@@ -0,0 +1,30 @@
+package com.chamberlain.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 配置变更长轮询响应
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "配置变更长轮询响应")
+public class ConfigWatchResponse {
+    
+    @Schema(description = "场景ID")
+    private String sceneId;
+    
+    @Schema(description = "场景当前修订号，下次请求作为 sinceRevision 传入")
+    private Long revision;
+    
+    @Schema(description = "修订号是否已超过 sinceRevision；为 false 表示等待超时")
+    private Boolean changed;
+    
+    @Schema(description = "场景已被删除")
+    private Boolean deleted;
+}
@@ -36,6 +36,9 @@ public class SceneResponse {
     @Schema(description = "当前激活的 JSON Schema（JSON 对象）")
     private Object currentScheme;
     
+    @Schema(description = "修订号")
+    private Long revision;
+    
     @Schema(description = "创建时间")
     private LocalDateTime createdAt;
     
@@ -0,0 +1,90 @@
+package com.chamberlain.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Schema 变更项
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Schema 变更项")
+public class SchemaChange {
+    
+    @Schema(description = "数据路径（JSON Pointer），数组元素和未声明字段记为 *", example = "/database/port")
+    private String path;
+    
+    @Schema(description = "变更类型")
+    private Kind kind;
+    
+    @Schema(description = "是否为破坏性变更：按旧 Schema 有效的数据可能在新 Schema 下无效")
+    private Boolean breaking;
+    
+    @Schema(description = "变更说明")
+    private String message;
+    
+    /**
+     * 变更类型
+     */
+    public enum Kind {
+        /**
+         * 删除字段
+         */
+        REMOVED,
+        
+        /**
+         * 新增字段
+         */
+        ADDED,
+        
+        /**
+         * 类型变更
+         */
+        TYPE_CHANGED,
+        
+        /**
+         * 字段变为必填
+         */
+        REQUIRED_ADDED,
+        
+        /**
+         * 字段不再必填
+         */
+        REQUIRED_REMOVED,
+        
+        /**
+         * enum / const 取值变更
+         */
+        ENUM_CHANGED,
+        
+        /**
+         * 约束收紧（数值范围、长度、数量、pattern、format 等）
+         */
+        CONSTRAINT_TIGHTENED,
+        
+        /**
+         * 约束放宽
+         */
+        CONSTRAINT_RELAXED,
+        
+        /**
+         * allOf / anyOf / oneOf 分支变更
+         */
+        COMPOSITION_CHANGED,
+        
+        /**
+         * 无法解析的 $ref 变更
+         */
+        REF_CHANGED,
+        
+        /**
+         * 其他关键字变更，无法判断兼容性
+         */
+        OTHER
+    }
+}
@@ -0,0 +1,63 @@
+package com.chamberlain.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Scheme 影响分析结果
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Scheme 影响分析结果")
+public class SchemeImpactResponse {
+    
+    @Schema(description = "场景下的配置总数")
+    private Long total;
+    
+    @Schema(description = "采样验证的配置数")
+    private Long checked;
+    
+    @Schema(description = "通过候选 Schema 验证的配置数")
+    private Long passed;
+    
+    @Schema(description = "未通过候选 Schema 验证的配置数")
+    private Long failed;
+    
+    @Schema(description = "采样比例")
+    private Double sampleRatio;
+    
+    @Schema(description = "按采样比例估算的全量失败配置数")
+    private Long estimatedFailed;
+    
+    @Schema(description = "失败配置样本（按配置 ID 排序，最多 maxSamples 条）")
+    private List<FailedConfig> samples;
+    
+    @Schema(description = "分析耗时（毫秒）")
+    private Long durationMs;
+    
+    /**
+     * 未通过验证的配置
+     */
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class FailedConfig {
+        
+        @Schema(description = "配置ID")
+        private String id;
+        
+        @Schema(description = "配置存储的 Scheme 版本")
+        private Integer schemeVersion;
+        
+        @Schema(description = "验证错误")
+        private List<String> errors;
+    }
+}
@@ -26,6 +26,9 @@ public class SchemeVersionResponse {
     @Schema(description = "JSON Schema 定义")
     private JsonNode schemaJson;
     
+    @Schema(description = "从上一版本升级的转换操作")
+    private JsonNode upgradeJson;
+    
     @Schema(description = "状态")
     private SchemeStatus status;
     
@@ -0,0 +1,30 @@
+package com.chamberlain.dto.response;
+
+import com.chamberlain.dto.common.ValidationError;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 验证配置响应
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "验证配置响应")
+public class ValidateConfigResponse {
+    
+    @Schema(description = "是否有效")
+    private Boolean valid;
+    
+    @Schema(description = "用于验证的 Scheme 版本")
+    private Integer schemeVersion;
+    
+    @Schema(description = "全部验证错误")
+    private List<ValidationError> errors;
+}
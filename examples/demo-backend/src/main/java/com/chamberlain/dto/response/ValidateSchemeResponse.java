@@ -21,9 +21,12 @@ public class ValidateSchemeResponse {
     @Schema(description = "是否有效")
     private Boolean valid;
     
-    @Schema(description = "警告信息列表")
+    @Schema(description = "警告信息列表（破坏性变更的说明）")
     private List<String> warnings;
     
+    @Schema(description = "结构化变更列表，包括非破坏性变更")
+    private List<SchemaChange> changes;
+    
     @Schema(description = "是否为破坏性变更")
     private Boolean isBreakingChange;
 }
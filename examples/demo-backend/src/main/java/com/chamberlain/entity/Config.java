@@ -2,13 +2,15 @@ package com.chamberlain.entity;
 
 import com.chamberlain.entity.base.BaseEntity;
 import com.chamberlain.entity.converter.ConditionListConverter;
-import com.chamberlain.entity.converter.JsonNodeConverter;
-import com.chamberlain.util.ConfigIdGenerator;
+import com.chamberlain.entity.converter.ConfigDataConverter;
+import com.chamberlain.entity.converter.Utf8JsonJdbcType;
+import com.chamberlain.util.CanonicalConditions;
 import com.chamberlain.util.ConditionHashUtil;
 import com.fasterxml.jackson.databind.JsonNode;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.JdbcType;
 
 import java.util.List;
 
@@ -19,9 +21,11 @@ import java.util.List;
 @Table(name = "configs", indexes = {
     @Index(name = "idx_scene_id", columnList = "scene_id"),
     @Index(name = "idx_scene_version", columnList = "scene_id,scheme_version"),
-    @Index(name = "idx_condition_hash", columnList = "condition_hash"),
     @Index(name = "idx_created_at", columnList = "created_at"),
-    @Index(name = "idx_updated_at", columnList = "updated_at")
+    @Index(name = "idx_updated_at", columnList = "updated_at"),
+    @Index(name = "idx_scene_updated", columnList = "scene_id,updated_at")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = "uk_scene_condition_hash", columnNames = {"scene_id", "condition_hash"})
 })
 @Data
 @EqualsAndHashCode(callSuper = true)
@@ -48,22 +52,30 @@ public class Config extends BaseEntity {
      * JSON 格式: [{"key": "environment", "value": "production"}]
      */
     @Convert(converter = ConditionListConverter.class)
+    @JdbcType(Utf8JsonJdbcType.class)
     @Column(name = "condition_list", columnDefinition = "JSON", nullable = false)
     private List<Condition> conditionList;
     
     /**
-     * 条件哈希值（用于快速查找）
+     * 条件哈希值（128 位，用于快速查找），与场景 ID 联合唯一
      */
-    @Column(name = "condition_hash", nullable = false, length = 64)
-    private String conditionHash;
+    @Column(name = "condition_hash", nullable = false, columnDefinition = "BINARY(16)")
+    private byte[] conditionHash;
     
     /**
      * 实际配置数据
      */
-    @Convert(converter = JsonNodeConverter.class)
+    @Convert(converter = ConfigDataConverter.class)
+    @JdbcType(Utf8JsonJdbcType.class)
     @Column(name = "config_data", columnDefinition = "JSON", nullable = false)
     private JsonNode configData;
     
+    /**
+     * 最后一次变更时所在场景的修订号
+     */
+    @Column(name = "revision", nullable = false)
+    private Long revision = 0L;
+    
     /**
      * 在持久化前自动生成 ID 和哈希
      */
@@ -71,9 +83,12 @@ public class Config extends BaseEntity {
     @PreUpdate
     public void generateIdAndHash() {
         if (this.id == null) {
-            this.id = ConfigIdGenerator.generate(sceneId, conditionList);
+            CanonicalConditions canonical = CanonicalConditions.of(sceneId, conditionList);
+            this.id = canonical.id();
+            this.conditionHash = canonical.hash();
+        } else {
+            this.conditionHash = ConditionHashUtil.hash(conditionList);
         }
-        this.conditionHash = ConditionHashUtil.hash(conditionList);
     }
     
     /**
@@ -2,10 +2,12 @@ package com.chamberlain.entity;
 
 import com.chamberlain.entity.base.BaseEntity;
 import com.chamberlain.entity.converter.AvailableConditionListConverter;
+import com.chamberlain.entity.converter.Utf8JsonJdbcType;
 import com.fasterxml.jackson.databind.JsonNode;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.JdbcType;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -17,7 +19,8 @@ import java.util.List;
 @Table(name = "scenes", indexes = {
     @Index(name = "idx_created_at", columnList = "created_at"),
     @Index(name = "idx_updated_at", columnList = "updated_at"),
-    @Index(name = "idx_name", columnList = "name")
+    @Index(name = "idx_name", columnList = "name"),
+    @Index(name = "idx_scenes_updated_id", columnList = "updated_at,id")
 })
 @Data
 @EqualsAndHashCode(callSuper = true)
@@ -38,6 +41,7 @@ public class Scene extends BaseEntity {
      * JSON 格式: [{"key": "environment", "name": "环境", "description": "...", "valueType": "string"}]
      */
     @Convert(converter = AvailableConditionListConverter.class)
+    @JdbcType(Utf8JsonJdbcType.class)
     @Column(name = "available_conditions", columnDefinition = "JSON")
     private List<AvailableCondition> availableConditions;
     
@@ -54,6 +58,13 @@ public class Scene extends BaseEntity {
     @Column(name = "current_scheme_version", nullable = false)
     private Integer currentSchemeVersion = 1;
     
+    /**
+     * 场景修订号，场景及其配置每次变更递增
+     * 只通过 {@link com.chamberlain.repository.SceneRepository#incrementRevision} 修改，实体更新不写入该列
+     */
+    @Column(name = "revision", nullable = false, updatable = false)
+    private Long revision = 0L;
+    
     /**
      * 关联的 Scheme 版本列表
      */
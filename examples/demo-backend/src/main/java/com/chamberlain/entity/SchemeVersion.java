@@ -1,9 +1,11 @@
 package com.chamberlain.entity;
 
 import com.chamberlain.entity.converter.JsonNodeConverter;
+import com.chamberlain.entity.converter.Utf8JsonJdbcType;
 import com.fasterxml.jackson.databind.JsonNode;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.JdbcType;
 import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -47,9 +49,18 @@ public class SchemeVersion implements Serializable {
      * JSON Schema 定义
      */
     @Convert(converter = JsonNodeConverter.class)
+    @JdbcType(Utf8JsonJdbcType.class)
     @Column(name = "schema_json", columnDefinition = "JSON", nullable = false)
     private JsonNode schemaJson;
     
+    /**
+     * 从上一版本升级到本版本的转换操作列表，为空时表示无需转换
+     */
+    @Convert(converter = JsonNodeConverter.class)
+    @JdbcType(Utf8JsonJdbcType.class)
+    @Column(name = "upgrade_json", columnDefinition = "JSON")
+    private JsonNode upgradeJson;
+    
     /**
      * 版本状态
      */
@@ -1,53 +1,61 @@
 package com.chamberlain.entity.converter;
 
 import com.chamberlain.entity.Scene.AvailableCondition;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.AttributeConverter;
 import jakarta.persistence.Converter;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
- * AvailableCondition 列表转换器
+ * AvailableCondition 列表转换器，列值为 UTF-8 字节（见 {@link Utf8JsonJdbcType}）
  */
 @Converter
 @Slf4j
-public class AvailableConditionListConverter implements AttributeConverter<List<AvailableCondition>, String> {
+public class AvailableConditionListConverter implements AttributeConverter<List<AvailableCondition>, byte[]> {
     
-    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private final JsonColumnCodec codec;
+    
+    public AvailableConditionListConverter() {
+        this(JsonColumnCodec.DEFAULT_MAPPER);
+    }
+    
+    /**
+     * 由 Hibernate 通过 Spring 容器创建时注入全局 ObjectMapper
+     */
+    @Autowired
+    public AvailableConditionListConverter(ObjectMapper objectMapper) {
+        this.codec = new JsonColumnCodec(objectMapper,
+            objectMapper.getTypeFactory().constructCollectionType(List.class, AvailableCondition.class),
+            "available_conditions");
+    }
     
     @Override
-    public String convertToDatabaseColumn(List<AvailableCondition> attribute) {
+    public byte[] convertToDatabaseColumn(List<AvailableCondition> attribute) {
         if (attribute == null || attribute.isEmpty()) {
             return null;
         }
         try {
-            return objectMapper.writeValueAsString(attribute);
-        } catch (JsonProcessingException e) {
-            log.error("Error converting AvailableCondition list to JSON string", e);
+            return codec.write(attribute);
+        } catch (IOException e) {
+            log.error("Error converting AvailableCondition list to JSON", e);
             throw new IllegalArgumentException("Error converting AvailableCondition list to JSON", e);
         }
     }
     
     @Override
-    public List<AvailableCondition> convertToEntityAttribute(String dbData) {
-        if (dbData == null || dbData.isEmpty()) {
+    public List<AvailableCondition> convertToEntityAttribute(byte[] dbData) {
+        if (dbData == null || dbData.length == 0) {
             return null;
         }
         try {
-            // 处理 H2 数据库的双重转义问题
-            String jsonData = dbData;
-            if (dbData.startsWith("\"") && dbData.endsWith("\"")) {
-                jsonData = objectMapper.readValue(dbData, String.class);
-            }
-            return objectMapper.readValue(jsonData, new TypeReference<List<AvailableCondition>>() {});
-        } catch (JsonProcessingException e) {
-            log.error("Error converting JSON string to AvailableCondition list: {}", dbData, e);
+            return codec.read(dbData);
+        } catch (IOException e) {
+            log.error("Error converting JSON to AvailableCondition list", e);
             throw new IllegalArgumentException("Error converting JSON to AvailableCondition list", e);
         }
     }
 }
-
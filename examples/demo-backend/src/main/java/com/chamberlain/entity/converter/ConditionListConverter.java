@@ -1,53 +1,63 @@
 package com.chamberlain.entity.converter;
 
 import com.chamberlain.entity.Config.Condition;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.AttributeConverter;
 import jakarta.persistence.Converter;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 /**
- * Condition 列表转换器
+ * Condition 列表转换器，列值为 UTF-8 字节（见 {@link Utf8JsonJdbcType}）
  */
 @Converter
 @Slf4j
-public class ConditionListConverter implements AttributeConverter<List<Condition>, String> {
+public class ConditionListConverter implements AttributeConverter<List<Condition>, byte[]> {
     
-    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final byte[] EMPTY_LIST = "[]".getBytes(StandardCharsets.UTF_8);
+    
+    private final JsonColumnCodec codec;
+    
+    public ConditionListConverter() {
+        this(JsonColumnCodec.DEFAULT_MAPPER);
+    }
+    
+    /**
+     * 由 Hibernate 通过 Spring 容器创建时注入全局 ObjectMapper
+     */
+    @Autowired
+    public ConditionListConverter(ObjectMapper objectMapper) {
+        this.codec = new JsonColumnCodec(objectMapper,
+            objectMapper.getTypeFactory().constructCollectionType(List.class, Condition.class), "condition_list");
+    }
     
     @Override
-    public String convertToDatabaseColumn(List<Condition> attribute) {
+    public byte[] convertToDatabaseColumn(List<Condition> attribute) {
         if (attribute == null || attribute.isEmpty()) {
-            return "[]";
+            return EMPTY_LIST.clone();
         }
         try {
-            return objectMapper.writeValueAsString(attribute);
-        } catch (JsonProcessingException e) {
-            log.error("Error converting Condition list to JSON string", e);
+            return codec.write(attribute);
+        } catch (IOException e) {
+            log.error("Error converting Condition list to JSON", e);
             throw new IllegalArgumentException("Error converting Condition list to JSON", e);
         }
     }
     
     @Override
-    public List<Condition> convertToEntityAttribute(String dbData) {
-        if (dbData == null || dbData.isEmpty()) {
+    public List<Condition> convertToEntityAttribute(byte[] dbData) {
+        if (dbData == null || dbData.length == 0) {
             return List.of();
         }
         try {
-            // 处理 H2 数据库的双重转义问题
-            String jsonData = dbData;
-            if (dbData.startsWith("\"") && dbData.endsWith("\"")) {
-                jsonData = objectMapper.readValue(dbData, String.class);
-            }
-            return objectMapper.readValue(jsonData, new TypeReference<List<Condition>>() {});
-        } catch (JsonProcessingException e) {
-            log.error("Error converting JSON string to Condition list: {}", dbData, e);
+            return codec.read(dbData);
+        } catch (IOException e) {
+            log.error("Error converting JSON to Condition list", e);
             throw new IllegalArgumentException("Error converting JSON to Condition list", e);
         }
     }
 }
-
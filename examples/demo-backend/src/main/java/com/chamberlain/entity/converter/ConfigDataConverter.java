@@ -0,0 +1,25 @@
+package com.chamberlain.entity.converter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.Converter;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * configs.config_data 列的转换器，与 {@link JsonNodeConverter} 相同，
+ * 指标以 column=config_data 单独输出，用于观察配置数据大小的分布
+ */
+@Converter
+public class ConfigDataConverter extends JsonNodeConverter {
+    
+    public ConfigDataConverter() {
+        this(JsonColumnCodec.DEFAULT_MAPPER);
+    }
+    
+    /**
+     * 由 Hibernate 通过 Spring 容器创建时注入全局 ObjectMapper
+     */
+    @Autowired
+    public ConfigDataConverter(ObjectMapper objectMapper) {
+        super(objectMapper, "config_data");
+    }
+}
@@ -0,0 +1,125 @@
+package com.chamberlain.entity.converter;
+
+import com.chamberlain.metrics.ChamberlainMetrics;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON 列的 UTF-8 字节编解码
+ * <p>
+ * 列值以 UTF-8 字节读写，Jackson 直接解析驱动返回的字节，不经过中间 String。
+ * 早期以 String 绑定写入 H2 JSON 列的数据会被存成 JSON 字符串（整段 JSON 被转义后加引号），
+ * 读取时若首个 token 是字符串，则直接在其字符缓冲区上解析内层 JSON，不再额外反序列化成 String。
+ * <p>
+ * 编解码耗时和字节数按列记录到全局指标注册表（转换器由 Hibernate 创建，Spring Boot 会把应用的注册表加入全局注册表）。
+ */
+final class JsonColumnCodec {
+    
+    /**
+     * 无 Spring 容器时（Flyway Java 迁移、基准测试）使用的默认 ObjectMapper
+     */
+    static final ObjectMapper DEFAULT_MAPPER = new ObjectMapper();
+    
+    private final ObjectMapper objectMapper;
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+    
+    private final Timer readTimer;
+    private final Timer writeTimer;
+    private final DistributionSummary readSize;
+    private final DistributionSummary writeSize;
+    
+    /**
+     * @param objectMapper ObjectMapper
+     * @param type         属性类型
+     * @param column       指标中的 column 标签
+     */
+    JsonColumnCodec(ObjectMapper objectMapper, JavaType type, String column) {
+        this.objectMapper = objectMapper;
+        this.reader = objectMapper.readerFor(type);
+        this.writer = objectMapper.writerFor(type);
+        this.readTimer = timer(column, "read");
+        this.writeTimer = timer(column, "write");
+        this.readSize = size(column, "read");
+        this.writeSize = size(column, "write");
+    }
+    
+    /**
+     * @param value 属性值，不能为 null
+     * @return UTF-8 JSON 字节
+     */
+    byte[] write(Object value) throws IOException {
+        long start = System.nanoTime();
+        byte[] data = writer.writeValueAsBytes(value);
+        writeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        writeSize.record(data.length);
+        return data;
+    }
+    
+    /**
+     * @param data UTF-8 JSON 字节，不能为空
+     * @return 属性值
+     */
+    <T> T read(byte[] data) throws IOException {
+        long start = System.nanoTime();
+        try {
+            return decode(data);
+        } finally {
+            readTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            readSize.record(data.length);
+        }
+    }
+    
+    private <T> T decode(byte[] data) throws IOException {
+        try (JsonParser parser = objectMapper.createParser(data)) {
+            if (parser.nextToken() != JsonToken.VALUE_STRING || !isWrappedJson(parser)) {
+                return reader.readValue(parser);
+            }
+            // H2 旧数据：JSON 字符串内才是实际 JSON
+            try (JsonParser inner = objectMapper.createParser(
+                     parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength())) {
+                return reader.readValue(inner);
+            }
+        }
+    }
+    
+    private static Timer timer(String column, String operation) {
+        return Timer.builder(ChamberlainMetrics.JSON_CODEC)
+            .tags("column", column, "operation", operation)
+            .publishPercentileHistogram()
+            .register(Metrics.globalRegistry);
+    }
+    
+    private static DistributionSummary size(String column, String operation) {
+        return DistributionSummary.builder(ChamberlainMetrics.JSON_CODEC_SIZE)
+            .baseUnit("bytes")
+            .tags("column", column, "operation", operation)
+            .publishPercentileHistogram()
+            .register(Metrics.globalRegistry);
+    }
+    
+    /**
+     * 字符串内容是否为对象或数组，避免把值本身就是字符串的 JSON 列误当作转义数据
+     */
+    private static boolean isWrappedJson(JsonParser parser) throws IOException {
+        char[] text = parser.getTextCharacters();
+        int end = parser.getTextOffset() + parser.getTextLength();
+        for (int i = parser.getTextOffset(); i < end; i++) {
+            char c = text[i];
+            if (!Character.isWhitespace(c)) {
+                return c == '{' || c == '[';
+            }
+        }
+        return false;
+    }
+}
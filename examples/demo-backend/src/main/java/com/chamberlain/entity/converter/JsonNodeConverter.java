@@ -1,46 +1,67 @@
 package com.chamberlain.entity.converter;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.AttributeConverter;
 import jakarta.persistence.Converter;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.IOException;
 
 /**
  * JsonNode 类型转换器
- * 用于在实体类和数据库之间转换 Jackson JsonNode 对象
+ * 用于在实体类和数据库之间转换 Jackson JsonNode 对象，列值为 UTF-8 字节（见 {@link Utf8JsonJdbcType}）
  */
 @Converter
 @Slf4j
-public class JsonNodeConverter implements AttributeConverter<JsonNode, String> {
+public class JsonNodeConverter implements AttributeConverter<JsonNode, byte[]> {
+    
+    private final JsonColumnCodec codec;
+    
+    public JsonNodeConverter() {
+        this(JsonColumnCodec.DEFAULT_MAPPER);
+    }
     
-    private static final ObjectMapper objectMapper = new ObjectMapper();
+    /**
+     * 由 Hibernate 通过 Spring 容器创建时注入全局 ObjectMapper
+     */
+    @Autowired
+    public JsonNodeConverter(ObjectMapper objectMapper) {
+        this(objectMapper, "json_node");
+    }
+    
+    /**
+     * @param objectMapper ObjectMapper
+     * @param column       指标中的 column 标签
+     */
+    protected JsonNodeConverter(ObjectMapper objectMapper, String column) {
+        this.codec = new JsonColumnCodec(objectMapper, objectMapper.constructType(JsonNode.class), column);
+    }
     
     @Override
-    public String convertToDatabaseColumn(JsonNode attribute) {
+    public byte[] convertToDatabaseColumn(JsonNode attribute) {
         if (attribute == null) {
             return null;
         }
         try {
-            return objectMapper.writeValueAsString(attribute);
-        } catch (JsonProcessingException e) {
-            log.error("Error converting JsonNode to JSON string", e);
-            throw new IllegalArgumentException("Error converting JsonNode to JSON string", e);
+            return codec.write(attribute);
+        } catch (IOException e) {
+            log.error("Error converting JsonNode to JSON", e);
+            throw new IllegalArgumentException("Error converting JsonNode to JSON", e);
         }
     }
     
     @Override
-    public JsonNode convertToEntityAttribute(String dbData) {
-        if (dbData == null || dbData.isEmpty()) {
+    public JsonNode convertToEntityAttribute(byte[] dbData) {
+        if (dbData == null || dbData.length == 0) {
             return null;
         }
         try {
-            return objectMapper.readTree(dbData);
-        } catch (JsonProcessingException e) {
-            log.error("Error converting JSON string to JsonNode", e);
-            throw new IllegalArgumentException("Error converting JSON string to JsonNode", e);
+            return codec.read(dbData);
+        } catch (IOException e) {
+            log.error("Error converting JSON to JsonNode", e);
+            throw new IllegalArgumentException("Error converting JSON to JsonNode", e);
         }
     }
 }
-
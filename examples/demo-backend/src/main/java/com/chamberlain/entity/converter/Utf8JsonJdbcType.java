@@ -0,0 +1,55 @@
+package com.chamberlain.entity.converter;
+
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.type.descriptor.ValueBinder;
+import org.hibernate.type.descriptor.WrapperOptions;
+import org.hibernate.type.descriptor.java.JavaType;
+import org.hibernate.type.descriptor.jdbc.BasicBinder;
+import org.hibernate.type.descriptor.jdbc.VarbinaryJdbcType;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * 以 UTF-8 字节读写的 JSON 列
+ * <p>
+ * 与 {@link JsonNodeConverter} 等字节转换器配合使用（{@code @JdbcType(Utf8JsonJdbcType.class)}）。
+ * 读取直接取驱动返回的字节；写入时 H2 按字节绑定（H2 将 VARBINARY 解析为 JSON 文本，
+ * 而 VARCHAR 会被当作 JSON 字符串转义存储），MySQL 拒绝 binary 字符集的值写入 JSON 列，因此按字符串绑定。
+ */
+public class Utf8JsonJdbcType extends VarbinaryJdbcType {
+    
+    @Override
+    public <X> ValueBinder<X> getBinder(JavaType<X> javaType) {
+        return new BasicBinder<>(javaType, this) {
+            
+            @Override
+            protected void doBind(PreparedStatement st, X value, int index, WrapperOptions options)
+                    throws SQLException {
+                byte[] bytes = javaType.unwrap(value, byte[].class, options);
+                if (bindsAsText(options)) {
+                    st.setString(index, new String(bytes, StandardCharsets.UTF_8));
+                } else {
+                    st.setBytes(index, bytes);
+                }
+            }
+            
+            @Override
+            protected void doBind(CallableStatement st, X value, String name, WrapperOptions options)
+                    throws SQLException {
+                byte[] bytes = javaType.unwrap(value, byte[].class, options);
+                if (bindsAsText(options)) {
+                    st.setString(name, new String(bytes, StandardCharsets.UTF_8));
+                } else {
+                    st.setBytes(name, bytes);
+                }
+            }
+        };
+    }
+    
+    private static boolean bindsAsText(WrapperOptions options) {
+        return options.getSessionFactory().getJdbcServices().getDialect() instanceof MySQLDialect;
+    }
+}
@@ -1,6 +1,7 @@
 package com.chamberlain.exception;
 
 import com.chamberlain.dto.common.ApiResponse;
+import com.chamberlain.dto.common.ValidationError;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -10,6 +11,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
+import java.util.List;
 import java.util.stream.Collectors;
 
 /**
@@ -42,14 +44,14 @@ public class GlobalExceptionHandler {
     }
     
     /**
-     * 处理验证异常
+     * 处理验证异常，Schema 验证失败时 data 为结构化错误列表
      */
     @ExceptionHandler(ValidationException.class)
-    public ResponseEntity<ApiResponse<Void>> handleValidationException(ValidationException ex) {
+    public ResponseEntity<ApiResponse<List<ValidationError>>> handleValidationException(ValidationException ex) {
         log.warn("Validation exception: {} - {}", ex.getCode(), ex.getMessage());
         return ResponseEntity
             .status(HttpStatus.BAD_REQUEST)
-            .body(ApiResponse.error(ex.getCode(), ex.getMessage()));
+            .body(ApiResponse.error(ex.getCode(), ex.getMessage(), ex.getErrors()));
     }
     
     /**
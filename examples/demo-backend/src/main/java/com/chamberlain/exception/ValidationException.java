@@ -1,7 +1,10 @@
 package com.chamberlain.exception;
 
+import com.chamberlain.dto.common.ValidationError;
 import lombok.Getter;
 
+import java.util.List;
+
 /**
  * 验证异常
  */
@@ -10,14 +13,25 @@ public class ValidationException extends RuntimeException {
     
     private final String code;
     
+    /**
+     * 配置数据的结构化验证错误，仅 Schema 验证失败时存在
+     */
+    private final List<ValidationError> errors;
+    
     public ValidationException(String code, String message) {
-        super(message);
-        this.code = code;
+        this(code, message, (List<ValidationError>) null);
     }
     
     public ValidationException(String code, String message, Throwable cause) {
         super(message, cause);
         this.code = code;
+        this.errors = null;
+    }
+    
+    public ValidationException(String code, String message, List<ValidationError> errors) {
+        super(message);
+        this.code = code;
+        this.errors = errors;
     }
 }
 
@@ -27,6 +27,7 @@ public interface ConfigMapper {
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "createdBy", ignore = true)
     @Mapping(target = "updatedBy", ignore = true)
+    @Mapping(target = "revision", ignore = true)
     Config toEntity(CreateConfigRequest request);
     
     /**
@@ -52,6 +53,7 @@ public interface ConfigMapper {
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "createdBy", ignore = true)
     @Mapping(target = "updatedBy", ignore = true)
+    @Mapping(target = "revision", ignore = true)
     void updateEntityFromRequest(UpdateConfigRequest request, @MappingTarget Config config);
 }
 
@@ -26,6 +26,7 @@ public interface SceneMapper {
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "createdBy", ignore = true)
     @Mapping(target = "updatedBy", ignore = true)
+    @Mapping(target = "revision", ignore = true)
     Scene toEntity(CreateSceneRequest request);
     
     /**
@@ -38,6 +39,11 @@ public interface SceneMapper {
      */
     List<SceneResponse> toResponseList(List<Scene> scenes);
     
+    /**
+     * Response 浅拷贝（currentScheme 等引用共享）
+     */
+    SceneResponse copy(SceneResponse response);
+    
     /**
      * UpdateRequest -> Entity (更新现有实体)
      */
@@ -48,6 +54,7 @@ public interface SceneMapper {
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "createdBy", ignore = true)
     @Mapping(target = "updatedBy", ignore = true)
+    @Mapping(target = "revision", ignore = true)
     void updateEntityFromRequest(UpdateSceneRequest request, @MappingTarget Scene scene);
     
     /**
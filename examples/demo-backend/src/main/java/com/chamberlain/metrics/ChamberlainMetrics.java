@@ -0,0 +1,99 @@
+package com.chamberlain.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Chamberlain 指标名称和公共标签
+ * <p>
+ * 场景 ID 只有在 chamberlain.metrics.scenes 白名单中时才作为标签值输出，其余场景统一记为 {@link #OTHER_SCENE}，
+ * 避免数千个场景时 Prometheus 抓取的时间序列数随场景数增长。
+ */
+@Component
+public class ChamberlainMetrics {
+    
+    /**
+     * 服务操作耗时，标签：service、operation、scene、outcome、exception
+     */
+    public static final String SERVICE_OPERATIONS = "chamberlain.service.operations";
+    
+    /**
+     * Schema 编译耗时，标签：source（cache：按 Scheme 版本缓存未命中；adhoc：未缓存的临时编译）
+     */
+    public static final String SCHEMA_COMPILE = "chamberlain.schema.compile";
+    
+    /**
+     * 使用已编译 Schema 验证数据的耗时，标签：outcome（valid / invalid / error）
+     */
+    public static final String SCHEMA_VALIDATE = "chamberlain.schema.validate";
+    
+    /**
+     * Scheme 版本和候选 Schema 的差异计算耗时（差异缓存未命中时）
+     */
+    public static final String SCHEMA_DIFF = "chamberlain.schema.diff";
+    
+    /**
+     * JSON 列编解码耗时，标签：column、operation（read / write）
+     */
+    public static final String JSON_CODEC = "chamberlain.json.codec";
+    
+    /**
+     * JSON 列字节数，标签：column、operation；column=config_data 即配置数据大小
+     */
+    public static final String JSON_CODEC_SIZE = "chamberlain.json.codec.size";
+    
+    /**
+     * 每个请求执行的 SQL 语句数、JDBC 耗时、查询返回行数和加载的实体数，标签：method、uri
+     */
+    public static final String REQUEST_SQL_STATEMENTS = "chamberlain.request.sql.statements";
+    public static final String REQUEST_SQL_TIME = "chamberlain.request.sql.time";
+    public static final String REQUEST_SQL_ROWS = "chamberlain.request.sql.rows";
+    public static final String REQUEST_SQL_ENTITIES = "chamberlain.request.sql.entities";
+    
+    /**
+     * 旧版本配置升级到场景当前 Scheme 版本的次数，标签：outcome（upgraded：读取时在内存中升级；
+     * failed：转换后未通过当前版本验证，按原版本返回；persisted：升级结果写回数据库）
+     */
+    public static final String CONFIG_UPGRADES = "chamberlain.config.upgrades";
+    
+    /**
+     * 缓存读取次数，与 Micrometer 缓存绑定器同名，标签：cache、result（hit / miss）
+     */
+    public static final String CACHE_GETS = "cache.gets";
+    
+    public static final String OTHER_SCENE = "other";
+    public static final String NO_SCENE = "none";
+    
+    private final MeterRegistry registry;
+    private final Set<String> scenes;
+    
+    public ChamberlainMetrics(MeterRegistry registry,
+                              @Value("${chamberlain.metrics.scenes:}") List<String> scenes) {
+        this.registry = registry;
+        this.scenes = Set.copyOf(scenes);
+    }
+    
+    public MeterRegistry getRegistry() {
+        return registry;
+    }
+    
+    /**
+     * @param sceneId 场景 ID，可以为 null
+     * @return 场景标签值：白名单内的场景 ID、{@link #OTHER_SCENE} 或 {@link #NO_SCENE}
+     */
+    public String sceneTag(String sceneId) {
+        if (sceneId == null) {
+            return NO_SCENE;
+        }
+        return scenes.contains(sceneId) ? sceneId : OTHER_SCENE;
+    }
+    
+    public Tag scene(String sceneId) {
+        return Tag.of("scene", sceneTag(sceneId));
+    }
+}
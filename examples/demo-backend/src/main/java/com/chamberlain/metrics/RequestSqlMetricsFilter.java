@@ -0,0 +1,113 @@
+package com.chamberlain.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 记录每个请求执行的 SQL 语句数、JDBC 耗时、查询返回行数和加载的实体数
+ * <p>
+ * uri 标签取匹配到的路由模板（如 /api/configs/{id}），未匹配到处理器的请求记为 UNKNOWN，保证标签基数有界。
+ * 开启响应头时，在响应体开始写出前（或请求结束时响应尚未提交）输出 {@value #HEADER}，
+ * 值形如 statements=3;time=1.204ms，流式响应开始写出之后执行的语句不计入响应头。
+ */
+public class RequestSqlMetricsFilter extends OncePerRequestFilter {
+    
+    public static final String HEADER = "X-Chamberlain-Db";
+    
+    private final MeterRegistry registry;
+    private final boolean responseHeader;
+    
+    public RequestSqlMetricsFilter(MeterRegistry registry, boolean responseHeader) {
+        this.registry = registry;
+        this.responseHeader = responseHeader;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+        throws ServletException, IOException {
+        RequestSqlStatistics.Counts counts = RequestSqlStatistics.begin();
+        HttpServletResponse target = responseHeader ? new HeaderResponse(response, counts) : response;
+        try {
+            chain.doFilter(request, target);
+        } finally {
+            RequestSqlStatistics.end(counts);
+            if (responseHeader && !response.isCommitted()) {
+                response.setHeader(HEADER, headerValue(counts));
+            }
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+            String method = request.getMethod();
+            summary(ChamberlainMetrics.REQUEST_SQL_STATEMENTS, method, uri).record(counts.getStatements());
+            summary(ChamberlainMetrics.REQUEST_SQL_ROWS, method, uri).record(counts.getRows());
+            summary(ChamberlainMetrics.REQUEST_SQL_ENTITIES, method, uri).record(counts.getEntities());
+            Timer.builder(ChamberlainMetrics.REQUEST_SQL_TIME)
+                .tags("method", method, "uri", uri)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(counts.getJdbcNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    static String headerValue(RequestSqlStatistics.Counts counts) {
+        return String.format(Locale.ROOT, "statements=%d;time=%.3fms",
+            counts.getStatements(), counts.getJdbcNanos() / 1_000_000.0);
+    }
+    
+    private DistributionSummary summary(String name, String method, String uri) {
+        return DistributionSummary.builder(name)
+            .tags("method", method, "uri", uri)
+            .publishPercentileHistogram()
+            .register(registry);
+    }
+    
+    /**
+     * 在响应体开始写出前设置 {@value #HEADER}
+     */
+    private static final class HeaderResponse extends HttpServletResponseWrapper {
+        
+        private final RequestSqlStatistics.Counts counts;
+        
+        HeaderResponse(HttpServletResponse response, RequestSqlStatistics.Counts counts) {
+            super(response);
+            this.counts = counts;
+        }
+        
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeader();
+            return super.getOutputStream();
+        }
+        
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeader();
+            return super.getWriter();
+        }
+        
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeader();
+            super.flushBuffer();
+        }
+        
+        private void writeHeader() {
+            if (!isCommitted()) {
+                setHeader(HEADER, headerValue(counts));
+            }
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.chamberlain.metrics;
+
+import org.hibernate.SessionEventListener;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.internal.StatisticsImpl;
+import org.hibernate.stat.spi.StatisticsFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 按请求累计的 SQL 统计
+ * <p>
+ * Hibernate 的 {@link StatisticsImpl} 只有 SessionFactory 级别的全局计数，并发请求之间无法区分。
+ * 这里的计数累加到当前线程绑定的 {@link Counts}（由 {@link RequestSqlMetricsFilter} 在请求开始时绑定）：
+ * <ul>
+ *   <li>语句数：{@link Inspector}（hibernate.session_factory.statement_inspector），每条准备执行的 SQL 计一次</li>
+ *   <li>JDBC 耗时：{@link JdbcTimer}（hibernate.session.events.auto），语句和批量执行的耗时</li>
+ *   <li>查询返回行数、实体加载数：{@link #FACTORY}（hibernate.stats.factory），只在 hibernate.generate_statistics 开启时有值</li>
+ * </ul>
+ * 计数范围可以嵌套（如测试方法内发起的多个请求），内层的计数同时累加到外层。
+ */
+public final class RequestSqlStatistics {
+    
+    private static final ThreadLocal<Counts> CURRENT = new ThreadLocal<>();
+    
+    /**
+     * 通过 hibernate.stats.factory 注册
+     */
+    public static final StatisticsFactory FACTORY = RequestStatistics::new;
+    
+    private RequestSqlStatistics() {
+    }
+    
+    /**
+     * 在当前线程开始一个计数范围
+     *
+     * @return 本范围的计数
+     */
+    public static Counts begin() {
+        return begin(false);
+    }
+    
+    /**
+     * 在当前线程开始一个计数范围
+     *
+     * @param captureSql 是否记录执行的 SQL（用于测试失败时输出）
+     * @return 本范围的计数
+     */
+    public static Counts begin(boolean captureSql) {
+        Counts counts = new Counts(CURRENT.get(), captureSql);
+        CURRENT.set(counts);
+        return counts;
+    }
+    
+    /**
+     * 结束计数范围，恢复外层范围
+     *
+     * @param counts {@link #begin} 返回的计数
+     */
+    public static void end(Counts counts) {
+        if (counts.parent == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(counts.parent);
+        }
+    }
+    
+    /**
+     * 单个计数范围，只由绑定的线程修改
+     */
+    public static final class Counts {
+        
+        private final Counts parent;
+        private final List<String> statements;
+        private long statementCount;
+        private long jdbcNanos;
+        private long rows;
+        private long entities;
+        
+        private Counts(Counts parent, boolean captureSql) {
+            this.parent = parent;
+            this.statements = captureSql ? new ArrayList<>() : null;
+        }
+        
+        public long getStatements() {
+            return statementCount;
+        }
+        
+        /**
+         * @return JDBC 执行耗时（纳秒）
+         */
+        public long getJdbcNanos() {
+            return jdbcNanos;
+        }
+        
+        public long getRows() {
+            return rows;
+        }
+        
+        public long getEntities() {
+            return entities;
+        }
+        
+        /**
+         * @return 执行的 SQL，未开启记录时为空
+         */
+        public List<String> getSql() {
+            return statements == null ? List.of() : Collections.unmodifiableList(statements);
+        }
+    }
+    
+    /**
+     * 统计准备执行的 SQL，不修改语句
+     */
+    public static final class Inspector implements StatementInspector {
+        
+        public static final Inspector INSTANCE = new Inspector();
+        
+        @Override
+        public String inspect(String sql) {
+            for (Counts counts = CURRENT.get(); counts != null; counts = counts.parent) {
+                counts.statementCount++;
+                if (counts.statements != null) {
+                    counts.statements.add(sql);
+                }
+            }
+            return sql;
+        }
+    }
+    
+    /**
+     * 统计 JDBC 执行耗时，Hibernate 为每个 Session 创建一个实例
+     */
+    public static final class JdbcTimer implements SessionEventListener {
+        
+        private long start;
+        
+        @Override
+        public void jdbcExecuteStatementStart() {
+            start = System.nanoTime();
+        }
+        
+        @Override
+        public void jdbcExecuteStatementEnd() {
+            record();
+        }
+        
+        @Override
+        public void jdbcExecuteBatchStart() {
+            start = System.nanoTime();
+        }
+        
+        @Override
+        public void jdbcExecuteBatchEnd() {
+            record();
+        }
+        
+        private void record() {
+            long elapsed = System.nanoTime() - start;
+            for (Counts counts = CURRENT.get(); counts != null; counts = counts.parent) {
+                counts.jdbcNanos += elapsed;
+            }
+        }
+    }
+    
+    private static final class RequestStatistics extends StatisticsImpl {
+        
+        RequestStatistics(SessionFactoryImplementor sessionFactory) {
+            super(sessionFactory);
+        }
+        
+        @Override
+        public void queryExecuted(String hql, int rows, long time) {
+            super.queryExecuted(hql, rows, time);
+            for (Counts counts = CURRENT.get(); counts != null; counts = counts.parent) {
+                counts.rows += rows;
+            }
+        }
+        
+        @Override
+        public void loadEntity(String entityName) {
+            super.loadEntity(entityName);
+            for (Counts counts = CURRENT.get(); counts != null; counts = counts.parent) {
+                counts.entities++;
+            }
+        }
+    }
+}
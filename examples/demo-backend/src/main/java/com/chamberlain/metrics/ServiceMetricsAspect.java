@@ -0,0 +1,78 @@
+package com.chamberlain.metrics;
+
+import com.chamberlain.dto.request.CreateConfigRequest;
+import com.chamberlain.dto.request.CreateSceneRequest;
+import com.chamberlain.service.ConfigService;
+import com.chamberlain.util.ConfigIdGenerator;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+
+/**
+ * ConfigService / SceneService 公共方法的耗时和结果指标
+ * <p>
+ * 场景标签从参数中解析：名为 sceneId 的参数、配置 ID 的场景前缀、SceneService 的场景 ID，
+ * 或创建请求中的场景 ID，经 {@link ChamberlainMetrics#sceneTag} 白名单过滤后输出。
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+    
+    private final ChamberlainMetrics metrics;
+    
+    @Around("execution(public * com.chamberlain.service.ConfigService.*(..))"
+        + " || execution(public * com.chamberlain.service.SceneService.*(..))"
+        + " || execution(public * com.chamberlain.service.SchemeImpactService.analyze(..))")
+    public Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(metrics.getRegistry());
+        String outcome = "success";
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            outcome = "error";
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            boolean configService = joinPoint.getTarget() instanceof ConfigService;
+            sample.stop(metrics.getRegistry().timer(ChamberlainMetrics.SERVICE_OPERATIONS, Tags.of(
+                "service", configService ? "config" : "scene",
+                "operation", joinPoint.getSignature().getName(),
+                "outcome", outcome,
+                "exception", exception).and(metrics.scene(sceneId(joinPoint, configService)))));
+        }
+    }
+    
+    private static String sceneId(ProceedingJoinPoint joinPoint, boolean configService) {
+        String[] names = ((MethodSignature) joinPoint.getSignature()).getParameterNames();
+        Object[] args = joinPoint.getArgs();
+        for (int i = 0; i < args.length; i++) {
+            Object arg = args[i];
+            if (arg instanceof CreateConfigRequest request) {
+                return request.getSceneId();
+            }
+            if (arg instanceof CreateSceneRequest request) {
+                return request.getId();
+            }
+            if (!(arg instanceof String value) || names == null) {
+                continue;
+            }
+            if ("sceneId".equals(names[i])) {
+                return value;
+            }
+            if ("id".equals(names[i])) {
+                if (!configService) {
+                    return value;
+                }
+                return ConfigIdGenerator.isValid(value) ? ConfigIdGenerator.extractSceneId(value) : null;
+            }
+        }
+        return null;
+    }
+}
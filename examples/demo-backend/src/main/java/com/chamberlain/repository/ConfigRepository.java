@@ -1,13 +1,21 @@
 package com.chamberlain.repository;
 
 import com.chamberlain.entity.Config;
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * 配置数据访问接口
@@ -23,6 +31,20 @@ public interface ConfigRepository extends JpaRepository<Config, String>, JpaSpec
      */
     List<Config> findBySceneId(String sceneId);
     
+    /**
+     * 以只读游标流式读取场景下的所有配置（按 ID 排序）
+     * 需要在事务内消费并关闭；MySQL 需在连接串中开启 useCursorFetch 才会按 fetch size 分批拉取
+     *
+     * @param sceneId 场景 ID
+     * @return 配置流
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM Config c WHERE c.sceneId = :sceneId ORDER BY c.id")
+    Stream<Config> streamBySceneId(@Param("sceneId") String sceneId);
+    
     /**
      * 根据场景 ID 和 Scheme 版本查询配置
      *
@@ -33,13 +55,22 @@ public interface ConfigRepository extends JpaRepository<Config, String>, JpaSpec
     List<Config> findBySceneIdAndSchemeVersion(String sceneId, Integer schemeVersion);
     
     /**
-     * 根据条件哈希查询配置
+     * 根据条件哈希查询配置（唯一索引 uk_scene_condition_hash）
      *
      * @param sceneId       场景 ID
-     * @param conditionHash 条件哈希
-     * @return 配置列表
+     * @param conditionHash 条件哈希，见 {@link com.chamberlain.util.ConditionHashUtil#hash}
+     * @return 配置
+     */
+    Optional<Config> findBySceneIdAndConditionHash(String sceneId, byte[] conditionHash);
+    
+    /**
+     * 查询已存在的配置 ID（单次 IN 查询）
+     *
+     * @param ids 配置 ID 集合
+     * @return 已存在的配置 ID
      */
-    List<Config> findBySceneIdAndConditionHash(String sceneId, String conditionHash);
+    @Query("SELECT c.id FROM Config c WHERE c.id IN :ids")
+    List<String> findExistingIds(@Param("ids") Collection<String> ids);
     
     /**
      * 统计场景下的配置数量
@@ -64,5 +95,34 @@ public interface ConfigRepository extends JpaRepository<Config, String>, JpaSpec
      * @param sceneId 场景 ID
      */
     void deleteBySceneId(String sceneId);
+    
+    /**
+     * 查询配置版本元数据（用于配置详情 ETag），不读取 config_data
+     * 关联场景当前 Scheme 版本，读取时会升级的配置 ETag 随目标版本变化
+     *
+     * @param id 配置 ID
+     * @return 修订号、更新时间、配置版本和场景当前版本
+     */
+    @Query("SELECT new com.chamberlain.repository.ConfigVersionStamp(c.revision, c.updatedAt, c.schemeVersion, s.currentSchemeVersion) "
+        + "FROM Config c JOIN Scene s ON s.id = c.sceneId WHERE c.id = :id")
+    Optional<ConfigVersionStamp> findVersionStampById(@Param("id") String id);
+    
+    /**
+     * 写回升级到新 Scheme 版本的配置数据
+     * 只在修订号和版本都未变化时生效，不改变修订号和更新时间
+     * （MySQL 的 updated_at 为 ON UPDATE CURRENT_TIMESTAMP，显式赋值为原值才不会被自动更新）
+     *
+     * @param id          配置 ID
+     * @param revision    升级时的修订号
+     * @param fromVersion 升级前版本
+     * @param toVersion   升级后版本
+     * @param configData  升级后的配置数据
+     * @return 更新行数，配置已被修改或删除时为 0
+     */
+    @Modifying
+    @Query("UPDATE Config c SET c.configData = :configData, c.schemeVersion = :toVersion, c.updatedAt = c.updatedAt "
+        + "WHERE c.id = :id AND c.revision = :revision AND c.schemeVersion = :fromVersion")
+    int upgradeSchemeVersion(@Param("id") String id, @Param("revision") Long revision,
+                             @Param("fromVersion") Integer fromVersion, @Param("toVersion") Integer toVersion,
+                             @Param("configData") JsonNode configData);
 }
-
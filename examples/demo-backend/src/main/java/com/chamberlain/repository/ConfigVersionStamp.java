@@ -0,0 +1,29 @@
+package com.chamberlain.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * 配置详情的版本元数据投影，用于生成 ETag，不加载 JSON 列
+ *
+ * @param revision             配置修订号
+ * @param updatedAt            最后更新时间
+ * @param schemeVersion        配置存储的 Scheme 版本
+ * @param currentSchemeVersion 场景当前 Scheme 版本
+ */
+public record ConfigVersionStamp(Long revision, LocalDateTime updatedAt,
+                                 Integer schemeVersion, Integer currentSchemeVersion) {
+    
+    /**
+     * 生成强 ETag，与 {@link VersionStamp#toETag()} 格式一致
+     * 配置版本低于场景当前版本时读取结果会升级到当前版本，追加目标版本，激活其他 Scheme 版本后 ETag 随之变化
+     *
+     * @return 带引号的 ETag
+     */
+    public String toETag() {
+        String etag = new VersionStamp(revision, updatedAt, 1L).toETag();
+        if (schemeVersion == null || currentSchemeVersion == null || schemeVersion >= currentSchemeVersion) {
+            return etag;
+        }
+        return etag.substring(0, etag.length() - 1) + "-v" + Integer.toHexString(currentSchemeVersion) + "\"";
+    }
+}
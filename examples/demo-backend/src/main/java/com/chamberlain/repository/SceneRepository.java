@@ -3,8 +3,13 @@ package com.chamberlain.repository;
 import com.chamberlain.entity.Scene;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -30,5 +35,72 @@ public interface SceneRepository extends JpaRepository<Scene, String>, JpaSpecif
      * @return 场景
      */
     Optional<Scene> findByNameAndIdNot(String name, String id);
+    
+    /**
+     * 递增场景修订号
+     * 持有场景行锁直到事务结束，同一场景的变更按修订号顺序提交
+     * 配置变更不是场景本身的变更，不改变更新时间（MySQL 的 updated_at 为 ON UPDATE CURRENT_TIMESTAMP，需显式赋值为原值），
+     * 场景快照原地应用本实例的写入后仍与数据库的 (修订号, 更新时间) 一致
+     *
+     * @param id 场景 ID
+     * @return 更新行数
+     */
+    @Modifying
+    @Query("UPDATE Scene s SET s.revision = s.revision + 1, s.updatedAt = s.updatedAt WHERE s.id = :id")
+    int incrementRevision(@Param("id") String id);
+    
+    /**
+     * 查询场景修订号
+     *
+     * @param id 场景 ID
+     * @return 修订号
+     */
+    @Query("SELECT s.revision FROM Scene s WHERE s.id = :id")
+    Optional<Long> findRevisionById(@Param("id") String id);
+    
+    /**
+     * 批量查询场景修订号
+     *
+     * @param ids 场景 ID 集合
+     * @return [场景 ID, 修订号] 列表
+     */
+    @Query("SELECT s.id, s.revision FROM Scene s WHERE s.id IN :ids")
+    List<Object[]> findRevisionsByIds(@Param("ids") Collection<String> ids);
+    
+    /**
+     * 查询全部场景的修订号和更新时间
+     *
+     * @return [场景 ID, 修订号, 更新时间] 列表
+     */
+    @Query("SELECT s.id, s.revision, s.updatedAt FROM Scene s")
+    List<Object[]> findAllRevisions();
+    
+    /**
+     * 查询场景版本元数据（用于场景详情 ETag）
+     *
+     * @param id 场景 ID
+     * @return 修订号和更新时间
+     */
+    @Query("SELECT new com.chamberlain.repository.VersionStamp(s.revision, s.updatedAt, 1L) FROM Scene s WHERE s.id = :id")
+    Optional<VersionStamp> findVersionStampById(@Param("id") String id);
+    
+    /**
+     * 查询场景下配置的版本元数据（用于配置列表 ETag）
+     * 场景修订号在其任一配置变更时递增，即场景下配置的最大修订号
+     *
+     * @param id 场景 ID
+     * @return 场景修订号、场景更新时间和配置数
+     */
+    @Query("SELECT new com.chamberlain.repository.VersionStamp(s.revision, s.updatedAt, "
+        + "(SELECT COUNT(c) FROM Config c WHERE c.sceneId = s.id)) FROM Scene s WHERE s.id = :id")
+    Optional<VersionStamp> findConfigsVersionStampById(@Param("id") String id);
+    
+    /**
+     * 查询全部场景的版本元数据（用于场景列表 ETag）
+     *
+     * @return 修订号之和、最大更新时间和场景数
+     */
+    @Query("SELECT new com.chamberlain.repository.VersionStamp(COALESCE(SUM(s.revision), 0L), MAX(s.updatedAt), COUNT(s)) "
+        + "FROM Scene s")
+    VersionStamp findAllVersionStamp();
 }
-
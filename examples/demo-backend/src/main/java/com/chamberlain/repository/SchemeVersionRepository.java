@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,6 +27,16 @@ public interface SchemeVersionRepository extends JpaRepository<SchemeVersion, Lo
     @Query("SELECT sv FROM SchemeVersion sv WHERE sv.scene.id = :sceneId AND sv.version = :version")
     Optional<SchemeVersion> findBySceneIdAndVersion(@Param("sceneId") String sceneId, @Param("version") Integer version);
     
+    /**
+     * 批量查询多个场景当前激活的 Scheme 版本
+     * 按 (scene_id, current_scheme_version) 关联，一次查询覆盖整页场景
+     *
+     * @param sceneIds 场景 ID 集合
+     * @return Scheme 版本列表
+     */
+    @Query("SELECT sv FROM SchemeVersion sv JOIN sv.scene s WHERE s.id IN :sceneIds AND sv.version = s.currentSchemeVersion")
+    List<SchemeVersion> findCurrentBySceneIds(@Param("sceneIds") Collection<String> sceneIds);
+    
     /**
      * 查询场景的所有版本
      *
@@ -0,0 +1,27 @@
+package com.chamberlain.repository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * 版本元数据投影，用于生成 ETag，不加载 JSON 列
+ *
+ * @param revision  修订号（列表为修订号之和或场景修订号）
+ * @param updatedAt 最后更新时间（列表为最大更新时间），可能为 null
+ * @param count     行数
+ */
+public record VersionStamp(Long revision, LocalDateTime updatedAt, Long count) {
+    
+    /**
+     * 生成强 ETag，修订号、行数或更新时间任一变化即不同
+     * 场景删除后以相同 ID 重建时修订号从 0 开始，由更新时间区分
+     *
+     * @return 带引号的 ETag
+     */
+    public String toETag() {
+        long millis = updatedAt == null ? 0 : updatedAt.toInstant(ZoneOffset.UTC).toEpochMilli();
+        return "\"" + Long.toHexString(revision == null ? 0 : revision)
+            + "-" + Long.toHexString(count == null ? 0 : count)
+            + "-" + Long.toHexString(millis) + "\"";
+    }
+}
@@ -0,0 +1,268 @@
+package com.chamberlain.service;
+
+import com.chamberlain.dto.common.BatchMode;
+import com.chamberlain.dto.request.BatchCreateConfigRequest;
+import com.chamberlain.dto.request.BatchUpdateConfigRequest;
+import com.chamberlain.dto.request.UpdateConfigRequest;
+import com.chamberlain.dto.response.BatchConfigResponse;
+import com.chamberlain.dto.response.BatchConfigResponse.ItemResult;
+import com.chamberlain.entity.Config;
+import com.chamberlain.entity.SchemeVersion;
+import com.chamberlain.exception.ResourceNotFoundException;
+import com.chamberlain.mapper.ConfigMapper;
+import com.chamberlain.repository.ConfigRepository;
+import com.chamberlain.repository.SceneRepository;
+import com.chamberlain.repository.SchemeVersionRepository;
+import com.chamberlain.service.SchemaValidationService.ValidationResult;
+import com.chamberlain.util.ConfigIdGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.networknt.schema.JsonSchema;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 配置批量操作服务
+ * <p>
+ * 整批只解析一次场景和 Scheme、用一次 IN 查询检查存在性、复用同一个已编译 Schema 校验，
+ * 写入走 Hibernate JDBC 批处理（hibernate.jdbc.batch_size）。
+ * 预检查失败的条目在 {@link BatchMode#ALL_OR_NOTHING} 下使整批放弃，在 {@link BatchMode#BEST_EFFORT} 下被跳过；
+ * 通过预检查的条目在同一事务中写入，数据库层面的失败（如并发写入冲突）会使整批回滚。
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ConfigBatchService {
+    
+    private final ConfigRepository configRepository;
+    private final SceneRepository sceneRepository;
+    private final SchemeVersionRepository schemeVersionRepository;
+    private final ConfigMapper configMapper;
+    private final SchemaValidationService schemaValidationService;
+    private final ConfigResolveService configResolveService;
+    private final ConfigCacheService configCacheService;
+    private final SceneRevisionService sceneRevisionService;
+    private final SceneSnapshotService sceneSnapshotService;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    /**
+     * 批量创建配置
+     */
+    @Transactional
+    public BatchConfigResponse batchCreate(BatchCreateConfigRequest request) {
+        String sceneId = request.getSceneId();
+        if (!sceneRepository.existsById(sceneId)) {
+            throw new ResourceNotFoundException("SCENE_NOT_FOUND", "场景不存在: " + sceneId);
+        }
+        SchemeVersion schemeVersion = schemeVersionRepository
+            .findBySceneIdAndVersion(sceneId, request.getSchemeVersion())
+            .orElseThrow(() -> new ResourceNotFoundException("SCHEME_VERSION_NOT_FOUND",
+                "Scheme版本不存在: " + request.getSchemeVersion()));
+        JsonSchema schema = schemaValidationService.getSchema(schemeVersion);
+        
+        List<BatchCreateConfigRequest.Item> items = request.getItems();
+        List<String> ids = new ArrayList<>(items.size());
+        for (BatchCreateConfigRequest.Item item : items) {
+            ids.add(ConfigIdGenerator.generate(sceneId, item.getConditions()));
+        }
+        Set<String> existing = new HashSet<>(configRepository.findExistingIds(ids));
+        
+        // 预检查：存在性、批内重复、Schema 校验
+        ItemResult[] results = new ItemResult[items.size()];
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < items.size(); i++) {
+            String id = ids.get(i);
+            if (existing.contains(id)) {
+                results[i] = failure(i, id, "CONFIG_EXISTS", "相同条件的配置已存在: " + id);
+            } else if (!seen.add(id)) {
+                results[i] = failure(i, id, "DUPLICATE_IN_BATCH", "批内存在相同条件的配置: " + id);
+            } else {
+                results[i] = validate(i, id, schema, items.get(i).getConfig());
+            }
+        }
+        
+        if (!shouldWrite(request.getMode(), results)) {
+            return abort(request.getMode(), results);
+        }
+        
+        Long revision = null;
+        List<Config> created = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            if (!results[i].getSuccess()) {
+                continue;
+            }
+            BatchCreateConfigRequest.Item item = items.get(i);
+            Config config = new Config();
+            config.setId(ids.get(i));
+            config.setSceneId(sceneId);
+            config.setSchemeVersion(request.getSchemeVersion());
+            config.setConditionList(item.getConditions());
+            config.setConfigData(item.getConfig());
+            // 整批共用一个修订号
+            if (revision == null) {
+                revision = sceneRevisionService.next(sceneId);
+            }
+            config.setRevision(revision);
+            // 直接 persist，避免 save() 对已分配 ID 的实体先 SELECT 再 merge
+            entityManager.persist(config);
+            created.add(config);
+        }
+        entityManager.flush();
+        
+        afterWrite(sceneId, created);
+        log.info("Batch created {} configs in scene {} ({} failed)", created.size(), sceneId,
+            items.size() - created.size());
+        return completed(request.getMode(), results);
+    }
+    
+    /**
+     * 批量更新配置
+     */
+    @Transactional
+    public BatchConfigResponse batchUpdate(BatchUpdateConfigRequest request) {
+        String sceneId = request.getSceneId();
+        if (!sceneRepository.existsById(sceneId)) {
+            throw new ResourceNotFoundException("SCENE_NOT_FOUND", "场景不存在: " + sceneId);
+        }
+        
+        List<BatchUpdateConfigRequest.Item> items = request.getItems();
+        Map<String, Config> configs = configRepository.findAllById(
+                items.stream().map(BatchUpdateConfigRequest.Item::getId).collect(Collectors.toSet()))
+            .stream()
+            .collect(Collectors.toMap(Config::getId, Function.identity()));
+        
+        // 每个涉及的 Scheme 版本只查询、编译一次
+        Map<Integer, JsonSchema> schemas = new HashMap<>();
+        
+        ItemResult[] results = new ItemResult[items.size()];
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < items.size(); i++) {
+            BatchUpdateConfigRequest.Item item = items.get(i);
+            String id = item.getId();
+            Config config = configs.get(id);
+            if (config == null || !sceneId.equals(config.getSceneId())) {
+                results[i] = failure(i, id, "CONFIG_NOT_FOUND", "配置不存在: " + id);
+            } else if (!seen.add(id)) {
+                results[i] = failure(i, id, "DUPLICATE_IN_BATCH", "批内存在重复的配置ID: " + id);
+            } else if (item.getConfig() == null) {
+                results[i] = success(i, id);
+            } else {
+                Integer version = request.getSchemeVersion() != null
+                    ? request.getSchemeVersion()
+                    : config.getSchemeVersion();
+                JsonSchema schema = schemas.computeIfAbsent(version, v -> schemeVersionRepository
+                    .findBySceneIdAndVersion(sceneId, v)
+                    .map(schemaValidationService::getSchema)
+                    .orElse(null));
+                results[i] = schema == null
+                    ? failure(i, id, "SCHEME_VERSION_NOT_FOUND", "Scheme版本不存在: " + version)
+                    : validate(i, id, schema, item.getConfig());
+            }
+        }
+        
+        if (!shouldWrite(request.getMode(), results)) {
+            return abort(request.getMode(), results);
+        }
+        
+        Long revision = null;
+        List<Config> updated = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            if (!results[i].getSuccess()) {
+                continue;
+            }
+            BatchUpdateConfigRequest.Item item = items.get(i);
+            UpdateConfigRequest update = new UpdateConfigRequest();
+            update.setSchemeVersion(request.getSchemeVersion());
+            update.setConditions(item.getConditions());
+            update.setConfig(item.getConfig());
+            
+            Config config = configs.get(item.getId());
+            configMapper.updateEntityFromRequest(update, config);
+            if (revision == null) {
+                revision = sceneRevisionService.next(sceneId);
+            }
+            config.setRevision(revision);
+            updated.add(config);
+        }
+        // 托管实体由脏检查批量 UPDATE
+        entityManager.flush();
+        
+        afterWrite(sceneId, updated);
+        log.info("Batch updated {} configs in scene {} ({} failed)", updated.size(), sceneId,
+            items.size() - updated.size());
+        return completed(request.getMode(), results);
+    }
+    
+    private void afterWrite(String sceneId, List<Config> written) {
+        if (written.isEmpty()) {
+            return;
+        }
+        configResolveService.invalidate(sceneId);
+        sceneSnapshotService.reload(sceneId);
+        written.forEach(config -> configCacheService.put(configMapper.toResponse(config)));
+    }
+    
+    private ItemResult validate(int index, String id, JsonSchema schema, JsonNode data) {
+        ValidationResult validationResult = schemaValidationService.validate(schema, data,
+            schemaValidationService.getWriteOptions());
+        if (validationResult.isValid()) {
+            return success(index, id);
+        }
+        return failure(index, id, "CONFIG_VALIDATION_FAILED",
+            "配置数据不符合 Schema 定义: " + validationResult.describe());
+    }
+    
+    private boolean shouldWrite(BatchMode mode, ItemResult[] results) {
+        return mode == BatchMode.BEST_EFFORT || Arrays.stream(results).allMatch(ItemResult::getSuccess);
+    }
+    
+    /**
+     * 全部成功或全部不写入模式下存在失败条目：通过预检查的条目标记为已放弃
+     */
+    private BatchConfigResponse abort(BatchMode mode, ItemResult[] results) {
+        for (ItemResult result : results) {
+            if (result.getSuccess()) {
+                result.setSuccess(false);
+                result.setCode("BATCH_ABORTED");
+                result.setMessage("批次中存在失败条目，未写入");
+            }
+        }
+        return BatchConfigResponse.builder()
+            .mode(mode)
+            .committed(false)
+            .total(results.length)
+            .succeeded(0)
+            .failed(results.length)
+            .results(List.of(results))
+            .build();
+    }
+    
+    private BatchConfigResponse completed(BatchMode mode, ItemResult[] results) {
+        int succeeded = (int) Arrays.stream(results).filter(ItemResult::getSuccess).count();
+        return BatchConfigResponse.builder()
+            .mode(mode)
+            .committed(true)
+            .total(results.length)
+            .succeeded(succeeded)
+            .failed(results.length - succeeded)
+            .results(List.of(results))
+            .build();
+    }
+    
+    private static ItemResult success(int index, String id) {
+        return ItemResult.builder().index(index).id(id).success(true).build();
+    }
+    
+    private static ItemResult failure(int index, String id, String code, String message) {
+        return ItemResult.builder().index(index).id(id).success(false).code(code).message(message).build();
+    }
+}
@@ -0,0 +1,200 @@
+package com.chamberlain.service;
+
+import com.chamberlain.dto.response.ConfigResponse;
+import com.chamberlain.metrics.ChamberlainMetrics;
+import com.chamberlain.util.TransactionUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 配置缓存服务
+ * <p>
+ * 基于 Redis 的 {@link ConfigResponse} 读穿缓存，受 chamberlain.cache.enabled / chamberlain.cache.ttl 控制。
+ * 缓存值使用 Smile 二进制 JSON 编码；Redis 不可用时降级为直接读库（计为未命中）。
+ * 命中和未命中以 cache.gets{cache=configs} 输出，与 Caffeine 缓存的指标同名。
+ * <p>
+ * 读未命中时以 SET NX 回填，写操作提交后无条件覆盖；移除缓存时写入 chamberlain.cache.tombstone-ttl 有效的空值墓碑，
+ * 墓碑视为未命中，并使在移除前加载了旧值的读回填失败，被删除的配置不会在 TTL 内重新出现。
+ */
+@Service
+@Slf4j
+public class ConfigCacheService {
+    
+    private static final String KEY_PREFIX = "chamberlain:config:";
+    private static final byte[] TOMBSTONE = new byte[0];
+    
+    private final boolean enabled;
+    private final Duration ttl;
+    private final Duration tombstoneTtl;
+    private final RedisTemplate<String, byte[]> redisTemplate;
+    private final ObjectMapper binaryMapper;
+    private final Counter hits;
+    private final Counter misses;
+    
+    public ConfigCacheService(RedisConnectionFactory connectionFactory,
+                              ObjectMapper objectMapper,
+                              MeterRegistry registry,
+                              @Value("${chamberlain.cache.enabled:false}") boolean enabled,
+                              @Value("${chamberlain.cache.ttl:3600}") long ttlSeconds,
+                              @Value("${chamberlain.cache.tombstone-ttl:10}") long tombstoneTtlSeconds) {
+        this.enabled = enabled;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.tombstoneTtl = Duration.ofSeconds(tombstoneTtlSeconds);
+        this.hits = registry.counter(ChamberlainMetrics.CACHE_GETS, "cache", "configs", "result", "hit");
+        this.misses = registry.counter(ChamberlainMetrics.CACHE_GETS, "cache", "configs", "result", "miss");
+        // 沿用 Spring 配置的模块和序列化选项，仅替换为二进制编码
+        this.binaryMapper = objectMapper.copyWith(new SmileFactory());
+        
+        this.redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.setKeySerializer(RedisSerializer.string());
+        redisTemplate.setValueSerializer(RedisSerializer.byteArray());
+        redisTemplate.afterPropertiesSet();
+    }
+    
+    /**
+     * 读取配置，未命中时加载并回填缓存
+     *
+     * @param id     配置 ID
+     * @param loader 缓存未命中时的加载函数
+     * @return 配置
+     */
+    public ConfigResponse getOrLoad(String id, Supplier<ConfigResponse> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        
+        ConfigResponse cached = get(id);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        
+        misses.increment();
+        ConfigResponse loaded = loader.get();
+        // 读回填只在键不存在时写入，避免加载期间提交的写入或删除（墓碑）被旧值覆盖
+        write(loaded, true);
+        return loaded;
+    }
+    
+    /**
+     * 写入缓存，在当前事务提交后生效
+     *
+     * @param config 配置
+     */
+    public void put(ConfigResponse config) {
+        if (enabled) {
+            TransactionUtil.afterCommit(() -> write(config, false));
+        }
+    }
+    
+    /**
+     * 移除缓存，在当前事务提交后生效
+     *
+     * @param id 配置 ID
+     */
+    public void evict(String id) {
+        evict(List.of(id));
+    }
+    
+    /**
+     * 批量移除缓存，在当前事务提交后生效
+     *
+     * @param ids 配置 ID
+     */
+    public void evict(Collection<String> ids) {
+        if (!enabled || ids.isEmpty()) {
+            return;
+        }
+        List<String> keys = ids.stream().map(id -> KEY_PREFIX + id).toList();
+        TransactionUtil.afterCommit(() -> {
+            try {
+                tombstone(keys);
+            } catch (Exception e) {
+                log.warn("Failed to evict {} configs from cache: {}", keys.size(), e.getMessage());
+            }
+        });
+    }
+    
+    /**
+     * 移除场景下所有配置的缓存（场景删除时配置级联删除），在当前事务提交后生效
+     *
+     * @param sceneId 场景 ID
+     */
+    public void evictScene(String sceneId) {
+        if (!enabled) {
+            return;
+        }
+        TransactionUtil.afterCommit(() -> {
+            ScanOptions options = ScanOptions.scanOptions().match(KEY_PREFIX + sceneId + ":*").count(1000).build();
+            try (Cursor<String> cursor = redisTemplate.scan(options)) {
+                List<String> keys = new ArrayList<>();
+                cursor.forEachRemaining(keys::add);
+                tombstone(keys);
+            } catch (Exception e) {
+                log.warn("Failed to evict configs of scene {} from cache: {}", sceneId, e.getMessage());
+            }
+        });
+    }
+    
+    /**
+     * 以流水线把缓存值替换为墓碑
+     */
+    private void tombstone(List<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        Expiration expiration = Expiration.from(tombstoneTtl);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String key : keys) {
+                connection.stringCommands().set(key.getBytes(StandardCharsets.UTF_8), TOMBSTONE, expiration,
+                    RedisStringCommands.SetOption.upsert());
+            }
+            return null;
+        });
+    }
+    
+    private ConfigResponse get(String id) {
+        try {
+            byte[] bytes = redisTemplate.opsForValue().get(KEY_PREFIX + id);
+            return bytes == null || bytes.length == 0 ? null : binaryMapper.readValue(bytes, ConfigResponse.class);
+        } catch (Exception e) {
+            log.warn("Failed to read config {} from cache: {}", id, e.getMessage());
+            return null;
+        }
+    }
+    
+    private void write(ConfigResponse config, boolean ifAbsent) {
+        try {
+            String key = KEY_PREFIX + config.getId();
+            byte[] value = binaryMapper.writeValueAsBytes(config);
+            if (ifAbsent) {
+                redisTemplate.opsForValue().setIfAbsent(key, value, ttl);
+            } else {
+                redisTemplate.opsForValue().set(key, value, ttl);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to write config {} to cache: {}", config.getId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.chamberlain.service;
+
+import com.chamberlain.entity.Config;
+import com.chamberlain.exception.ResourceNotFoundException;
+import com.chamberlain.mapper.ConfigMapper;
+import com.chamberlain.repository.ConfigRepository;
+import com.chamberlain.repository.SceneRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 配置导出服务
+ * <p>
+ * 以 NDJSON（每行一个配置的 JSON）流式导出场景下的全部配置：数据库游标按 fetch size 分批读取，
+ * 每行写出后即从持久化上下文中分离，内存占用与配置总数无关。旧 Scheme 版本的配置与读取接口一致，升级到场景当前版本后写出。
+ */
+@Service
+@Slf4j
+public class ConfigExportService {
+    
+    public static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+    
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+    
+    private final SceneRepository sceneRepository;
+    private final ConfigRepository configRepository;
+    private final ConfigMapper configMapper;
+    private final ConfigUpgradeService configUpgradeService;
+    private final ObjectWriter lineWriter;
+    private final TransactionTemplate readOnlyTransaction;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    public ConfigExportService(SceneRepository sceneRepository,
+                               ConfigRepository configRepository,
+                               ConfigMapper configMapper,
+                               ConfigUpgradeService configUpgradeService,
+                               ObjectMapper objectMapper,
+                               PlatformTransactionManager transactionManager) {
+        this.sceneRepository = sceneRepository;
+        this.configRepository = configRepository;
+        this.configMapper = configMapper;
+        this.configUpgradeService = configUpgradeService;
+        // 逐行写出时由底层缓冲决定何时刷新，避免每行一次 flush
+        this.lineWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+    
+    /**
+     * 导出场景下的所有配置
+     * 场景是否存在在返回前同步校验，响应体在写出时才打开数据库游标
+     *
+     * @param sceneId 场景 ID
+     * @param gzip    是否 gzip 压缩
+     * @return 流式响应体
+     */
+    public StreamingResponseBody export(String sceneId, boolean gzip) {
+        if (!sceneRepository.existsById(sceneId)) {
+            throw new ResourceNotFoundException("SCENE_NOT_FOUND", "场景不存在: " + sceneId);
+        }
+        
+        return out -> {
+            if (gzip) {
+                GZIPOutputStream gzipOut = new GZIPOutputStream(out, GZIP_BUFFER_SIZE);
+                write(sceneId, gzipOut);
+                gzipOut.finish();
+            } else {
+                write(sceneId, out);
+            }
+        };
+    }
+    
+    /**
+     * 在只读事务中遍历配置流并逐行写出
+     *
+     * @param sceneId 场景 ID
+     * @param out     输出流（不会被关闭）
+     * @return 导出的配置数
+     */
+    long write(String sceneId, OutputStream out) {
+        Long count = readOnlyTransaction.execute(status -> {
+            try (Stream<Config> configs = configRepository.streamBySceneId(sceneId);
+                 JsonGenerator generator = lineWriter.createGenerator(out)) {
+                // 输出流由容器管理，这里只负责刷新；行分隔符由下方显式写出
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+                long written = 0;
+                Iterator<Config> iterator = configs.iterator();
+                while (iterator.hasNext()) {
+                    Config config = iterator.next();
+                    lineWriter.writeValue(generator, configUpgradeService.upgrade(configMapper.toResponse(config)));
+                    generator.writeRaw('\n');
+                    entityManager.detach(config);
+                    written++;
+                }
+                return written;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        log.debug("Exported {} configs of scene {}", count, sceneId);
+        return count != null ? count : 0;
+    }
+}
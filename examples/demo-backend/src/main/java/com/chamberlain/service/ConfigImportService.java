@@ -0,0 +1,409 @@
+package com.chamberlain.service;
+
+import com.chamberlain.dto.response.ConfigImportProgress;
+import com.chamberlain.dto.response.ConfigImportProgress.LineError;
+import com.chamberlain.entity.Config;
+import com.chamberlain.entity.Config.Condition;
+import com.chamberlain.entity.Scene;
+import com.chamberlain.entity.SchemeVersion;
+import com.chamberlain.exception.ResourceNotFoundException;
+import com.chamberlain.exception.ValidationException;
+import com.chamberlain.repository.ConfigRepository;
+import com.chamberlain.repository.SceneRepository;
+import com.chamberlain.repository.SchemeVersionRepository;
+import com.chamberlain.service.SchemaValidationService.ValidationResult;
+import com.chamberlain.util.ConfigIdGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.networknt.schema.JsonSchema;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 配置导入服务
+ * <p>
+ * 逐行读取 NDJSON（每行一个 {"conditions": [...], "config": {...}}，也接受导出格式的 conditionList），
+ * 用目标 Scheme 版本的已编译 Schema 校验，按分块大小攒批后每块一个事务写入（JDBC 批处理）。
+ * 内存中只保留当前分块，与导入文件大小无关。
+ * <p>
+ * 非严格模式下失败的行被跳过，分块中其余行照常提交；分块写入失败（如并发写入冲突）只影响该分块。
+ * 严格模式下遇到第一个失败的分块即终止，该分块不写入，此前已提交的分块保留。
+ */
+@Service
+@Slf4j
+public class ConfigImportService {
+    
+    /**
+     * 分块大小上限
+     */
+    public static final int MAX_CHUNK_SIZE = 10000;
+    
+    /**
+     * 每个分块事件最多返回的行级错误数，失败行数仍完整统计
+     */
+    private static final int MAX_ERRORS_PER_CHUNK = 100;
+    
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    
+    private static final TypeReference<List<Condition>> CONDITION_LIST = new TypeReference<>() {};
+    
+    private final SceneRepository sceneRepository;
+    private final ConfigRepository configRepository;
+    private final SchemeVersionRepository schemeVersionRepository;
+    private final SchemaValidationService schemaValidationService;
+    private final ConfigResolveService configResolveService;
+    private final ConfigCacheService configCacheService;
+    private final SceneRevisionService sceneRevisionService;
+    private final SceneSnapshotService sceneSnapshotService;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter lineWriter;
+    private final TransactionTemplate chunkTransaction;
+    private final int defaultChunkSize;
+    private final int maxConfigIdLength;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    public ConfigImportService(SceneRepository sceneRepository,
+                               ConfigRepository configRepository,
+                               SchemeVersionRepository schemeVersionRepository,
+                               SchemaValidationService schemaValidationService,
+                               ConfigResolveService configResolveService,
+                               ConfigCacheService configCacheService,
+                               SceneRevisionService sceneRevisionService,
+                               SceneSnapshotService sceneSnapshotService,
+                               ObjectMapper objectMapper,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${chamberlain.import.chunk-size:1000}") int defaultChunkSize,
+                               @Value("${chamberlain.validation.max-config-id-length:512}") int maxConfigIdLength) {
+        this.sceneRepository = sceneRepository;
+        this.configRepository = configRepository;
+        this.schemeVersionRepository = schemeVersionRepository;
+        this.schemaValidationService = schemaValidationService;
+        this.configResolveService = configResolveService;
+        this.configCacheService = configCacheService;
+        this.sceneRevisionService = sceneRevisionService;
+        this.sceneSnapshotService = sceneSnapshotService;
+        this.objectMapper = objectMapper;
+        this.lineWriter = objectMapper.writer();
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.defaultChunkSize = defaultChunkSize;
+        this.maxConfigIdLength = maxConfigIdLength;
+    }
+    
+    /**
+     * 导入配置
+     * 场景、Scheme 版本和参数在返回前同步校验，请求体在写出响应时逐行读取
+     *
+     * @param sceneId       场景 ID
+     * @param schemeVersion 目标 Scheme 版本，为空时使用场景当前版本
+     * @param chunkSize     每个事务写入的行数，为空时使用 chamberlain.import.chunk-size
+     * @param strict        严格模式：遇到失败即终止
+     * @param upsert        已存在的配置是否覆盖（否则报 CONFIG_EXISTS）
+     * @param body          NDJSON 请求体
+     * @return 流式响应体，每个分块一行进度事件，最后一行汇总
+     */
+    public StreamingResponseBody importConfigs(String sceneId, Integer schemeVersion, Integer chunkSize,
+                                               boolean strict, boolean upsert, InputStream body) {
+        Scene scene = sceneRepository.findById(sceneId)
+            .orElseThrow(() -> new ResourceNotFoundException("SCENE_NOT_FOUND", "场景不存在: " + sceneId));
+        int version = schemeVersion != null ? schemeVersion : scene.getCurrentSchemeVersion();
+        SchemeVersion target = schemeVersionRepository.findBySceneIdAndVersion(sceneId, version)
+            .orElseThrow(() -> new ResourceNotFoundException("SCHEME_VERSION_NOT_FOUND",
+                "Scheme版本不存在: " + version));
+        int size = chunkSize != null ? chunkSize : defaultChunkSize;
+        if (size < 1 || size > MAX_CHUNK_SIZE) {
+            throw new ValidationException("INVALID_PARAMETER", "chunkSize 必须在 1 到 " + MAX_CHUNK_SIZE + " 之间");
+        }
+        
+        ImportRun run = new ImportRun(sceneId, version, schemaValidationService.getSchema(target), size, strict, upsert);
+        return out -> run.execute(body, event -> writeEvent(out, event));
+    }
+    
+    /**
+     * 写出一行进度事件并立即刷新，使客户端实时看到进度
+     */
+    private void writeEvent(OutputStream out, ConfigImportProgress event) {
+        try {
+            out.write(lineWriter.writeValueAsBytes(event));
+            out.write('\n');
+            out.flush();
+        } catch (IOException e) {
+            // 客户端断开时终止导入，已提交的分块保留
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * 单行解析结果，error 不为空表示该行失败
+     */
+    private record ImportLine(long line, String id, List<Condition> conditions, JsonNode config, LineError error) {
+        
+        static ImportLine failed(long line, String id, String code, String message) {
+            return new ImportLine(line, id, null, null,
+                LineError.builder().line(line).id(id).code(code).message(message).build());
+        }
+    }
+    
+    /**
+     * 单次导入的状态
+     */
+    private final class ImportRun {
+        
+        private final String sceneId;
+        private final int schemeVersion;
+        private final JsonSchema schema;
+        private final int chunkSize;
+        private final boolean strict;
+        private final boolean upsert;
+        
+        private final List<ImportLine> pending;
+        private long lineNumber;
+        private long lines;
+        private long imported;
+        private long failed;
+        private int chunkIndex;
+        private int committedChunks;
+        private boolean aborted;
+        
+        ImportRun(String sceneId, int schemeVersion, JsonSchema schema, int chunkSize, boolean strict, boolean upsert) {
+            this.sceneId = sceneId;
+            this.schemeVersion = schemeVersion;
+            this.schema = schema;
+            this.chunkSize = chunkSize;
+            this.strict = strict;
+            this.upsert = upsert;
+            this.pending = new ArrayList<>(chunkSize);
+        }
+        
+        void execute(InputStream body, Consumer<ConfigImportProgress> listener) throws IOException {
+            BufferedReader reader = new BufferedReader(
+                new InputStreamReader(body, StandardCharsets.UTF_8), READ_BUFFER_SIZE);
+            String line;
+            try {
+                while (!aborted && (line = reader.readLine()) != null) {
+                    lineNumber++;
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    lines++;
+                    pending.add(parse(lineNumber, line));
+                    if (pending.size() == chunkSize) {
+                        listener.accept(flushChunk());
+                    }
+                }
+                if (!aborted && !pending.isEmpty()) {
+                    listener.accept(flushChunk());
+                }
+            } finally {
+                // 快照在整个导入结束后重建一次，而不是每个分块提交后重建；
+                // 客户端中途断开时已提交的分块同样需要发布
+                if (committedChunks > 0) {
+                    sceneSnapshotService.reload(sceneId);
+                }
+            }
+            
+            log.info("Imported {} configs into scene {} ({} failed, {} chunks committed{})",
+                imported, sceneId, failed, committedChunks, aborted ? ", aborted" : "");
+            listener.accept(ConfigImportProgress.builder()
+                .type(ConfigImportProgress.Type.SUMMARY)
+                .lines(lines)
+                .imported(imported)
+                .failed(failed)
+                .committedChunks(committedChunks)
+                .aborted(aborted)
+                .build());
+        }
+        
+        private ImportLine parse(long line, String text) {
+            List<Condition> conditions;
+            JsonNode config;
+            try {
+                JsonNode node = objectMapper.readTree(text);
+                if (!node.isObject()) {
+                    return ImportLine.failed(line, null, "INVALID_LINE", "每行必须是一个 JSON 对象");
+                }
+                JsonNode conditionsNode = node.has("conditions") ? node.get("conditions") : node.get("conditionList");
+                conditions = conditionsNode == null || conditionsNode.isNull()
+                    ? List.of()
+                    : objectMapper.convertValue(conditionsNode, CONDITION_LIST);
+                config = node.get("config");
+            } catch (JsonProcessingException e) {
+                return ImportLine.failed(line, null, "INVALID_LINE", "JSON 解析失败: " + e.getOriginalMessage());
+            } catch (IllegalArgumentException e) {
+                return ImportLine.failed(line, null, "INVALID_LINE", "条件格式不正确: " + e.getMessage());
+            }
+            
+            if (config == null || config.isNull()) {
+                return ImportLine.failed(line, null, "INVALID_LINE", "缺少 config 字段");
+            }
+            for (Condition condition : conditions) {
+                if (condition == null || condition.getKey() == null || condition.getKey().isEmpty()
+                    || condition.getValue() == null) {
+                    return ImportLine.failed(line, null, "INVALID_LINE", "条件的 key 和 value 不能为空");
+                }
+            }
+            String id = ConfigIdGenerator.generate(sceneId, conditions);
+            if (id.length() > maxConfigIdLength) {
+                return ImportLine.failed(line, id, "INVALID_LINE", "配置ID长度不能超过 " + maxConfigIdLength);
+            }
+            
+            ValidationResult result = schemaValidationService.validate(schema, config,
+                schemaValidationService.getWriteOptions());
+            if (!result.isValid()) {
+                return ImportLine.failed(line, id, "CONFIG_VALIDATION_FAILED",
+                    "配置数据不符合 Schema 定义: " + result.describe());
+            }
+            return new ImportLine(line, id, conditions, config, null);
+        }
+        
+        /**
+         * 提交当前分块并清空
+         */
+        private ConfigImportProgress flushChunk() {
+            List<LineError> errors = new ArrayList<>();
+            List<ImportLine> candidates = new ArrayList<>(pending.size());
+            Set<String> seen = new HashSet<>();
+            for (ImportLine line : pending) {
+                if (line.error() != null) {
+                    errors.add(line.error());
+                } else if (!seen.add(line.id())) {
+                    errors.add(LineError.builder().line(line.line()).id(line.id()).code("DUPLICATE_IN_CHUNK")
+                        .message("分块内存在相同条件的配置: " + line.id()).build());
+                } else {
+                    candidates.add(line);
+                }
+            }
+            
+            long written = 0;
+            boolean committed = false;
+            if (!strict || errors.isEmpty()) {
+                try {
+                    written = chunkTransaction.execute(status -> writeChunk(candidates, errors));
+                    // 严格模式下存在冲突时事务内未写入任何行
+                    committed = !strict || errors.isEmpty();
+                } catch (DataAccessException | PersistenceException | TransactionException e) {
+                    log.warn("Failed to commit import chunk {} of scene {}: {}", chunkIndex, sceneId, e.getMessage());
+                    String cause = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+                    for (ImportLine line : candidates) {
+                        errors.add(LineError.builder().line(line.line()).id(line.id()).code("CHUNK_FAILED")
+                            .message("分块写入失败，已回滚: " + cause).build());
+                    }
+                    written = 0;
+                }
+            }
+            
+            long chunkFailed = pending.size() - written;
+            if (strict && chunkFailed > 0) {
+                aborted = true;
+            }
+            if (committed) {
+                committedChunks++;
+            }
+            imported += written;
+            failed += chunkFailed;
+            
+            errors.sort(Comparator.comparingLong(LineError::getLine));
+            ConfigImportProgress event = ConfigImportProgress.builder()
+                .type(ConfigImportProgress.Type.CHUNK)
+                .chunk(chunkIndex++)
+                .firstLine(pending.get(0).line())
+                .lastLine(pending.get(pending.size() - 1).line())
+                .committed(committed)
+                .imported(written)
+                .failed(chunkFailed)
+                .errors(errors.size() > MAX_ERRORS_PER_CHUNK ? errors.subList(0, MAX_ERRORS_PER_CHUNK) : errors)
+                .build();
+            pending.clear();
+            return event;
+        }
+        
+        /**
+         * 在分块事务内写入，返回写入条数
+         * 严格模式下任一行已存在（非覆盖模式）则整块不写入
+         */
+        private long writeChunk(List<ImportLine> candidates, List<LineError> errors) {
+            if (candidates.isEmpty()) {
+                return 0L;
+            }
+            List<String> ids = candidates.stream().map(ImportLine::id).toList();
+            Map<String, Config> existing;
+            if (upsert) {
+                existing = configRepository.findAllById(ids).stream()
+                    .collect(Collectors.toMap(Config::getId, Function.identity()));
+            } else {
+                existing = new HashMap<>();
+                configRepository.findExistingIds(ids).forEach(id -> existing.put(id, null));
+            }
+            
+            List<ImportLine> writes = new ArrayList<>(candidates.size());
+            for (ImportLine line : candidates) {
+                if (!upsert && existing.containsKey(line.id())) {
+                    errors.add(LineError.builder().line(line.line()).id(line.id()).code("CONFIG_EXISTS")
+                        .message("相同条件的配置已存在: " + line.id()).build());
+                } else {
+                    writes.add(line);
+                }
+            }
+            if (writes.isEmpty() || strict && writes.size() < candidates.size()) {
+                return 0L;
+            }
+            
+            // 每个分块共用一个修订号
+            long revision = sceneRevisionService.next(sceneId);
+            List<String> overwritten = new ArrayList<>();
+            for (ImportLine line : writes) {
+                Config config = existing.get(line.id());
+                if (config == null) {
+                    config = new Config();
+                    config.setId(line.id());
+                    config.setSceneId(sceneId);
+                    applyLine(config, line, revision);
+                    // 直接 persist，避免 save() 对已分配 ID 的实体先 SELECT 再 merge
+                    entityManager.persist(config);
+                } else {
+                    applyLine(config, line, revision);
+                    overwritten.add(line.id());
+                }
+            }
+            entityManager.flush();
+            
+            // 覆盖的配置随分块事务提交逐块移除缓存，不等整个导入结束
+            configCacheService.evict(overwritten);
+            configResolveService.invalidate(sceneId);
+            return writes.size();
+        }
+        
+        private void applyLine(Config config, ImportLine line, long revision) {
+            config.setSchemeVersion(schemeVersion);
+            config.setRevision(revision);
+            config.setConditionList(line.conditions());
+            config.setConfigData(line.config());
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package com.chamberlain.service;
+
+import com.chamberlain.dto.response.ConfigResponse;
+import com.chamberlain.entity.Config;
+import com.chamberlain.entity.Config.Condition;
+import com.chamberlain.entity.Scene;
+import com.chamberlain.entity.Scene.AvailableCondition;
+import com.chamberlain.entity.Scene.ConflictStrategy;
+import com.chamberlain.exception.ResourceNotFoundException;
+import com.chamberlain.exception.ValidationException;
+import com.chamberlain.mapper.ConfigMapper;
+import com.chamberlain.repository.ConfigRepository;
+import com.chamberlain.repository.SceneRepository;
+import com.chamberlain.util.ConfigIdGenerator;
+import com.chamberlain.util.TransactionUtil;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * 配置解析服务
+ * <p>
+ * 按场景的 {@link ConflictStrategy} 为一组条件选出生效的配置。每个场景维护一份内存条件索引，
+ * 只探测场景中实际存在的条件 key 组合，热路径不访问数据库。不存在的场景同样缓存（空索引），
+ * 本实例的写操作（含创建场景）在事务提交后使索引失效，其他实例的写入通过定期刷新感知。
+ */
+@Service
+@Slf4j
+public class ConfigResolveService {
+    
+    /**
+     * 参与匹配的条件数上限
+     */
+    private static final int MAX_RESOLVE_CONDITIONS = 16;
+    
+    private final SceneRepository sceneRepository;
+    private final ConfigRepository configRepository;
+    private final ConfigMapper configMapper;
+    private final ConfigUpgradeService configUpgradeService;
+    
+    /**
+     * 场景条件索引，key 为场景 ID，场景不存在时为空
+     */
+    private final LoadingCache<String, Optional<SceneConditionIndex>> indexes;
+    
+    public ConfigResolveService(SceneRepository sceneRepository,
+                                ConfigRepository configRepository,
+                                ConfigMapper configMapper,
+                                ConfigUpgradeService configUpgradeService,
+                                @Value("${chamberlain.resolve.max-scenes:1024}") long maxScenes,
+                                @Value("${chamberlain.resolve.refresh-interval:30s}") Duration refreshInterval,
+                                MeterRegistry registry) {
+        this.sceneRepository = sceneRepository;
+        this.configRepository = configRepository;
+        this.configMapper = configMapper;
+        this.configUpgradeService = configUpgradeService;
+        this.indexes = Caffeine.newBuilder()
+            .maximumSize(maxScenes)
+            .refreshAfterWrite(refreshInterval)
+            .recordStats()
+            .build(this::loadIndex);
+        CaffeineCacheMetrics.monitor(registry, indexes, "resolve-indexes");
+    }
+    
+    /**
+     * 解析生效配置
+     *
+     * @param sceneId    场景 ID
+     * @param conditions 请求条件（key -> value）
+     * @return 生效的配置
+     */
+    public ConfigResponse resolve(String sceneId, Map<String, String> conditions) {
+        if (sceneId == null || sceneId.trim().isEmpty()) {
+            throw new ValidationException("INVALID_PARAMETER", "sceneId 参数必填");
+        }
+        
+        SceneConditionIndex index = indexes.get(sceneId)
+            .orElseThrow(() -> new ResourceNotFoundException("SCENE_NOT_FOUND", "场景不存在: " + sceneId));
+        
+        ConfigResponse config = index.resolve(conditions);
+        if (config == null) {
+            throw new ResourceNotFoundException("CONFIG_NOT_FOUND", "没有匹配条件的配置: " + conditions);
+        }
+        // 索引保存存储的原始版本，Scheme 激活后不需要重建索引
+        return configUpgradeService.upgrade(config);
+    }
+    
+    /**
+     * 使场景的条件索引失效，在当前事务提交后生效
+     *
+     * @param sceneId 场景 ID
+     */
+    public void invalidate(String sceneId) {
+        TransactionUtil.afterCommit(() -> indexes.invalidate(sceneId));
+    }
+    
+    /**
+     * 从数据库加载场景条件索引，场景不存在时为空，避免不存在的场景每次解析都访问数据库
+     */
+    private Optional<SceneConditionIndex> loadIndex(String sceneId) {
+        Optional<Scene> scene = sceneRepository.findById(sceneId);
+        if (scene.isEmpty()) {
+            return Optional.empty();
+        }
+        
+        List<Config> configs = configRepository.findBySceneId(sceneId);
+        log.debug("Built condition index for scene {} with {} configs", sceneId, configs.size());
+        return Optional.of(new SceneConditionIndex(scene.get(), configMapper.toResponseList(configs)));
+    }
+    
+    /**
+     * 场景条件索引（不可变）
+     * <p>
+     * 响应式只读服务（examples/reactive-reader）以相同的索引解析配置，因此公开
+     */
+    public static final class SceneConditionIndex {
+        
+        private final String sceneId;
+        private final ConflictStrategy strategy;
+        
+        /**
+         * 规范 ID -> 配置，STRICT 策略使用
+         */
+        private final Map<String, ConfigResponse> configs;
+        
+        /**
+         * 至少被一个配置使用的条件 key，按优先级从高到低排列
+         */
+        private final List<String> keyPriority;
+        
+        /**
+         * 场景中存在的条件 key 组合，按策略的探测顺序排列
+         */
+        private final List<KeySet> keySets;
+        
+        SceneConditionIndex(Scene scene, List<ConfigResponse> configList) {
+            this(scene.getId(), scene.getConditionConflictStrategy(),
+                scene.getAvailableConditions() == null ? List.of()
+                    : scene.getAvailableConditions().stream().map(AvailableCondition::getKey).toList(),
+                configList);
+        }
+        
+        /**
+         * @param sceneId       场景 ID
+         * @param strategy      条件冲突策略，为空时按 PRIORITY
+         * @param declaredKeys  场景声明的可用条件 key，按声明顺序
+         * @param configList    场景下的全部配置
+         */
+        public SceneConditionIndex(String sceneId, ConflictStrategy strategy, List<String> declaredKeys,
+                                   List<ConfigResponse> configList) {
+            this.sceneId = sceneId;
+            this.strategy = strategy != null ? strategy : ConflictStrategy.PRIORITY;
+            
+            Map<String, ConfigResponse> byCanonicalId = new HashMap<>(configList.size() * 2);
+            Set<String> usedKeys = new TreeSet<>();
+            for (ConfigResponse config : configList) {
+                byCanonicalId.put(ConfigIdGenerator.generate(sceneId, config.getConditionList()), config);
+                if (config.getConditionList() != null) {
+                    config.getConditionList().forEach(condition -> usedKeys.add(condition.getKey()));
+                }
+            }
+            this.configs = byCanonicalId;
+            
+            // 优先级：场景声明的可用条件顺序在前，其余按 key 字典序
+            List<String> priority = new ArrayList<>(usedKeys.size());
+            for (String key : declaredKeys) {
+                if (usedKeys.remove(key)) {
+                    priority.add(key);
+                }
+            }
+            priority.addAll(usedKeys);
+            this.keyPriority = List.copyOf(priority);
+            
+            Map<String, Integer> ranks = new HashMap<>(priority.size() * 2);
+            for (int i = 0; i < priority.size(); i++) {
+                ranks.put(priority.get(i), i);
+            }
+            Map<List<Integer>, KeySet> byRanks = new HashMap<>();
+            for (ConfigResponse config : configList) {
+                List<Condition> conditions = config.getConditionList() == null
+                    ? new ArrayList<>() : new ArrayList<>(config.getConditionList());
+                conditions.sort(Comparator.comparing(condition -> ranks.get(condition.getKey())));
+                List<Integer> keyRanks = conditions.stream().map(condition -> ranks.get(condition.getKey())).toList();
+                // 重复 key 的条件组合不可能被请求条件匹配
+                if (new HashSet<>(keyRanks).size() == keyRanks.size()) {
+                    byRanks.computeIfAbsent(keyRanks, key -> new KeySet(priority, key)).add(conditions, config);
+                }
+            }
+            List<KeySet> ordered = new ArrayList<>(byRanks.values());
+            ordered.sort(this.strategy == ConflictStrategy.BEST_MATCH
+                ? Comparator.comparingInt(KeySet::size).reversed().thenComparing(KeySet::compareByPriority)
+                : KeySet::compareByPriority);
+            this.keySets = List.copyOf(ordered);
+        }
+        
+        /**
+         * 解析生效配置
+         *
+         * @param query 请求条件（key -> value）
+         * @return 生效的配置，没有匹配的配置时返回 null
+         * @throws ValidationException 参与匹配的条件数超过上限
+         */
+        public ConfigResponse resolve(Map<String, String> query) {
+            if (strategy == ConflictStrategy.STRICT) {
+                return configs.get(ConfigIdGenerator.generate(sceneId, toConditions(query)));
+            }
+            
+            // 只有被配置使用过的 key 才可能命中
+            int candidates = 0;
+            for (String key : keyPriority) {
+                if (query.get(key) != null) {
+                    candidates++;
+                }
+            }
+            if (candidates > MAX_RESOLVE_CONDITIONS) {
+                throw new ValidationException("INVALID_PARAMETER",
+                    "参与匹配的条件数不能超过 " + MAX_RESOLVE_CONDITIONS);
+            }
+            
+            // BEST_MATCH：条件最多者优先，条件数相同时按优先级；PRIORITY：按优先级字典序
+            for (KeySet keySet : keySets) {
+                ConfigResponse config = keySet.probe(query);
+                if (config != null) {
+                    return config;
+                }
+            }
+            return null;
+        }
+        
+        private static List<Condition> toConditions(Map<String, String> query) {
+            List<Condition> conditions = new ArrayList<>(query.size());
+            query.forEach((key, value) -> conditions.add(condition(key, value)));
+            return conditions;
+        }
+        
+        private static Condition condition(String key, String value) {
+            Condition condition = new Condition();
+            condition.setKey(key);
+            condition.setValue(value);
+            return condition;
+        }
+    }
+    
+    /**
+     * 一组条件 key 及使用这组 key 的配置
+     * <p>
+     * 配置按 key 的优先级顺序逐级以条件值索引（嵌套 Map，叶子为配置），探测时直接以请求中的值查找，不分配对象。
+     */
+    private static final class KeySet {
+        
+        private final String[] keys;
+        
+        /**
+         * 各 key 在优先级中的位置，升序
+         */
+        private final int[] ranks;
+        
+        /**
+         * 没有条件时为默认配置，否则为第一个 key 的值 -> 下一级
+         */
+        private Object root;
+        
+        KeySet(List<String> priority, List<Integer> keyRanks) {
+            this.ranks = keyRanks.stream().mapToInt(Integer::intValue).toArray();
+            this.keys = new String[ranks.length];
+            for (int i = 0; i < ranks.length; i++) {
+                keys[i] = priority.get(ranks[i]);
+            }
+            this.root = ranks.length == 0 ? null : new HashMap<String, Object>();
+        }
+        
+        int size() {
+            return keys.length;
+        }
+        
+        /**
+         * @param conditions 按 key 优先级排列的条件
+         */
+        @SuppressWarnings("unchecked")
+        void add(List<Condition> conditions, ConfigResponse config) {
+            if (keys.length == 0) {
+                root = config;
+                return;
+            }
+            Map<String, Object> node = (Map<String, Object>) root;
+            for (int i = 0; i < keys.length - 1; i++) {
+                node = (Map<String, Object>) node.computeIfAbsent(conditions.get(i).getValue(), value -> new HashMap<>());
+            }
+            node.put(conditions.get(keys.length - 1).getValue(), config);
+        }
+        
+        @SuppressWarnings("unchecked")
+        ConfigResponse probe(Map<String, String> query) {
+            Object node = root;
+            for (String key : keys) {
+                String value = query.get(key);
+                if (value == null) {
+                    return null;
+                }
+                node = ((Map<String, Object>) node).get(value);
+                if (node == null) {
+                    return null;
+                }
+            }
+            return (ConfigResponse) node;
+        }
+        
+        /**
+         * 与按优先级排列的掩码降序一致：第一个不同的 key 优先级较高者在前，前缀相同时 key 多者在前
+         */
+        int compareByPriority(KeySet other) {
+            int common = Math.min(ranks.length, other.ranks.length);
+            for (int i = 0; i < common; i++) {
+                if (ranks[i] != other.ranks[i]) {
+                    return Integer.compare(ranks[i], other.ranks[i]);
+                }
+            }
+            return Integer.compare(other.ranks.length, ranks.length);
+        }
+    }
+}
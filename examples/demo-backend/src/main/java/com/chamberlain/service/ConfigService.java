@@ -4,7 +4,9 @@ import com.chamberlain.dto.common.PageResult;
 import com.chamberlain.dto.request.CopyConfigRequest;
 import com.chamberlain.dto.request.CreateConfigRequest;
 import com.chamberlain.dto.request.UpdateConfigRequest;
+import com.chamberlain.dto.request.ValidateConfigRequest;
 import com.chamberlain.dto.response.ConfigResponse;
+import com.chamberlain.dto.response.ValidateConfigResponse;
 import com.chamberlain.entity.Config;
 import com.chamberlain.entity.Scene;
 import com.chamberlain.entity.SchemeVersion;
@@ -13,19 +15,28 @@ import com.chamberlain.exception.ResourceNotFoundException;
 import com.chamberlain.exception.ValidationException;
 import com.chamberlain.mapper.ConfigMapper;
 import com.chamberlain.repository.ConfigRepository;
+import com.chamberlain.repository.ConfigVersionStamp;
 import com.chamberlain.repository.SceneRepository;
 import com.chamberlain.repository.SchemeVersionRepository;
+import com.chamberlain.repository.VersionStamp;
+import com.chamberlain.service.SchemaValidationService.ValidationOptions;
 import com.chamberlain.service.SchemaValidationService.ValidationResult;
 import com.chamberlain.util.ConfigIdGenerator;
+import com.chamberlain.util.KeysetCursor;
+import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * 配置服务
  */
@@ -39,14 +50,63 @@ public class ConfigService {
     private final SchemeVersionRepository schemeVersionRepository;
     private final ConfigMapper configMapper;
     private final SchemaValidationService schemaValidationService;
+    private final ConfigResolveService configResolveService;
+    private final ConfigCacheService configCacheService;
+    private final SceneRevisionService sceneRevisionService;
+    private final SceneSnapshotService sceneSnapshotService;
+    private final ConfigUpgradeService configUpgradeService;
     
     /**
-     * 根据 ID 获取配置
+     * 根据 ID 获取配置，旧 Scheme 版本的配置升级到场景当前版本后返回
      */
     public ConfigResponse getById(String id) {
-        Config config = configRepository.findById(id)
-            .orElseThrow(() -> new ResourceNotFoundException("CONFIG_NOT_FOUND", "配置不存在: " + id));
-        return configMapper.toResponse(config);
+        if (sceneSnapshotService.isServing()) {
+            return sceneSnapshotService.findConfig(id)
+                .map(configUpgradeService::upgrade)
+                .orElseThrow(() -> new ResourceNotFoundException("CONFIG_NOT_FOUND", "配置不存在: " + id));
+        }
+        // 缓存保存存储的原始版本，升级结果由 ConfigUpgradeService 缓存
+        return configUpgradeService.upgrade(configCacheService.getOrLoad(id, () -> {
+            Config config = configRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("CONFIG_NOT_FOUND", "配置不存在: " + id));
+            return configMapper.toResponse(config);
+        }));
+    }
+    
+    /**
+     * 配置详情的 ETag，只查询修订号、更新时间和版本号，不加载 config_data
+     *
+     * @param id 配置 ID
+     * @return ETag，配置不存在时返回 null
+     */
+    public String getETag(String id) {
+        if (sceneSnapshotService.isServing()) {
+            return sceneSnapshotService.findConfig(id)
+                .map(config -> new ConfigVersionStamp(config.getRevision(), config.getUpdatedAt(),
+                    config.getSchemeVersion(), sceneSnapshotService.find(config.getSceneId())
+                        .map(snapshot -> snapshot.scene().getCurrentSchemeVersion())
+                        .orElse(null)).toETag())
+                .orElse(null);
+        }
+        return configRepository.findVersionStampById(id).map(ConfigVersionStamp::toETag).orElse(null);
+    }
+    
+    /**
+     * 配置列表的 ETag，由场景修订号和配置数得出，与分页参数无关
+     *
+     * @param sceneId 场景 ID
+     * @return ETag，场景不存在时返回 null
+     */
+    public String getListETag(String sceneId) {
+        if (sceneId == null || sceneId.trim().isEmpty()) {
+            return null;
+        }
+        if (sceneSnapshotService.isServing()) {
+            return sceneSnapshotService.find(sceneId)
+                .map(snapshot -> snapshot.configsVersionStamp().toETag())
+                .orElse(null);
+        }
+        return sceneRepository.findConfigsVersionStampById(sceneId).map(VersionStamp::toETag).orElse(null);
     }
     
     /**
@@ -59,6 +119,17 @@ public class ConfigService {
             throw new ValidationException("INVALID_PARAMETER", "sceneId 参数必填");
         }
         
+        if (sceneSnapshotService.isServing()) {
+            return sceneSnapshotService.find(sceneId)
+                .map(snapshot -> sceneSnapshotService.listConfigs(snapshot, schemeVersion, page, pageSize, sort))
+                .map(result -> {
+                    result.setList(configUpgradeService.upgrade(result.getList()));
+                    return result;
+                })
+                .orElseGet(() -> PageResult.<ConfigResponse>builder()
+                    .list(List.of()).total(0L).page(page).pageSize(pageSize).build());
+        }
+        
         Pageable pageable = PageRequest.of(
             page - 1,
             pageSize,
@@ -84,13 +155,79 @@ public class ConfigService {
         }
         
         return PageResult.<ConfigResponse>builder()
-            .list(configMapper.toResponseList(configPage.getContent()))
+            .list(configUpgradeService.upgrade(configMapper.toResponseList(configPage.getContent())))
             .total(configPage.getTotalElements())
             .page(page)
             .pageSize(pageSize)
             .build();
     }
     
+    /**
+     * 获取配置列表（游标分页）
+     * 按 (updatedAt, id) 降序 seek 定位，不执行 COUNT 查询，适合自动化程序遍历全部数据
+     */
+    public PageResult<ConfigResponse> listByCursor(String sceneId, Integer schemeVersion,
+                                                   String cursor, Integer limit) {
+        // sceneId 必填
+        if (sceneId == null || sceneId.trim().isEmpty()) {
+            throw new ValidationException("INVALID_PARAMETER", "sceneId 参数必填");
+        }
+        int pageSize = KeysetCursor.checkLimit(limit);
+        KeysetCursor after = cursor == null || cursor.isEmpty() ? null : KeysetCursor.decode(cursor);
+        
+        Specification<Config> spec = (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(root.get("sceneId"), sceneId));
+            if (schemeVersion != null) {
+                predicates.add(cb.equal(root.get("schemeVersion"), schemeVersion));
+            }
+            if (after != null) {
+                predicates.add(after.toPredicate(root, cb));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+        
+        // 多取一条用于判断是否还有下一页
+        List<Config> configs = configRepository.findBy(spec,
+            q -> q.sortBy(KeysetCursor.SORT).limit(pageSize + 1).all());
+        
+        String nextCursor = null;
+        if (configs.size() > pageSize) {
+            configs = configs.subList(0, pageSize);
+            Config last = configs.get(pageSize - 1);
+            nextCursor = new KeysetCursor(last.getUpdatedAt(), last.getId()).encode();
+        }
+        
+        return PageResult.<ConfigResponse>builder()
+            .list(configUpgradeService.upgrade(configMapper.toResponseList(configs)))
+            .pageSize(pageSize)
+            .nextCursor(nextCursor)
+            .build();
+    }
+    
+    /**
+     * 验证配置数据是否符合场景的 Scheme，不写入
+     * <p>
+     * 与写入路径不同，返回全部错误，便于界面一次标出所有问题
+     */
+    @Transactional(readOnly = true)
+    public ValidateConfigResponse validate(String sceneId, ValidateConfigRequest request) {
+        Scene scene = sceneRepository.findById(sceneId)
+            .orElseThrow(() -> new ResourceNotFoundException("SCENE_NOT_FOUND", "场景不存在: " + sceneId));
+        int version = request.getSchemeVersion() != null
+            ? request.getSchemeVersion() : scene.getCurrentSchemeVersion();
+        SchemeVersion schemeVersion = schemeVersionRepository.findBySceneIdAndVersion(sceneId, version)
+            .orElseThrow(() -> new ResourceNotFoundException("SCHEME_VERSION_NOT_FOUND", "Scheme版本不存在: " + version));
+        
+        ValidationResult validationResult = schemaValidationService.validate(
+            schemeVersion, request.getConfig(), ValidationOptions.FULL);
+        return ValidateConfigResponse.builder()
+            .valid(validationResult.isValid())
+            .schemeVersion(version)
+            .errors(validationResult.getDetails())
+            .build();
+    }
+    
     /**
      * 创建配置
      */
@@ -117,23 +254,28 @@ public class ConfigService {
         
         // 验证配置数据是否符合 Schema
         ValidationResult validationResult = schemaValidationService.validate(
-            schemeVersion.getSchemaJson(),
-            request.getConfig()
+            schemeVersion,
+            request.getConfig(),
+            schemaValidationService.getWriteOptions()
         );
         
         if (!validationResult.isValid()) {
-            String errorMsg = String.join("; ", validationResult.getErrors());
             throw new ValidationException("CONFIG_VALIDATION_FAILED",
-                "配置数据不符合 Schema 定义: " + errorMsg);
+                "配置数据不符合 Schema 定义: " + validationResult.describe(), validationResult.getDetails());
         }
         
         // 创建配置
         Config config = configMapper.toEntity(request);
         config.setId(configId);
+        config.setRevision(sceneRevisionService.next(config.getSceneId()));
         config = configRepository.save(config);
+        configResolveService.invalidate(config.getSceneId());
         
         log.info("Created config: {}", configId);
-        return configMapper.toResponse(config);
+        ConfigResponse response = configMapper.toResponse(config);
+        configCacheService.put(response);
+        sceneSnapshotService.putConfig(response);
+        return response;
     }
     
     /**
@@ -152,22 +294,27 @@ public class ConfigService {
                 .orElseThrow(() -> new ResourceNotFoundException("SCHEME_VERSION_NOT_FOUND", "Scheme版本不存在"));
             
             ValidationResult validationResult = schemaValidationService.validate(
-                schemeVersion.getSchemaJson(),
-                request.getConfig()
+                schemeVersion,
+                request.getConfig(),
+                schemaValidationService.getWriteOptions()
             );
             
             if (!validationResult.isValid()) {
-                String errorMsg = String.join("; ", validationResult.getErrors());
                 throw new ValidationException("CONFIG_VALIDATION_FAILED",
-                    "配置数据不符合 Schema 定义: " + errorMsg);
+                    "配置数据不符合 Schema 定义: " + validationResult.describe(), validationResult.getDetails());
             }
         }
         
         configMapper.updateEntityFromRequest(request, config);
+        config.setRevision(sceneRevisionService.next(config.getSceneId()));
         config = configRepository.save(config);
+        configResolveService.invalidate(config.getSceneId());
         
         log.info("Updated config: {}", id);
-        return configMapper.toResponse(config);
+        ConfigResponse response = configMapper.toResponse(config);
+        configCacheService.put(response);
+        sceneSnapshotService.putConfig(response);
+        return response;
     }
     
     /**
@@ -179,7 +326,12 @@ public class ConfigService {
             throw new ResourceNotFoundException("CONFIG_NOT_FOUND", "配置不存在: " + id);
         }
         
+        String sceneId = ConfigIdGenerator.extractSceneId(id);
         configRepository.deleteById(id);
+        long revision = sceneRevisionService.next(sceneId);
+        configResolveService.invalidate(sceneId);
+        configCacheService.evict(id);
+        sceneSnapshotService.removeConfig(id, revision);
         log.info("Deleted config: {}", id);
     }
     
@@ -207,11 +359,16 @@ public class ConfigService {
         newConfig.setSchemeVersion(sourceConfig.getSchemeVersion());
         newConfig.setConditionList(request.getToConditions());
         newConfig.setConfigData(sourceConfig.getConfigData().deepCopy());
+        newConfig.setRevision(sceneRevisionService.next(newConfig.getSceneId()));
         
         newConfig = configRepository.save(newConfig);
+        configResolveService.invalidate(newConfig.getSceneId());
         
         log.info("Copied config from {} to {}", id, newId);
-        return configMapper.toResponse(newConfig);
+        ConfigResponse response = configMapper.toResponse(newConfig);
+        configCacheService.put(response);
+        sceneSnapshotService.putConfig(response);
+        return response;
     }
     
     /**
@@ -0,0 +1,498 @@
+package com.chamberlain.service;
+
+import com.chamberlain.dto.common.UpgradeOperation;
+import com.chamberlain.dto.common.UpgradeOperation.Type;
+import com.chamberlain.dto.response.ConfigResponse;
+import com.chamberlain.entity.Scene;
+import com.chamberlain.entity.SchemeVersion;
+import com.chamberlain.exception.ValidationException;
+import com.chamberlain.metrics.ChamberlainMetrics;
+import com.chamberlain.repository.ConfigRepository;
+import com.chamberlain.repository.SceneRepository;
+import com.chamberlain.repository.SchemeVersionRepository;
+import com.chamberlain.util.TransactionUtil;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * 配置升级服务
+ * <p>
+ * Scheme 升级后已有配置仍停留在创建时的版本。读取时按各版本声明的转换操作（{@link UpgradeOperation}）
+ * 把旧版本配置在内存中逐版本升级到场景当前版本，并用当前版本的 Schema 验证，未通过验证的配置按原版本返回。
+ * 升级结果按 (配置 ID, 修订号, 目标版本) 缓存，由后台任务分批写回数据库；写回只在配置的修订号和版本都未变化时生效，
+ * 不改变修订号和更新时间。升级 Scheme 因此不需要在同一事务中重写场景下的全部配置。
+ */
+@Service
+@Slf4j
+public class ConfigUpgradeService {
+    
+    private final SceneRepository sceneRepository;
+    private final SchemeVersionRepository schemeVersionRepository;
+    private final ConfigRepository configRepository;
+    private final SchemaValidationService schemaValidationService;
+    private final ConfigCacheService configCacheService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate flushTransaction;
+    private final int batchSize;
+    
+    /**
+     * 场景升级计划，key 为场景 ID
+     */
+    private final LoadingCache<String, UpgradePlan> plans;
+    
+    /**
+     * 升级结果，未通过验证的配置记为 Optional.empty()
+     */
+    private final Cache<UpgradeKey, Optional<ConfigResponse>> upgraded;
+    
+    /**
+     * 待写回的升级结果，key 为配置 ID
+     */
+    private final ConcurrentMap<String, PendingUpgrade> pending = new ConcurrentHashMap<>();
+    
+    private final Counter upgradedCounter;
+    private final Counter failedCounter;
+    private final Counter persistedCounter;
+    
+    public ConfigUpgradeService(SceneRepository sceneRepository,
+                                SchemeVersionRepository schemeVersionRepository,
+                                ConfigRepository configRepository,
+                                SchemaValidationService schemaValidationService,
+                                ConfigCacheService configCacheService,
+                                ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${chamberlain.upgrade.refresh-interval:30s}") Duration refreshInterval,
+                                @Value("${chamberlain.upgrade.max-entries:10000}") long maxEntries,
+                                @Value("${chamberlain.upgrade.batch-size:500}") int batchSize,
+                                MeterRegistry registry) {
+        this.sceneRepository = sceneRepository;
+        this.schemeVersionRepository = schemeVersionRepository;
+        this.configRepository = configRepository;
+        this.schemaValidationService = schemaValidationService;
+        this.configCacheService = configCacheService;
+        this.objectMapper = objectMapper;
+        this.flushTransaction = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.plans = Caffeine.newBuilder()
+            .maximumSize(1024)
+            .refreshAfterWrite(refreshInterval)
+            .build(this::loadPlan);
+        this.upgraded = Caffeine.newBuilder()
+            .maximumSize(maxEntries)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(registry, upgraded, "config-upgrades");
+        this.upgradedCounter = registry.counter(ChamberlainMetrics.CONFIG_UPGRADES, "outcome", "upgraded");
+        this.failedCounter = registry.counter(ChamberlainMetrics.CONFIG_UPGRADES, "outcome", "failed");
+        this.persistedCounter = registry.counter(ChamberlainMetrics.CONFIG_UPGRADES, "outcome", "persisted");
+    }
+    
+    /**
+     * 将配置升级到场景当前 Scheme 版本
+     *
+     * @param config 配置
+     * @return 升级后的配置；已是当前版本、场景不存在或转换后未通过验证时返回原配置
+     */
+    public ConfigResponse upgrade(ConfigResponse config) {
+        if (config == null || config.getSchemeVersion() == null) {
+            return config;
+        }
+        UpgradePlan plan = plans.get(config.getSceneId());
+        if (plan == null || config.getSchemeVersion() >= plan.currentVersion()) {
+            return config;
+        }
+        UpgradeKey key = new UpgradeKey(config.getSceneId(), config.getId(), config.getRevision(), plan.currentVersion());
+        return upgraded.get(key, k -> upgrade(config, plan)).orElse(config);
+    }
+    
+    /**
+     * 将一组配置升级到各自场景的当前 Scheme 版本
+     *
+     * @param configs 配置列表
+     * @return 升级后的配置列表，顺序不变
+     */
+    public List<ConfigResponse> upgrade(List<ConfigResponse> configs) {
+        List<ConfigResponse> result = new ArrayList<>(configs.size());
+        for (ConfigResponse config : configs) {
+            result.add(upgrade(config));
+        }
+        return result;
+    }
+    
+    /**
+     * 从数据库重新加载场景的升级计划，在当前事务提交后生效
+     * 用于场景创建、Scheme 新增和激活
+     *
+     * @param sceneId 场景 ID
+     */
+    public void reload(String sceneId) {
+        TransactionUtil.afterCommit(() -> {
+            UpgradePlan plan = loadPlan(sceneId);
+            if (plan == null) {
+                plans.invalidate(sceneId);
+            } else {
+                plans.put(sceneId, plan);
+            }
+        });
+    }
+    
+    /**
+     * 移除场景的升级计划和升级结果（场景删除后 ID 可能被复用），在当前事务提交后生效
+     *
+     * @param sceneId 场景 ID
+     */
+    public void invalidate(String sceneId) {
+        TransactionUtil.afterCommit(() -> {
+            plans.invalidate(sceneId);
+            upgraded.asMap().keySet().removeIf(key -> key.sceneId().equals(sceneId));
+        });
+    }
+    
+    /**
+     * 将配置数据升级到场景当前 Scheme 版本，转换和验证与 {@link #upgrade(ConfigResponse)} 相同，
+     * 但不缓存结果、不登记写回，供批量扫描（如 Scheme 影响分析）使用
+     *
+     * @param sceneId       场景 ID
+     * @param schemeVersion 配置存储的 Scheme 版本
+     * @param data          配置数据（不会被修改）
+     * @return 升级后的数据；已是当前版本或无法升级时返回原数据
+     */
+    public JsonNode upgradeData(String sceneId, Integer schemeVersion, JsonNode data) {
+        if (schemeVersion == null) {
+            return data;
+        }
+        UpgradePlan plan = plans.get(sceneId);
+        if (plan == null || schemeVersion >= plan.currentVersion()) {
+            return data;
+        }
+        JsonNode upgraded = transform(data, schemeVersion, plan).data();
+        return upgraded != null ? upgraded : data;
+    }
+    
+    /**
+     * 校验并编译一组转换操作
+     *
+     * @param operations 转换操作列表，可以为空
+     * @return 在数据副本上执行转换的函数，数据不是对象时原样返回
+     * @throws ValidationException 操作不合法
+     */
+    public UnaryOperator<JsonNode> compileUpgrade(List<UpgradeOperation> operations) {
+        if (operations == null || operations.isEmpty()) {
+            return UnaryOperator.identity();
+        }
+        List<UpgradeStep> steps = compile(operations);
+        return data -> {
+            if (!(data instanceof ObjectNode object)) {
+                return data;
+            }
+            ObjectNode copy = object.deepCopy();
+            steps.forEach(step -> step.apply(copy));
+            return copy;
+        };
+    }
+    
+    /**
+     * 校验转换操作并转换为存储格式
+     *
+     * @param operations 转换操作列表
+     * @return 存储到 scheme_versions.upgrade_json 的 JSON 数组，没有操作时返回 null
+     * @throws ValidationException 操作不合法
+     */
+    public JsonNode toUpgradeJson(List<UpgradeOperation> operations) {
+        if (operations == null || operations.isEmpty()) {
+            return null;
+        }
+        compile(operations);
+        return objectMapper.valueToTree(operations);
+    }
+    
+    /**
+     * 将待写回的升级结果分批写入数据库，每批一个事务
+     * 写回后移除 Redis 中的旧缓存，避免之后的读取重复升级
+     */
+    @Scheduled(fixedDelayString = "${chamberlain.upgrade.flush-interval:PT5S}")
+    public void flush() {
+        while (!pending.isEmpty()) {
+            List<PendingUpgrade> batch = new ArrayList<>(Math.min(batchSize, pending.size()));
+            for (Map.Entry<String, PendingUpgrade> entry : pending.entrySet()) {
+                if (batch.size() >= batchSize) {
+                    break;
+                }
+                if (pending.remove(entry.getKey(), entry.getValue())) {
+                    batch.add(entry.getValue());
+                }
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            
+            try {
+                Integer written = flushTransaction.execute(status -> {
+                    int rows = 0;
+                    for (PendingUpgrade upgrade : batch) {
+                        rows += configRepository.upgradeSchemeVersion(upgrade.id(), upgrade.revision(),
+                            upgrade.fromVersion(), upgrade.toVersion(), upgrade.data());
+                    }
+                    return rows;
+                });
+                batch.forEach(upgrade -> configCacheService.evict(upgrade.id()));
+                persistedCounter.increment(written == null ? 0 : written);
+                log.debug("Persisted {} of {} upgraded configs", written, batch.size());
+            } catch (RuntimeException e) {
+                // 写回只是优化，失败的配置下次读取时仍在内存中升级
+                log.warn("Failed to persist {} upgraded configs: {}", batch.size(), e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * 待写回的配置数
+     */
+    public int pendingCount() {
+        return pending.size();
+    }
+    
+    /**
+     * 逐版本执行转换操作并验证，通过后登记待写回
+     */
+    private Optional<ConfigResponse> upgrade(ConfigResponse config, UpgradePlan plan) {
+        Transformed transformed = transform(config.getConfig(), config.getSchemeVersion(), plan);
+        if (transformed.data() == null) {
+            return failed(config, plan, transformed.error());
+        }
+        JsonNode data = transformed.data();
+        
+        ConfigResponse response = new ConfigResponse();
+        response.setId(config.getId());
+        response.setSceneId(config.getSceneId());
+        response.setSchemeVersion(plan.currentVersion());
+        response.setConditionList(config.getConditionList());
+        response.setConfig(data);
+        response.setRevision(config.getRevision());
+        response.setCreatedAt(config.getCreatedAt());
+        response.setUpdatedAt(config.getUpdatedAt());
+        response.setCreatedBy(config.getCreatedBy());
+        response.setUpdatedBy(config.getUpdatedBy());
+        
+        pending.put(config.getId(), new PendingUpgrade(config.getId(), config.getRevision(),
+            config.getSchemeVersion(), plan.currentVersion(), data));
+        upgradedCounter.increment();
+        return Optional.of(response);
+    }
+    
+    /**
+     * 在原数据的副本上逐版本执行转换操作，并用当前版本验证
+     *
+     * @return 转换结果，失败时 data 为 null
+     */
+    private Transformed transform(JsonNode original, int fromVersion, UpgradePlan plan) {
+        JsonNode data = original == null ? null : original.deepCopy();
+        for (int version = fromVersion + 1; version <= plan.currentVersion(); version++) {
+            List<UpgradeStep> steps = plan.steps().get(version);
+            if (steps == null || (!steps.isEmpty() && !(data instanceof ObjectNode))) {
+                return new Transformed(null, "版本 " + version + " 的转换不可用");
+            }
+            for (UpgradeStep step : steps) {
+                step.apply((ObjectNode) data);
+            }
+        }
+        
+        // 只需判断能否升级，第一个错误即可作为原因
+        SchemaValidationService.ValidationResult result = schemaValidationService.validate(plan.target(), data,
+            SchemaValidationService.ValidationOptions.FAIL_FAST);
+        if (!result.isValid()) {
+            return new Transformed(null, result.describe());
+        }
+        return new Transformed(data, null);
+    }
+    
+    private Optional<ConfigResponse> failed(ConfigResponse config, UpgradePlan plan, String reason) {
+        failedCounter.increment();
+        log.debug("Config {} not upgraded from version {} to {}: {}",
+            config.getId(), config.getSchemeVersion(), plan.currentVersion(), reason);
+        return Optional.empty();
+    }
+    
+    /**
+     * 加载场景的升级计划，场景不存在时返回 null
+     * 转换操作无法解析的版本不进入计划，低于该版本的配置不升级
+     */
+    private UpgradePlan loadPlan(String sceneId) {
+        Optional<Scene> scene = sceneRepository.findById(sceneId);
+        if (scene.isEmpty()) {
+            return null;
+        }
+        
+        int currentVersion = scene.get().getCurrentSchemeVersion();
+        Map<Integer, List<UpgradeStep>> steps = new HashMap<>();
+        SchemeVersion target = null;
+        for (SchemeVersion version : schemeVersionRepository.findBySceneIdOrderByVersionDesc(sceneId)) {
+            if (version.getVersion() > currentVersion) {
+                continue;
+            }
+            if (version.getVersion() == currentVersion) {
+                target = version;
+            }
+            try {
+                steps.put(version.getVersion(), parse(version.getUpgradeJson()));
+            } catch (RuntimeException e) {
+                log.warn("Ignored invalid upgrade of scene {} version {}: {}",
+                    sceneId, version.getVersion(), e.getMessage());
+            }
+        }
+        return target == null ? null : new UpgradePlan(currentVersion, Map.copyOf(steps), target);
+    }
+    
+    private List<UpgradeStep> parse(JsonNode upgradeJson) {
+        if (upgradeJson == null || upgradeJson.isNull() || upgradeJson.isEmpty()) {
+            return List.of();
+        }
+        return compile(Arrays.asList(objectMapper.convertValue(upgradeJson, UpgradeOperation[].class)));
+    }
+    
+    private static List<UpgradeStep> compile(List<UpgradeOperation> operations) {
+        List<UpgradeStep> steps = new ArrayList<>(operations.size());
+        for (int i = 0; i < operations.size(); i++) {
+            UpgradeOperation operation = operations.get(i);
+            String prefix = "第 " + (i + 1) + " 个转换操作";
+            if (operation == null || operation.getOp() == null) {
+                throw new ValidationException("INVALID_UPGRADE", prefix + "缺少 op");
+            }
+            List<String> path = pointer(operation.getPath(), prefix + "的 path");
+            List<String> from = null;
+            switch (operation.getOp()) {
+                case DEFAULT -> {
+                    if (operation.getValue() == null) {
+                        throw new ValidationException("INVALID_UPGRADE", prefix + "缺少 value");
+                    }
+                }
+                case RENAME -> {
+                    from = pointer(operation.getFrom(), prefix + "的 from");
+                    if (isPrefix(from, path) || isPrefix(path, from)) {
+                        throw new ValidationException("INVALID_UPGRADE", prefix + "的 from 和 path 不能互相包含");
+                    }
+                }
+                case REMOVE -> {
+                }
+            }
+            steps.add(new UpgradeStep(operation.getOp(), path, from, operation.getValue()));
+        }
+        return List.copyOf(steps);
+    }
+    
+    /**
+     * 解析 JSON Pointer 为属性名列表，不能指向根节点
+     */
+    private static List<String> pointer(String expression, String name) {
+        if (expression == null || expression.isEmpty()) {
+            throw new ValidationException("INVALID_UPGRADE", name + "不能为空");
+        }
+        JsonPointer pointer;
+        try {
+            pointer = JsonPointer.compile(expression);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("INVALID_UPGRADE", name + "不是合法的 JSON Pointer: " + expression);
+        }
+        List<String> segments = new ArrayList<>();
+        for (JsonPointer p = pointer; !p.matches(); p = p.tail()) {
+            segments.add(p.getMatchingProperty());
+        }
+        return List.copyOf(segments);
+    }
+    
+    private static boolean isPrefix(List<String> prefix, List<String> path) {
+        return prefix.size() <= path.size() && path.subList(0, prefix.size()).equals(prefix);
+    }
+    
+    /**
+     * 场景升级计划
+     *
+     * @param currentVersion 场景当前版本
+     * @param steps          版本号 -> 从上一版本升级到该版本的转换
+     * @param target         当前版本，用于验证升级结果
+     */
+    private record UpgradePlan(int currentVersion, Map<Integer, List<UpgradeStep>> steps, SchemeVersion target) {
+    }
+    
+    private record UpgradeKey(String sceneId, String id, Long revision, int targetVersion) {
+    }
+    
+    private record Transformed(JsonNode data, String error) {
+    }
+    
+    private record PendingUpgrade(String id, Long revision, Integer fromVersion, Integer toVersion, JsonNode data) {
+    }
+    
+    /**
+     * 编译后的转换操作，路径已解析为属性名列表
+     */
+    private record UpgradeStep(Type type, List<String> path, List<String> from, JsonNode value) {
+        
+        void apply(ObjectNode root) {
+            String name = path.get(path.size() - 1);
+            switch (type) {
+                case DEFAULT -> {
+                    ObjectNode parent = parent(root, path, true);
+                    if (parent != null && !parent.has(name)) {
+                        parent.set(name, value.deepCopy());
+                    }
+                }
+                case RENAME -> {
+                    ObjectNode source = parent(root, from, false);
+                    String sourceName = from.get(from.size() - 1);
+                    if (source == null || !source.has(sourceName)) {
+                        return;
+                    }
+                    ObjectNode parent = parent(root, path, true);
+                    if (parent != null && !parent.has(name)) {
+                        parent.set(name, source.remove(sourceName));
+                    }
+                }
+                case REMOVE -> {
+                    ObjectNode parent = parent(root, path, false);
+                    if (parent != null) {
+                        parent.remove(name);
+                    }
+                }
+            }
+        }
+        
+        /**
+         * 定位路径的上级对象，create 为 true 时创建缺失的上级对象；路径上存在非对象节点时返回 null
+         */
+        private static ObjectNode parent(ObjectNode root, List<String> path, boolean create) {
+            ObjectNode node = root;
+            for (int i = 0; i < path.size() - 1; i++) {
+                JsonNode child = node.get(path.get(i));
+                if (child == null && create) {
+                    child = node.putObject(path.get(i));
+                }
+                if (!(child instanceof ObjectNode)) {
+                    return null;
+                }
+                node = (ObjectNode) child;
+            }
+            return node;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.chamberlain.service;
+
+import com.chamberlain.dto.response.ConfigWatchResponse;
+import com.chamberlain.exception.ResourceNotFoundException;
+import com.chamberlain.exception.ValidationException;
+import com.chamberlain.repository.SceneRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 配置变更长轮询服务
+ * <p>
+ * 等待者只是挂在场景上的一个 {@link CompletableFuture}，不占用线程；修订号超过等待者的 sinceRevision 时由
+ * {@link #publish} 唤醒。本实例的写入在事务提交后直接通知，其他实例的写入由定期查询有等待者的场景修订号感知。
+ */
+@Service
+@Slf4j
+public class ConfigWatchService {
+    
+    private static final int POLL_BATCH_SIZE = 1000;
+    
+    private final SceneRepository sceneRepository;
+    private final Duration defaultTimeout;
+    private final Duration maxTimeout;
+    
+    /**
+     * 场景 ID -> 已知修订号和等待者
+     */
+    private final ConcurrentHashMap<String, SceneWatchers> scenes = new ConcurrentHashMap<>();
+    
+    public ConfigWatchService(SceneRepository sceneRepository,
+                              @Value("${chamberlain.watch.default-timeout:30s}") Duration defaultTimeout,
+                              @Value("${chamberlain.watch.max-timeout:60s}") Duration maxTimeout) {
+        this.sceneRepository = sceneRepository;
+        this.defaultTimeout = defaultTimeout;
+        this.maxTimeout = maxTimeout;
+    }
+    
+    /**
+     * 等待场景修订号超过 sinceRevision
+     *
+     * @param sceneId       场景 ID
+     * @param sinceRevision 客户端已知的修订号
+     * @param timeout       等待时长（如 30s），为空时使用默认值，超过上限时按上限等待
+     * @return 修订号超过 sinceRevision 或等待超时后完成
+     */
+    public CompletableFuture<ConfigWatchResponse> watch(String sceneId, long sinceRevision, String timeout) {
+        Duration wait = parseTimeout(timeout);
+        SceneWatchers watchers = scenes.computeIfAbsent(sceneId, this::load);
+        
+        CompletableFuture<ConfigWatchResponse> future = new CompletableFuture<>();
+        long current;
+        synchronized (watchers) {
+            if (watchers.deleted) {
+                return CompletableFuture.completedFuture(deleted(sceneId, watchers.revision));
+            }
+            if (watchers.revision > sinceRevision) {
+                return CompletableFuture.completedFuture(response(sceneId, watchers.revision, true));
+            }
+            watchers.waiters.put(future, sinceRevision);
+            current = watchers.revision;
+        }
+        
+        future.completeOnTimeout(response(sceneId, current, false), wait.toMillis(), TimeUnit.MILLISECONDS);
+        future.whenComplete((response, error) -> {
+            synchronized (watchers) {
+                watchers.waiters.remove(future);
+            }
+        });
+        return future;
+    }
+    
+    /**
+     * 场景修订号已推进，唤醒 sinceRevision 小于该修订号的等待者
+     *
+     * @param sceneId  场景 ID
+     * @param revision 已提交的修订号
+     */
+    public void publish(String sceneId, long revision) {
+        SceneWatchers watchers = scenes.get(sceneId);
+        if (watchers == null) {
+            return;
+        }
+        
+        List<CompletableFuture<ConfigWatchResponse>> ready = new ArrayList<>();
+        synchronized (watchers) {
+            // 已登记的等待者 sinceRevision 均不小于已知修订号
+            if (revision <= watchers.revision) {
+                return;
+            }
+            watchers.revision = revision;
+            Iterator<Map.Entry<CompletableFuture<ConfigWatchResponse>, Long>> iterator =
+                watchers.waiters.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<CompletableFuture<ConfigWatchResponse>, Long> waiter = iterator.next();
+                if (waiter.getValue() < revision) {
+                    ready.add(waiter.getKey());
+                    iterator.remove();
+                }
+            }
+        }
+        
+        ConfigWatchResponse response = response(sceneId, revision, true);
+        ready.forEach(future -> future.complete(response));
+    }
+    
+    /**
+     * 场景已删除，唤醒所有等待者
+     *
+     * @param sceneId 场景 ID
+     */
+    public void sceneDeleted(String sceneId) {
+        SceneWatchers watchers = scenes.remove(sceneId);
+        if (watchers == null) {
+            return;
+        }
+        
+        List<CompletableFuture<ConfigWatchResponse>> ready;
+        long revision;
+        synchronized (watchers) {
+            watchers.deleted = true;
+            revision = watchers.revision;
+            ready = new ArrayList<>(watchers.waiters.keySet());
+            watchers.waiters.clear();
+        }
+        
+        log.debug("Scene {} deleted, waking {} watchers", sceneId, ready.size());
+        ConfigWatchResponse response = deleted(sceneId, revision);
+        ready.forEach(future -> future.complete(response));
+    }
+    
+    /**
+     * 查询有等待者的场景的修订号，感知其他实例的写入
+     */
+    @Scheduled(fixedDelayString = "${chamberlain.watch.poll-interval:PT1S}")
+    public void poll() {
+        List<String> watched = new ArrayList<>();
+        scenes.forEach((sceneId, watchers) -> {
+            if (watchers.hasWaiters()) {
+                watched.add(sceneId);
+            }
+        });
+        
+        for (int from = 0; from < watched.size(); from += POLL_BATCH_SIZE) {
+            List<String> batch = watched.subList(from, Math.min(from + POLL_BATCH_SIZE, watched.size()));
+            Set<String> missing = new HashSet<>(batch);
+            for (Object[] row : sceneRepository.findRevisionsByIds(batch)) {
+                String sceneId = (String) row[0];
+                missing.remove(sceneId);
+                publish(sceneId, (Long) row[1]);
+            }
+            missing.forEach(this::sceneDeleted);
+        }
+    }
+    
+    private SceneWatchers load(String sceneId) {
+        long revision = sceneRepository.findRevisionById(sceneId)
+            .orElseThrow(() -> new ResourceNotFoundException("SCENE_NOT_FOUND", "场景不存在: " + sceneId));
+        return new SceneWatchers(revision);
+    }
+    
+    private Duration parseTimeout(String timeout) {
+        if (timeout == null || timeout.isBlank()) {
+            return defaultTimeout;
+        }
+        Duration duration;
+        try {
+            duration = DurationStyle.detectAndParse(timeout);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("INVALID_PARAMETER", "timeout 格式不正确: " + timeout);
+        }
+        if (duration.isNegative() || duration.isZero()) {
+            throw new ValidationException("INVALID_PARAMETER", "timeout 必须大于 0");
+        }
+        return duration.compareTo(maxTimeout) > 0 ? maxTimeout : duration;
+    }
+    
+    private static ConfigWatchResponse response(String sceneId, long revision, boolean changed) {
+        return ConfigWatchResponse.builder().sceneId(sceneId).revision(revision).changed(changed).build();
+    }
+    
+    private static ConfigWatchResponse deleted(String sceneId, long revision) {
+        return ConfigWatchResponse.builder().sceneId(sceneId).revision(revision).changed(true).deleted(true).build();
+    }
+    
+    /**
+     * 单个场景的已知修订号和等待者（future -> sinceRevision），以自身为锁
+     */
+    private static final class SceneWatchers {
+        
+        private long revision;
+        private boolean deleted;
+        private final Map<CompletableFuture<ConfigWatchResponse>, Long> waiters = new HashMap<>();
+        
+        SceneWatchers(long revision) {
+            this.revision = revision;
+        }
+        
+        synchronized boolean hasWaiters() {
+            return !waiters.isEmpty();
+        }
+    }
+}
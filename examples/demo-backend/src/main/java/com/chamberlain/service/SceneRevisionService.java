@@ -0,0 +1,47 @@
+package com.chamberlain.service;
+
+import com.chamberlain.exception.ResourceNotFoundException;
+import com.chamberlain.repository.SceneRepository;
+import com.chamberlain.util.TransactionUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 场景修订号服务
+ * <p>
+ * 场景及其配置的每次变更在所在事务中递增场景修订号，事务提交后通知 {@link ConfigWatchService} 唤醒等待者。
+ */
+@Service
+@RequiredArgsConstructor
+public class SceneRevisionService {
+    
+    private final SceneRepository sceneRepository;
+    private final ConfigWatchService configWatchService;
+    
+    /**
+     * 递增并返回场景修订号，必须在写事务中调用
+     *
+     * @param sceneId 场景 ID
+     * @return 新的修订号
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long next(String sceneId) {
+        if (sceneRepository.incrementRevision(sceneId) == 0) {
+            throw new ResourceNotFoundException("SCENE_NOT_FOUND", "场景不存在: " + sceneId);
+        }
+        long revision = sceneRepository.findRevisionById(sceneId).orElseThrow();
+        TransactionUtil.afterCommit(() -> configWatchService.publish(sceneId, revision));
+        return revision;
+    }
+    
+    /**
+     * 场景删除后通知等待者，在当前事务提交后生效
+     *
+     * @param sceneId 场景 ID
+     */
+    public void deleted(String sceneId) {
+        TransactionUtil.afterCommit(() -> configWatchService.sceneDeleted(sceneId));
+    }
+}
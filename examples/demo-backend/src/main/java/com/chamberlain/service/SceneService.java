@@ -4,6 +4,7 @@ import com.chamberlain.dto.common.PageResult;
 import com.chamberlain.dto.request.CreateSceneRequest;
 import com.chamberlain.dto.request.UpdateSceneRequest;
 import com.chamberlain.dto.request.UpdateSchemeRequest;
+import com.chamberlain.dto.request.UpdateSchemeStatusRequest;
 import com.chamberlain.dto.request.ValidateSchemeRequest;
 import com.chamberlain.dto.response.SceneResponse;
 import com.chamberlain.dto.response.SchemeVersionResponse;
@@ -17,18 +18,34 @@ import com.chamberlain.exception.ValidationException;
 import com.chamberlain.mapper.SceneMapper;
 import com.chamberlain.repository.SceneRepository;
 import com.chamberlain.repository.SchemeVersionRepository;
+import com.chamberlain.repository.VersionStamp;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.chamberlain.util.KeysetCursor;
+import com.chamberlain.util.SchemaDiff;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.networknt.schema.JsonSchema;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 /**
  * 场景服务
@@ -42,46 +59,88 @@ public class SceneService {
     private final SchemeVersionRepository schemeVersionRepository;
     private final SceneMapper sceneMapper;
     private final SchemaValidationService schemaValidationService;
+    private final ConfigResolveService configResolveService;
+    private final ConfigCacheService configCacheService;
+    private final ConfigUpgradeService configUpgradeService;
+    private final SceneRevisionService sceneRevisionService;
+    private final SceneSnapshotService sceneSnapshotService;
     private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    
+    /**
+     * Scheme 版本不可变，转换后的 Map 按 (sceneId, version) 缓存复用
+     */
+    private final Cache<SchemeKey, Map<String, Object>> schemeMapCache = Caffeine.newBuilder()
+        .maximumSize(1024)
+        .softValues()
+        .recordStats()
+        .build();
+    
+    @PostConstruct
+    void bindCacheMetrics() {
+        CaffeineCacheMetrics.monitor(meterRegistry, schemeMapCache, "scheme-maps");
+    }
     
     /**
      * 根据 ID 获取场景
      */
     public SceneResponse getById(String id) {
+        if (sceneSnapshotService.isServing()) {
+            return sceneSnapshotService.find(id)
+                .map(SceneSnapshotService.SceneSnapshot::scene)
+                .orElseThrow(() -> new ResourceNotFoundException("SCENE_NOT_FOUND", "场景不存在: " + id));
+        }
         Scene scene = sceneRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("SCENE_NOT_FOUND", "场景不存在: " + id));
         SceneResponse response = sceneMapper.toResponse(scene);
         
         // 获取当前激活的 scheme (将 JsonNode 转换为 Map，Jackson 自动序列化为 JSON 对象)
         if (scene.getCurrentSchemeVersion() != null) {
-            schemeVersionRepository.findBySceneIdAndVersion(id, scene.getCurrentSchemeVersion())
-                .ifPresent(schemeVersion -> {
-                    try {
-                        log.debug("Converting JsonNode for scene {}, node type: {}", id, schemeVersion.getSchemaJson().getClass().getName());
-                        JsonNode schemaNode = schemeVersion.getSchemaJson();
-                        
-                        // 如果是 TextNode (字符串)，需要重新解析
-                        if (schemaNode.isTextual()) {
-                            log.debug("JsonNode is TextNode, parsing string");
-                            schemaNode = objectMapper.readTree(schemaNode.asText());
-                        }
-                        
-                        java.util.Map<String, Object> schemaMap = objectMapper.convertValue(schemaNode, java.util.Map.class);
-                        log.debug("Converted to Map, type: {}, size: {}", schemaMap.getClass().getName(), schemaMap.size());
-                        response.setCurrentScheme(schemaMap);
-                    } catch (Exception e) {
-                        log.error("Failed to convert JsonNode to Map for scene {}", id, e);
-                    }
-                });
+            response.setCurrentScheme(schemeMapCache.get(
+                new SchemeKey(id, scene.getCurrentSchemeVersion()),
+                key -> schemeVersionRepository.findBySceneIdAndVersion(key.sceneId(), key.version())
+                    .map(this::toSchemeMap)
+                    .orElse(null)
+            ));
         }
         
         return response;
     }
     
+    /**
+     * 场景详情的 ETag，只查询修订号和更新时间
+     * 场景更新、Scheme 变更和场景下配置变更都会递增修订号
+     *
+     * @param id 场景 ID
+     * @return ETag，场景不存在时返回 null
+     */
+    public String getETag(String id) {
+        if (sceneSnapshotService.isServing()) {
+            return sceneSnapshotService.find(id).map(snapshot -> snapshot.versionStamp().toETag()).orElse(null);
+        }
+        return sceneRepository.findVersionStampById(id).map(VersionStamp::toETag).orElse(null);
+    }
+    
+    /**
+     * 场景列表的 ETag，由全部场景的修订号之和、最大更新时间和场景数得出，与分页和搜索参数无关
+     *
+     * @return ETag
+     */
+    public String getListETag() {
+        if (sceneSnapshotService.isServing()) {
+            return sceneSnapshotService.allVersionStamp().toETag();
+        }
+        return sceneRepository.findAllVersionStamp().toETag();
+    }
+    
     /**
      * 获取场景列表（分页）
      */
     public PageResult<SceneResponse> list(Integer page, Integer pageSize, String keyword, String sort) {
+        if (sceneSnapshotService.isServing()) {
+            return sceneSnapshotService.listScenes(page, pageSize, keyword, sort);
+        }
+        
         Pageable pageable = PageRequest.of(
             page - 1,
             pageSize,
@@ -103,36 +162,8 @@ public class SceneService {
         
         List<SceneResponse> responses = sceneMapper.toResponseList(scenePage.getContent());
         
-        // 为每个场景填充当前激活的 scheme (将 JsonNode 转换为 Map)
-        responses.forEach(response -> {
-            log.debug("Processing scene: {}, currentSchemeVersion: {}", response.getId(), response.getCurrentSchemeVersion());
-            if (response.getCurrentSchemeVersion() != null) {
-                var schemeOpt = schemeVersionRepository.findBySceneIdAndVersion(
-                    response.getId(), 
-                    response.getCurrentSchemeVersion()
-                );
-                log.debug("Found scheme for scene {}: {}", response.getId(), schemeOpt.isPresent());
-                schemeOpt.ifPresent(schemeVersion -> {
-                    try {
-                        log.debug("Converting JsonNode for scene {}: {}", response.getId(), schemeVersion.getSchemaJson());
-                        JsonNode schemaNode = schemeVersion.getSchemaJson();
-                        
-                        // 如果是 TextNode (字符串)，需要重新解析
-                        if (schemaNode.isTextual()) {
-                            log.debug("JsonNode is TextNode, parsing string: {}", schemaNode.asText());
-                            schemaNode = objectMapper.readTree(schemaNode.asText());
-                        }
-                        
-                        Object schemaMap = objectMapper.convertValue(schemaNode, java.util.Map.class);
-                        log.debug("Converted to Map for scene {}: {}", response.getId(), schemaMap);
-                        response.setCurrentScheme(schemaMap);
-                        log.debug("Set currentScheme for scene {}, response.currentScheme: {}", response.getId(), response.getCurrentScheme());
-                    } catch (Exception e) {
-                        log.error("Failed to convert JsonNode to Map for scene {}", response.getId(), e);
-                    }
-                });
-            }
-        });
+        // 为每个场景填充当前激活的 scheme，缓存未命中的版本一次批量查询
+        fillCurrentSchemes(responses);
         
         return PageResult.<SceneResponse>builder()
             .list(responses)
@@ -142,6 +173,46 @@ public class SceneService {
             .build();
     }
     
+    /**
+     * 获取场景列表（游标分页）
+     * 按 (updatedAt, id) 降序 seek 定位，不执行 COUNT 查询
+     */
+    public PageResult<SceneResponse> listByCursor(String cursor, Integer limit, String keyword) {
+        int pageSize = KeysetCursor.checkLimit(limit);
+        KeysetCursor after = cursor == null || cursor.isEmpty() ? null : KeysetCursor.decode(cursor);
+        
+        Specification<Scene> spec = (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (keyword != null && !keyword.trim().isEmpty()) {
+                predicates.add(cb.like(cb.lower(root.get("name")), "%" + keyword.toLowerCase() + "%"));
+            }
+            if (after != null) {
+                predicates.add(after.toPredicate(root, cb));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+        
+        // 多取一条用于判断是否还有下一页
+        List<Scene> scenes = sceneRepository.findBy(spec,
+            q -> q.sortBy(KeysetCursor.SORT).limit(pageSize + 1).all());
+        
+        String nextCursor = null;
+        if (scenes.size() > pageSize) {
+            scenes = scenes.subList(0, pageSize);
+            Scene last = scenes.get(pageSize - 1);
+            nextCursor = new KeysetCursor(last.getUpdatedAt(), last.getId()).encode();
+        }
+        
+        List<SceneResponse> responses = sceneMapper.toResponseList(scenes);
+        fillCurrentSchemes(responses);
+        
+        return PageResult.<SceneResponse>builder()
+            .list(responses)
+            .pageSize(pageSize)
+            .nextCursor(nextCursor)
+            .build();
+    }
+    
     /**
      * 创建场景
      */
@@ -153,9 +224,8 @@ public class SceneService {
         }
         
         // 验证 JSON Schema
-        if (!schemaValidationService.isValidSchema(request.getSchema())) {
-            throw new ValidationException("INVALID_SCHEMA", "JSON Schema 格式不正确");
-        }
+        JsonSchema compiledSchema = schemaValidationService.compile(request.getSchema())
+            .orElseThrow(() -> new ValidationException("INVALID_SCHEMA", "JSON Schema 格式不正确"));
         
         // 创建场景
         Scene scene = sceneMapper.toEntity(request);
@@ -169,23 +239,16 @@ public class SceneService {
         schemeVersion.setStatus(SchemeStatus.ACTIVE);
         schemeVersion.setChangeDescription("初始版本");
         schemeVersion = schemeVersionRepository.save(schemeVersion);
+        schemaValidationService.registerSchema(schemeVersion, compiledSchema);
+        // 解析索引缓存了不存在的场景
+        configResolveService.invalidate(scene.getId());
+        configUpgradeService.reload(scene.getId());
+        sceneSnapshotService.reload(scene.getId());
         
         log.info("Created scene: {} with initial scheme version", scene.getId());
         
         SceneResponse response = sceneMapper.toResponse(scene);
-        try {
-            JsonNode schemaNode = schemeVersion.getSchemaJson();
-            
-            // 如果是 TextNode (字符串)，需要重新解析
-            if (schemaNode.isTextual()) {
-                log.debug("JsonNode is TextNode, parsing string");
-                schemaNode = objectMapper.readTree(schemaNode.asText());
-            }
-            
-            response.setCurrentScheme(objectMapper.convertValue(schemaNode, java.util.Map.class));
-        } catch (Exception e) {
-            log.warn("Failed to convert JsonNode to Map for scene {}", scene.getId(), e);
-        }
+        response.setCurrentScheme(toSchemeMap(schemeVersion));
         return response;
     }
     
@@ -198,7 +261,10 @@ public class SceneService {
             .orElseThrow(() -> new ResourceNotFoundException("SCENE_NOT_FOUND", "场景不存在: " + id));
         
         sceneMapper.updateEntityFromRequest(request, scene);
+        scene.setRevision(sceneRevisionService.next(id));
         scene = sceneRepository.save(scene);
+        configResolveService.invalidate(id);
+        sceneSnapshotService.reload(id);
         
         log.info("Updated scene: {}", id);
         return sceneMapper.toResponse(scene);
@@ -214,6 +280,13 @@ public class SceneService {
         }
         
         sceneRepository.deleteById(id);
+        schemaValidationService.evictScene(id);
+        schemeMapCache.asMap().keySet().removeIf(key -> key.sceneId().equals(id));
+        configResolveService.invalidate(id);
+        configUpgradeService.invalidate(id);
+        configCacheService.evictScene(id);
+        sceneRevisionService.deleted(id);
+        sceneSnapshotService.remove(id);
         log.info("Deleted scene: {}", id);
     }
     
@@ -240,69 +313,129 @@ public class SceneService {
             .findBySceneIdAndVersion(id, scene.getCurrentSchemeVersion())
             .orElseThrow(() -> new BusinessException("SCHEME_VERSION_NOT_FOUND", "当前版本不存在"));
         
-        // 比较 Schema，检测破坏性变更
-        boolean isBreaking = schemaValidationService.isBreakingChange(
-            currentVersion.getSchemaJson(),
-            request.getSchema()
-        );
-        
-        List<String> warnings = schemaValidationService.compareSchemas(
-            currentVersion.getSchemaJson(),
-            request.getSchema()
-        );
+        // 一次比较得出破坏性标记和变更列表
+        SchemaDiff diff = schemaValidationService.diff(currentVersion, request.getSchema());
         
         return ValidateSchemeResponse.builder()
             .valid(true)
-            .warnings(warnings)
-            .isBreakingChange(isBreaking)
+            .warnings(diff.getWarnings())
+            .changes(diff.getChanges())
+            .isBreakingChange(diff.isBreaking())
             .build();
     }
     
     /**
      * 更新 Scheme（创建新版本）
+     * <p>
+     * 新版本号为已有最大版本号加一，升级转换相对于上一版本声明。默认立即激活为场景当前版本，
+     * 旧版本配置读取时按转换链升级，不在本事务中重写；activate 为 false 时创建草稿，之后通过
+     * {@link #updateSchemeStatus} 激活。
      */
     @Transactional
     public SchemeVersionResponse updateScheme(String id, UpdateSchemeRequest request) {
         Scene scene = sceneRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("SCENE_NOT_FOUND", "场景不存在: " + id));
         
-        // 验证新 Schema
-        if (!schemaValidationService.isValidSchema(request.getSchema())) {
-            throw new ValidationException("INVALID_SCHEMA", "JSON Schema 格式不正确");
-        }
+        // 验证新 Schema 和升级转换
+        JsonSchema compiledSchema = schemaValidationService.compile(request.getSchema())
+            .orElseThrow(() -> new ValidationException("INVALID_SCHEMA", "JSON Schema 格式不正确"));
+        JsonNode upgradeJson = configUpgradeService.toUpgradeJson(request.getUpgrade());
         
-        // 获取当前版本
-        SchemeVersion currentVersion = schemeVersionRepository
-            .findBySceneIdAndVersion(id, scene.getCurrentSchemeVersion())
+        // 获取上一版本（可能是未激活的草稿）
+        Integer previousVersionNumber = schemeVersionRepository.findMaxVersionBySceneId(id)
+            .orElse(scene.getCurrentSchemeVersion());
+        SchemeVersion previousVersion = schemeVersionRepository
+            .findBySceneIdAndVersion(id, previousVersionNumber)
             .orElseThrow(() -> new BusinessException("SCHEME_VERSION_NOT_FOUND", "当前版本不存在"));
         
         // 检测破坏性变更
-        boolean isBreaking = schemaValidationService.isBreakingChange(
-            currentVersion.getSchemaJson(),
-            request.getSchema()
-        );
+        boolean isBreaking = schemaValidationService.diff(previousVersion, request.getSchema()).isBreaking();
         
         // 创建新版本
-        Integer newVersionNumber = scene.getCurrentSchemeVersion() + 1;
+        boolean activate = !Boolean.FALSE.equals(request.getActivate());
+        Integer newVersionNumber = previousVersionNumber + 1;
         SchemeVersion newVersion = new SchemeVersion();
         newVersion.setScene(scene);
         newVersion.setVersion(newVersionNumber);
         newVersion.setSchemaJson(request.getSchema());
-        newVersion.setStatus(SchemeStatus.ACTIVE);
+        newVersion.setUpgradeJson(upgradeJson);
+        newVersion.setStatus(activate ? SchemeStatus.ACTIVE : SchemeStatus.DRAFT);
         newVersion.setIsBreakingChange(isBreaking);
         newVersion.setChangeDescription(request.getChangeDescription());
         newVersion = schemeVersionRepository.save(newVersion);
+        schemaValidationService.registerSchema(newVersion, compiledSchema);
         
         // 更新场景的当前版本
-        scene.setCurrentSchemeVersion(newVersionNumber);
-        sceneRepository.save(scene);
+        if (activate) {
+            activate(scene, newVersionNumber);
+        }
         
-        log.info("Created new scheme version {} for scene {}, breaking: {}",
-            newVersionNumber, id, isBreaking);
+        log.info("Created new scheme version {} for scene {}, breaking: {}, active: {}",
+            newVersionNumber, id, isBreaking, activate);
         
         return sceneMapper.toSchemeVersionResponse(newVersion);
     }
     
+    /**
+     * 更新 Scheme 版本状态
+     * <p>
+     * active：激活为场景当前版本，旧版本配置读取时升级到该版本（激活更低的版本即回滚，高于该版本的配置保持原样）；
+     * deprecated：废弃，不能废弃当前版本
+     *
+     * @param id      场景 ID
+     * @param version 版本号
+     * @param request 目标状态
+     * @return 更新后的 Scheme 版本
+     */
+    @Transactional
+    public SchemeVersionResponse updateSchemeStatus(String id, Integer version, UpdateSchemeStatusRequest request) {
+        SchemeStatus status;
+        try {
+            status = SchemeStatus.valueOf(request.getStatus().trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("INVALID_PARAMETER", "不支持的状态: " + request.getStatus());
+        }
+        if (status == SchemeStatus.DRAFT) {
+            throw new ValidationException("INVALID_PARAMETER", "不能将版本改回草稿");
+        }
+        
+        Scene scene = sceneRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("SCENE_NOT_FOUND", "场景不存在: " + id));
+        SchemeVersion schemeVersion = schemeVersionRepository.findBySceneIdAndVersion(id, version)
+            .orElseThrow(() -> new ResourceNotFoundException("SCHEME_VERSION_NOT_FOUND",
+                "Scheme 版本不存在: " + id + " v" + version));
+        
+        if (status == SchemeStatus.DEPRECATED) {
+            if (version.equals(scene.getCurrentSchemeVersion())) {
+                throw new BusinessException("SCHEME_VERSION_IN_USE", "不能废弃场景当前版本，请先激活其他版本");
+            }
+            schemeVersion.setStatus(SchemeStatus.DEPRECATED);
+            schemeVersion = schemeVersionRepository.save(schemeVersion);
+            log.info("Deprecated scheme version {} of scene {}", version, id);
+            return sceneMapper.toSchemeVersionResponse(schemeVersion);
+        }
+        
+        schemeVersion.setStatus(SchemeStatus.ACTIVE);
+        schemeVersion = schemeVersionRepository.save(schemeVersion);
+        if (!version.equals(scene.getCurrentSchemeVersion())) {
+            activate(scene, version);
+            log.info("Activated scheme version {} of scene {}", version, id);
+        }
+        return sceneMapper.toSchemeVersionResponse(schemeVersion);
+    }
+    
+    /**
+     * 将版本设为场景当前版本，递增修订号使 configs:watch 的等待者和 ETag 感知变更
+     */
+    private void activate(Scene scene, Integer version) {
+        String id = scene.getId();
+        scene.setCurrentSchemeVersion(version);
+        scene.setRevision(sceneRevisionService.next(id));
+        sceneRepository.save(scene);
+        configUpgradeService.reload(id);
+        sceneSnapshotService.reload(id);
+    }
+    
     /**
      * 获取场景的所有 Scheme 版本
      */
@@ -315,6 +448,55 @@ public class SceneService {
         return sceneMapper.toSchemeVersionResponseList(versions);
     }
     
+    /**
+     * 批量填充场景的当前 Scheme
+     */
+    private void fillCurrentSchemes(List<SceneResponse> responses) {
+        Map<String, SceneResponse> missing = new HashMap<>();
+        for (SceneResponse response : responses) {
+            if (response.getCurrentSchemeVersion() == null) {
+                continue;
+            }
+            Map<String, Object> cached = schemeMapCache.getIfPresent(
+                new SchemeKey(response.getId(), response.getCurrentSchemeVersion()));
+            if (cached != null) {
+                response.setCurrentScheme(cached);
+            } else {
+                missing.put(response.getId(), response);
+            }
+        }
+        
+        if (missing.isEmpty()) {
+            return;
+        }
+        
+        for (SchemeVersion schemeVersion : schemeVersionRepository.findCurrentBySceneIds(missing.keySet())) {
+            SceneResponse response = missing.get(schemeVersion.getScene().getId());
+            if (response == null || !schemeVersion.getVersion().equals(response.getCurrentSchemeVersion())) {
+                continue;
+            }
+            Map<String, Object> schemeMap = toSchemeMap(schemeVersion);
+            if (schemeMap != null) {
+                schemeMapCache.put(new SchemeKey(response.getId(), schemeVersion.getVersion()), schemeMap);
+                response.setCurrentScheme(schemeMap);
+            }
+        }
+    }
+    
+    /**
+     * 将 Scheme 版本的 JsonNode 转换为只读 Map，转换失败时返回 null
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> toSchemeMap(SchemeVersion schemeVersion) {
+        try {
+            // H2 转义存储的旧数据已由 JsonNodeConverter 还原
+            return Collections.unmodifiableMap(objectMapper.convertValue(schemeVersion.getSchemaJson(), Map.class));
+        } catch (Exception e) {
+            log.error("Failed to convert JsonNode to Map for scheme version {}", schemeVersion.getId(), e);
+            return null;
+        }
+    }
+    
     /**
      * 构建排序对象
      */
@@ -331,5 +513,10 @@ public class SceneService {
         
         return Sort.by(direction, field);
     }
+    
+    /**
+     * Scheme 缓存键
+     */
+    private record SchemeKey(String sceneId, int version) {
+    }
 }
-
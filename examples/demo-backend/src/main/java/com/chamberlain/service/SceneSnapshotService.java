@@ -0,0 +1,721 @@
+package com.chamberlain.service;
+
+import com.chamberlain.dto.common.PageResult;
+import com.chamberlain.dto.response.ConfigResponse;
+import com.chamberlain.dto.response.SceneResponse;
+import com.chamberlain.entity.Config;
+import com.chamberlain.entity.Scene;
+import com.chamberlain.entity.SchemeVersion;
+import com.chamberlain.exception.ValidationException;
+import com.chamberlain.mapper.ConfigMapper;
+import com.chamberlain.mapper.SceneMapper;
+import com.chamberlain.repository.ConfigRepository;
+import com.chamberlain.repository.SceneRepository;
+import com.chamberlain.repository.SchemeVersionRepository;
+import com.chamberlain.repository.VersionStamp;
+import com.chamberlain.util.ConfigIdGenerator;
+import com.chamberlain.util.TransactionUtil;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 场景快照服务
+ * <p>
+ * chamberlain.read-mode=snapshot 时启动后把全部场景、当前 Scheme 和配置加载为每个场景一份不可变快照，
+ * {@link ConfigService} 和 {@link SceneService} 的详情、列表和 ETag 读取直接由快照提供，不访问数据库。
+ * 写操作在事务提交后为受影响的场景发布新快照（写时复制），读者只读取 {@link ConcurrentHashMap} 中的引用，不加锁。
+ * 其他实例的写入由定期比对场景修订号感知，只重建修订号变化的场景。
+ * <p>
+ * 快照首次加载完成前以及其他读取模式下，读取照常走数据库。
+ * <p>
+ * 配置 chamberlain.snapshot.file.path 后，快照变更稳定一段时间后原子写入文件（见 {@link SnapshotFile}）。
+ * 重启时先内存映射该文件恢复快照并立即提供读取，再在后台按修订号和更新时间追赶数据库。
+ */
+@Service
+@Slf4j
+public class SceneSnapshotService {
+    
+    public static final String READ_MODE_SNAPSHOT = "snapshot";
+    
+    private static final int SCHEME_BATCH_SIZE = 1000;
+    
+    private static final Comparator<ConfigResponse> CONFIG_DEFAULT_ORDER = Comparator
+        .comparing(ConfigResponse::getUpdatedAt, Comparator.nullsFirst(Comparator.<LocalDateTime>naturalOrder()))
+        .thenComparing(ConfigResponse::getId)
+        .reversed();
+    
+    private static final Map<String, Function<ConfigResponse, Comparable<?>>> CONFIG_SORT_FIELDS = Map.of(
+        "id", ConfigResponse::getId,
+        "schemeVersion", ConfigResponse::getSchemeVersion,
+        "revision", ConfigResponse::getRevision,
+        "createdAt", ConfigResponse::getCreatedAt,
+        "updatedAt", ConfigResponse::getUpdatedAt
+    );
+    
+    private static final Map<String, Function<SceneResponse, Comparable<?>>> SCENE_SORT_FIELDS = Map.of(
+        "id", SceneResponse::getId,
+        "name", SceneResponse::getName,
+        "revision", SceneResponse::getRevision,
+        "createdAt", SceneResponse::getCreatedAt,
+        "updatedAt", SceneResponse::getUpdatedAt
+    );
+    
+    private final SceneRepository sceneRepository;
+    private final SchemeVersionRepository schemeVersionRepository;
+    private final ConfigRepository configRepository;
+    private final SceneMapper sceneMapper;
+    private final ConfigMapper configMapper;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    
+    /**
+     * 场景 ID -> 快照
+     */
+    private final ConcurrentHashMap<String, SceneSnapshot> snapshots = new ConcurrentHashMap<>();
+    
+    /**
+     * 快照文件，未配置 chamberlain.snapshot.file.path 时为 null
+     */
+    private final SnapshotFile snapshotFile;
+    private final Duration fileSettle;
+    
+    /**
+     * 后台追赶使用 Spring 的应用任务执行器，虚拟线程模式下运行在虚拟线程上
+     */
+    private final Executor taskExecutor;
+    
+    /**
+     * 快照变更计数，与已写入文件时的计数比较判断是否需要重写文件
+     */
+    private final AtomicLong changes = new AtomicLong();
+    private volatile long persistedChanges;
+    private volatile long lastChangeNanos;
+    
+    private volatile boolean ready;
+    private volatile boolean restoredFromFile;
+    private volatile Instant loadedAt;
+    private volatile Duration loadDuration = Duration.ZERO;
+    private volatile Instant fileWrittenAt;
+    
+    public SceneSnapshotService(SceneRepository sceneRepository,
+                                SchemeVersionRepository schemeVersionRepository,
+                                ConfigRepository configRepository,
+                                SceneMapper sceneMapper,
+                                ConfigMapper configMapper,
+                                ObjectMapper objectMapper,
+                                @Value("${chamberlain.read-mode:database}") String readMode,
+                                @Value("${chamberlain.snapshot.file.path:}") String filePath,
+                                @Value("${chamberlain.snapshot.file.max-age:P1D}") Duration fileMaxAge,
+                                @Value("${chamberlain.snapshot.file.settle:PT10S}") Duration fileSettle,
+                                @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+                                Executor taskExecutor) {
+        this.sceneRepository = sceneRepository;
+        this.schemeVersionRepository = schemeVersionRepository;
+        this.configRepository = configRepository;
+        this.sceneMapper = sceneMapper;
+        this.configMapper = configMapper;
+        this.objectMapper = objectMapper;
+        this.enabled = READ_MODE_SNAPSHOT.equalsIgnoreCase(readMode);
+        this.snapshotFile = enabled && !filePath.isBlank()
+            ? new SnapshotFile(Path.of(filePath), fileMaxAge, objectMapper)
+            : null;
+        this.fileSettle = fileSettle;
+        this.taskExecutor = taskExecutor;
+    }
+    
+    /**
+     * @return 是否启用快照读取模式
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * @return 读取是否由快照提供（已启用且首次加载完成）
+     */
+    public boolean isServing() {
+        return ready;
+    }
+    
+    /**
+     * @return 首次加载完成时间，未加载时为 null
+     */
+    public Instant getLoadedAt() {
+        return loadedAt;
+    }
+    
+    /**
+     * @return 首次加载耗时
+     */
+    public Duration getLoadDuration() {
+        return loadDuration;
+    }
+    
+    /**
+     * @return 快照是否从文件恢复
+     */
+    public boolean isRestoredFromFile() {
+        return restoredFromFile;
+    }
+    
+    /**
+     * @return 快照文件路径，未配置时为 null
+     */
+    public Path getFilePath() {
+        return snapshotFile == null ? null : snapshotFile.path();
+    }
+    
+    /**
+     * @return 本实例最后一次写入快照文件的时间
+     */
+    public Instant getFileWrittenAt() {
+        return fileWrittenAt;
+    }
+    
+    /**
+     * 从快照文件恢复，恢复成功后立即开始提供读取，不等待数据库
+     */
+    @PostConstruct
+    public void restore() {
+        if (snapshotFile == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        snapshotFile.read().ifPresent(restored -> {
+            restored.forEach(snapshot -> snapshots.put(snapshot.scene().getId(), snapshot));
+            loadDuration = Duration.ofNanos(System.nanoTime() - start);
+            loadedAt = Instant.now();
+            restoredFromFile = true;
+            ready = true;
+        });
+    }
+    
+    /**
+     * 应用启动后加载全部场景的快照
+     * 已从文件恢复时改为在后台追赶数据库，只重建文件写入后变更过的场景
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAll() {
+        if (!enabled) {
+            return;
+        }
+        if (restoredFromFile) {
+            CompletableFuture.runAsync(this::refresh, taskExecutor).whenComplete((result, error) -> {
+                if (error != null) {
+                    log.warn("Failed to catch up snapshots restored from {}", snapshotFile.path(), error);
+                } else {
+                    log.info("Caught up snapshots restored from {}", snapshotFile.path());
+                }
+            });
+            return;
+        }
+        long start = System.nanoTime();
+        Instant now = Instant.now();
+        
+        List<Scene> scenes = sceneRepository.findAll();
+        Map<String, Map<String, Object>> schemes = new HashMap<>(scenes.size() * 2);
+        List<String> sceneIds = scenes.stream().map(Scene::getId).toList();
+        for (int from = 0; from < sceneIds.size(); from += SCHEME_BATCH_SIZE) {
+            List<String> batch = sceneIds.subList(from, Math.min(from + SCHEME_BATCH_SIZE, sceneIds.size()));
+            for (SchemeVersion schemeVersion : schemeVersionRepository.findCurrentBySceneIds(batch)) {
+                schemes.put(schemeVersion.getScene().getId(), toSchemeMap(schemeVersion.getSchemaJson()));
+            }
+        }
+        Map<String, List<ConfigResponse>> configs = new HashMap<>(scenes.size() * 2);
+        for (Config config : configRepository.findAll()) {
+            configs.computeIfAbsent(config.getSceneId(), key -> new ArrayList<>()).add(configMapper.toResponse(config));
+        }
+        
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        long configCount = 0;
+        for (Scene scene : scenes) {
+            SceneResponse response = sceneMapper.toResponse(scene);
+            response.setCurrentScheme(schemes.get(scene.getId()));
+            List<ConfigResponse> sceneConfigs = configs.getOrDefault(scene.getId(), List.of());
+            configCount += sceneConfigs.size();
+            install(new SceneSnapshot(response, sceneConfigs, now, elapsed));
+        }
+        
+        loadDuration = elapsed;
+        loadedAt = now;
+        ready = true;
+        log.info("Loaded snapshots of {} scenes with {} configs in {} ms", scenes.size(), configCount,
+            elapsed.toMillis());
+    }
+    
+    /**
+     * 比对全部场景的修订号和更新时间，重建有变化的场景，感知其他实例的写入
+     * 删除后以相同 ID 重建的场景修订号从 0 开始，由更新时间区分
+     */
+    @Scheduled(fixedDelayString = "${chamberlain.snapshot.refresh-interval:PT30S}",
+               initialDelayString = "${chamberlain.snapshot.refresh-interval:PT30S}")
+    public void refresh() {
+        if (!ready) {
+            return;
+        }
+        Instant now = Instant.now();
+        Set<String> missing = new HashSet<>(snapshots.keySet());
+        for (Object[] row : sceneRepository.findAllRevisions()) {
+            String sceneId = (String) row[0];
+            long revision = (Long) row[1];
+            LocalDateTime updatedAt = (LocalDateTime) row[2];
+            missing.remove(sceneId);
+            SceneSnapshot current = snapshots.get(sceneId);
+            if (current == null || !current.matches(revision, updatedAt)) {
+                load(sceneId, true);
+            } else {
+                snapshots.computeIfPresent(sceneId, (key, snapshot) ->
+                    snapshot.matches(revision, updatedAt) ? snapshot.verifiedAt(now) : snapshot);
+            }
+        }
+        missing.forEach(this::removeNow);
+    }
+    
+    /**
+     * 快照变更稳定 chamberlain.snapshot.file.settle 后写入快照文件，避免连续写入时反复重写
+     */
+    @Scheduled(fixedDelayString = "${chamberlain.snapshot.file.settle:PT10S}",
+               initialDelayString = "${chamberlain.snapshot.file.settle:PT10S}")
+    public void persist() {
+        if (System.nanoTime() - lastChangeNanos >= fileSettle.toNanos()) {
+            writeFile();
+        }
+    }
+    
+    /**
+     * 停止时写入尚未落盘的变更
+     */
+    @PreDestroy
+    public void flush() {
+        writeFile();
+    }
+    
+    /**
+     * 有未写入的变更时写入快照文件
+     *
+     * @return 是否写入了文件
+     */
+    boolean writeFile() {
+        if (snapshotFile == null || !ready) {
+            return false;
+        }
+        long version = changes.get();
+        if (version == persistedChanges) {
+            return false;
+        }
+        try {
+            long start = System.nanoTime();
+            int scenes = snapshotFile.write(snapshots.values());
+            persistedChanges = version;
+            fileWrittenAt = Instant.now();
+            log.info("Wrote snapshot file {} with {} scenes in {} ms", snapshotFile.path(), scenes,
+                Duration.ofNanos(System.nanoTime() - start).toMillis());
+            return true;
+        } catch (IOException e) {
+            log.warn("Failed to write snapshot file {}", snapshotFile.path(), e);
+            return false;
+        }
+    }
+    
+    /**
+     * @param sceneId 场景 ID
+     * @return 场景快照
+     */
+    public Optional<SceneSnapshot> find(String sceneId) {
+        return Optional.ofNullable(snapshots.get(sceneId));
+    }
+    
+    /**
+     * @param id 配置 ID
+     * @return 配置
+     */
+    public Optional<ConfigResponse> findConfig(String id) {
+        SceneSnapshot snapshot = snapshots.get(ConfigIdGenerator.extractSceneId(id));
+        return snapshot == null ? Optional.empty() : Optional.ofNullable(snapshot.configs().get(id));
+    }
+    
+    /**
+     * @return 全部场景快照（弱一致视图）
+     */
+    public Collection<SceneSnapshot> all() {
+        return Collections.unmodifiableCollection(snapshots.values());
+    }
+    
+    /**
+     * 场景列表的版本元数据，与 {@link SceneRepository#findAllVersionStamp} 口径一致
+     *
+     * @return 修订号之和、最大更新时间和场景数
+     */
+    public VersionStamp allVersionStamp() {
+        long revisions = 0;
+        long count = 0;
+        LocalDateTime updatedAt = null;
+        for (SceneSnapshot snapshot : snapshots.values()) {
+            SceneResponse scene = snapshot.scene();
+            revisions += snapshot.revision();
+            count++;
+            if (scene.getUpdatedAt() != null && (updatedAt == null || scene.getUpdatedAt().isAfter(updatedAt))) {
+                updatedAt = scene.getUpdatedAt();
+            }
+        }
+        return new VersionStamp(revisions, updatedAt, count);
+    }
+    
+    /**
+     * 发布包含该配置新版本的快照，在当前事务提交后生效
+     *
+     * @param config 已保存的配置，修订号为本次写入后的场景修订号
+     */
+    public void putConfig(ConfigResponse config) {
+        if (enabled) {
+            TransactionUtil.afterCommit(() -> patch(config.getSceneId(), config.getRevision(),
+                snapshot -> snapshot.withConfig(config)));
+        }
+    }
+    
+    /**
+     * 发布移除该配置后的快照，在当前事务提交后生效
+     *
+     * @param id       配置 ID
+     * @param revision 删除后的场景修订号
+     */
+    public void removeConfig(String id, long revision) {
+        if (enabled) {
+            TransactionUtil.afterCommit(() -> patch(ConfigIdGenerator.extractSceneId(id), revision,
+                snapshot -> snapshot.withoutConfig(id)));
+        }
+    }
+    
+    /**
+     * 从数据库重建场景快照，在当前事务提交后生效
+     * 用于场景本身或 Scheme 的变更，以及批量写入配置
+     *
+     * @param sceneId 场景 ID
+     */
+    public void reload(String sceneId) {
+        if (enabled) {
+            TransactionUtil.afterCommit(() -> load(sceneId, false));
+        }
+    }
+    
+    /**
+     * 移除场景快照，在当前事务提交后生效
+     *
+     * @param sceneId 场景 ID
+     */
+    public void remove(String sceneId) {
+        if (enabled) {
+            TransactionUtil.afterCommit(() -> removeNow(sceneId));
+        }
+    }
+    
+    /**
+     * 在快照上分页查询配置
+     *
+     * @param snapshot      场景快照
+     * @param schemeVersion Scheme 版本，为 null 时不过滤
+     * @param page          页码（从 1 开始）
+     * @param pageSize      每页大小
+     * @param sort          排序参数（field:asc|desc）
+     * @return 分页结果
+     */
+    public PageResult<ConfigResponse> listConfigs(SceneSnapshot snapshot, Integer schemeVersion,
+                                                  int page, int pageSize, String sort) {
+        List<ConfigResponse> configs = snapshot.configsByUpdatedAt();
+        if (schemeVersion != null) {
+            configs = configs.stream().filter(config -> schemeVersion.equals(config.getSchemeVersion())).toList();
+        }
+        if (sort != null && !sort.trim().isEmpty()) {
+            configs = sortedCopy(configs, comparator(sort, CONFIG_SORT_FIELDS, ConfigResponse::getId));
+        }
+        return page(configs, page, pageSize);
+    }
+    
+    /**
+     * 在快照上分页查询场景
+     *
+     * @param page     页码（从 1 开始）
+     * @param pageSize 每页大小
+     * @param keyword  名称关键词，为空时不过滤
+     * @param sort     排序参数（field:asc|desc），为空时按更新时间降序
+     * @return 分页结果
+     */
+    public PageResult<SceneResponse> listScenes(int page, int pageSize, String keyword, String sort) {
+        String lowerKeyword = keyword == null || keyword.trim().isEmpty() ? null : keyword.toLowerCase();
+        List<SceneResponse> scenes = new ArrayList<>(snapshots.size());
+        for (SceneSnapshot snapshot : snapshots.values()) {
+            SceneResponse scene = snapshot.scene();
+            if (lowerKeyword == null || (scene.getName() != null && scene.getName().toLowerCase().contains(lowerKeyword))) {
+                scenes.add(scene);
+            }
+        }
+        scenes.sort(comparator(sort == null || sort.trim().isEmpty() ? "updatedAt:desc" : sort,
+            SCENE_SORT_FIELDS, SceneResponse::getId));
+        return page(scenes, page, pageSize);
+    }
+    
+    /**
+     * 从数据库加载场景快照，场景不存在时移除
+     *
+     * @param force 是否无条件替换；否则只在加载结果不旧于当前快照时替换，乱序完成的加载不会覆盖较新的快照
+     */
+    private void load(String sceneId, boolean force) {
+        long start = System.nanoTime();
+        Instant now = Instant.now();
+        Optional<Scene> scene = sceneRepository.findById(sceneId);
+        if (scene.isEmpty()) {
+            removeNow(sceneId);
+            return;
+        }
+        
+        SceneResponse response = sceneMapper.toResponse(scene.get());
+        if (scene.get().getCurrentSchemeVersion() != null) {
+            schemeVersionRepository.findBySceneIdAndVersion(sceneId, scene.get().getCurrentSchemeVersion())
+                .ifPresent(schemeVersion -> response.setCurrentScheme(toSchemeMap(schemeVersion.getSchemaJson())));
+        }
+        List<ConfigResponse> configs = configMapper.toResponseList(configRepository.findBySceneId(sceneId));
+        SceneSnapshot loaded = new SceneSnapshot(response, configs, now, Duration.ofNanos(System.nanoTime() - start));
+        if (force) {
+            snapshots.put(sceneId, loaded);
+            changed();
+        } else {
+            install(loaded);
+        }
+        log.debug("Built snapshot of scene {} with {} configs", sceneId, configs.size());
+    }
+    
+    private void install(SceneSnapshot loaded) {
+        snapshots.merge(loaded.scene().getId(), loaded,
+            (current, candidate) -> candidate.revision() >= current.revision() ? candidate : current);
+        changed();
+    }
+    
+    private void removeNow(String sceneId) {
+        if (snapshots.remove(sceneId) != null) {
+            changed();
+        }
+    }
+    
+    private void changed() {
+        lastChangeNanos = System.nanoTime();
+        changes.incrementAndGet();
+    }
+    
+    /**
+     * 在当前快照上应用单个配置的变更
+     * <p>
+     * 只有修订号紧接当前快照时才原地应用；修订号跳跃（其他实例的写入）或乱序提交（本实例较晚的修订号先提交）时，
+     * 快照可能缺少中间的变更，从数据库重建场景。
+     */
+    private void patch(String sceneId, Long revision, Function<SceneSnapshot, SceneSnapshot> change) {
+        SceneSnapshot current = snapshots.get(sceneId);
+        if (current == null || revision == null) {
+            return;
+        }
+        if (revision == current.revision() + 1) {
+            SceneResponse scene = sceneMapper.copy(current.scene());
+            scene.setRevision(revision);
+            if (snapshots.replace(sceneId, current, change.apply(current.withScene(scene)))) {
+                changed();
+                return;
+            }
+        }
+        // 修订号不连续，或并发的变更已替换了快照
+        load(sceneId, true);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> toSchemeMap(JsonNode schema) {
+        return schema == null ? null : Collections.unmodifiableMap(objectMapper.convertValue(schema, Map.class));
+    }
+    
+    private static <T> List<T> sortedCopy(Collection<T> items, Comparator<T> comparator) {
+        List<T> copy = new ArrayList<>(items);
+        copy.sort(comparator);
+        return Collections.unmodifiableList(copy);
+    }
+    
+    private static <T> PageResult<T> page(List<T> items, int page, int pageSize) {
+        int from = (int) Math.min((long) (page - 1) * pageSize, items.size());
+        int to = (int) Math.min((long) from + pageSize, items.size());
+        return PageResult.<T>builder()
+            .list(List.copyOf(items.subList(from, to)))
+            .total((long) items.size())
+            .page(page)
+            .pageSize(pageSize)
+            .build();
+    }
+    
+    /**
+     * 解析 field:asc|desc 排序参数，与数据库查询一致：默认降序，null 值视为最小
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> Comparator<T> comparator(String sortParam, Map<String, Function<T, Comparable<?>>> fields,
+                                                Function<T, String> id) {
+        String[] parts = sortParam.split(":");
+        Function<T, Comparable<?>> field = fields.get(parts[0]);
+        if (field == null) {
+            throw new ValidationException("INVALID_PARAMETER", "不支持的排序字段: " + parts[0]);
+        }
+        Comparator<T> comparator = Comparator.comparing((Function<T, Comparable>) (Function) field,
+            Comparator.nullsFirst(Comparator.naturalOrder()));
+        comparator = comparator.thenComparing(id);
+        return parts.length > 1 && "asc".equalsIgnoreCase(parts[1]) ? comparator : comparator.reversed();
+    }
+    
+    /**
+     * 单个场景的不可变快照
+     * 除 {@link #verifiedAt} 外的每次变更都生成新实例，配置集合只读
+     */
+    public static final class SceneSnapshot {
+        
+        private final SceneResponse scene;
+        
+        /**
+         * 配置 ID -> 配置
+         */
+        private final Map<String, ConfigResponse> configs;
+        
+        /**
+         * 按更新时间降序排列的配置（列表接口的默认顺序）
+         */
+        private final List<ConfigResponse> configsByUpdatedAt;
+        
+        private final Instant builtAt;
+        private final Duration buildDuration;
+        private final Instant verifiedAt;
+        
+        SceneSnapshot(SceneResponse scene, List<ConfigResponse> configs, Instant builtAt, Duration buildDuration) {
+            this(scene, index(configs), sortedCopy(configs, CONFIG_DEFAULT_ORDER), builtAt, buildDuration, builtAt);
+        }
+        
+        private SceneSnapshot(SceneResponse scene, Map<String, ConfigResponse> configs,
+                              List<ConfigResponse> configsByUpdatedAt, Instant builtAt, Duration buildDuration,
+                              Instant verifiedAt) {
+            this.scene = scene;
+            this.configs = configs;
+            this.configsByUpdatedAt = configsByUpdatedAt;
+            this.builtAt = builtAt;
+            this.buildDuration = buildDuration;
+            this.verifiedAt = verifiedAt;
+        }
+        
+        public SceneResponse scene() {
+            return scene;
+        }
+        
+        public Map<String, ConfigResponse> configs() {
+            return configs;
+        }
+        
+        public List<ConfigResponse> configsByUpdatedAt() {
+            return configsByUpdatedAt;
+        }
+        
+        /**
+         * @return 场景修订号
+         */
+        public long revision() {
+            return scene.getRevision() == null ? 0 : scene.getRevision();
+        }
+        
+        /**
+         * @return 快照构建时间
+         */
+        public Instant builtAt() {
+            return builtAt;
+        }
+        
+        /**
+         * @return 构建耗时（单个配置的增量变更为 0）
+         */
+        public Duration buildDuration() {
+            return buildDuration;
+        }
+        
+        /**
+         * @return 最后一次确认与数据库一致的时间（构建、本实例写入或定期比对修订号）
+         */
+        public Instant verifiedAt() {
+            return verifiedAt;
+        }
+        
+        /**
+         * @return 场景详情的版本元数据
+         */
+        public VersionStamp versionStamp() {
+            return new VersionStamp(revision(), scene.getUpdatedAt(), 1L);
+        }
+        
+        /**
+         * @return 配置列表的版本元数据，与 {@link SceneRepository#findConfigsVersionStampById} 口径一致
+         */
+        public VersionStamp configsVersionStamp() {
+            return new VersionStamp(revision(), scene.getUpdatedAt(), (long) configs.size());
+        }
+        
+        /**
+         * 修订号和更新时间是否与数据库一致
+         */
+        boolean matches(long dbRevision, LocalDateTime dbUpdatedAt) {
+            return revision() == dbRevision && Objects.equals(scene.getUpdatedAt(), dbUpdatedAt);
+        }
+        
+        SceneSnapshot verifiedAt(Instant now) {
+            return new SceneSnapshot(scene, configs, configsByUpdatedAt, builtAt, buildDuration, now);
+        }
+        
+        SceneSnapshot withScene(SceneResponse newScene) {
+            return new SceneSnapshot(newScene, configs, configsByUpdatedAt, builtAt, buildDuration, verifiedAt);
+        }
+        
+        SceneSnapshot withConfig(ConfigResponse config) {
+            Map<String, ConfigResponse> newConfigs = new HashMap<>(configs);
+            newConfigs.put(config.getId(), config);
+            return changed(newConfigs);
+        }
+        
+        SceneSnapshot withoutConfig(String id) {
+            if (!configs.containsKey(id)) {
+                return this;
+            }
+            Map<String, ConfigResponse> newConfigs = new HashMap<>(configs);
+            newConfigs.remove(id);
+            return changed(newConfigs);
+        }
+        
+        private SceneSnapshot changed(Map<String, ConfigResponse> newConfigs) {
+            Instant now = Instant.now();
+            return new SceneSnapshot(scene, Collections.unmodifiableMap(newConfigs),
+                sortedCopy(newConfigs.values(), CONFIG_DEFAULT_ORDER), now, Duration.ZERO, now);
+        }
+        
+        private static Map<String, ConfigResponse> index(List<ConfigResponse> configs) {
+            Map<String, ConfigResponse> byId = new HashMap<>(configs.size() * 2);
+            configs.forEach(config -> byId.put(config.getId(), config));
+            return Collections.unmodifiableMap(byId);
+        }
+    }
+}
@@ -1,28 +1,131 @@
 package com.chamberlain.service;
 
+import com.chamberlain.dto.common.ValidationError;
+import com.chamberlain.entity.SchemeVersion;
+import com.chamberlain.metrics.ChamberlainMetrics;
+import com.chamberlain.util.SchemaDiff;
+import com.chamberlain.util.TransactionUtil;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.networknt.schema.JsonSchema;
 import com.networknt.schema.JsonSchemaFactory;
+import com.networknt.schema.SchemaValidatorsConfig;
 import com.networknt.schema.SpecVersion;
 import com.networknt.schema.ValidationMessage;
+import com.networknt.schema.walk.JsonSchemaWalkListener;
+import com.networknt.schema.walk.WalkEvent;
+import com.networknt.schema.walk.WalkFlow;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
  * JSON Schema 验证服务
+ * <p>
+ * Scheme 版本一经写入便不可变，因此编译后的 {@link JsonSchema} 按 (sceneId, version) 缓存复用，
+ * 缓存值使用软引用，仅在条目数超限或内存紧张时被回收。
+ * Schema 编译和数据验证分别计时（{@link ChamberlainMetrics#SCHEMA_COMPILE} / {@link ChamberlainMetrics#SCHEMA_VALIDATE}），
+ * 缓存命中率以 cache=schemas 输出。
+ * Scheme 版本与候选 Schema 的差异（{@link SchemaDiff}）同样按版本和候选 Schema 缓存，界面反复调用 schemes:validate 时不重复计算。
+ * <p>
+ * 验证有两种模式（{@link ValidationOptions}）：完整模式收集全部错误，供只验证不写入的接口使用；
+ * 有上限的模式在错误数达到上限时立即停止遍历，写入路径使用，避免畸形的大配置产生成千上万条错误。
+ * 验证器本身不支持错误上限，因此以遍历（walk）方式验证，由关键字监听器累计错误并在达到上限时中止遍历；
+ * anyOf、oneOf、not 等分支内的错误只是试探结果，不计入上限，组合关键字结束后按其最终结果计数。
  */
 @Service
 @Slf4j
 public class SchemaValidationService {
     
+    private static final long DEFAULT_SCHEMA_CACHE_SIZE = 1024;
+    private static final long DEFAULT_DIFF_CACHE_SIZE = 256;
+    private static final int DEFAULT_MAX_ERRORS = 10;
+    
+    /**
+     * 子 Schema 的错误只是试探结果的关键字，结束后才按其最终结果计入错误上限
+     */
+    private static final Set<String> SPECULATIVE_KEYWORDS = Set.of(
+        "anyOf", "oneOf", "not", "if", "contains", "unevaluatedProperties", "unevaluatedItems");
+    
+    /**
+     * 当前线程进行中的有上限验证，完整模式下为空
+     */
+    private static final ThreadLocal<ErrorBudget> ERROR_BUDGET = new ThreadLocal<>();
+    
     private final JsonSchemaFactory schemaFactory;
     
+    /**
+     * 所有 Schema 共用的编译配置，注册了累计错误上限的关键字监听器（只在遍历验证时触发）
+     */
+    private final SchemaValidatorsConfig validatorsConfig;
+    
+    /**
+     * 写入路径使用的验证选项
+     */
+    private final ValidationOptions writeOptions;
+    
+    /**
+     * 已编译 Schema 缓存，key 为 (sceneId, version)
+     */
+    private final Cache<SchemaKey, JsonSchema> schemaCache;
+    
+    /**
+     * Schema 差异缓存，key 为 (sceneId, 基准版本, 候选 Schema)
+     */
+    private final Cache<DiffKey, SchemaDiff> diffCache;
+    
+    private final Timer cachedCompileTimer;
+    private final Timer adhocCompileTimer;
+    private final Timer validTimer;
+    private final Timer invalidTimer;
+    private final Timer errorTimer;
+    private final Timer diffTimer;
+    
+    /**
+     * 无 Spring 容器时（单元测试、基准测试）使用，指标写入全局注册表
+     */
     public SchemaValidationService() {
+        this(DEFAULT_SCHEMA_CACHE_SIZE, DEFAULT_MAX_ERRORS, false, Metrics.globalRegistry);
+    }
+    
+    @Autowired
+    public SchemaValidationService(
+        @Value("${chamberlain.validation.schema-cache-size:" + DEFAULT_SCHEMA_CACHE_SIZE + "}") long schemaCacheSize,
+        @Value("${chamberlain.validation.max-errors:" + DEFAULT_MAX_ERRORS + "}") int maxErrors,
+        @Value("${chamberlain.validation.fail-fast:false}") boolean failFast,
+        MeterRegistry registry) {
         // 使用 JSON Schema Draft 2020-12
         this.schemaFactory = JsonSchemaFactory.getInstance(SpecVersion.VersionFlag.V202012);
+        this.validatorsConfig = new SchemaValidatorsConfig();
+        this.validatorsConfig.addKeywordWalkListener(new ErrorBudgetListener());
+        this.writeOptions = new ValidationOptions(failFast, maxErrors);
+        this.schemaCache = Caffeine.newBuilder()
+            .maximumSize(schemaCacheSize)
+            .softValues()
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(registry, schemaCache, "schemas");
+        this.diffCache = Caffeine.newBuilder()
+            .maximumSize(DEFAULT_DIFF_CACHE_SIZE)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(registry, diffCache, "schema-diffs");
+        this.cachedCompileTimer = registry.timer(ChamberlainMetrics.SCHEMA_COMPILE, "source", "cache");
+        this.adhocCompileTimer = registry.timer(ChamberlainMetrics.SCHEMA_COMPILE, "source", "adhoc");
+        this.validTimer = registry.timer(ChamberlainMetrics.SCHEMA_VALIDATE, "outcome", "valid");
+        this.invalidTimer = registry.timer(ChamberlainMetrics.SCHEMA_VALIDATE, "outcome", "invalid");
+        this.errorTimer = registry.timer(ChamberlainMetrics.SCHEMA_VALIDATE, "outcome", "error");
+        this.diffTimer = registry.timer(ChamberlainMetrics.SCHEMA_DIFF);
     }
     
     /**
@@ -32,15 +135,99 @@ public class SchemaValidationService {
      * @return 是否有效
      */
     public boolean isValidSchema(JsonNode schemaNode) {
+        return compile(schemaNode).isPresent();
+    }
+    
+    /**
+     * 编译 JSON Schema
+     *
+     * @param schemaNode Schema 节点
+     * @return 编译结果，Schema 无效时为空
+     */
+    public Optional<JsonSchema> compile(JsonNode schemaNode) {
         try {
-            schemaFactory.getSchema(schemaNode);
-            return true;
+            return Optional.of(adhocCompileTimer.record(() -> schemaFactory.getSchema(schemaNode, validatorsConfig)));
         } catch (Exception e) {
             log.error("Invalid JSON Schema: {}", e.getMessage());
-            return false;
+            return Optional.empty();
         }
     }
     
+    /**
+     * 登记新写入 Scheme 版本的编译结果，避免首次写配置时再次编译
+     *
+     * @param schemeVersion Scheme 版本
+     * @param schema        已编译的 Schema
+     */
+    public void registerSchema(SchemeVersion schemeVersion, JsonSchema schema) {
+        SchemaKey key = SchemaKey.of(schemeVersion);
+        TransactionUtil.afterCommit(() -> schemaCache.put(key, schema));
+    }
+    
+    /**
+     * 获取 Scheme 版本对应的已编译 Schema，未命中时编译并缓存
+     *
+     * @param schemeVersion Scheme 版本
+     * @return 已编译的 Schema
+     */
+    public JsonSchema getSchema(SchemeVersion schemeVersion) {
+        return schemaCache.get(SchemaKey.of(schemeVersion),
+            key -> cachedCompileTimer.record(() -> schemaFactory.getSchema(schemeVersion.getSchemaJson(), validatorsConfig)));
+    }
+    
+    /**
+     * 写入路径（创建、更新、批量写入、导入）使用的验证选项，由 chamberlain.validation.max-errors 和 fail-fast 配置
+     *
+     * @return 验证选项
+     */
+    public ValidationOptions getWriteOptions() {
+        return writeOptions;
+    }
+    
+    /**
+     * 移除场景的所有已编译 Schema（场景删除后 ID 可能被复用）
+     *
+     * @param sceneId 场景 ID
+     */
+    public void evictScene(String sceneId) {
+        Runnable eviction = () -> {
+            schemaCache.asMap().keySet().removeIf(key -> key.sceneId().equals(sceneId));
+            diffCache.asMap().keySet().removeIf(key -> key.from().sceneId().equals(sceneId));
+        };
+        eviction.run();
+        TransactionUtil.afterCommit(eviction);
+    }
+    
+    /**
+     * 使用 Scheme 版本验证数据并收集全部错误，复用缓存的已编译 Schema
+     *
+     * @param schemeVersion Scheme 版本
+     * @param data          待验证数据
+     * @return 验证结果
+     */
+    public ValidationResult validate(SchemeVersion schemeVersion, JsonNode data) {
+        return validate(schemeVersion, data, ValidationOptions.FULL);
+    }
+    
+    /**
+     * 使用 Scheme 版本验证数据，复用缓存的已编译 Schema
+     *
+     * @param schemeVersion Scheme 版本
+     * @param data          待验证数据
+     * @param options       验证选项
+     * @return 验证结果
+     */
+    public ValidationResult validate(SchemeVersion schemeVersion, JsonNode data, ValidationOptions options) {
+        JsonSchema schema;
+        try {
+            schema = getSchema(schemeVersion);
+        } catch (Exception e) {
+            log.error("Schema validation error", e);
+            return ValidationResult.failure(List.of("Schema 验证失败: " + e.getMessage()));
+        }
+        return validate(schema, data, options);
+    }
+    
     /**
      * 使用 Schema 验证数据
      *
@@ -49,144 +236,312 @@ public class SchemaValidationService {
      * @return 验证结果
      */
     public ValidationResult validate(JsonNode schemaNode, JsonNode data) {
+        JsonSchema schema;
         try {
-            JsonSchema schema = schemaFactory.getSchema(schemaNode);
-            Set<ValidationMessage> errors = schema.validate(data);
+            schema = adhocCompileTimer.record(() -> schemaFactory.getSchema(schemaNode, validatorsConfig));
+        } catch (Exception e) {
+            log.error("Schema validation error", e);
+            return ValidationResult.failure(List.of("Schema 验证失败: " + e.getMessage()));
+        }
+        return validate(schema, data);
+    }
+    
+    /**
+     * 使用已编译 Schema 验证数据并收集全部错误
+     *
+     * @param schema 已编译的 Schema
+     * @param data   待验证数据
+     * @return 验证结果
+     */
+    public ValidationResult validate(JsonSchema schema, JsonNode data) {
+        return validate(schema, data, ValidationOptions.FULL);
+    }
+    
+    /**
+     * 使用已编译 Schema 验证数据
+     * <p>
+     * 有上限的模式要求 Schema 由本服务编译（{@link #compile} / {@link #getSchema}），否则不会提前停止
+     *
+     * @param schema  已编译的 Schema
+     * @param data    待验证数据
+     * @param options 验证选项
+     * @return 验证结果
+     */
+    public ValidationResult validate(JsonSchema schema, JsonNode data, ValidationOptions options) {
+        long start = System.nanoTime();
+        try {
+            Collection<ValidationMessage> errors;
+            boolean truncated = false;
+            int limit = options.limit();
+            if (limit == 0) {
+                errors = schema.validate(data);
+            } else {
+                ErrorBudget budget = new ErrorBudget(limit);
+                ERROR_BUDGET.set(budget);
+                try {
+                    errors = schema.walk(data, true).getValidationMessages();
+                } catch (ErrorLimitReached e) {
+                    errors = budget.errors;
+                    truncated = true;
+                } finally {
+                    ERROR_BUDGET.remove();
+                }
+            }
             
             if (errors.isEmpty()) {
+                validTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
                 return ValidationResult.success();
             }
             
-            List<String> errorMessages = errors.stream()
-                .map(ValidationMessage::getMessage)
+            List<ValidationError> details = errors.stream()
+                .limit(limit == 0 ? Long.MAX_VALUE : limit)
+                .map(error -> toValidationError(error, data))
                 .collect(Collectors.toList());
             
-            log.debug("Validation failed with {} errors", errors.size());
-            return ValidationResult.failure(errorMessages);
+            log.debug("Validation failed with {} errors{}", details.size(), truncated ? " (truncated)" : "");
+            invalidTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return ValidationResult.failure(details, truncated);
             
         } catch (Exception e) {
+            errorTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
             log.error("Schema validation error", e);
             return ValidationResult.failure(List.of("Schema 验证失败: " + e.getMessage()));
         }
     }
     
+    private static ValidationError toValidationError(ValidationMessage message, JsonNode data) {
+        String pointer = toPointer(message.getPath(), data);
+        // 缺少必填字段和不允许的附加字段：错误记在父对象上，指向具体字段更便于定位
+        Object[] arguments = message.getArguments();
+        if (("required".equals(message.getType()) || "additionalProperties".equals(message.getType()))
+            && arguments != null && arguments.length > 0) {
+            pointer = pointer + "/" + escape(String.valueOf(arguments[0]));
+        }
+        return ValidationError.builder()
+            .pointer(pointer)
+            .keyword(message.getType())
+            .message(message.getMessage())
+            .build();
+    }
+    
     /**
-     * 比较两个 Schema，检测是否为破坏性变更
+     * 将验证器输出的路径（$.database.port、$.servers[0]）转换为 JSON Pointer
+     * <p>
+     * 路径中的属性名不做转义，因此沿数据逐级匹配：优先匹配数据中存在的最长属性名，使包含 "." 的属性名也能正确拆分
      *
-     * @param oldSchema 旧 Schema
-     * @param newSchema 新 Schema
-     * @return 是否为破坏性变更
+     * @param path 验证器输出的路径
+     * @param data 被验证的数据
+     * @return JSON Pointer，根节点为空字符串
      */
-    public boolean isBreakingChange(JsonNode oldSchema, JsonNode newSchema) {
-        // 检查字段删除或类型变更
-        JsonNode oldProperties = oldSchema.path("properties");
-        JsonNode newProperties = newSchema.path("properties");
-        
-        if (!oldProperties.isMissingNode() && !newProperties.isMissingNode()) {
-            Iterator<String> fieldNames = oldProperties.fieldNames();
-            while (fieldNames.hasNext()) {
-                String fieldName = fieldNames.next();
-                JsonNode oldField = oldProperties.get(fieldName);
-                JsonNode newField = newProperties.get(fieldName);
-                
-                // 字段被删除
-                if (newField == null || newField.isMissingNode()) {
-                    log.debug("Breaking change detected: field '{}' removed", fieldName);
-                    return true;
-                }
-                
-                // 字段类型变更
-                String oldType = oldField.path("type").asText("");
-                String newType = newField.path("type").asText("");
-                if (!oldType.isEmpty() && !oldType.equals(newType)) {
-                    log.debug("Breaking change detected: field '{}' type changed from '{}' to '{}'",
-                        fieldName, oldType, newType);
-                    return true;
+    static String toPointer(String path, JsonNode data) {
+        StringBuilder pointer = new StringBuilder();
+        JsonNode node = data;
+        int i = path.startsWith("$") ? 1 : 0;
+        while (i < path.length()) {
+            String segment;
+            int close = path.indexOf(']', i);
+            if (path.charAt(i) == '[' && close > i + 1 && path.substring(i + 1, close).chars().allMatch(Character::isDigit)) {
+                segment = path.substring(i + 1, close);
+                node = node != null ? node.get(Integer.parseInt(segment)) : null;
+                i = close + 1;
+            } else {
+                if (path.charAt(i) == '.') {
+                    i++;
                 }
+                segment = propertyAt(path, i, node);
+                node = node != null ? node.get(segment) : null;
+                i += segment.length();
             }
+            pointer.append('/').append(escape(segment));
         }
-        
-        // 检查新增的必填字段
-        Set<String> oldRequired = getRequiredFields(oldSchema);
-        Set<String> newRequired = getRequiredFields(newSchema);
-        
-        for (String field : newRequired) {
-            if (!oldRequired.contains(field)) {
-                log.debug("Breaking change detected: new required field '{}'", field);
-                return true;
+        return pointer.toString();
+    }
+    
+    /**
+     * 路径中从 start 开始的属性名：数据中存在、且其后为路径结尾或下一段的最长属性名，没有时取到下一个 "." 或 "[" 为止
+     */
+    private static String propertyAt(String path, int start, JsonNode node) {
+        String property = null;
+        if (node != null && node.isObject()) {
+            Iterator<String> names = node.fieldNames();
+            while (names.hasNext()) {
+                String name = names.next();
+                int end = start + name.length();
+                if (path.startsWith(name, start)
+                    && (end == path.length() || path.charAt(end) == '.' || path.charAt(end) == '[')
+                    && (property == null || name.length() > property.length())) {
+                    property = name;
+                }
             }
         }
-        
-        return false;
+        if (property != null) {
+            return property;
+        }
+        int end = start;
+        while (end < path.length() && path.charAt(end) != '.' && path.charAt(end) != '[') {
+            end++;
+        }
+        return path.substring(start, end);
+    }
+    
+    private static String escape(String segment) {
+        return segment.replace("~", "~0").replace("/", "~1");
+    }
+    
+    /**
+     * 比较 Scheme 版本和候选 Schema，结果按 (sceneId, 版本号, 候选 Schema) 缓存
+     * <p>
+     * 候选 Schema 通常尚未保存（schemes:validate 和随后的新增版本使用同一份 Schema），因此以内容而不是版本号为键；
+     * 已保存版本的 Schema 不可变，同样适用。
+     *
+     * @param fromVersion 基准 Scheme 版本
+     * @param toSchema    候选 Schema
+     * @return 差异
+     */
+    public SchemaDiff diff(SchemeVersion fromVersion, JsonNode toSchema) {
+        DiffKey key = new DiffKey(SchemaKey.of(fromVersion), toSchema);
+        return diffCache.get(key, k -> diffTimer.record(() -> SchemaDiff.compare(fromVersion.getSchemaJson(), toSchema)));
+    }
+    
+    /**
+     * 比较两个 Schema，检测是否为破坏性变更
+     *
+     * @param oldSchema 旧 Schema
+     * @param newSchema 新 Schema
+     * @return 是否为破坏性变更
+     * @see SchemaDiff
+     */
+    public boolean isBreakingChange(JsonNode oldSchema, JsonNode newSchema) {
+        return SchemaDiff.compare(oldSchema, newSchema).isBreaking();
     }
     
     /**
-     * 比较两个 Schema，返回变更警告列表
+     * 比较两个 Schema，返回破坏性变更的说明
      *
      * @param oldSchema 旧 Schema
      * @param newSchema 新 Schema
      * @return 警告列表
+     * @see SchemaDiff
      */
     public List<String> compareSchemas(JsonNode oldSchema, JsonNode newSchema) {
-        List<String> warnings = new ArrayList<>();
-        
-        // 检查删除的字段
-        JsonNode oldProperties = oldSchema.path("properties");
-        JsonNode newProperties = newSchema.path("properties");
-        
-        if (!oldProperties.isMissingNode() && !newProperties.isMissingNode()) {
-            Iterator<String> fieldNames = oldProperties.fieldNames();
-            while (fieldNames.hasNext()) {
-                String fieldName = fieldNames.next();
-                if (!newProperties.has(fieldName)) {
-                    warnings.add(String.format("字段 '%s' 已被删除", fieldName));
-                }
-            }
-            
-            // 检查字段类型变更
-            fieldNames = oldProperties.fieldNames();
-            while (fieldNames.hasNext()) {
-                String fieldName = fieldNames.next();
-                if (newProperties.has(fieldName)) {
-                    JsonNode oldField = oldProperties.get(fieldName);
-                    JsonNode newField = newProperties.get(fieldName);
-                    
-                    String oldType = oldField.path("type").asText("");
-                    String newType = newField.path("type").asText("");
-                    
-                    if (!oldType.isEmpty() && !oldType.equals(newType)) {
-                        warnings.add(String.format("字段 '%s' 的类型从 '%s' 变更为 '%s'",
-                            fieldName, oldType, newType));
-                    }
-                }
-            }
+        return SchemaDiff.compare(oldSchema, newSchema).getWarnings();
+    }
+    
+    /**
+     * 已编译 Schema 缓存键
+     */
+    private record SchemaKey(String sceneId, int version) {
+        
+        static SchemaKey of(SchemeVersion schemeVersion) {
+            return new SchemaKey(schemeVersion.getScene().getId(), schemeVersion.getVersion());
         }
+    }
+    
+    /**
+     * Schema 差异缓存键
+     */
+    private record DiffKey(SchemaKey from, JsonNode toSchema) {
+    }
+    
+    /**
+     * 验证选项
+     *
+     * @param failFast  是否在第一个错误处停止
+     * @param maxErrors 错误数上限，达到后停止验证，0 表示不限
+     */
+    public record ValidationOptions(boolean failFast, int maxErrors) {
+        
+        /**
+         * 收集全部错误
+         */
+        public static final ValidationOptions FULL = new ValidationOptions(false, 0);
         
-        // 检查新增的必填字段
-        Set<String> oldRequired = getRequiredFields(oldSchema);
-        Set<String> newRequired = getRequiredFields(newSchema);
+        /**
+         * 在第一个错误处停止，只关心是否通过时使用
+         */
+        public static final ValidationOptions FAIL_FAST = new ValidationOptions(true, 1);
         
-        for (String field : newRequired) {
-            if (!oldRequired.contains(field)) {
-                warnings.add(String.format("字段 '%s' 被设置为必填", field));
+        public ValidationOptions {
+            if (maxErrors < 0) {
+                throw new IllegalArgumentException("maxErrors must not be negative: " + maxErrors);
             }
         }
         
-        return warnings;
+        /**
+         * 实际的错误数上限，0 表示不限
+         */
+        public int limit() {
+            return failFast ? 1 : maxErrors;
+        }
     }
     
     /**
-     * 获取 Schema 中的必填字段
+     * 一次有上限验证的错误累计，只由验证线程访问
      */
-    private Set<String> getRequiredFields(JsonNode schema) {
-        Set<String> required = new HashSet<>();
-        JsonNode requiredNode = schema.path("required");
+    private static final class ErrorBudget {
+        
+        private final int limit;
+        
+        /**
+         * 已确定的错误，父关键字结束时会再次带上子关键字的错误，按内容去重
+         */
+        private final Set<ValidationMessage> errors = new LinkedHashSet<>();
         
-        if (requiredNode.isArray()) {
-            requiredNode.forEach(node -> required.add(node.asText()));
+        /**
+         * 所在的试探性关键字层数，大于 0 时错误暂不计数
+         */
+        private int speculativeDepth;
+        
+        private boolean exhausted;
+        
+        ErrorBudget(int limit) {
+            this.limit = limit;
         }
+    }
+    
+    /**
+     * 错误数达到上限，中止遍历；不需要堆栈
+     */
+    private static final class ErrorLimitReached extends RuntimeException {
         
-        return required;
+        ErrorLimitReached() {
+            super(null, null, false, false);
+        }
+    }
+    
+    /**
+     * 累计关键字的验证错误，达到上限时抛出 {@link ErrorLimitReached} 中止遍历
+     */
+    private static final class ErrorBudgetListener implements JsonSchemaWalkListener {
+        
+        @Override
+        public WalkFlow onWalkStart(WalkEvent walkEvent) {
+            ErrorBudget budget = ERROR_BUDGET.get();
+            if (budget != null && SPECULATIVE_KEYWORDS.contains(walkEvent.getKeyWordName())) {
+                budget.speculativeDepth++;
+            }
+            return WalkFlow.CONTINUE;
+        }
+        
+        @Override
+        public void onWalkEnd(WalkEvent walkEvent, Set<ValidationMessage> validationMessages) {
+            ErrorBudget budget = ERROR_BUDGET.get();
+            // 中止后异常向上传播时仍会触发外层关键字的结束事件
+            if (budget == null || budget.exhausted) {
+                return;
+            }
+            if (SPECULATIVE_KEYWORDS.contains(walkEvent.getKeyWordName())) {
+                budget.speculativeDepth--;
+            }
+            if (budget.speculativeDepth > 0 || validationMessages == null || validationMessages.isEmpty()) {
+                return;
+            }
+            budget.errors.addAll(validationMessages);
+            if (budget.errors.size() >= budget.limit) {
+                budget.exhausted = true;
+                throw new ErrorLimitReached();
+            }
+        }
     }
     
     /**
@@ -194,28 +549,60 @@ public class SchemaValidationService {
      */
     public static class ValidationResult {
         private final boolean valid;
-        private final List<String> errors;
+        private final List<ValidationError> details;
+        private final boolean truncated;
         
-        private ValidationResult(boolean valid, List<String> errors) {
+        private ValidationResult(boolean valid, List<ValidationError> details, boolean truncated) {
             this.valid = valid;
-            this.errors = errors;
+            this.details = details;
+            this.truncated = truncated;
         }
         
         public static ValidationResult success() {
-            return new ValidationResult(true, List.of());
+            return new ValidationResult(true, List.of(), false);
         }
         
         public static ValidationResult failure(List<String> errors) {
-            return new ValidationResult(false, errors);
+            return new ValidationResult(false, errors.stream()
+                .map(error -> ValidationError.builder().pointer("").message(error).build())
+                .collect(Collectors.toList()), false);
+        }
+        
+        public static ValidationResult failure(List<ValidationError> details, boolean truncated) {
+            return new ValidationResult(false, details, truncated);
         }
         
         public boolean isValid() {
             return valid;
         }
         
+        /**
+         * 错误说明列表
+         */
         public List<String> getErrors() {
-            return errors;
+            return details.stream().map(ValidationError::getMessage).collect(Collectors.toList());
+        }
+        
+        /**
+         * 结构化错误列表
+         */
+        public List<ValidationError> getDetails() {
+            return details;
+        }
+        
+        /**
+         * 是否因达到错误上限而提前停止，此时错误列表不完整
+         */
+        public boolean isTruncated() {
+            return truncated;
+        }
+        
+        /**
+         * 以 "; " 连接的错误说明，提前停止时注明只列出了部分错误
+         */
+        public String describe() {
+            String errors = String.join("; ", getErrors());
+            return truncated ? errors + "（仅列出前 " + details.size() + " 条错误）" : errors;
         }
     }
 }
-
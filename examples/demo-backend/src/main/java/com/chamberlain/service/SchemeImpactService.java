@@ -0,0 +1,278 @@
+package com.chamberlain.service;
+
+import com.chamberlain.dto.request.SchemeImpactRequest;
+import com.chamberlain.dto.response.SchemeImpactResponse;
+import com.chamberlain.dto.response.SchemeImpactResponse.FailedConfig;
+import com.chamberlain.exception.BusinessException;
+import com.chamberlain.exception.ResourceNotFoundException;
+import com.chamberlain.exception.ValidationException;
+import com.chamberlain.repository.SceneRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.networknt.schema.JsonSchema;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * Scheme 影响分析服务
+ * <p>
+ * 发布新 Scheme 前统计场景下有多少配置无法通过候选 Schema：候选 Schema 只编译一次，
+ * 配置以 JDBC 游标按 fetch size 分批读取原始 JSON 字节（不构造实体、不解析条件列表），
+ * 按分块交给有界的 ForkJoinPool 并行解析和验证。同时在途的分块数有上限，内存占用与配置总数无关。
+ * 旧 Scheme 版本的配置与读取接口一致，先升级到场景当前版本，再执行请求中的转换操作后验证。
+ */
+@Service
+@Slf4j
+public class SchemeImpactService {
+    
+    private static final String SELECT_CONFIGS =
+        "SELECT id, scheme_version, config_data FROM configs WHERE scene_id = ?";
+    
+    private static final int FETCH_SIZE = 1000;
+    
+    private final SceneRepository sceneRepository;
+    private final SchemaValidationService schemaValidationService;
+    private final ConfigUpgradeService configUpgradeService;
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+    
+    public SchemeImpactService(SceneRepository sceneRepository,
+                               SchemaValidationService schemaValidationService,
+                               ConfigUpgradeService configUpgradeService,
+                               ObjectMapper objectMapper,
+                               DataSource dataSource,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${chamberlain.impact.parallelism:0}") int parallelism,
+                               @Value("${chamberlain.impact.chunk-size:256}") int chunkSize) {
+        this.sceneRepository = sceneRepository;
+        this.schemaValidationService = schemaValidationService;
+        this.configUpgradeService = configUpgradeService;
+        this.objectMapper = objectMapper;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.chunkSize = chunkSize;
+    }
+    
+    /**
+     * 分析候选 Schema 对场景下已有配置的影响
+     *
+     * @param sceneId 场景 ID
+     * @param request 候选 Schema、转换操作和采样参数
+     * @return 统计结果和失败样本
+     */
+    public SchemeImpactResponse analyze(String sceneId, SchemeImpactRequest request) {
+        if (!sceneRepository.existsById(sceneId)) {
+            throw new ResourceNotFoundException("SCENE_NOT_FOUND", "场景不存在: " + sceneId);
+        }
+        JsonSchema schema = schemaValidationService.compile(request.getSchema())
+            .orElseThrow(() -> new ValidationException("INVALID_SCHEMA", "JSON Schema 格式不正确"));
+        // 并行验证前完成 $ref 等验证器的延迟初始化
+        schema.initializeValidators();
+        UnaryOperator<JsonNode> upgrade = configUpgradeService.compileUpgrade(request.getUpgrade());
+        double sampleRatio = request.getSampleRatio() != null ? request.getSampleRatio() : 1.0;
+        int maxSamples = request.getMaxSamples() != null ? request.getMaxSamples() : 20;
+        
+        long start = System.nanoTime();
+        Analysis analysis = new Analysis(sceneId, schema, upgrade, maxSamples);
+        readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(SELECT_CONFIGS,
+            (RowCallbackHandler) rs -> {
+                analysis.total++;
+                String id = rs.getString(1);
+                if (sampled(id, sampleRatio)) {
+                    analysis.add(new Row(id, rs.getInt(2), rs.getBytes(3)));
+                }
+            }, sceneId));
+        analysis.finish();
+        
+        long checked = analysis.checked.get();
+        long failed = analysis.failed.get();
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
+        log.debug("Analyzed {} of {} configs of scene {} in {} ms, {} failed",
+            checked, analysis.total, sceneId, durationMs, failed);
+        return SchemeImpactResponse.builder()
+            .total(analysis.total)
+            .checked(checked)
+            .passed(checked - failed)
+            .failed(failed)
+            .sampleRatio(sampleRatio)
+            .estimatedFailed(Math.round(failed / sampleRatio))
+            .samples(analysis.samples())
+            .durationMs(durationMs)
+            .build();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+    
+    /**
+     * 按配置 ID 的哈希确定性采样，同一配置在多次分析中的取舍一致
+     */
+    static boolean sampled(String id, double sampleRatio) {
+        if (sampleRatio >= 1.0) {
+            return true;
+        }
+        int h = id.hashCode();
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return Integer.toUnsignedLong(h) < sampleRatio * 0x1p32;
+    }
+    
+    /**
+     * 一次分析的状态：游标线程把行攒成分块提交给线程池，在途分块数受信号量限制
+     */
+    private final class Analysis {
+        
+        private final String sceneId;
+        private final JsonSchema schema;
+        private final UnaryOperator<JsonNode> upgrade;
+        private final int maxSamples;
+        private final int maxInFlight = pool.getParallelism() * 2;
+        private final Semaphore inFlight = new Semaphore(maxInFlight);
+        private final AtomicLong checked = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+        
+        /**
+         * ID 最小的失败配置，保证样本与并行调度无关
+         */
+        private final TreeMap<String, FailedConfig> samples = new TreeMap<>();
+        
+        /**
+         * 仅由游标线程访问
+         */
+        private long total;
+        private List<Row> chunk;
+        
+        Analysis(String sceneId, JsonSchema schema, UnaryOperator<JsonNode> upgrade, int maxSamples) {
+            this.sceneId = sceneId;
+            this.schema = schema;
+            this.upgrade = upgrade;
+            this.maxSamples = maxSamples;
+            this.chunk = new ArrayList<>(chunkSize);
+        }
+        
+        void add(Row row) {
+            chunk.add(row);
+            if (chunk.size() >= chunkSize) {
+                submit();
+            }
+        }
+        
+        /**
+         * 提交剩余的行并等待全部分块完成
+         */
+        void finish() {
+            submit();
+            acquire(maxInFlight);
+            inFlight.release(maxInFlight);
+            rethrow();
+        }
+        
+        List<FailedConfig> samples() {
+            synchronized (samples) {
+                return List.copyOf(samples.values());
+            }
+        }
+        
+        private void submit() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            // 已有分块失败时停止读取
+            rethrow();
+            List<Row> rows = chunk;
+            chunk = new ArrayList<>(chunkSize);
+            acquire(1);
+            pool.execute(() -> {
+                try {
+                    rows.forEach(this::check);
+                } catch (Throwable e) {
+                    error.compareAndSet(null, e);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        }
+        
+        private void check(Row row) {
+            List<String> errors;
+            try {
+                JsonNode data = objectMapper.readTree(row.configData());
+                data = upgrade.apply(configUpgradeService.upgradeData(sceneId, row.schemeVersion(), data));
+                errors = schemaValidationService.validate(schema, data, schemaValidationService.getWriteOptions())
+                    .getErrors();
+            } catch (IOException e) {
+                errors = List.of("配置数据不是合法的 JSON: " + e.getMessage());
+            }
+            checked.incrementAndGet();
+            if (!errors.isEmpty()) {
+                failed.incrementAndGet();
+                sample(new FailedConfig(row.id(), row.schemeVersion(), errors));
+            }
+        }
+        
+        private void sample(FailedConfig config) {
+            if (maxSamples == 0) {
+                return;
+            }
+            synchronized (samples) {
+                if (samples.size() < maxSamples) {
+                    samples.put(config.getId(), config);
+                } else if (config.getId().compareTo(samples.lastKey()) < 0) {
+                    samples.pollLastEntry();
+                    samples.put(config.getId(), config);
+                }
+            }
+        }
+        
+        private void rethrow() {
+            Throwable e = error.get();
+            if (e != null) {
+                throw new BusinessException("IMPACT_ANALYSIS_FAILED", "影响分析失败: " + e.getMessage());
+            }
+        }
+        
+        private void acquire(int permits) {
+            try {
+                inFlight.acquire(permits);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new BusinessException("IMPACT_ANALYSIS_INTERRUPTED", "影响分析被中断");
+            }
+        }
+    }
+    
+    /**
+     * 游标读取的一行，配置数据保持原始字节，由工作线程解析
+     */
+    private record Row(String id, int schemeVersion, byte[] configData) {
+    }
+}
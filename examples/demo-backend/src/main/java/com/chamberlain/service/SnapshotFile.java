@@ -0,0 +1,207 @@
+package com.chamberlain.service;
+
+import com.chamberlain.dto.response.ConfigResponse;
+import com.chamberlain.dto.response.SceneResponse;
+import com.chamberlain.service.SceneSnapshotService.SceneSnapshot;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * 场景快照文件
+ * <p>
+ * 文件布局（大端序）：
+ * <pre>
+ * 头部 32 字节：magic(4) | 格式版本(4) | 写入时间毫秒(8) | 数据区长度(8) | 数据区 CRC32C(4) | 场景数(4)
+ * 数据区：按场景依次写入
+ *   场景长度(4) | 场景（Smile） | 配置数(4) | { 配置长度(4) | 配置（Smile） } ...
+ * </pre>
+ * 写入先写同目录下的临时文件并刷盘，再原子重命名覆盖；读取时内存映射整个文件，校验通过后才解码。
+ * magic、格式版本、长度、校验和不符或文件超过最大保留时长时拒绝该文件，由调用方回退到从数据库加载。
+ */
+@Slf4j
+final class SnapshotFile {
+    
+    static final int MAGIC = 0x4348534E;
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    
+    private final Path path;
+    private final Duration maxAge;
+    private final ObjectReader sceneReader;
+    private final ObjectReader configReader;
+    private final ObjectWriter writer;
+    
+    /**
+     * @param path         文件路径
+     * @param maxAge       文件最大保留时长，超过时视为过旧
+     * @param objectMapper Spring 配置的 ObjectMapper，沿用其模块并替换为 Smile 二进制编码
+     */
+    SnapshotFile(Path path, Duration maxAge, ObjectMapper objectMapper) {
+        ObjectMapper binaryMapper = objectMapper.copyWith(new SmileFactory());
+        this.path = path;
+        this.maxAge = maxAge;
+        this.sceneReader = binaryMapper.readerFor(SceneResponse.class);
+        this.configReader = binaryMapper.readerFor(ConfigResponse.class);
+        this.writer = binaryMapper.writer();
+    }
+    
+    Path path() {
+        return path;
+    }
+    
+    /**
+     * 原子写入快照文件
+     *
+     * @param snapshots 场景快照
+     * @return 写入的场景数
+     */
+    int write(Collection<SceneSnapshot> snapshots) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try {
+            int scenes = 0;
+            CRC32C checksum = new CRC32C();
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                channel.position(HEADER_SIZE);
+                // 不关闭数据流，避免提前关闭通道，头部写入后统一关闭
+                DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024), checksum));
+                for (SceneSnapshot snapshot : snapshots) {
+                    writeRecord(out, snapshot.scene());
+                    out.writeInt(snapshot.configs().size());
+                    for (ConfigResponse config : snapshot.configs().values()) {
+                        writeRecord(out, config);
+                    }
+                    scenes++;
+                }
+                out.flush();
+                
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                    .putInt(MAGIC)
+                    .putInt(FORMAT_VERSION)
+                    .putLong(System.currentTimeMillis())
+                    .putLong(channel.size() - HEADER_SIZE)
+                    .putInt((int) checksum.getValue())
+                    .putInt(scenes)
+                    .flip();
+                while (header.hasRemaining()) {
+                    channel.write(header, header.position());
+                }
+                channel.force(true);
+            }
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return scenes;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+    
+    /**
+     * 读取快照文件
+     *
+     * @return 文件中的场景快照，文件不存在或被拒绝时为空
+     */
+    Optional<List<SceneSnapshot>> read() {
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                return reject("unexpected file size " + size);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            
+            int magic = buffer.getInt();
+            int version = buffer.getInt();
+            Instant writtenAt = Instant.ofEpochMilli(buffer.getLong());
+            long bodyLength = buffer.getLong();
+            int expectedChecksum = buffer.getInt();
+            int sceneCount = buffer.getInt();
+            if (magic != MAGIC) {
+                return reject("bad magic");
+            }
+            if (version != FORMAT_VERSION) {
+                return reject("format version " + version + ", expected " + FORMAT_VERSION);
+            }
+            if (bodyLength != size - HEADER_SIZE) {
+                return reject("body length " + bodyLength + " does not match file size " + size);
+            }
+            if (Duration.between(writtenAt, Instant.now()).compareTo(maxAge) > 0) {
+                return reject("written at " + writtenAt + ", older than " + maxAge);
+            }
+            CRC32C checksum = new CRC32C();
+            checksum.update(buffer.slice(HEADER_SIZE, (int) bodyLength));
+            if ((int) checksum.getValue() != expectedChecksum) {
+                return reject("checksum mismatch");
+            }
+            
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+            List<SceneSnapshot> snapshots = new ArrayList<>(sceneCount);
+            for (int i = 0; i < sceneCount; i++) {
+                SceneResponse scene = readRecord(buffer, sceneReader);
+                if (scene.getCurrentScheme() instanceof Map<?, ?> scheme) {
+                    scene.setCurrentScheme(Collections.unmodifiableMap(scheme));
+                }
+                int configCount = buffer.getInt();
+                List<ConfigResponse> configs = new ArrayList<>(configCount);
+                for (int j = 0; j < configCount; j++) {
+                    configs.add(readRecord(buffer, configReader));
+                }
+                snapshots.add(new SceneSnapshot(scene, configs, writtenAt, elapsed));
+            }
+            if (buffer.hasRemaining()) {
+                return reject(buffer.remaining() + " trailing bytes");
+            }
+            log.info("Read snapshot file {} with {} scenes written at {} in {} ms", path, sceneCount, writtenAt,
+                Duration.ofNanos(System.nanoTime() - start).toMillis());
+            return Optional.of(snapshots);
+        } catch (IOException | RuntimeException e) {
+            return reject(e.toString());
+        }
+    }
+    
+    private void writeRecord(DataOutputStream out, Object value) throws IOException {
+        byte[] bytes = writer.writeValueAsBytes(value);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+    
+    /**
+     * 在映射缓冲区的切片上直接解码，不复制到中间数组
+     */
+    private static <T> T readRecord(ByteBuffer buffer, ObjectReader reader) throws IOException {
+        int length = buffer.getInt();
+        ByteBuffer record = buffer.slice(buffer.position(), length);
+        buffer.position(buffer.position() + length);
+        return reader.readValue(new ByteBufferBackedInputStream(record));
+    }
+    
+    private Optional<List<SceneSnapshot>> reject(String reason) {
+        log.warn("Rejected snapshot file {}: {}", path, reason);
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,237 @@
+package com.chamberlain.util;
+
+import com.chamberlain.entity.Config.Condition;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 条件组合的规范形式
+ * <p>
+ * 条件按 key 排序后，一次遍历同时生成配置 ID（见 {@link ConfigIdGenerator}）和条件哈希（见 {@link ConditionHashUtil}）。
+ * 在平台线程上，排序数组、ID 缓冲区和哈希状态都是每个线程复用的暂存区，除返回的 ID 字符串和哈希数组外每次调用不分配对象。
+ * 虚拟线程（spring.threads.virtual.enabled）每个请求一个新线程，线程暂存区无法复用，
+ * 改为每次调用按本次的条件数和 ID 长度分配恰好大小的暂存区，不创建 ThreadLocal。
+ * <p>
+ * {@link #of} 返回的实例属于当前线程，只在下一次调用前有效，不能保存或跨线程传递。
+ */
+public final class CanonicalConditions {
+    
+    private static final String DEFAULT_SUFFIX = "default";
+    private static final char SEPARATOR = ':';
+    private static final char CONDITION_SEPARATOR = ',';
+    private static final int TERMINATOR = 0xFF;
+    private static final int NULL_VALUE = 0xFE;
+    
+    /**
+     * 不超过该长度时使用插入排序，避免 TimSort 的临时数组
+     */
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+    private static final int INITIAL_CONDITIONS = 16;
+    private static final int INITIAL_ID_CAPACITY = 512;
+    
+    /**
+     * 暂存区超过该大小时不再保留，避免个别超大条件组合长期占用线程内存
+     */
+    private static final int MAX_RETAINED_CONDITIONS = 1024;
+    private static final int MAX_RETAINED_ID_CAPACITY = 16 * 1024;
+    
+    private static final Comparator<Condition> BY_KEY = new KeyComparator();
+    
+    private static final ThreadLocal<CanonicalConditions> SCRATCH =
+        ThreadLocal.withInitial(() -> new CanonicalConditions(INITIAL_CONDITIONS, INITIAL_ID_CAPACITY));
+    
+    private Condition[] sorted;
+    private int size;
+    private StringBuilder id;
+    private final ConditionHashUtil.Murmur3 hasher = new ConditionHashUtil.Murmur3();
+    
+    private CanonicalConditions(int conditions, int idCapacity) {
+        this.sorted = new Condition[conditions];
+        this.id = new StringBuilder(idCapacity);
+    }
+    
+    /**
+     * 一次遍历生成配置 ID 和条件哈希
+     *
+     * @param sceneId    场景 ID
+     * @param conditions 条件列表
+     * @return 当前线程的暂存实例，通过 {@link #id()} 和 {@link #hash()} 取结果
+     */
+    public static CanonicalConditions of(String sceneId, List<Condition> conditions) {
+        requireSceneId(sceneId);
+        CanonicalConditions canonical = scratch(conditions, idLength(sceneId, conditions));
+        canonical.sort(conditions);
+        canonical.appendId(sceneId, true);
+        return canonical;
+    }
+    
+    /**
+     * 生成配置 ID
+     *
+     * @param sceneId    场景 ID
+     * @param conditions 条件列表
+     * @return 配置 ID
+     */
+    public static String id(String sceneId, List<Condition> conditions) {
+        requireSceneId(sceneId);
+        CanonicalConditions canonical = scratch(conditions, idLength(sceneId, conditions));
+        canonical.sort(conditions);
+        canonical.appendId(sceneId, false);
+        return canonical.id();
+    }
+    
+    /**
+     * 计算条件哈希
+     *
+     * @param conditions 条件列表
+     * @return 16 字节哈希值
+     */
+    public static byte[] hash(List<Condition> conditions) {
+        CanonicalConditions canonical = scratch(conditions, 0);
+        canonical.sort(conditions);
+        canonical.hasher.reset();
+        for (int i = 0; i < canonical.size; i++) {
+            canonical.putCondition(canonical.sorted[i]);
+        }
+        canonical.release();
+        return canonical.hash();
+    }
+    
+    /**
+     * @return 配置 ID
+     */
+    public String id() {
+        return id.toString();
+    }
+    
+    /**
+     * @return 16 字节条件哈希（每次返回新数组）
+     */
+    public byte[] hash() {
+        return hasher.finish();
+    }
+    
+    /**
+     * 平台线程复用线程暂存区；虚拟线程按本次调用分配
+     */
+    private static CanonicalConditions scratch(List<Condition> conditions, int idCapacity) {
+        if (Thread.currentThread().isVirtual()) {
+            return new CanonicalConditions(conditions == null ? 0 : conditions.size(), idCapacity);
+        }
+        return SCRATCH.get();
+    }
+    
+    /**
+     * 配置 ID 的长度上界
+     */
+    private static int idLength(String sceneId, List<Condition> conditions) {
+        int length = sceneId.length() + 1 + DEFAULT_SUFFIX.length();
+        int count = conditions == null ? 0 : conditions.size();
+        for (int i = 0; i < count; i++) {
+            Condition condition = conditions.get(i);
+            length += condition.getKey().length() + String.valueOf(condition.getValue()).length() + 2;
+        }
+        return length;
+    }
+    
+    private static void requireSceneId(String sceneId) {
+        if (sceneId == null || sceneId.isEmpty()) {
+            throw new IllegalArgumentException("Scene ID cannot be null or empty");
+        }
+    }
+    
+    /**
+     * 复制到暂存数组并按 key 稳定排序
+     */
+    private void sort(List<Condition> conditions) {
+        size = conditions == null ? 0 : conditions.size();
+        if (size > sorted.length) {
+            sorted = new Condition[Math.max(size, sorted.length * 2)];
+        }
+        for (int i = 0; i < size; i++) {
+            sorted[i] = conditions.get(i);
+        }
+        
+        if (size > INSERTION_SORT_THRESHOLD) {
+            Arrays.sort(sorted, 0, size, BY_KEY);
+            return;
+        }
+        for (int i = 1; i < size; i++) {
+            Condition current = sorted[i];
+            String key = current.getKey();
+            int j = i - 1;
+            while (j >= 0 && sorted[j].getKey().compareTo(key) > 0) {
+                sorted[j + 1] = sorted[j];
+                j--;
+            }
+            sorted[j + 1] = current;
+        }
+    }
+    
+    /**
+     * 拼接配置 ID：{sceneId}:default 或 {sceneId}:{key1}:{value1},{key2}:{value2}...
+     *
+     * @param withHash 是否同时写入哈希状态
+     */
+    private void appendId(String sceneId, boolean withHash) {
+        if (id.capacity() > MAX_RETAINED_ID_CAPACITY) {
+            id = new StringBuilder(INITIAL_ID_CAPACITY);
+        }
+        id.setLength(0);
+        id.append(sceneId).append(SEPARATOR);
+        if (withHash) {
+            hasher.reset();
+        }
+        
+        if (size == 0) {
+            id.append(DEFAULT_SUFFIX);
+        }
+        for (int i = 0; i < size; i++) {
+            Condition condition = sorted[i];
+            if (i > 0) {
+                id.append(CONDITION_SEPARATOR);
+            }
+            id.append(condition.getKey()).append(SEPARATOR).append(condition.getValue());
+            if (withHash) {
+                putCondition(condition);
+            }
+        }
+        release();
+    }
+    
+    private void putCondition(Condition condition) {
+        hasher.putUtf8(condition.getKey());
+        hasher.put(TERMINATOR);
+        if (condition.getValue() == null) {
+            hasher.put(NULL_VALUE);
+        } else {
+            hasher.putUtf8(condition.getValue());
+        }
+        hasher.put(TERMINATOR);
+    }
+    
+    /**
+     * 清除对条件对象的引用，过大的暂存数组直接丢弃
+     */
+    private void release() {
+        if (sorted.length > MAX_RETAINED_CONDITIONS) {
+            sorted = new Condition[INITIAL_CONDITIONS];
+        } else {
+            Arrays.fill(sorted, 0, size, null);
+        }
+        size = 0;
+    }
+    
+    /**
+     * 按 key 比较，使用具名类而非 lambda
+     */
+    private static final class KeyComparator implements Comparator<Condition> {
+        
+        @Override
+        public int compare(Condition a, Condition b) {
+            return a.getKey().compareTo(b.getKey());
+        }
+    }
+}
@@ -1,41 +1,34 @@
 package com.chamberlain.util;
 
 import com.chamberlain.entity.Config.Condition;
-import cn.hutool.crypto.digest.DigestUtil;
 
-import java.util.Comparator;
+import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * 条件哈希工具类
  * <p>
- * 用于生成条件列表的哈希值，便于快速查找和匹配
+ * 用于生成条件列表的哈希值，便于快速查找和匹配。
+ * 哈希为 128 位 MurmurHash3（x64 变体，种子 0），按 key 排序后对规范字节序列计算：
+ * 每个条件依次为 key 的 UTF-8 字节、0xFF、value 的 UTF-8 字节（null 时为 0xFE）、0xFF。
+ * 0xFE/0xFF 不会出现在合法 UTF-8 中，因此不同条件组合的字节序列不会相同。
+ * 字符直接编码进哈希状态，不构造中间字符串；排序和遍历见 {@link CanonicalConditions}。
  */
 public class ConditionHashUtil {
     
-    private static final String SEPARATOR = ":";
-    private static final String CONDITION_SEPARATOR = ",";
+    /**
+     * 哈希长度（字节）
+     */
+    public static final int HASH_LENGTH = 16;
     
     /**
      * 计算条件列表的哈希值
-     * 使用 SHA-256 算法
      *
      * @param conditions 条件列表
-     * @return 哈希值（16进制字符串）
+     * @return 16 字节哈希值
      */
-    public static String hash(List<Condition> conditions) {
-        if (conditions == null || conditions.isEmpty()) {
-            return DigestUtil.sha256Hex("");
-        }
-        
-        // 按条件 key 排序，确保相同条件组合生成相同哈希
-        String conditionString = conditions.stream()
-            .sorted(Comparator.comparing(Condition::getKey))
-            .map(c -> c.getKey() + SEPARATOR + c.getValue())
-            .collect(Collectors.joining(CONDITION_SEPARATOR));
-        
-        return DigestUtil.sha256Hex(conditionString);
+    public static byte[] hash(List<Condition> conditions) {
+        return CanonicalConditions.hash(conditions);
     }
     
     /**
@@ -47,7 +40,137 @@ public class ConditionHashUtil {
      * @return 是否相等
      */
     public static boolean equals(List<Condition> conditions1, List<Condition> conditions2) {
-        return hash(conditions1).equals(hash(conditions2));
+        return Arrays.equals(hash(conditions1), hash(conditions2));
+    }
+    
+    /**
+     * 流式 MurmurHash3 x64 128，按字节累积 16 字节分块
+     */
+    static final class Murmur3 {
+        
+        private static final long C1 = 0x87c37b91114253d5L;
+        private static final long C2 = 0x4cf5ad432745937fL;
+        
+        private long h1;
+        private long h2;
+        private long k1;
+        private long k2;
+        private int blockLength;
+        private long totalLength;
+        
+        void reset() {
+            h1 = 0;
+            h2 = 0;
+            k1 = 0;
+            k2 = 0;
+            blockLength = 0;
+            totalLength = 0;
+        }
+        
+        void put(int b) {
+            long value = b & 0xFFL;
+            if (blockLength < 8) {
+                k1 |= value << (blockLength << 3);
+            } else {
+                k2 |= value << ((blockLength - 8) << 3);
+            }
+            totalLength++;
+            if (++blockLength == HASH_LENGTH) {
+                mixBlock();
+            }
+        }
+        
+        /**
+         * 以 UTF-8 编码写入字符，未配对的代理字符按 '?' 处理（与 String#getBytes 一致）
+         */
+        void putUtf8(CharSequence s) {
+            int length = s.length();
+            for (int i = 0; i < length; i++) {
+                char c = s.charAt(i);
+                if (c < 0x80) {
+                    put(c);
+                } else if (c < 0x800) {
+                    put(0xC0 | (c >>> 6));
+                    put(0x80 | (c & 0x3F));
+                } else if (!Character.isSurrogate(c)) {
+                    put(0xE0 | (c >>> 12));
+                    put(0x80 | ((c >>> 6) & 0x3F));
+                    put(0x80 | (c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, s.charAt(++i));
+                    put(0xF0 | (cp >>> 18));
+                    put(0x80 | ((cp >>> 12) & 0x3F));
+                    put(0x80 | ((cp >>> 6) & 0x3F));
+                    put(0x80 | (cp & 0x3F));
+                } else {
+                    put('?');
+                }
+            }
+        }
+        
+        /**
+         * 输出当前哈希值，不改变已累积的状态
+         */
+        byte[] finish() {
+            long a = h1;
+            long b = h2;
+            if (blockLength > 0) {
+                a ^= mixK1(k1);
+                b ^= mixK2(k2);
+            }
+            a ^= totalLength;
+            b ^= totalLength;
+            a += b;
+            b += a;
+            a = fmix64(a);
+            b = fmix64(b);
+            a += b;
+            b += a;
+            
+            byte[] result = new byte[HASH_LENGTH];
+            for (int i = 0; i < 8; i++) {
+                result[i] = (byte) (a >>> (i << 3));
+                result[i + 8] = (byte) (b >>> (i << 3));
+            }
+            return result;
+        }
+        
+        private void mixBlock() {
+            h1 ^= mixK1(k1);
+            h1 = Long.rotateLeft(h1, 27);
+            h1 += h2;
+            h1 = h1 * 5 + 0x52dce729;
+            
+            h2 ^= mixK2(k2);
+            h2 = Long.rotateLeft(h2, 31);
+            h2 += h1;
+            h2 = h2 * 5 + 0x38495ab5;
+            
+            k1 = 0;
+            k2 = 0;
+            blockLength = 0;
+        }
+        
+        private static long mixK1(long k) {
+            k *= C1;
+            k = Long.rotateLeft(k, 31);
+            return k * C2;
+        }
+        
+        private static long mixK2(long k) {
+            k *= C2;
+            k = Long.rotateLeft(k, 33);
+            return k * C1;
+        }
+        
+        private static long fmix64(long k) {
+            k ^= k >>> 33;
+            k *= 0xff51afd7ed558ccdL;
+            k ^= k >>> 33;
+            k *= 0xc4ceb9fe1a85ec53L;
+            k ^= k >>> 33;
+            return k;
+        }
     }
 }
-
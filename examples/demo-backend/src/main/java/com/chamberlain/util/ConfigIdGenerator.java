@@ -2,9 +2,7 @@ package com.chamberlain.util;
 
 import com.chamberlain.entity.Config.Condition;
 
-import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * 配置 ID 生成器
@@ -13,12 +11,11 @@ import java.util.stream.Collectors;
  * - 默认配置（无条件）：{sceneId}:default
  * - 有条件配置：{sceneId}:{key1}:{value1},{key2}:{value2}...
  * - 条件按 key 字典序排序，确保相同条件组合生成相同 ID
+ * 拼接由 {@link CanonicalConditions} 在暂存缓冲区中完成（平台线程上按线程复用）
  */
 public class ConfigIdGenerator {
     
-    private static final String DEFAULT_SUFFIX = "default";
     private static final String SEPARATOR = ":";
-    private static final String CONDITION_SEPARATOR = ",";
     
     /**
      * 生成配置 ID
@@ -28,22 +25,7 @@ public class ConfigIdGenerator {
      * @return 配置 ID
      */
     public static String generate(String sceneId, List<Condition> conditions) {
-        if (sceneId == null || sceneId.isEmpty()) {
-            throw new IllegalArgumentException("Scene ID cannot be null or empty");
-        }
-        
-        // 如果没有条件，返回默认配置 ID
-        if (conditions == null || conditions.isEmpty()) {
-            return sceneId + SEPARATOR + DEFAULT_SUFFIX;
-        }
-        
-        // 按条件 key 排序，确保相同条件组合生成相同 ID
-        String conditionPart = conditions.stream()
-            .sorted(Comparator.comparing(Condition::getKey))
-            .map(c -> c.getKey() + SEPARATOR + c.getValue())
-            .collect(Collectors.joining(CONDITION_SEPARATOR));
-        
-        return sceneId + SEPARATOR + conditionPart;
+        return CanonicalConditions.id(sceneId, conditions);
     }
     
     /**
@@ -0,0 +1,99 @@
+package com.chamberlain.util;
+
+import com.chamberlain.exception.ValidationException;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 键集分页游标
+ * <p>
+ * 按 (updated_at DESC, id DESC) 定位，编码为不透明的 Base64URL 字符串，
+ * 下一页通过 seek 条件直接定位，无需 OFFSET 和 COUNT 查询。
+ *
+ * @param updatedAt 上一页最后一条记录的更新时间
+ * @param id        上一页最后一条记录的 ID
+ */
+public record KeysetCursor(LocalDateTime updatedAt, String id) {
+    
+    /**
+     * 游标分页的排序，与 seek 条件一致
+     */
+    public static final Sort SORT = Sort.by(Sort.Direction.DESC, "updatedAt", "id");
+    
+    /**
+     * 单页最大条数
+     */
+    public static final int MAX_LIMIT = 1000;
+    
+    private static final char SEPARATOR = '|';
+    
+    /**
+     * 编码为不透明字符串
+     */
+    public String encode() {
+        String raw = updatedAt + String.valueOf(SEPARATOR) + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * 解码游标
+     *
+     * @param cursor 不透明字符串
+     * @return 游标
+     * @throws ValidationException 游标格式不正确
+     */
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            return new KeysetCursor(LocalDateTime.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (RuntimeException e) {
+            throw new ValidationException("INVALID_CURSOR", "分页游标格式不正确");
+        }
+    }
+    
+    /**
+     * 校验单页条数
+     *
+     * @param limit 单页条数
+     * @return 单页条数
+     * @throws ValidationException 超出范围
+     */
+    public static int checkLimit(Integer limit) {
+        if (limit == null || limit < 1 || limit > MAX_LIMIT) {
+            throw new ValidationException("INVALID_PARAMETER", "limit 必须在 1 到 " + MAX_LIMIT + " 之间");
+        }
+        return limit;
+    }
+    
+    /**
+     * 校验游标分页的排序参数：游标分页固定按 {@link #SORT} 排序，不接受 sort
+     *
+     * @param sort 排序参数
+     * @throws ValidationException 同时传入了 sort
+     */
+    public static void checkSort(String sort) {
+        if (sort != null && !sort.isEmpty()) {
+            throw new ValidationException("INVALID_PARAMETER", "游标分页固定按 updatedAt:desc 排序，不支持 sort 参数");
+        }
+    }
+    
+    /**
+     * 构建 seek 条件：updated_at &lt; t OR (updated_at = t AND id &lt; id)
+     */
+    public Predicate toPredicate(Root<?> root, CriteriaBuilder cb) {
+        return cb.or(
+            cb.lessThan(root.get("updatedAt"), updatedAt),
+            cb.and(
+                cb.equal(root.get("updatedAt"), updatedAt),
+                cb.lessThan(root.get("id"), id)
+            )
+        );
+    }
+}
@@ -0,0 +1,522 @@
+package com.chamberlain.util;
+
+import com.chamberlain.dto.response.SchemaChange;
+import com.chamberlain.dto.response.SchemaChange.Kind;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * JSON Schema 差异
+ * <p>
+ * 一次递归遍历新旧 Schema，覆盖嵌套对象（properties、required、additionalProperties）、数组（items、prefixItems）、
+ * enum / const、组合（allOf、anyOf、oneOf）、本地 $ref，以及数值范围、长度、数量、multipleOf、pattern、format 等约束，
+ * 同时得出结构化变更列表和是否为破坏性变更。破坏性变更指按旧 Schema 有效的数据可能在新 Schema 下无效；
+ * 未识别的关键字发生变化时无法判断兼容性，按破坏性变更处理。
+ * <p>
+ * 实例不可变，可缓存复用。
+ */
+public final class SchemaDiff {
+    
+    private static final JsonNode EMPTY_SCHEMA = JsonNodeFactory.instance.objectNode();
+    
+    /**
+     * 下界约束，新值更大时收紧
+     */
+    private static final List<String> LOWER_BOUNDS = List.of(
+        "minimum", "exclusiveMinimum", "minLength", "minItems", "minProperties", "minContains");
+    
+    /**
+     * 上界约束，新值更小时收紧
+     */
+    private static final List<String> UPPER_BOUNDS = List.of(
+        "maximum", "exclusiveMaximum", "maxLength", "maxItems", "maxProperties", "maxContains");
+    
+    /**
+     * 取值相同才兼容的字符串约束
+     */
+    private static final List<String> EXACT_CONSTRAINTS = List.of("pattern", "format");
+    
+    private static final List<String> COMPOSITIONS = List.of("allOf", "anyOf", "oneOf");
+    
+    /**
+     * 已单独比较或不影响验证结果的关键字，其余关键字变化时按 {@link Kind#OTHER} 处理
+     */
+    private static final Set<String> SKIPPED_KEYWORDS;
+    
+    static {
+        Set<String> skipped = new HashSet<>(List.of(
+            "$ref", "type", "properties", "required", "additionalProperties", "items", "prefixItems",
+            "enum", "const", "multipleOf", "uniqueItems",
+            // 注解和定义，$defs 只通过 $ref 比较
+            "$schema", "$id", "$anchor", "$comment", "$defs", "definitions", "title", "description",
+            "default", "examples", "deprecated", "readOnly", "writeOnly"));
+        skipped.addAll(LOWER_BOUNDS);
+        skipped.addAll(UPPER_BOUNDS);
+        skipped.addAll(EXACT_CONSTRAINTS);
+        skipped.addAll(COMPOSITIONS);
+        SKIPPED_KEYWORDS = Set.copyOf(skipped);
+    }
+    
+    private final boolean breaking;
+    private final List<SchemaChange> changes;
+    
+    private SchemaDiff(List<SchemaChange> changes) {
+        this.changes = List.copyOf(changes);
+        this.breaking = changes.stream().anyMatch(SchemaChange::getBreaking);
+    }
+    
+    /**
+     * 比较新旧 Schema
+     *
+     * @param oldSchema 旧 Schema
+     * @param newSchema 新 Schema
+     * @return 差异
+     */
+    public static SchemaDiff compare(JsonNode oldSchema, JsonNode newSchema) {
+        oldSchema = oldSchema == null ? EMPTY_SCHEMA : oldSchema;
+        newSchema = newSchema == null ? EMPTY_SCHEMA : newSchema;
+        Walker walker = new Walker(oldSchema, newSchema);
+        walker.diff("", oldSchema, newSchema);
+        return new SchemaDiff(walker.changes);
+    }
+    
+    /**
+     * @return 是否为破坏性变更
+     */
+    public boolean isBreaking() {
+        return breaking;
+    }
+    
+    /**
+     * @return 全部变更，按遍历顺序
+     */
+    public List<SchemaChange> getChanges() {
+        return changes;
+    }
+    
+    /**
+     * @return 破坏性变更的说明
+     */
+    public List<String> getWarnings() {
+        return changes.stream().filter(SchemaChange::getBreaking).map(SchemaChange::getMessage).toList();
+    }
+    
+    /**
+     * 一次比较的遍历状态
+     */
+    private static final class Walker {
+        
+        private final JsonNode oldRoot;
+        private final JsonNode newRoot;
+        private final List<SchemaChange> changes = new ArrayList<>();
+        
+        /**
+         * 正在比较的 ($ref, $ref) 对，用于终止递归 Schema
+         */
+        private final Set<String> refStack = new HashSet<>();
+        
+        /**
+         * 新旧 Schema 的定义相同时，内容相同的子 Schema 一定等价，可以跳过
+         */
+        private final boolean sameDefinitions;
+        
+        Walker(JsonNode oldRoot, JsonNode newRoot) {
+            this.oldRoot = oldRoot;
+            this.newRoot = newRoot;
+            this.sameDefinitions = Objects.equals(oldRoot.get("$defs"), newRoot.get("$defs"))
+                && Objects.equals(oldRoot.get("definitions"), newRoot.get("definitions"));
+        }
+        
+        void diff(String path, JsonNode oldNode, JsonNode newNode) {
+            // 布尔 Schema：true 等价于空 Schema，false 不接受任何值
+            if (isFalse(newNode)) {
+                if (!isFalse(oldNode)) {
+                    add(path, Kind.CONSTRAINT_TIGHTENED, true, "'%s' 不再接受任何值", name(path));
+                }
+                return;
+            }
+            if (isFalse(oldNode)) {
+                add(path, Kind.CONSTRAINT_RELAXED, false, "'%s' 从不接受任何值变为可以接受", name(path));
+                return;
+            }
+            JsonNode oldSchema = oldNode == null || oldNode.isBoolean() ? EMPTY_SCHEMA : oldNode;
+            JsonNode newSchema = newNode == null || newNode.isBoolean() ? EMPTY_SCHEMA : newNode;
+            if (!oldSchema.isObject() || !newSchema.isObject() || sameDefinitions && oldSchema.equals(newSchema)) {
+                return;
+            }
+            
+            String oldRef = oldSchema.path("$ref").textValue();
+            String newRef = newSchema.path("$ref").textValue();
+            if (oldRef != null || newRef != null) {
+                JsonNode oldTarget = oldRef == null ? oldSchema : resolve(oldRoot, oldRef);
+                JsonNode newTarget = newRef == null ? newSchema : resolve(newRoot, newRef);
+                if (oldTarget == null || newTarget == null) {
+                    // 远程引用等无法解析的情况只比较引用本身
+                    if (!Objects.equals(oldRef, newRef)) {
+                        add(path, Kind.REF_CHANGED, true, "'%s' 的引用从 '%s' 变更为 '%s'", name(path), oldRef, newRef);
+                    }
+                    return;
+                }
+                String pair = oldRef + "\n" + newRef;
+                if (refStack.add(pair)) {
+                    diffKeywords(path, oldTarget, newTarget);
+                    refStack.remove(pair);
+                }
+                return;
+            }
+            diffKeywords(path, oldSchema, newSchema);
+        }
+        
+        private void diffKeywords(String path, JsonNode oldSchema, JsonNode newSchema) {
+            if (hasRef(oldSchema) || hasRef(newSchema)) {
+                // $ref 指向另一个 $ref
+                diff(path, oldSchema, newSchema);
+                return;
+            }
+            diffType(path, oldSchema, newSchema);
+            diffProperties(path, oldSchema, newSchema);
+            diffRequired(path, oldSchema, newSchema);
+            diffSubschema(path + "/*", oldSchema.get("additionalProperties"), newSchema.get("additionalProperties"));
+            diffItems(path, oldSchema, newSchema);
+            diffEnum(path, oldSchema, newSchema);
+            diffBounds(path, oldSchema, newSchema);
+            for (String keyword : COMPOSITIONS) {
+                diffComposition(path, keyword, oldSchema.get(keyword), newSchema.get(keyword));
+            }
+            diffOthers(path, oldSchema, newSchema);
+        }
+        
+        private void diffType(String path, JsonNode oldSchema, JsonNode newSchema) {
+            Set<String> oldTypes = types(oldSchema);
+            Set<String> newTypes = types(newSchema);
+            if (Objects.equals(oldTypes, newTypes)) {
+                return;
+            }
+            if (newTypes == null) {
+                add(path, Kind.TYPE_CHANGED, false, "'%s' 取消了类型限制", name(path));
+            } else if (oldTypes == null) {
+                add(path, Kind.TYPE_CHANGED, true, "'%s' 新增类型限制 '%s'", name(path), String.join("|", newTypes));
+            } else {
+                boolean widened = oldTypes.stream().allMatch(type ->
+                    newTypes.contains(type) || "integer".equals(type) && newTypes.contains("number"));
+                add(path, Kind.TYPE_CHANGED, !widened, "字段 '%s' 的类型从 '%s' 变更为 '%s'",
+                    name(path), String.join("|", oldTypes), String.join("|", newTypes));
+            }
+        }
+        
+        private void diffProperties(String path, JsonNode oldSchema, JsonNode newSchema) {
+            JsonNode oldProperties = oldSchema.get("properties");
+            JsonNode newProperties = newSchema.get("properties");
+            if (oldProperties == null && newProperties == null) {
+                return;
+            }
+            if (newProperties == null) {
+                // 与逐个删除字段相同，都视为删除
+                newProperties = EMPTY_SCHEMA;
+            }
+            
+            Iterator<Map.Entry<String, JsonNode>> fields = newProperties.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                String child = child(path, field.getKey());
+                JsonNode oldField = oldProperties == null ? null : oldProperties.get(field.getKey());
+                if (oldField == null) {
+                    add(child, Kind.ADDED, false, "新增字段 '%s'", name(child));
+                } else {
+                    diff(child, oldField, field.getValue());
+                }
+            }
+            if (oldProperties == null) {
+                return;
+            }
+            fields = oldProperties.fields();
+            while (fields.hasNext()) {
+                String fieldName = fields.next().getKey();
+                if (!newProperties.has(fieldName)) {
+                    String child = child(path, fieldName);
+                    add(child, Kind.REMOVED, true, "字段 '%s' 已被删除", name(child));
+                }
+            }
+        }
+        
+        private void diffRequired(String path, JsonNode oldSchema, JsonNode newSchema) {
+            Set<String> oldRequired = strings(oldSchema.get("required"));
+            Set<String> newRequired = strings(newSchema.get("required"));
+            for (String field : newRequired) {
+                if (!oldRequired.contains(field)) {
+                    String child = child(path, field);
+                    add(child, Kind.REQUIRED_ADDED, true, "字段 '%s' 被设置为必填", name(child));
+                }
+            }
+            for (String field : oldRequired) {
+                if (!newRequired.contains(field)) {
+                    String child = child(path, field);
+                    add(child, Kind.REQUIRED_REMOVED, false, "字段 '%s' 不再必填", name(child));
+                }
+            }
+        }
+        
+        private void diffItems(String path, JsonNode oldSchema, JsonNode newSchema) {
+            // 旧草案的数组形式 items 等价于 prefixItems
+            JsonNode oldItems = oldSchema.get("items");
+            JsonNode newItems = newSchema.get("items");
+            JsonNode oldPrefix = oldItems != null && oldItems.isArray() ? oldItems : oldSchema.get("prefixItems");
+            JsonNode newPrefix = newItems != null && newItems.isArray() ? newItems : newSchema.get("prefixItems");
+            diffSubschema(path + "/*", oldItems != null && oldItems.isArray() ? null : oldItems,
+                newItems != null && newItems.isArray() ? null : newItems);
+            
+            int oldSize = oldPrefix == null ? 0 : oldPrefix.size();
+            int newSize = newPrefix == null ? 0 : newPrefix.size();
+            for (int i = 0; i < Math.max(oldSize, newSize); i++) {
+                diffSubschema(path + "/" + i, i < oldSize ? oldPrefix.get(i) : null, i < newSize ? newPrefix.get(i) : null);
+            }
+        }
+        
+        /**
+         * 比较可选的子 Schema，缺失等价于 true
+         */
+        private void diffSubschema(String path, JsonNode oldNode, JsonNode newNode) {
+            if (oldNode == null && newNode == null) {
+                return;
+            }
+            if (oldNode != null && newNode == null && !isFalse(oldNode)) {
+                add(path, Kind.CONSTRAINT_RELAXED, false, "'%s' 不再有约束", name(path));
+                return;
+            }
+            if (oldNode == null && !isFalse(newNode) && !isTrue(newNode)) {
+                add(path, Kind.CONSTRAINT_TIGHTENED, true, "'%s' 新增约束", name(path));
+                return;
+            }
+            diff(path, oldNode, newNode);
+        }
+        
+        private void diffEnum(String path, JsonNode oldSchema, JsonNode newSchema) {
+            Set<JsonNode> oldValues = enumValues(oldSchema);
+            Set<JsonNode> newValues = enumValues(newSchema);
+            if (Objects.equals(oldValues, newValues)) {
+                return;
+            }
+            if (newValues == null) {
+                add(path, Kind.ENUM_CHANGED, false, "'%s' 取消了取值限制", name(path));
+            } else if (oldValues == null) {
+                add(path, Kind.ENUM_CHANGED, true, "'%s' 新增取值限制 %s", name(path), newValues);
+            } else {
+                Set<JsonNode> removed = new LinkedHashSet<>(oldValues);
+                removed.removeAll(newValues);
+                Set<JsonNode> added = new LinkedHashSet<>(newValues);
+                added.removeAll(oldValues);
+                if (!removed.isEmpty()) {
+                    add(path, Kind.ENUM_CHANGED, true, "'%s' 的可选值删除了 %s", name(path), removed);
+                }
+                if (!added.isEmpty()) {
+                    add(path, Kind.ENUM_CHANGED, false, "'%s' 新增可选值 %s", name(path), added);
+                }
+            }
+        }
+        
+        private void diffBounds(String path, JsonNode oldSchema, JsonNode newSchema) {
+            for (String keyword : LOWER_BOUNDS) {
+                diffBound(path, keyword, oldSchema.get(keyword), newSchema.get(keyword), 1);
+            }
+            for (String keyword : UPPER_BOUNDS) {
+                diffBound(path, keyword, oldSchema.get(keyword), newSchema.get(keyword), -1);
+            }
+            
+            JsonNode oldMultiple = oldSchema.get("multipleOf");
+            JsonNode newMultiple = newSchema.get("multipleOf");
+            if (oldMultiple != null && newMultiple != null && oldMultiple.isNumber() && newMultiple.isNumber()) {
+                BigDecimal oldValue = oldMultiple.decimalValue();
+                BigDecimal newValue = newMultiple.decimalValue();
+                if (oldValue.compareTo(newValue) != 0) {
+                    // 新值整除旧值时，旧的倍数一定也是新值的倍数
+                    boolean relaxed = newValue.signum() != 0 && oldValue.remainder(newValue).signum() == 0;
+                    constraint(path, "multipleOf", !relaxed, oldMultiple, newMultiple);
+                }
+            } else {
+                diffPresence(path, "multipleOf", oldMultiple, newMultiple);
+            }
+            
+            for (String keyword : EXACT_CONSTRAINTS) {
+                JsonNode oldValue = oldSchema.get(keyword);
+                JsonNode newValue = newSchema.get(keyword);
+                if (oldValue != null && newValue != null && !oldValue.equals(newValue)) {
+                    constraint(path, keyword, true, oldValue, newValue);
+                } else {
+                    diffPresence(path, keyword, oldValue, newValue);
+                }
+            }
+            
+            boolean oldUnique = oldSchema.path("uniqueItems").asBoolean(false);
+            boolean newUnique = newSchema.path("uniqueItems").asBoolean(false);
+            if (oldUnique != newUnique) {
+                constraint(path, "uniqueItems", newUnique,
+                    JsonNodeFactory.instance.booleanNode(oldUnique), JsonNodeFactory.instance.booleanNode(newUnique));
+            }
+        }
+        
+        /**
+         * @param direction 1 表示下界（新值更大时收紧），-1 表示上界
+         */
+        private void diffBound(String path, String keyword, JsonNode oldValue, JsonNode newValue, int direction) {
+            if (oldValue != null && newValue != null && oldValue.isNumber() && newValue.isNumber()) {
+                int compared = newValue.decimalValue().compareTo(oldValue.decimalValue());
+                if (compared != 0) {
+                    constraint(path, keyword, compared * direction > 0, oldValue, newValue);
+                }
+                return;
+            }
+            diffPresence(path, keyword, oldValue, newValue);
+        }
+        
+        /**
+         * 约束新增时收紧，删除时放宽
+         */
+        private void diffPresence(String path, String keyword, JsonNode oldValue, JsonNode newValue) {
+            if (oldValue == null && newValue != null) {
+                add(path, Kind.CONSTRAINT_TIGHTENED, true, "'%s' 新增约束 %s=%s", name(path), keyword, newValue);
+            } else if (oldValue != null && newValue == null) {
+                add(path, Kind.CONSTRAINT_RELAXED, false, "'%s' 取消约束 %s", name(path), keyword);
+            } else if (oldValue != null && !oldValue.equals(newValue)) {
+                constraint(path, keyword, true, oldValue, newValue);
+            }
+        }
+        
+        private void constraint(String path, String keyword, boolean tightened, JsonNode oldValue, JsonNode newValue) {
+            add(path, tightened ? Kind.CONSTRAINT_TIGHTENED : Kind.CONSTRAINT_RELAXED, tightened,
+                "'%s' 的 %s 从 %s %s为 %s", name(path), keyword, oldValue, tightened ? "收紧" : "放宽", newValue);
+        }
+        
+        private void diffComposition(String path, String keyword, JsonNode oldBranches, JsonNode newBranches) {
+            int oldSize = oldBranches != null && oldBranches.isArray() ? oldBranches.size() : 0;
+            int newSize = newBranches != null && newBranches.isArray() ? newBranches.size() : 0;
+            if (oldSize == 0 && newSize == 0) {
+                return;
+            }
+            if (oldSize == 0) {
+                add(path, Kind.COMPOSITION_CHANGED, true, "'%s' 新增 %s", name(path), keyword);
+                return;
+            }
+            if (newSize == 0) {
+                add(path, Kind.COMPOSITION_CHANGED, false, "'%s' 删除了 %s", name(path), keyword);
+                return;
+            }
+            
+            // 按位置比较分支；allOf 的分支越多越严格，anyOf / oneOf 的分支越少越严格
+            for (int i = 0; i < Math.min(oldSize, newSize); i++) {
+                diff(path, oldBranches.get(i), newBranches.get(i));
+            }
+            if (oldSize != newSize) {
+                boolean narrowed = "allOf".equals(keyword) ? newSize > oldSize : newSize < oldSize;
+                add(path, Kind.COMPOSITION_CHANGED, narrowed, "'%s' 的 %s 分支数从 %d 变更为 %d",
+                    name(path), keyword, oldSize, newSize);
+            }
+        }
+        
+        private void diffOthers(String path, JsonNode oldSchema, JsonNode newSchema) {
+            Set<String> keywords = new TreeSet<>();
+            oldSchema.fieldNames().forEachRemaining(keywords::add);
+            newSchema.fieldNames().forEachRemaining(keywords::add);
+            for (String keyword : keywords) {
+                if (SKIPPED_KEYWORDS.contains(keyword)) {
+                    continue;
+                }
+                JsonNode oldValue = oldSchema.get(keyword);
+                JsonNode newValue = newSchema.get(keyword);
+                if (!Objects.equals(oldValue, newValue)) {
+                    add(path, Kind.OTHER, true, "'%s' 的 %s 发生变更，无法判断兼容性", name(path), keyword);
+                }
+            }
+        }
+        
+        private void add(String path, Kind kind, boolean breaking, String format, Object... args) {
+            changes.add(SchemaChange.builder()
+                .path(path)
+                .kind(kind)
+                .breaking(breaking)
+                .message(String.format(format, args))
+                .build());
+        }
+        
+        private static boolean hasRef(JsonNode schema) {
+            return schema.isObject() && schema.has("$ref");
+        }
+        
+        /**
+         * 解析本地引用（# 开头的 JSON Pointer），无法解析时返回 null
+         */
+        private static JsonNode resolve(JsonNode root, String ref) {
+            if (!ref.startsWith("#")) {
+                return null;
+            }
+            JsonNode target;
+            try {
+                target = ref.length() == 1 ? root : root.at(ref.substring(1));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+            return target.isMissingNode() ? null : target;
+        }
+        
+        private static boolean isFalse(JsonNode node) {
+            return node != null && node.isBoolean() && !node.booleanValue();
+        }
+        
+        private static boolean isTrue(JsonNode node) {
+            return node != null && node.isBoolean() && node.booleanValue();
+        }
+        
+        private static Set<String> types(JsonNode schema) {
+            JsonNode type = schema.get("type");
+            if (type == null) {
+                return null;
+            }
+            Set<String> types = new TreeSet<>();
+            if (type.isArray()) {
+                type.forEach(item -> types.add(item.asText()));
+            } else {
+                types.add(type.asText());
+            }
+            return types;
+        }
+        
+        private static Set<JsonNode> enumValues(JsonNode schema) {
+            JsonNode values = schema.get("enum");
+            JsonNode constant = schema.get("const");
+            if (values == null && constant == null) {
+                return null;
+            }
+            Set<JsonNode> result = new LinkedHashSet<>();
+            if (values != null) {
+                values.forEach(result::add);
+            }
+            if (constant != null) {
+                // enum 和 const 同时出现时取交集
+                result = values == null || result.contains(constant) ? Set.of(constant) : Set.of();
+            }
+            return result;
+        }
+        
+        private static Set<String> strings(JsonNode array) {
+            if (array == null || !array.isArray()) {
+                return Set.of();
+            }
+            Set<String> result = new LinkedHashSet<>();
+            array.forEach(item -> result.add(item.asText()));
+            return result;
+        }
+        
+        private static String child(String path, String name) {
+            return path + "/" + name.replace("~", "~0").replace("/", "~1");
+        }
+        
+        /**
+         * 变更说明中的字段名，去掉开头的 /
+         */
+        private static String name(String path) {
+            return path.isEmpty() ? "(根)" : path.substring(1);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.chamberlain.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 事务工具类
+ */
+public class TransactionUtil {
+    
+    /**
+     * 在当前事务提交后执行，没有事务时立即执行
+     * <p>
+     * 用于维护内存缓存和索引，避免回滚的写入污染缓存
+     *
+     * @param action 待执行动作
+     */
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,82 @@
+package db.migration;
+
+import com.chamberlain.entity.Config.Condition;
+import com.chamberlain.entity.converter.ConditionListConverter;
+import com.chamberlain.util.ConditionHashUtil;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 条件哈希改为 BINARY(16)
+ * <p>
+ * 原 condition_hash 为 SHA-256 十六进制字符串（VARCHAR(64)），改为 {@link ConditionHashUtil#hash} 的 128 位
+ * MurmurHash3，并与 scene_id 联合唯一。新哈希无法用 SQL 计算，因此按主键分批读取 condition_list 在 Java 中回填。
+ */
+public class V5__binary_condition_hash extends BaseJavaMigration {
+    
+    private static final int BATCH_SIZE = 1000;
+    
+    private final ConditionListConverter conditionListConverter = new ConditionListConverter();
+    
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE configs ADD COLUMN condition_hash_bin BINARY(16) NULL AFTER condition_hash");
+        }
+        
+        backfill(connection);
+        
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE configs "
+                + "DROP INDEX idx_condition_hash, "
+                + "DROP COLUMN condition_hash, "
+                + "CHANGE COLUMN condition_hash_bin condition_hash BINARY(16) NOT NULL COMMENT '条件哈希（128 位 MurmurHash3）', "
+                + "ADD UNIQUE KEY uk_scene_condition_hash (scene_id, condition_hash)");
+        }
+    }
+    
+    /**
+     * 按主键游标分批回填，每批读取完毕后再批量更新，不在打开的结果集上执行写入
+     */
+    private void backfill(Connection connection) throws SQLException {
+        try (PreparedStatement select = connection.prepareStatement(
+                 "SELECT id, condition_list FROM configs WHERE id > ? ORDER BY id LIMIT " + BATCH_SIZE);
+             PreparedStatement update = connection.prepareStatement(
+                 "UPDATE configs SET condition_hash_bin = ? WHERE id = ?")) {
+            String lastId = "";
+            while (true) {
+                List<String> ids = new ArrayList<>(BATCH_SIZE);
+                List<byte[]> hashes = new ArrayList<>(BATCH_SIZE);
+                select.setString(1, lastId);
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        List<Condition> conditions = conditionListConverter.convertToEntityAttribute(rs.getBytes(2));
+                        ids.add(rs.getString(1));
+                        hashes.add(ConditionHashUtil.hash(conditions));
+                    }
+                }
+                if (ids.isEmpty()) {
+                    return;
+                }
+                
+                for (int i = 0; i < ids.size(); i++) {
+                    update.setBytes(1, hashes.get(i));
+                    update.setString(2, ids.get(i));
+                    update.addBatch();
+                }
+                update.executeBatch();
+                lastId = ids.get(ids.size() - 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,5 @@
+-- 游标分页索引
+-- 配置列表按 (updated_at, id) seek 定位，InnoDB 二级索引隐式包含主键 id，
+-- 因此 (scene_id, updated_at) 即可覆盖 scene_id = ? AND (updated_at, id) < (?, ?) 的范围扫描
+
+ALTER TABLE configs ADD INDEX idx_scene_updated (scene_id, updated_at);
@@ -0,0 +1,6 @@
+-- 修订号
+-- scenes.revision 在场景及其配置每次变更时递增，configs.revision 记录配置最后一次变更时的场景修订号，
+-- 供 configs:watch 长轮询判断场景是否有新的变更
+
+ALTER TABLE scenes ADD COLUMN revision BIGINT NOT NULL DEFAULT 0 COMMENT '修订号';
+ALTER TABLE configs ADD COLUMN revision BIGINT NOT NULL DEFAULT 0 COMMENT '最后变更时的场景修订号';
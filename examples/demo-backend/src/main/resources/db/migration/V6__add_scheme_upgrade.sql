@@ -0,0 +1,5 @@
+-- Scheme 升级转换
+-- scheme_versions.upgrade_json 记录从上一版本升级到本版本的声明式转换（补默认值、重命名、删除字段），
+-- 读取旧版本配置时按转换链在内存中升级到场景当前版本，再由后台分批写回
+
+ALTER TABLE scheme_versions ADD COLUMN upgrade_json JSON NULL COMMENT '从上一版本升级的转换操作列表';
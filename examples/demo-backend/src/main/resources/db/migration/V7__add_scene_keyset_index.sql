@@ -0,0 +1,5 @@
+-- 场景游标分页索引
+-- 场景列表按 (updated_at DESC, id DESC) seek 定位，与 V3 的配置索引对应；
+-- 建立 (updated_at, id) 联合索引，排序和 seek 条件都由索引满足，不再对整张表排序
+
+ALTER TABLE scenes ADD INDEX idx_scenes_updated_id (updated_at, id);
@@ -0,0 +1,65 @@
+package com.chamberlain.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ConcurrencyLimitedDataSource 单元测试
+ */
+class ConcurrencyLimitedDataSourceTest {
+    
+    private JdbcDataSource target;
+    
+    @BeforeEach
+    void setUp() {
+        target = new JdbcDataSource();
+        target.setURL("jdbc:h2:mem:limiter;DB_CLOSE_DELAY=-1");
+    }
+    
+    @Test
+    void testWaitsForReleasedConnection() throws Exception {
+        ConcurrencyLimitedDataSource dataSource = new ConcurrencyLimitedDataSource(target, 2, Duration.ofSeconds(10));
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+        assertEquals(2, dataSource.getActive());
+        
+        CompletableFuture<Connection> third = CompletableFuture.supplyAsync(() -> {
+            try {
+                return dataSource.getConnection();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(100);
+        assertFalse(third.isDone());
+        
+        first.close();
+        // 重复关闭不会多释放许可
+        first.close();
+        Connection acquired = third.get(5, TimeUnit.SECONDS);
+        assertEquals(2, dataSource.getActive());
+        assertTrue(acquired.isValid(1));
+        
+        acquired.close();
+        second.close();
+        assertEquals(0, dataSource.getActive());
+    }
+    
+    @Test
+    void testTimesOutWhenLimitReached() throws Exception {
+        ConcurrencyLimitedDataSource dataSource = new ConcurrencyLimitedDataSource(target, 1, Duration.ofMillis(50));
+        try (Connection ignored = dataSource.getConnection()) {
+            assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        }
+        assertEquals(0, dataSource.getActive());
+    }
+}
@@ -0,0 +1,143 @@
+package com.chamberlain.metrics;
+
+import com.chamberlain.dto.request.CreateConfigRequest;
+import com.chamberlain.dto.request.CreateSceneRequest;
+import com.chamberlain.dto.response.ConfigResponse;
+import com.chamberlain.exception.ResourceNotFoundException;
+import com.chamberlain.repository.ConfigRepository;
+import com.chamberlain.repository.SceneRepository;
+import com.chamberlain.service.ConfigService;
+import com.chamberlain.service.SceneService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 服务、Schema、JSON 列和请求 SQL 指标测试
+ */
+@SpringBootTest(properties = "chamberlain.metrics.scenes=metrics_scene")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ChamberlainMetricsTest {
+    
+    private static final String SCENE_ID = "metrics_scene";
+    private static final String OTHER_SCENE_ID = "metrics_other_scene";
+    
+    @Autowired
+    private ConfigService configService;
+    
+    @Autowired
+    private SceneService sceneService;
+    
+    @Autowired
+    private SceneRepository sceneRepository;
+    
+    @Autowired
+    private ConfigRepository configRepository;
+    
+    @Autowired
+    private MeterRegistry registry;
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @BeforeEach
+    void setUp() {
+        // H2 由 JPA 建表，没有 configs -> scenes 的级联删除
+        configRepository.deleteAll();
+        sceneRepository.findAll().forEach(scene -> sceneService.delete(scene.getId()));
+        createScene(SCENE_ID);
+        createScene(OTHER_SCENE_ID);
+    }
+    
+    @Test
+    void testServiceOperationsTaggedByAllowedScene() {
+        double before = operations("config", "create", SCENE_ID, "success");
+        double otherBefore = operations("config", "create", ChamberlainMetrics.OTHER_SCENE, "success");
+        configService.create(createRequest(SCENE_ID, 3306));
+        configService.create(createRequest(OTHER_SCENE_ID, 3306));
+        
+        assertEquals(before + 1, operations("config", "create", SCENE_ID, "success"));
+        assertEquals(otherBefore + 1, operations("config", "create", ChamberlainMetrics.OTHER_SCENE, "success"));
+        assertNull(registry.find(ChamberlainMetrics.SERVICE_OPERATIONS).tag("scene", OTHER_SCENE_ID).timer());
+        
+        assertThrows(ResourceNotFoundException.class, () -> configService.getById(SCENE_ID + ":missing:1"));
+        assertEquals(1, registry.get(ChamberlainMetrics.SERVICE_OPERATIONS)
+            .tags("service", "config", "operation", "getById", "scene", SCENE_ID, "outcome", "error",
+                "exception", "ResourceNotFoundException")
+            .timer().count());
+    }
+    
+    @Test
+    void testSchemaAndConfigDataMetrics() {
+        double validations = registry.get(ChamberlainMetrics.SCHEMA_VALIDATE).tag("outcome", "valid").timer().count();
+        DistributionSummary configData = registry.get(ChamberlainMetrics.JSON_CODEC_SIZE)
+            .tags("column", "config_data", "operation", "write").summary();
+        long writes = configData.count();
+        
+        configService.create(createRequest(SCENE_ID, 3306));
+        
+        assertTrue(registry.get(ChamberlainMetrics.SCHEMA_COMPILE).tag("source", "adhoc").timer().count() > 0);
+        assertEquals(validations + 1, registry.get(ChamberlainMetrics.SCHEMA_VALIDATE).tag("outcome", "valid").timer().count());
+        // Hibernate 对可变的转换类型以编解码往返生成快照，写入次数不止一次
+        assertTrue(configData.count() > writes);
+        assertTrue(configData.max() >= "{\"port\":3306}".length());
+    }
+    
+    @Test
+    void testSqlStatementsPerRequest() throws Exception {
+        ConfigResponse config = configService.create(createRequest(SCENE_ID, 3306));
+        
+        mockMvc.perform(get("/api/configs/{id}", config.getId())).andExpect(status().isOk());
+        
+        DistributionSummary statements = registry.get(ChamberlainMetrics.REQUEST_SQL_STATEMENTS)
+            .tags("method", "GET", "uri", "/api/configs/{id}").summary();
+        assertEquals(1, statements.count());
+        assertTrue(statements.totalAmount() >= 1);
+        assertEquals(1, registry.get(ChamberlainMetrics.REQUEST_SQL_ENTITIES)
+            .tags("method", "GET", "uri", "/api/configs/{id}").summary().totalAmount());
+    }
+    
+    private double operations(String service, String operation, String scene, String outcome) {
+        var timer = registry.find(ChamberlainMetrics.SERVICE_OPERATIONS)
+            .tags("service", service, "operation", operation, "scene", scene, "outcome", outcome).timer();
+        return timer == null ? 0 : timer.count();
+    }
+    
+    private void createScene(String sceneId) {
+        ObjectNode schema = objectMapper.createObjectNode();
+        schema.put("type", "object");
+        schema.putObject("properties").putObject("port").put("type", "integer");
+        CreateSceneRequest scene = new CreateSceneRequest();
+        scene.setId(sceneId);
+        scene.setName(sceneId);
+        scene.setSchema(schema);
+        sceneService.create(scene);
+    }
+    
+    private CreateConfigRequest createRequest(String sceneId, int port) {
+        CreateConfigRequest request = new CreateConfigRequest();
+        request.setSceneId(sceneId);
+        request.setSchemeVersion(1);
+        request.setConditions(List.of());
+        request.setConfig(objectMapper.createObjectNode().put("port", port));
+        return request;
+    }
+}
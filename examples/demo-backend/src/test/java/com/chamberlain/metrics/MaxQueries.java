@@ -0,0 +1,23 @@
+package com.chamberlain.metrics;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.*;
+
+/**
+ * 限制测试方法执行的 SQL 语句数
+ * <p>
+ * 统计范围为测试方法本身（不含 @BeforeEach / @AfterEach），包括测试线程上通过 MockMvc 发起的请求。
+ * 标注在类上时作用于类中的所有测试方法，方法上的标注优先。
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@ExtendWith(MaxQueriesExtension.class)
+public @interface MaxQueries {
+    
+    /**
+     * @return 允许的最大语句数
+     */
+    long value();
+}
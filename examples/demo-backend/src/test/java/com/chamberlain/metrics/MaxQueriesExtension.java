@@ -0,0 +1,43 @@
+package com.chamberlain.metrics;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.opentest4j.AssertionFailedError;
+
+/**
+ * {@link MaxQueries} 的实现：在测试方法执行期间打开 {@link RequestSqlStatistics} 计数范围，结束后校验语句数，
+ * 超出时列出执行的 SQL
+ */
+class MaxQueriesExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+    
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(MaxQueriesExtension.class);
+    
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        context.getStore(NAMESPACE).put(context.getUniqueId(), RequestSqlStatistics.begin(true));
+    }
+    
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        RequestSqlStatistics.Counts counts = context.getStore(NAMESPACE)
+            .remove(context.getUniqueId(), RequestSqlStatistics.Counts.class);
+        RequestSqlStatistics.end(counts);
+        if (context.getExecutionException().isPresent()) {
+            return;
+        }
+        
+        long max = AnnotationSupport.findAnnotation(context.getRequiredTestMethod(), MaxQueries.class)
+            .or(() -> AnnotationSupport.findAnnotation(context.getRequiredTestClass(), MaxQueries.class))
+            .map(MaxQueries::value)
+            .orElseThrow();
+        if (counts.getStatements() > max) {
+            StringBuilder message = new StringBuilder()
+                .append(context.getDisplayName()).append(" executed ").append(counts.getStatements())
+                .append(" SQL statements, expected at most ").append(max).append(':');
+            counts.getSql().forEach(sql -> message.append("\n  ").append(sql));
+            throw new AssertionFailedError(message.toString(), max, counts.getStatements());
+        }
+    }
+}
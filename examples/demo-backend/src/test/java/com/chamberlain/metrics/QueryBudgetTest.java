@@ -0,0 +1,136 @@
+package com.chamberlain.metrics;
+
+import com.chamberlain.dto.request.CreateConfigRequest;
+import com.chamberlain.dto.request.CreateSceneRequest;
+import com.chamberlain.entity.Config.Condition;
+import com.chamberlain.repository.ConfigRepository;
+import com.chamberlain.repository.SceneRepository;
+import com.chamberlain.service.ConfigService;
+import com.chamberlain.service.SceneService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * 读取端点的 SQL 语句数预算，语句数随数据量增长（N+1）时失败
+ */
+@SpringBootTest(properties = "chamberlain.metrics.sql.response-header=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class QueryBudgetTest {
+    
+    private static final String SCENE_ID = "budget_scene";
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private SceneService sceneService;
+    
+    @Autowired
+    private ConfigService configService;
+    
+    @Autowired
+    private SceneRepository sceneRepository;
+    
+    @Autowired
+    private ConfigRepository configRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @BeforeEach
+    void setUp() {
+        // H2 由 JPA 建表，没有 configs -> scenes 的级联删除
+        configRepository.deleteAll();
+        sceneRepository.findAll().forEach(scene -> sceneService.delete(scene.getId()));
+        for (int i = 0; i < 20; i++) {
+            createScene(i == 0 ? SCENE_ID : "budget_scene_" + i);
+        }
+        for (int i = 0; i < 20; i++) {
+            Condition condition = new Condition();
+            condition.setKey("environment");
+            condition.setValue("env_" + i);
+            CreateConfigRequest request = new CreateConfigRequest();
+            request.setSceneId(SCENE_ID);
+            request.setSchemeVersion(1);
+            request.setConditions(List.of(condition));
+            request.setConfig(objectMapper.createObjectNode().put("port", 3306 + i));
+            configService.create(request);
+        }
+    }
+    
+    /**
+     * ETag + 分页查询 + COUNT + 批量 Scheme 查询
+     */
+    @Test
+    @MaxQueries(4)
+    void listScenes() throws Exception {
+        mockMvc.perform(get("/api/scenes").param("pageSize", "20"))
+            .andExpect(status().isOk());
+    }
+    
+    /**
+     * ETag + 场景 + 当前 Scheme
+     */
+    @Test
+    @MaxQueries(3)
+    void getScene() throws Exception {
+        mockMvc.perform(get("/api/scenes/{id}", SCENE_ID))
+            .andExpect(status().isOk());
+    }
+    
+    /**
+     * ETag + 分页查询 + COUNT
+     */
+    @Test
+    @MaxQueries(3)
+    void listConfigs() throws Exception {
+        mockMvc.perform(get("/api/configs").param("sceneId", SCENE_ID).param("pageSize", "20"))
+            .andExpect(status().isOk());
+    }
+    
+    /**
+     * ETag + 配置
+     */
+    @Test
+    @MaxQueries(2)
+    void getConfig() throws Exception {
+        mockMvc.perform(get("/api/configs/{id}", SCENE_ID + ":environment:env_0"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(RequestSqlMetricsFilter.HEADER, matchesPattern("statements=2;time=\\d+\\.\\d{3}ms")));
+    }
+    
+    /**
+     * 首次解析加载条件索引：场景 + 配置
+     */
+    @Test
+    @MaxQueries(2)
+    void resolveConfig() throws Exception {
+        mockMvc.perform(get("/api/configs:resolve").param("sceneId", SCENE_ID).param("environment", "env_3"))
+            .andExpect(status().isOk());
+    }
+    
+    private void createScene(String id) {
+        ObjectNode schema = objectMapper.createObjectNode();
+        schema.put("type", "object");
+        schema.putObject("properties").putObject("port").put("type", "integer");
+        CreateSceneRequest request = new CreateSceneRequest();
+        request.setId(id);
+        request.setName(id);
+        request.setSchema(schema);
+        sceneService.create(request);
+    }
+}
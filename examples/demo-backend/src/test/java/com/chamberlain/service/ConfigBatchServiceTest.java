@@ -0,0 +1,170 @@
+package com.chamberlain.service;
+
+import com.chamberlain.dto.common.BatchMode;
+import com.chamberlain.dto.request.BatchCreateConfigRequest;
+import com.chamberlain.dto.request.BatchUpdateConfigRequest;
+import com.chamberlain.dto.request.CreateSceneRequest;
+import com.chamberlain.dto.response.BatchConfigResponse;
+import com.chamberlain.entity.Config.Condition;
+import com.chamberlain.repository.ConfigRepository;
+import com.chamberlain.repository.SceneRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ConfigBatchService 测试
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ConfigBatchServiceTest {
+    
+    private static final String SCENE_ID = "batch_scene";
+    
+    @Autowired
+    private ConfigBatchService configBatchService;
+    
+    @Autowired
+    private SceneService sceneService;
+    
+    @Autowired
+    private SceneRepository sceneRepository;
+    
+    @Autowired
+    private ConfigRepository configRepository;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @BeforeEach
+    void setUp() {
+        // H2 由 JPA 建表，没有 configs -> scenes 的级联删除
+        configRepository.deleteAll();
+        sceneRepository.findAll().forEach(scene -> sceneService.delete(scene.getId()));
+        
+        ObjectNode schema = objectMapper.createObjectNode();
+        schema.put("type", "object");
+        schema.putObject("properties").putObject("port").put("type", "integer");
+        CreateSceneRequest scene = new CreateSceneRequest();
+        scene.setId(SCENE_ID);
+        scene.setName(SCENE_ID);
+        scene.setSchema(schema);
+        sceneService.create(scene);
+    }
+    
+    @Test
+    void testBestEffortSkipsInvalidItems() {
+        BatchCreateConfigRequest request = createRequest(BatchMode.BEST_EFFORT, 10);
+        request.getItems().get(3).setConfig(objectMapper.createObjectNode().put("port", "not a number"));
+        
+        BatchConfigResponse response = configBatchService.batchCreate(request);
+        
+        assertTrue(response.getCommitted());
+        assertEquals(9, response.getSucceeded());
+        assertEquals(1, response.getFailed());
+        assertEquals("CONFIG_VALIDATION_FAILED", response.getResults().get(3).getCode());
+        assertEquals(9, configRepository.countBySceneId(SCENE_ID));
+    }
+    
+    @Test
+    void testAllOrNothingWritesNothingOnFailure() {
+        configBatchService.batchCreate(createRequest(BatchMode.ALL_OR_NOTHING, 1));
+        
+        // 第 0 条与已存在的配置条件相同
+        BatchConfigResponse response = configBatchService.batchCreate(createRequest(BatchMode.ALL_OR_NOTHING, 5));
+        
+        assertFalse(response.getCommitted());
+        assertEquals("CONFIG_EXISTS", response.getResults().get(0).getCode());
+        assertEquals("BATCH_ABORTED", response.getResults().get(1).getCode());
+        assertEquals(1, configRepository.countBySceneId(SCENE_ID));
+    }
+    
+    @Test
+    void testBatchCreateUsesJdbcBatching() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        
+        BatchConfigResponse response = configBatchService.batchCreate(createRequest(BatchMode.ALL_OR_NOTHING, 60));
+        
+        assertEquals(60, response.getSucceeded());
+        assertEquals(60, statistics.getEntityInsertCount());
+        // 场景 + Scheme + 存在性检查 + 按 batch_size 分批的 INSERT
+        assertTrue(statistics.getPrepareStatementCount() < 10,
+            "batchCreate prepared " + statistics.getPrepareStatementCount() + " statements");
+    }
+    
+    @Test
+    void testBatchUpdate() {
+        BatchConfigResponse created = configBatchService.batchCreate(createRequest(BatchMode.ALL_OR_NOTHING, 3));
+        
+        BatchUpdateConfigRequest request = new BatchUpdateConfigRequest();
+        request.setSceneId(SCENE_ID);
+        request.setMode(BatchMode.BEST_EFFORT);
+        List<BatchUpdateConfigRequest.Item> items = new ArrayList<>();
+        for (BatchConfigResponse.ItemResult result : created.getResults()) {
+            BatchUpdateConfigRequest.Item item = new BatchUpdateConfigRequest.Item();
+            item.setId(result.getId());
+            item.setConfig(objectMapper.createObjectNode().put("port", 9999));
+            items.add(item);
+        }
+        BatchUpdateConfigRequest.Item missing = new BatchUpdateConfigRequest.Item();
+        missing.setId(SCENE_ID + ":shard:missing");
+        items.add(missing);
+        request.setItems(items);
+        
+        BatchConfigResponse response = configBatchService.batchUpdate(request);
+        
+        assertEquals(3, response.getSucceeded());
+        assertEquals("CONFIG_NOT_FOUND", response.getResults().get(3).getCode());
+        configRepository.findBySceneId(SCENE_ID)
+            .forEach(config -> assertEquals(9999, readData(config.getConfigData()).path("port").asInt()));
+    }
+    
+    /**
+     * H2 的 JSON 列会被双重转义，读回为 TextNode
+     */
+    private JsonNode readData(JsonNode data) {
+        try {
+            return data.isTextual() ? objectMapper.readTree(data.asText()) : data;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private BatchCreateConfigRequest createRequest(BatchMode mode, int count) {
+        List<BatchCreateConfigRequest.Item> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Condition condition = new Condition();
+            condition.setKey("shard");
+            condition.setValue(String.valueOf(i));
+            
+            BatchCreateConfigRequest.Item item = new BatchCreateConfigRequest.Item();
+            item.setConditions(List.of(condition));
+            item.setConfig(objectMapper.createObjectNode().put("port", 3306));
+            items.add(item);
+        }
+        
+        BatchCreateConfigRequest request = new BatchCreateConfigRequest();
+        request.setSceneId(SCENE_ID);
+        request.setSchemeVersion(1);
+        request.setMode(mode);
+        request.setItems(items);
+        return request;
+    }
+}
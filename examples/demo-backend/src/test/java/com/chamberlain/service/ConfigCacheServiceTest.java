@@ -0,0 +1,189 @@
+package com.chamberlain.service;
+
+import com.chamberlain.dto.response.ConfigResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.fppt.jedismock.RedisServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ConfigCacheService 单元测试（使用进程内 Redis 模拟服务）
+ */
+class ConfigCacheServiceTest {
+    
+    private RedisServer redisServer;
+    private LettuceConnectionFactory connectionFactory;
+    private ObjectMapper objectMapper;
+    private SimpleMeterRegistry registry;
+    
+    @BeforeEach
+    void setUp() throws IOException {
+        redisServer = RedisServer.newRedisServer().start();
+        connectionFactory = new LettuceConnectionFactory(
+            new RedisStandaloneConfiguration(redisServer.getHost(), redisServer.getBindPort()));
+        connectionFactory.afterPropertiesSet();
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        registry = new SimpleMeterRegistry();
+    }
+    
+    @AfterEach
+    void tearDown() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+    
+    @Test
+    void testReadThroughLoadsOnce() {
+        ConfigCacheService cache = new ConfigCacheService(connectionFactory, objectMapper, registry, true, 60, 10);
+        AtomicInteger loads = new AtomicInteger();
+        ConfigResponse config = config("test_scene:default");
+        
+        ConfigResponse first = cache.getOrLoad(config.getId(), () -> {
+            loads.incrementAndGet();
+            return config;
+        });
+        ConfigResponse second = cache.getOrLoad(config.getId(), () -> {
+            loads.incrementAndGet();
+            return config;
+        });
+        
+        assertEquals(1, loads.get());
+        assertEquals(first, second);
+        assertEquals(config.getConfig(), second.getConfig());
+        assertEquals(config.getUpdatedAt(), second.getUpdatedAt());
+        assertEquals(1, registry.get("cache.gets").tags("cache", "configs", "result", "hit").counter().count());
+        assertEquals(1, registry.get("cache.gets").tags("cache", "configs", "result", "miss").counter().count());
+    }
+    
+    @Test
+    void testPutAndEvict() {
+        ConfigCacheService cache = new ConfigCacheService(connectionFactory, objectMapper, registry, true, 60, 10);
+        ConfigResponse config = config("test_scene:region:eu");
+        cache.put(config);
+        
+        assertEquals(config, cache.getOrLoad(config.getId(), () -> fail("should hit cache")));
+        
+        cache.evict(config.getId());
+        ConfigResponse reloaded = config("test_scene:region:eu");
+        assertSame(reloaded, cache.getOrLoad(config.getId(), () -> reloaded));
+    }
+    
+    @Test
+    void testReadFillDoesNotOverwriteConcurrentPut() {
+        ConfigCacheService cache = new ConfigCacheService(connectionFactory, objectMapper, registry, true, 60, 10);
+        ConfigResponse stale = config("test_scene:default");
+        ConfigResponse fresh = config("test_scene:default");
+        fresh.setConfig(objectMapper.createObjectNode().put("host", "localhost").put("port", 3307));
+        
+        // 读请求加载到旧值后、回填前，写请求提交并写入新值
+        cache.getOrLoad(stale.getId(), () -> {
+            cache.put(fresh);
+            return stale;
+        });
+        
+        assertEquals(fresh, cache.getOrLoad(fresh.getId(), () -> fail("should hit cache")));
+    }
+    
+    @Test
+    void testReadFillDoesNotReviveDeletedConfig() {
+        ConfigCacheService cache = new ConfigCacheService(connectionFactory, objectMapper, registry, true, 60, 10);
+        ConfigResponse deleted = config("test_scene:default");
+        
+        // 读请求加载到配置后、回填前，删除提交并移除缓存
+        cache.getOrLoad(deleted.getId(), () -> {
+            cache.evict(deleted.getId());
+            return deleted;
+        });
+        
+        // 旧值没有回填；墓碑有效期内的读取都回到加载函数（实际为数据库，配置已不存在）
+        AtomicInteger loads = new AtomicInteger();
+        for (int i = 0; i < 2; i++) {
+            cache.getOrLoad(deleted.getId(), () -> {
+                loads.incrementAndGet();
+                return deleted;
+            });
+        }
+        assertEquals(2, loads.get());
+    }
+    
+    @Test
+    void testEvictScene() {
+        ConfigCacheService cache = new ConfigCacheService(connectionFactory, objectMapper, registry, true, 60, 10);
+        cache.put(config("test_scene:default"));
+        cache.put(config("other_scene:default"));
+        
+        cache.evictScene("test_scene");
+        
+        AtomicInteger loads = new AtomicInteger();
+        cache.getOrLoad("test_scene:default", () -> {
+            loads.incrementAndGet();
+            return config("test_scene:default");
+        });
+        cache.getOrLoad("other_scene:default", () -> {
+            loads.incrementAndGet();
+            return config("other_scene:default");
+        });
+        assertEquals(1, loads.get());
+    }
+    
+    @Test
+    void testEvictIds() {
+        ConfigCacheService cache = new ConfigCacheService(connectionFactory, objectMapper, registry, true, 60, 10);
+        cache.put(config("test_scene:region:eu"));
+        cache.put(config("test_scene:region:us"));
+        cache.put(config("test_scene:default"));
+        
+        cache.evict(List.of("test_scene:region:eu", "test_scene:region:us"));
+        
+        AtomicInteger loads = new AtomicInteger();
+        for (String id : List.of("test_scene:region:eu", "test_scene:region:us", "test_scene:default")) {
+            cache.getOrLoad(id, () -> {
+                loads.incrementAndGet();
+                return config(id);
+            });
+        }
+        assertEquals(2, loads.get());
+    }
+    
+    @Test
+    void testDisabledAlwaysLoads() {
+        ConfigCacheService cache = new ConfigCacheService(connectionFactory, objectMapper, registry, false, 60, 10);
+        AtomicInteger loads = new AtomicInteger();
+        ConfigResponse config = config("test_scene:default");
+        cache.put(config);
+        
+        cache.getOrLoad(config.getId(), () -> {
+            loads.incrementAndGet();
+            return config;
+        });
+        cache.getOrLoad(config.getId(), () -> {
+            loads.incrementAndGet();
+            return config;
+        });
+        
+        assertEquals(2, loads.get());
+    }
+    
+    private ConfigResponse config(String id) {
+        ConfigResponse config = new ConfigResponse();
+        config.setId(id);
+        config.setSceneId(id.substring(0, id.indexOf(':')));
+        config.setSchemeVersion(1);
+        config.setConditionList(List.of());
+        config.setConfig(objectMapper.createObjectNode().put("host", "localhost").put("port", 3306));
+        config.setUpdatedAt(LocalDateTime.of(2025, 10, 9, 12, 0));
+        return config;
+    }
+}
@@ -0,0 +1,147 @@
+package com.chamberlain.service;
+
+import com.chamberlain.dto.request.CreateConfigRequest;
+import com.chamberlain.dto.request.CreateSceneRequest;
+import com.chamberlain.dto.request.UpdateConfigRequest;
+import com.chamberlain.dto.response.ConfigResponse;
+import com.chamberlain.entity.Config.Condition;
+import com.chamberlain.repository.ConfigRepository;
+import com.chamberlain.repository.SceneRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * 配置和场景读取的 ETag / If-None-Match 测试
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ConfigETagTest {
+    
+    private static final String SCENE_ID = "etag_scene";
+    
+    @Autowired
+    private ConfigService configService;
+    
+    @Autowired
+    private SceneService sceneService;
+    
+    @Autowired
+    private SceneRepository sceneRepository;
+    
+    @Autowired
+    private ConfigRepository configRepository;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private WebApplicationContext context;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    private ConfigResponse config;
+    
+    @BeforeEach
+    void setUp() {
+        // H2 由 JPA 建表，没有 configs -> scenes 的级联删除
+        configRepository.deleteAll();
+        sceneRepository.findAll().forEach(scene -> sceneService.delete(scene.getId()));
+        
+        ObjectNode schema = objectMapper.createObjectNode();
+        schema.put("type", "object");
+        schema.putObject("properties").putObject("port").put("type", "integer");
+        CreateSceneRequest scene = new CreateSceneRequest();
+        scene.setId(SCENE_ID);
+        scene.setName(SCENE_ID);
+        scene.setSchema(schema);
+        sceneService.create(scene);
+        
+        config = configService.create(createRequest("production", 3306));
+    }
+    
+    @Test
+    void testConfigETagFromMetadataOnly() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        String etag = configService.getETag(config.getId());
+        
+        // 只执行一条元数据查询，不加载 Config 实体
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(etag, configService.getETag(config.getId()));
+        assertNull(configService.getETag(SCENE_ID + ":missing:1"));
+        
+        UpdateConfigRequest update = new UpdateConfigRequest();
+        update.setConfig(objectMapper.createObjectNode().put("port", 3307));
+        configService.update(config.getId(), update);
+        assertNotEquals(etag, configService.getETag(config.getId()));
+    }
+    
+    @Test
+    void testListETagsChangeWithContents() {
+        String configList = configService.getListETag(SCENE_ID);
+        String scene = sceneService.getETag(SCENE_ID);
+        String sceneList = sceneService.getListETag();
+        
+        ConfigResponse staging = configService.create(createRequest("staging", 3306));
+        assertNotEquals(configList, configService.getListETag(SCENE_ID));
+        assertNotEquals(scene, sceneService.getETag(SCENE_ID));
+        assertNotEquals(sceneList, sceneService.getListETag());
+        
+        configList = configService.getListETag(SCENE_ID);
+        configService.delete(staging.getId());
+        assertNotEquals(configList, configService.getListETag(SCENE_ID));
+        assertNull(configService.getListETag("missing_scene"));
+    }
+    
+    @Test
+    void testIfNoneMatchReturnsNotModified() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        String etag = mockMvc.perform(get("/api/configs/{id}", config.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        
+        mockMvc.perform(get("/api/configs/{id}", config.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+        
+        String listETag = configService.getListETag(SCENE_ID);
+        mockMvc.perform(get("/api/configs").param("sceneId", SCENE_ID).header(HttpHeaders.IF_NONE_MATCH, listETag))
+            .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/scenes/{id}", SCENE_ID).header(HttpHeaders.IF_NONE_MATCH, "\"stale\""))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, sceneService.getETag(SCENE_ID)));
+    }
+    
+    private CreateConfigRequest createRequest(String environment, int port) {
+        Condition condition = new Condition();
+        condition.setKey("environment");
+        condition.setValue(environment);
+        CreateConfigRequest request = new CreateConfigRequest();
+        request.setSceneId(SCENE_ID);
+        request.setSchemeVersion(1);
+        request.setConditions(List.of(condition));
+        request.setConfig(objectMapper.createObjectNode().put("port", port));
+        return request;
+    }
+}
@@ -0,0 +1,122 @@
+package com.chamberlain.service;
+
+import com.chamberlain.dto.common.BatchMode;
+import com.chamberlain.dto.request.BatchCreateConfigRequest;
+import com.chamberlain.dto.request.CreateSceneRequest;
+import com.chamberlain.entity.Config.Condition;
+import com.chamberlain.exception.ResourceNotFoundException;
+import com.chamberlain.repository.ConfigRepository;
+import com.chamberlain.repository.SceneRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ConfigExportService 测试
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ConfigExportServiceTest {
+    
+    private static final String SCENE_ID = "export_scene";
+    private static final int CONFIG_COUNT = 30;
+    
+    @Autowired
+    private ConfigExportService configExportService;
+    
+    @Autowired
+    private ConfigBatchService configBatchService;
+    
+    @Autowired
+    private SceneService sceneService;
+    
+    @Autowired
+    private SceneRepository sceneRepository;
+    
+    @Autowired
+    private ConfigRepository configRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @BeforeEach
+    void setUp() {
+        // H2 由 JPA 建表，没有 configs -> scenes 的级联删除
+        configRepository.deleteAll();
+        sceneRepository.findAll().forEach(scene -> sceneService.delete(scene.getId()));
+        
+        ObjectNode schema = objectMapper.createObjectNode();
+        schema.put("type", "object");
+        schema.putObject("properties").putObject("port").put("type", "integer");
+        CreateSceneRequest scene = new CreateSceneRequest();
+        scene.setId(SCENE_ID);
+        scene.setName(SCENE_ID);
+        scene.setSchema(schema);
+        sceneService.create(scene);
+        
+        List<BatchCreateConfigRequest.Item> items = new ArrayList<>();
+        for (int i = 0; i < CONFIG_COUNT; i++) {
+            Condition condition = new Condition();
+            condition.setKey("shard");
+            condition.setValue(String.format("%02d", i));
+            BatchCreateConfigRequest.Item item = new BatchCreateConfigRequest.Item();
+            item.setConditions(List.of(condition));
+            item.setConfig(objectMapper.createObjectNode().put("port", 3306));
+            items.add(item);
+        }
+        BatchCreateConfigRequest request = new BatchCreateConfigRequest();
+        request.setSceneId(SCENE_ID);
+        request.setSchemeVersion(1);
+        request.setMode(BatchMode.ALL_OR_NOTHING);
+        request.setItems(items);
+        configBatchService.batchCreate(request);
+    }
+    
+    @Test
+    void testExportWritesOneLinePerConfig() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        configExportService.export(SCENE_ID, false).writeTo(out);
+        
+        assertLines(out.toString(StandardCharsets.UTF_8));
+    }
+    
+    @Test
+    void testExportGzip() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        configExportService.export(SCENE_ID, true).writeTo(out);
+        
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            assertLines(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+    
+    @Test
+    void testExportMissingScene() {
+        assertThrows(ResourceNotFoundException.class, () -> configExportService.export("missing_scene", false));
+    }
+    
+    private void assertLines(String body) throws Exception {
+        assertTrue(body.endsWith("\n"));
+        String[] lines = body.split("\n");
+        assertEquals(CONFIG_COUNT, lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            JsonNode config = objectMapper.readTree(lines[i]);
+            assertEquals(SCENE_ID + ":shard:" + String.format("%02d", i), config.path("id").asText());
+            assertEquals(SCENE_ID, config.path("sceneId").asText());
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.chamberlain.service;
+
+import com.chamberlain.dto.request.CreateSceneRequest;
+import com.chamberlain.repository.ConfigRepository;
+import com.chamberlain.repository.SceneRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ConfigImportService 测试
+ */
+@SpringBootTest(properties = "chamberlain.read-mode=snapshot")
+@ActiveProfiles("test")
+class ConfigImportServiceTest {
+    
+    private static final String SCENE_ID = "import_scene";
+    
+    @Autowired
+    private ConfigImportService configImportService;
+    
+    @Autowired
+    private ConfigExportService configExportService;
+    
+    @Autowired
+    private SceneService sceneService;
+    
+    @Autowired
+    private SceneRepository sceneRepository;
+    
+    @Autowired
+    private ConfigRepository configRepository;
+    
+    @Autowired
+    private SceneSnapshotService sceneSnapshotService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @BeforeEach
+    void setUp() {
+        // H2 由 JPA 建表，没有 configs -> scenes 的级联删除
+        configRepository.deleteAll();
+        sceneRepository.findAll().forEach(scene -> sceneService.delete(scene.getId()));
+        
+        ObjectNode schema = objectMapper.createObjectNode();
+        schema.put("type", "object");
+        schema.putObject("properties").putObject("port").put("type", "integer");
+        CreateSceneRequest scene = new CreateSceneRequest();
+        scene.setId(SCENE_ID);
+        scene.setName(SCENE_ID);
+        scene.setSchema(schema);
+        sceneService.create(scene);
+    }
+    
+    @Test
+    void testBadLinesSkippedAndChunksCommitted() throws Exception {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 25; i++) {
+            if (i == 7) {
+                body.append("{not json\n");
+            } else if (i == 12) {
+                body.append(line(i, "\"not a number\""));
+            } else {
+                body.append(line(i, "3306"));
+            }
+        }
+        
+        List<JsonNode> events = importConfigs(body.toString(), 10, false, false);
+        
+        // 3 个分块 + 汇总
+        assertEquals(4, events.size());
+        assertEquals("INVALID_LINE", events.get(0).path("errors").get(0).path("code").asText());
+        assertEquals(8, events.get(0).path("errors").get(0).path("line").asLong());
+        assertEquals("CONFIG_VALIDATION_FAILED", events.get(1).path("errors").get(0).path("code").asText());
+        
+        JsonNode summary = events.get(3);
+        assertEquals("SUMMARY", summary.path("type").asText());
+        assertEquals(23, summary.path("imported").asLong());
+        assertEquals(2, summary.path("failed").asLong());
+        assertEquals(3, summary.path("committedChunks").asInt());
+        assertEquals(23, configRepository.countBySceneId(SCENE_ID));
+    }
+    
+    @Test
+    void testStrictModeStopsAtFirstFailedChunk() throws Exception {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 30; i++) {
+            body.append(line(i, i == 15 ? "\"not a number\"" : "3306"));
+        }
+        
+        List<JsonNode> events = importConfigs(body.toString(), 10, true, false);
+        
+        // 第一个分块已提交，第二个分块失败后终止，第三个分块不再读取
+        assertEquals(3, events.size());
+        assertTrue(events.get(0).path("committed").asBoolean());
+        assertFalse(events.get(1).path("committed").asBoolean());
+        assertTrue(events.get(2).path("aborted").asBoolean());
+        assertEquals(10, configRepository.countBySceneId(SCENE_ID));
+    }
+    
+    @Test
+    void testExistingConfigsRejectedUnlessUpsert() throws Exception {
+        importConfigs(line(0, "3306") + line(1, "3306"), 10, false, false);
+        
+        List<JsonNode> rejected = importConfigs(line(1, "3307") + line(2, "3307"), 10, false, false);
+        assertEquals("CONFIG_EXISTS", rejected.get(0).path("errors").get(0).path("code").asText());
+        assertEquals(3, configRepository.countBySceneId(SCENE_ID));
+        
+        List<JsonNode> upserted = importConfigs(line(1, "3308") + line(2, "3308"), 10, false, true);
+        assertEquals(2, upserted.get(1).path("imported").asLong());
+        assertEquals(3, configRepository.countBySceneId(SCENE_ID));
+    }
+    
+    @Test
+    void testCommittedChunksPublishedWhenClientDisconnects() throws Exception {
+        importConfigs(line(0, "3306") + line(1, "3306"), 10, false, false);
+        String id = SCENE_ID + ":shard:00";
+        assertEquals(3306, sceneSnapshotService.findConfig(id).orElseThrow().getConfig().path("port").asInt());
+        
+        // 第一个分块提交后写出进度时客户端已断开
+        OutputStream disconnected = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+        String body = line(0, "3307") + line(1, "3307") + line(2, "3307");
+        assertThrows(UncheckedIOException.class, () -> configImportService.importConfigs(SCENE_ID, null, 2, false, true,
+            new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8))).writeTo(disconnected));
+        
+        assertEquals(2, configRepository.countBySceneId(SCENE_ID));
+        assertEquals(3307, sceneSnapshotService.findConfig(id).orElseThrow().getConfig().path("port").asInt());
+    }
+    
+    @Test
+    void testExportedConfigsImportBack() throws Exception {
+        importConfigs(line(0, "3306") + line(1, "3307"), 10, false, false);
+        
+        // JSON 列以字节绑定，H2 中存储的是 JSON 对象而不是转义后的 JSON 字符串
+        String stored = jdbcTemplate.queryForObject(
+            "SELECT CAST(config_data AS VARCHAR) FROM configs WHERE id = ?", String.class, SCENE_ID + ":shard:01");
+        assertEquals("{\"port\":3307}", stored);
+        
+        ByteArrayOutputStream exported = new ByteArrayOutputStream();
+        configExportService.export(SCENE_ID, false).writeTo(exported);
+        configRepository.deleteAll();
+        
+        List<JsonNode> events = importConfigs(exported.toString(StandardCharsets.UTF_8), 10, true, false);
+        assertEquals(2, events.get(1).path("imported").asLong());
+        assertEquals(3307, configRepository.findById(SCENE_ID + ":shard:01").orElseThrow()
+            .getConfigData().path("port").asInt());
+    }
+    
+    private List<JsonNode> importConfigs(String body, int chunkSize, boolean strict, boolean upsert) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        configImportService.importConfigs(SCENE_ID, null, chunkSize, strict, upsert,
+            new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8))).writeTo(out);
+        
+        List<JsonNode> events = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            events.add(objectMapper.readTree(line));
+        }
+        return events;
+    }
+    
+    private String line(int index, String port) {
+        return String.format("{\"conditions\":[{\"key\":\"shard\",\"value\":\"%02d\"}],\"config\":{\"port\":%s}}%n",
+            index, port);
+    }
+}
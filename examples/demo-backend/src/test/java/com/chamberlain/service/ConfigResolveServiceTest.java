@@ -0,0 +1,229 @@
+package com.chamberlain.service;
+
+import com.chamberlain.controller.ConfigResolveController;
+import com.chamberlain.dto.response.ConfigResponse;
+import com.chamberlain.entity.Config.Condition;
+import com.chamberlain.entity.Scene;
+import com.chamberlain.entity.Scene.AvailableCondition;
+import com.chamberlain.entity.Scene.ConflictStrategy;
+import com.chamberlain.exception.ResourceNotFoundException;
+import com.chamberlain.exception.ValidationException;
+import com.chamberlain.mapper.ConfigMapper;
+import com.chamberlain.repository.ConfigRepository;
+import com.chamberlain.repository.SceneRepository;
+import com.chamberlain.service.ConfigResolveService.SceneConditionIndex;
+import com.chamberlain.util.ConfigIdGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * ConfigResolveService 单元测试
+ */
+class ConfigResolveServiceTest {
+    
+    private static final String SCENE_ID = "test_scene";
+    
+    @Test
+    void testPriorityPrefersHigherPriorityCondition() {
+        SceneConditionIndex index = index(ConflictStrategy.PRIORITY,
+            config(), config("region", "eu"), config("environment", "production"));
+        
+        // environment 在可用条件中排在 region 之前
+        ConfigResponse resolved = index.resolve(Map.of("environment", "production", "region", "eu"));
+        assertEquals(SCENE_ID + ":environment:production", resolved.getId());
+    }
+    
+    @Test
+    void testBestMatchPrefersMostConditions() {
+        SceneConditionIndex index = index(ConflictStrategy.BEST_MATCH,
+            config("environment", "production"),
+            config("region", "eu", "tier", "gold"));
+        
+        ConfigResponse resolved = index.resolve(Map.of("environment", "production", "region", "eu", "tier", "gold"));
+        assertEquals(SCENE_ID + ":region:eu,tier:gold", resolved.getId());
+    }
+    
+    @Test
+    void testFallsBackToDefaultConfig() {
+        SceneConditionIndex index = index(ConflictStrategy.PRIORITY, config(), config("region", "eu"));
+        
+        assertEquals(SCENE_ID + ":default", index.resolve(Map.of("region", "us", "unknown", "x")).getId());
+    }
+    
+    @Test
+    void testStrictRequiresExactMatch() {
+        SceneConditionIndex index = index(ConflictStrategy.STRICT, config(), config("region", "eu"));
+        
+        assertEquals(SCENE_ID + ":region:eu", index.resolve(Map.of("region", "eu")).getId());
+        assertNull(index.resolve(Map.of("region", "eu", "environment", "production")));
+    }
+    
+    @Test
+    void testMatchesSubsetEnumeration() {
+        // 与按掩码逐个枚举条件子集的结果一致
+        List<String> keys = List.of("environment", "region", "tier", "zone", "shard");
+        Random random = new Random(42);
+        for (ConflictStrategy strategy : List.of(ConflictStrategy.PRIORITY, ConflictStrategy.BEST_MATCH)) {
+            for (int round = 0; round < 50; round++) {
+                List<ConfigResponse> configs = new ArrayList<>();
+                for (int i = 0; i < 12; i++) {
+                    List<String> keyValues = new ArrayList<>();
+                    for (String key : keys) {
+                        if (random.nextInt(3) == 0) {
+                            keyValues.add(key);
+                            keyValues.add(String.valueOf(random.nextInt(2)));
+                        }
+                    }
+                    configs.add(config(keyValues.toArray(String[]::new)));
+                }
+                SceneConditionIndex index = index(strategy, configs.toArray(ConfigResponse[]::new));
+                Map<String, String> query = new HashMap<>();
+                for (String key : keys) {
+                    if (random.nextInt(4) != 0) {
+                        query.put(key, String.valueOf(random.nextInt(2)));
+                    }
+                }
+                
+                ConfigResponse expected = enumerate(strategy, configs, keys, query);
+                ConfigResponse resolved = index.resolve(query);
+                assertEquals(expected == null ? null : expected.getId(), resolved == null ? null : resolved.getId());
+            }
+        }
+    }
+    
+    @Test
+    void testBestMatchWithMaximumConditions() {
+        List<String> keyValues = new ArrayList<>();
+        Map<String, String> query = new HashMap<>();
+        for (int i = 0; i < 16; i++) {
+            keyValues.add("k" + i);
+            keyValues.add("v");
+            query.put("k" + i, "v");
+        }
+        SceneConditionIndex index = index(ConflictStrategy.BEST_MATCH,
+            config(), config("k3", "v"), config(keyValues.subList(0, 30).toArray(String[]::new)));
+        
+        assertEquals(15, index.resolve(query).getConditionList().size());
+        query.put("k16", "v");
+        keyValues.add("k16");
+        keyValues.add("v");
+        SceneConditionIndex wider = index(ConflictStrategy.BEST_MATCH, config(keyValues.toArray(String[]::new)));
+        assertThrows(ValidationException.class, () -> wider.resolve(query));
+    }
+    
+    @Test
+    void testUnknownSceneIsCached() {
+        SceneRepository sceneRepository = mock(SceneRepository.class);
+        when(sceneRepository.findById("missing")).thenReturn(Optional.empty());
+        ConfigResolveService resolveService = new ConfigResolveService(sceneRepository, mock(ConfigRepository.class),
+            mock(ConfigMapper.class), mock(ConfigUpgradeService.class), 16, Duration.ofMinutes(1),
+            new SimpleMeterRegistry());
+        
+        for (int i = 0; i < 3; i++) {
+            assertThrows(ResourceNotFoundException.class, () -> resolveService.resolve("missing", Map.of()));
+        }
+        verify(sceneRepository, times(1)).findById("missing");
+    }
+    
+    @Test
+    void testResolveEndpointRouting() throws Exception {
+        ConfigResolveService resolveService = mock(ConfigResolveService.class);
+        ConfigResponse response = config("region", "eu");
+        when(resolveService.resolve(eq(SCENE_ID), eq(Map.of("region", "eu")))).thenReturn(response);
+        
+        MockMvc mockMvc = MockMvcBuilders
+            .standaloneSetup(new ConfigResolveController(resolveService))
+            .build();
+        
+        mockMvc.perform(get("/api/configs:resolve").param("sceneId", SCENE_ID).param("region", "eu"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data.id").value(response.getId()));
+    }
+    
+    /**
+     * 按优先级排列的候选条件，以掩码降序（BEST_MATCH 先按条件数降序）逐个探测子集
+     */
+    private ConfigResponse enumerate(ConflictStrategy strategy, List<ConfigResponse> configs, List<String> keys,
+                                     Map<String, String> query) {
+        Map<String, ConfigResponse> byId = new HashMap<>();
+        configs.forEach(config -> byId.put(config.getId(), config));
+        List<String> used = keys.stream()
+            .filter(key -> configs.stream().anyMatch(config -> config.getConditionList().stream()
+                .anyMatch(condition -> condition.getKey().equals(key))))
+            .filter(query::containsKey)
+            .toList();
+        int n = used.size();
+        List<Integer> masks = new ArrayList<>();
+        for (int mask = (1 << n) - 1; mask >= 0; mask--) {
+            masks.add(mask);
+        }
+        if (strategy == ConflictStrategy.BEST_MATCH) {
+            masks.sort(Comparator.comparingInt(Integer::bitCount).reversed());
+        }
+        for (int mask : masks) {
+            List<String> keyValues = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                if ((mask & (1 << (n - 1 - i))) != 0) {
+                    keyValues.add(used.get(i));
+                    keyValues.add(query.get(used.get(i)));
+                }
+            }
+            ConfigResponse config = byId.get(config(keyValues.toArray(String[]::new)).getId());
+            if (config != null) {
+                return config;
+            }
+        }
+        return null;
+    }
+    
+    private SceneConditionIndex index(ConflictStrategy strategy, ConfigResponse... configs) {
+        Scene scene = new Scene();
+        scene.setId(SCENE_ID);
+        scene.setConditionConflictStrategy(strategy);
+        scene.setAvailableConditions(List.of(available("environment"), available("region"), available("tier"),
+            available("zone"), available("shard")));
+        return new SceneConditionIndex(scene, List.of(configs));
+    }
+    
+    private ConfigResponse config(String... keyValues) {
+        List<Condition> conditions = new ArrayList<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            Condition condition = new Condition();
+            condition.setKey(keyValues[i]);
+            condition.setValue(keyValues[i + 1]);
+            conditions.add(condition);
+        }
+        ConfigResponse config = new ConfigResponse();
+        config.setId(ConfigIdGenerator.generate(SCENE_ID, conditions));
+        config.setSceneId(SCENE_ID);
+        config.setConditionList(conditions);
+        return config;
+    }
+    
+    private AvailableCondition available(String key) {
+        AvailableCondition condition = new AvailableCondition();
+        condition.setKey(key);
+        return condition;
+    }
+}
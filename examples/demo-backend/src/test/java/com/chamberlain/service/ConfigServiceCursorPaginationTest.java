@@ -0,0 +1,134 @@
+package com.chamberlain.service;
+
+import com.chamberlain.dto.common.PageResult;
+import com.chamberlain.dto.request.CreateConfigRequest;
+import com.chamberlain.dto.request.CreateSceneRequest;
+import com.chamberlain.dto.response.ConfigResponse;
+import com.chamberlain.entity.Config.Condition;
+import com.chamberlain.exception.ValidationException;
+import com.chamberlain.repository.ConfigRepository;
+import com.chamberlain.repository.SceneRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * ConfigService 游标分页测试
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ConfigServiceCursorPaginationTest {
+    
+    private static final String SCENE_ID = "cursor_scene";
+    private static final int CONFIG_COUNT = 23;
+    
+    @Autowired
+    private ConfigService configService;
+    
+    @Autowired
+    private SceneService sceneService;
+    
+    @Autowired
+    private SceneRepository sceneRepository;
+    
+    @Autowired
+    private ConfigRepository configRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private WebApplicationContext context;
+    
+    @BeforeEach
+    void setUp() {
+        // H2 由 JPA 建表，没有 configs -> scenes 的级联删除
+        configRepository.deleteAll();
+        sceneRepository.findAll().forEach(scene -> sceneService.delete(scene.getId()));
+        
+        ObjectNode schema = objectMapper.createObjectNode();
+        schema.put("type", "object");
+        CreateSceneRequest scene = new CreateSceneRequest();
+        scene.setId(SCENE_ID);
+        scene.setName(SCENE_ID);
+        scene.setSchema(schema);
+        sceneService.create(scene);
+        
+        for (int i = 0; i < CONFIG_COUNT; i++) {
+            Condition condition = new Condition();
+            condition.setKey("shard");
+            condition.setValue(String.valueOf(i));
+            
+            CreateConfigRequest request = new CreateConfigRequest();
+            request.setSceneId(SCENE_ID);
+            request.setSchemeVersion(1);
+            request.setConditions(List.of(condition));
+            request.setConfig(objectMapper.createObjectNode().put("index", i));
+            configService.create(request);
+        }
+    }
+    
+    @Test
+    void testCursorWalksEveryConfigOnce() {
+        List<String> ids = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            PageResult<ConfigResponse> page = configService.listByCursor(SCENE_ID, null, cursor, 5);
+            assertNull(page.getTotal());
+            page.getList().forEach(config -> ids.add(config.getId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+        
+        assertEquals(CONFIG_COUNT, ids.size());
+        assertEquals(CONFIG_COUNT, new HashSet<>(ids).size());
+        assertEquals((CONFIG_COUNT + 4) / 5, pages);
+    }
+    
+    @Test
+    void testCursorMatchesOffsetOrder() {
+        List<ConfigResponse> offset = configService.list(SCENE_ID, null, 1, CONFIG_COUNT, null).getList();
+        List<ConfigResponse> keyset = configService.listByCursor(SCENE_ID, null, null, CONFIG_COUNT).getList();
+        
+        assertEquals(offset.stream().map(ConfigResponse::getUpdatedAt).toList(),
+            keyset.stream().map(ConfigResponse::getUpdatedAt).toList());
+    }
+    
+    @Test
+    void testInvalidCursorRejected() {
+        assertThrows(ValidationException.class,
+            () -> configService.listByCursor(SCENE_ID, null, "not-a-cursor", 5));
+        assertThrows(ValidationException.class,
+            () -> configService.listByCursor(SCENE_ID, null, null, 0));
+    }
+    
+    @Test
+    void testSortRejectedInCursorMode() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        mockMvc.perform(get("/api/configs").param("sceneId", SCENE_ID).param("limit", "5").param("sort", "id:asc"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.code").value("INVALID_PARAMETER"));
+        mockMvc.perform(get("/api/scenes").param("limit", "5").param("sort", "name:asc"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.code").value("INVALID_PARAMETER"));
+        mockMvc.perform(get("/api/scenes").param("limit", "5"))
+            .andExpect(status().isOk());
+    }
+}
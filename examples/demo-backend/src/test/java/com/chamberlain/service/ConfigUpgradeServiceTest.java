@@ -0,0 +1,306 @@
+package com.chamberlain.service;
+
+import com.chamberlain.dto.common.UpgradeOperation;
+import com.chamberlain.dto.request.CreateConfigRequest;
+import com.chamberlain.dto.request.CreateSceneRequest;
+import com.chamberlain.dto.request.UpdateSchemeRequest;
+import com.chamberlain.dto.request.UpdateSchemeStatusRequest;
+import com.chamberlain.dto.response.ConfigResponse;
+import com.chamberlain.entity.Config;
+import com.chamberlain.entity.Config.Condition;
+import com.chamberlain.exception.BusinessException;
+import com.chamberlain.exception.ValidationException;
+import com.chamberlain.repository.ConfigRepository;
+import com.chamberlain.repository.SceneRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.IntNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 旧 Scheme 版本配置的读取时升级和 Scheme 版本激活测试
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ConfigUpgradeServiceTest {
+    
+    private static final String SCENE_ID = "upgrade_scene";
+    
+    @Autowired
+    private ConfigService configService;
+    
+    @Autowired
+    private SceneService sceneService;
+    
+    @Autowired
+    private ConfigResolveService configResolveService;
+    
+    @Autowired
+    private ConfigUpgradeService configUpgradeService;
+    
+    @Autowired
+    private SceneRepository sceneRepository;
+    
+    @Autowired
+    private ConfigRepository configRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    private WebApplicationContext context;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    private ConfigResponse config;
+    
+    @BeforeEach
+    void setUp() {
+        // H2 由 JPA 建表，没有 configs -> scenes 的级联删除
+        configRepository.deleteAll();
+        sceneRepository.findAll().forEach(scene -> sceneService.delete(scene.getId()));
+        configUpgradeService.flush();
+        
+        ObjectNode schema = objectMapper.createObjectNode();
+        schema.put("type", "object");
+        ObjectNode properties = schema.putObject("properties");
+        properties.putObject("port").put("type", "integer");
+        properties.putObject("legacy").put("type", "string");
+        CreateSceneRequest scene = new CreateSceneRequest();
+        scene.setId(SCENE_ID);
+        scene.setName(SCENE_ID);
+        scene.setSchema(schema);
+        sceneService.create(scene);
+        
+        Condition condition = new Condition();
+        condition.setKey("environment");
+        condition.setValue("production");
+        CreateConfigRequest request = new CreateConfigRequest();
+        request.setSceneId(SCENE_ID);
+        request.setSchemeVersion(1);
+        request.setConditions(List.of(condition));
+        request.setConfig(objectMapper.createObjectNode().put("port", 3306).put("legacy", "x"));
+        config = configService.create(request);
+    }
+    
+    @Test
+    void testReadsUpgradeToActiveVersion() {
+        sceneService.updateScheme(SCENE_ID, schemeRequest(true,
+            operation(UpgradeOperation.Type.RENAME, "/database/port", "/port", null),
+            operation(UpgradeOperation.Type.DEFAULT, "/timeout", null, IntNode.valueOf(30)),
+            operation(UpgradeOperation.Type.REMOVE, "/legacy", null, null)));
+        
+        ObjectNode expected = objectMapper.createObjectNode().put("timeout", 30);
+        expected.putObject("database").put("port", 3306);
+        
+        ConfigResponse upgraded = configService.getById(config.getId());
+        assertEquals(2, upgraded.getSchemeVersion());
+        assertEquals(expected, upgraded.getConfig());
+        assertEquals(config.getRevision(), upgraded.getRevision());
+        
+        assertEquals(expected, configService.list(SCENE_ID, null, 1, 10, null).getList().get(0).getConfig());
+        assertEquals(expected, configService.listByCursor(SCENE_ID, null, null, 10).getList().get(0).getConfig());
+        assertEquals(2, configResolveService.resolve(SCENE_ID, Map.of("environment", "production")).getSchemeVersion());
+        
+        // 存储的配置在写回前保持原版本
+        assertEquals(1, configRepository.findById(config.getId()).orElseThrow().getSchemeVersion());
+    }
+    
+    @Test
+    void testFlushPersistsUpgradeWithoutChangingRevision() {
+        sceneService.updateScheme(SCENE_ID, schemeRequest(true,
+            operation(UpgradeOperation.Type.RENAME, "/database/port", "/port", null),
+            operation(UpgradeOperation.Type.DEFAULT, "/timeout", null, IntNode.valueOf(30)),
+            operation(UpgradeOperation.Type.REMOVE, "/legacy", null, null)));
+        ConfigResponse upgraded = configService.getById(config.getId());
+        assertEquals(1, configUpgradeService.pendingCount());
+        
+        configUpgradeService.flush();
+        
+        assertEquals(0, configUpgradeService.pendingCount());
+        Config stored = configRepository.findById(config.getId()).orElseThrow();
+        assertEquals(2, stored.getSchemeVersion());
+        assertEquals(upgraded.getConfig(), stored.getConfigData());
+        assertEquals(config.getRevision(), stored.getRevision());
+        assertEquals(upgraded.getConfig(), configService.getById(config.getId()).getConfig());
+    }
+    
+    @Test
+    void testFlushKeepsUpdatedAt() {
+        // MySQL 的 configs.updated_at 为 ON UPDATE CURRENT_TIMESTAMP，H2 由 JPA 建表时没有；
+        // 测试中临时加上，未显式赋值的 UPDATE 把它改为固定的时间，结果与执行时刻无关
+        alterUpdatedAt("SET ON UPDATE TIMESTAMP '2000-01-01 00:00:00'");
+        try {
+            sceneService.updateScheme(SCENE_ID, schemeRequest(true,
+                operation(UpgradeOperation.Type.DEFAULT, "/timeout", null, IntNode.valueOf(30))));
+            configService.getById(config.getId());
+            LocalDateTime updatedAt = configRepository.findById(config.getId()).orElseThrow().getUpdatedAt();
+            
+            configUpgradeService.flush();
+            
+            // 写回不是用户的变更，不影响 ETag 和游标分页的排序
+            Config stored = configRepository.findById(config.getId()).orElseThrow();
+            assertEquals(2, stored.getSchemeVersion());
+            assertEquals(updatedAt, stored.getUpdatedAt());
+        } finally {
+            alterUpdatedAt("DROP ON UPDATE");
+        }
+    }
+    
+    @Test
+    void testFlushSkipsConfigsModifiedAfterUpgrade() {
+        sceneService.updateScheme(SCENE_ID, schemeRequest(true,
+            operation(UpgradeOperation.Type.DEFAULT, "/timeout", null, IntNode.valueOf(30))));
+        configService.getById(config.getId());
+        
+        // 写回前配置被修改（修订号变化），写回不覆盖
+        Config stored = configRepository.findById(config.getId()).orElseThrow();
+        stored.setRevision(stored.getRevision() + 1);
+        configRepository.save(stored);
+        configUpgradeService.flush();
+        
+        assertEquals(1, configRepository.findById(config.getId()).orElseThrow().getSchemeVersion());
+    }
+    
+    @Test
+    void testInvalidUpgradeServesOriginalVersion() {
+        // 新版本要求 timeout，但没有声明默认值
+        ObjectNode schema = v2Schema();
+        sceneService.updateScheme(SCENE_ID, schemeRequest(schema, true));
+        
+        ConfigResponse response = configService.getById(config.getId());
+        assertEquals(1, response.getSchemeVersion());
+        assertEquals(config.getConfig(), response.getConfig());
+        assertEquals(0, configUpgradeService.pendingCount());
+    }
+    
+    @Test
+    void testDraftIsActivatedThroughPatch() throws Exception {
+        sceneService.updateScheme(SCENE_ID, schemeRequest(false,
+            operation(UpgradeOperation.Type.DEFAULT, "/timeout", null, IntNode.valueOf(30))));
+        String etag = configService.getETag(config.getId());
+        assertEquals(1, configService.getById(config.getId()).getSchemeVersion());
+        
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        mockMvc.perform(patch("/api/scenes/{id}/schemes/{version}", SCENE_ID, 2)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"active\"}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data.status").value("ACTIVE"));
+        
+        assertEquals(2, sceneRepository.findById(SCENE_ID).orElseThrow().getCurrentSchemeVersion());
+        assertNotEquals(etag, configService.getETag(config.getId()));
+        mockMvc.perform(get("/api/configs/{id}", config.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data.schemeVersion").value(2))
+            .andExpect(jsonPath("$.data.config.timeout").value(30));
+        
+        // 回滚到版本 1，版本 1 的配置按原样返回
+        sceneService.updateSchemeStatus(SCENE_ID, 1, statusRequest("active"));
+        assertEquals(1, configService.getById(config.getId()).getSchemeVersion());
+    }
+    
+    @Test
+    void testCannotDeprecateCurrentVersion() {
+        sceneService.updateScheme(SCENE_ID, schemeRequest(true));
+        
+        BusinessException e = assertThrows(BusinessException.class,
+            () -> sceneService.updateSchemeStatus(SCENE_ID, 2, statusRequest("deprecated")));
+        assertEquals("SCHEME_VERSION_IN_USE", e.getCode());
+        assertEquals("DEPRECATED",
+            sceneService.updateSchemeStatus(SCENE_ID, 1, statusRequest("deprecated")).getStatus().name());
+        assertThrows(ValidationException.class,
+            () -> sceneService.updateSchemeStatus(SCENE_ID, 1, statusRequest("archived")));
+    }
+    
+    @Test
+    void testInvalidOperationsAreRejected() {
+        ValidationException e = assertThrows(ValidationException.class, () -> sceneService.updateScheme(SCENE_ID,
+            schemeRequest(true, operation(UpgradeOperation.Type.RENAME, "/database/port", null, null))));
+        assertEquals("INVALID_UPGRADE", e.getCode());
+        assertThrows(ValidationException.class, () -> sceneService.updateScheme(SCENE_ID,
+            schemeRequest(true, operation(UpgradeOperation.Type.DEFAULT, "timeout", null, IntNode.valueOf(30)))));
+        assertThrows(ValidationException.class, () -> sceneService.updateScheme(SCENE_ID,
+            schemeRequest(true, operation(UpgradeOperation.Type.RENAME, "/port/value", "/port", null))));
+        assertEquals(1, sceneRepository.findById(SCENE_ID).orElseThrow().getCurrentSchemeVersion());
+    }
+    
+    private ObjectNode v2Schema() {
+        ObjectNode schema = objectMapper.createObjectNode();
+        schema.put("type", "object");
+        schema.putArray("required").add("timeout");
+        ObjectNode properties = schema.putObject("properties");
+        properties.putObject("database").put("type", "object")
+            .putObject("properties").putObject("port").put("type", "integer");
+        properties.putObject("timeout").put("type", "integer");
+        return schema;
+    }
+    
+    private UpdateSchemeRequest schemeRequest(boolean activate, UpgradeOperation... operations) {
+        UpdateSchemeRequest request = schemeRequest(v2Schema(), activate);
+        request.setUpgrade(List.of(operations));
+        return request;
+    }
+    
+    private UpdateSchemeRequest schemeRequest(ObjectNode schema, boolean activate) {
+        UpdateSchemeRequest request = new UpdateSchemeRequest();
+        request.setSchema(schema);
+        request.setActivate(activate);
+        return request;
+    }
+    
+    private UpgradeOperation operation(UpgradeOperation.Type type, String path, String from,
+                                       JsonNode value) {
+        UpgradeOperation operation = new UpgradeOperation();
+        operation.setOp(type);
+        operation.setPath(path);
+        operation.setFrom(from);
+        operation.setValue(value);
+        return operation;
+    }
+    
+    private UpdateSchemeStatusRequest statusRequest(String status) {
+        UpdateSchemeStatusRequest request = new UpdateSchemeStatusRequest();
+        request.setStatus(status);
+        return request;
+    }
+    
+    /**
+     * 修改 configs.updated_at 的列定义；H2 会话缓存已编译的语句，改列定义后不会重新编译，丢弃空闲连接使修改对后续语句生效
+     */
+    private void alterUpdatedAt(String action) {
+        jdbcTemplate.execute("ALTER TABLE configs ALTER COLUMN updated_at " + action);
+        try {
+            dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean().softEvictConnections();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
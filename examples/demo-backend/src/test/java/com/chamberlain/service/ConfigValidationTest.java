@@ -0,0 +1,134 @@
+package com.chamberlain.service;
+
+import com.chamberlain.dto.request.CreateConfigRequest;
+import com.chamberlain.dto.request.CreateSceneRequest;
+import com.chamberlain.dto.request.ValidateConfigRequest;
+import com.chamberlain.exception.ValidationException;
+import com.chamberlain.repository.ConfigRepository;
+import com.chamberlain.repository.SceneRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 配置数据验证测试：写入路径的错误上限和结构化错误，以及只验证接口的完整模式
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ConfigValidationTest {
+    
+    private static final String SCENE_ID = "validation_scene";
+    private static final int FIELD_COUNT = 30;
+    
+    @Autowired
+    private ConfigService configService;
+    
+    @Autowired
+    private SceneService sceneService;
+    
+    @Autowired
+    private SceneRepository sceneRepository;
+    
+    @Autowired
+    private ConfigRepository configRepository;
+    
+    @Autowired
+    private WebApplicationContext context;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @BeforeEach
+    void setUp() {
+        // H2 由 JPA 建表，没有 configs -> scenes 的级联删除
+        configRepository.deleteAll();
+        sceneRepository.findAll().forEach(scene -> sceneService.delete(scene.getId()));
+        
+        ObjectNode schema = objectMapper.createObjectNode();
+        schema.put("type", "object");
+        ObjectNode properties = schema.putObject("properties");
+        for (int i = 0; i < FIELD_COUNT; i++) {
+            properties.putObject("field" + i).put("type", "integer");
+        }
+        CreateSceneRequest scene = new CreateSceneRequest();
+        scene.setId(SCENE_ID);
+        scene.setName(SCENE_ID);
+        scene.setSchema(schema);
+        sceneService.create(scene);
+    }
+    
+    @Test
+    void testCreateReportsLimitedStructuredErrors() throws Exception {
+        CreateConfigRequest request = new CreateConfigRequest();
+        request.setSceneId(SCENE_ID);
+        request.setSchemeVersion(1);
+        request.setConfig(invalidConfig());
+        
+        ValidationException e = assertThrows(ValidationException.class, () -> configService.create(request));
+        assertEquals("CONFIG_VALIDATION_FAILED", e.getCode());
+        assertEquals(10, e.getErrors().size());
+        assertTrue(e.getMessage().endsWith("（仅列出前 10 条错误）"));
+        
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        mockMvc.perform(post("/api/configs")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.code").value("CONFIG_VALIDATION_FAILED"))
+            .andExpect(jsonPath("$.data.length()").value(10))
+            .andExpect(jsonPath("$.data[0].keyword").value("type"))
+            .andExpect(jsonPath("$.data[0].pointer").exists());
+        assertEquals(0, configRepository.count());
+    }
+    
+    @Test
+    void testValidateEndpointReturnsAllErrors() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        ValidateConfigRequest request = new ValidateConfigRequest();
+        request.setConfig(invalidConfig());
+        
+        mockMvc.perform(post("/api/scenes/{id}/configs:validate", SCENE_ID)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data.valid").value(false))
+            .andExpect(jsonPath("$.data.schemeVersion").value(1))
+            .andExpect(jsonPath("$.data.errors.length()").value(FIELD_COUNT));
+        
+        request.setConfig(objectMapper.createObjectNode().put("field0", 1));
+        mockMvc.perform(post("/api/scenes/{id}/configs:validate", SCENE_ID)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data.valid").value(true))
+            .andExpect(jsonPath("$.data.errors.length()").value(0));
+        assertEquals(0, configRepository.count());
+        
+        request.setSchemeVersion(2);
+        mockMvc.perform(post("/api/scenes/{id}/configs:validate", SCENE_ID)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isNotFound());
+    }
+    
+    private ObjectNode invalidConfig() {
+        ObjectNode config = objectMapper.createObjectNode();
+        for (int i = 0; i < FIELD_COUNT; i++) {
+            config.put("field" + i, "x");
+        }
+        return config;
+    }
+}
@@ -0,0 +1,117 @@
+package com.chamberlain.service;
+
+import com.chamberlain.dto.request.CreateConfigRequest;
+import com.chamberlain.dto.request.CreateSceneRequest;
+import com.chamberlain.dto.response.ConfigResponse;
+import com.chamberlain.dto.response.ConfigWatchResponse;
+import com.chamberlain.exception.ResourceNotFoundException;
+import com.chamberlain.repository.ConfigRepository;
+import com.chamberlain.repository.SceneRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ConfigWatchService 测试
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ConfigWatchServiceTest {
+    
+    private static final String SCENE_ID = "watch_scene";
+    
+    @Autowired
+    private ConfigWatchService configWatchService;
+    
+    @Autowired
+    private ConfigService configService;
+    
+    @Autowired
+    private SceneService sceneService;
+    
+    @Autowired
+    private SceneRepository sceneRepository;
+    
+    @Autowired
+    private ConfigRepository configRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @BeforeEach
+    void setUp() {
+        // H2 由 JPA 建表，没有 configs -> scenes 的级联删除
+        configRepository.deleteAll();
+        sceneRepository.findAll().forEach(scene -> sceneService.delete(scene.getId()));
+        
+        ObjectNode schema = objectMapper.createObjectNode();
+        schema.put("type", "object");
+        CreateSceneRequest scene = new CreateSceneRequest();
+        scene.setId(SCENE_ID);
+        scene.setName(SCENE_ID);
+        scene.setSchema(schema);
+        sceneService.create(scene);
+    }
+    
+    @Test
+    void testWatcherWokenByConfigChange() throws Exception {
+        long revision = sceneService.getById(SCENE_ID).getRevision();
+        CompletableFuture<ConfigWatchResponse> watch = configWatchService.watch(SCENE_ID, revision, "30s");
+        assertFalse(watch.isDone());
+        
+        ConfigResponse created = configService.create(createConfigRequest());
+        
+        ConfigWatchResponse response = watch.get(5, TimeUnit.SECONDS);
+        assertTrue(response.getChanged());
+        assertEquals(revision + 1, response.getRevision());
+        assertEquals(response.getRevision(), created.getRevision());
+        assertEquals(response.getRevision(), sceneService.getById(SCENE_ID).getRevision());
+    }
+    
+    @Test
+    void testReturnsImmediatelyWhenBehind() throws Exception {
+        configService.create(createConfigRequest());
+        
+        ConfigWatchResponse response = configWatchService.watch(SCENE_ID, 0, "30s").get(1, TimeUnit.SECONDS);
+        
+        assertTrue(response.getChanged());
+        assertEquals(1, response.getRevision());
+    }
+    
+    @Test
+    void testTimeoutReturnsUnchanged() throws Exception {
+        ConfigWatchResponse response = configWatchService.watch(SCENE_ID, 0, "100ms").get(5, TimeUnit.SECONDS);
+        
+        assertFalse(response.getChanged());
+        assertEquals(0, response.getRevision());
+    }
+    
+    @Test
+    void testSceneDeletionWakesWatchers() throws Exception {
+        CompletableFuture<ConfigWatchResponse> watch = configWatchService.watch(SCENE_ID, 0, "30s");
+        
+        sceneService.delete(SCENE_ID);
+        
+        assertTrue(watch.get(5, TimeUnit.SECONDS).getDeleted());
+        assertThrows(ResourceNotFoundException.class, () -> configWatchService.watch(SCENE_ID, 0, "30s"));
+    }
+    
+    private CreateConfigRequest createConfigRequest() {
+        CreateConfigRequest request = new CreateConfigRequest();
+        request.setSceneId(SCENE_ID);
+        request.setSchemeVersion(1);
+        request.setConditions(List.of());
+        request.setConfig(objectMapper.createObjectNode().put("port", 3306));
+        return request;
+    }
+}
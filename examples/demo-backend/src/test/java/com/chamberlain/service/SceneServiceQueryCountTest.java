@@ -0,0 +1,92 @@
+package com.chamberlain.service;
+
+import com.chamberlain.dto.common.PageResult;
+import com.chamberlain.dto.request.CreateSceneRequest;
+import com.chamberlain.dto.response.SceneResponse;
+import com.chamberlain.repository.SceneRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SceneService 列表查询 SQL 语句数测试
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SceneServiceQueryCountTest {
+    
+    /**
+     * 分页查询 + COUNT + 批量 Scheme 查询
+     */
+    private static final long MAX_LIST_STATEMENTS = 3;
+    
+    @Autowired
+    private SceneService sceneService;
+    
+    @Autowired
+    private SceneRepository sceneRepository;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    private Statistics statistics;
+    
+    @BeforeEach
+    void setUp() {
+        sceneRepository.findAll().forEach(scene -> sceneService.delete(scene.getId()));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        
+        for (int i = 0; i < 25; i++) {
+            sceneService.create(createSceneRequest("query_count_scene_" + i));
+        }
+    }
+    
+    @Test
+    void testListStatementCountIndependentOfPageSize() {
+        long smallPage = countListStatements(2);
+        long largePage = countListStatements(25);
+        
+        assertEquals(smallPage, largePage);
+        assertTrue(largePage <= MAX_LIST_STATEMENTS,
+            "list() executed " + largePage + " statements, expected at most " + MAX_LIST_STATEMENTS);
+    }
+    
+    @Test
+    void testListFillsCurrentScheme() {
+        PageResult<SceneResponse> result = sceneService.list(1, 25, null, null);
+        
+        assertEquals(25, result.getList().size());
+        result.getList().forEach(scene -> assertNotNull(scene.getCurrentScheme(), scene.getId()));
+    }
+    
+    private long countListStatements(int pageSize) {
+        statistics.clear();
+        PageResult<SceneResponse> result = sceneService.list(1, pageSize, null, null);
+        assertEquals(pageSize, result.getList().size());
+        return statistics.getPrepareStatementCount();
+    }
+    
+    private CreateSceneRequest createSceneRequest(String id) {
+        ObjectNode schema = objectMapper.createObjectNode();
+        schema.put("type", "object");
+        schema.putObject("properties").putObject("name").put("type", "string");
+        
+        CreateSceneRequest request = new CreateSceneRequest();
+        request.setId(id);
+        request.setName(id);
+        request.setSchema(schema);
+        return request;
+    }
+}
@@ -0,0 +1,316 @@
+package com.chamberlain.service;
+
+import com.chamberlain.actuator.SceneSnapshotEndpoint;
+import com.chamberlain.dto.common.PageResult;
+import com.chamberlain.dto.request.CreateConfigRequest;
+import com.chamberlain.dto.request.CreateSceneRequest;
+import com.chamberlain.dto.request.UpdateConfigRequest;
+import com.chamberlain.dto.response.ConfigResponse;
+import com.chamberlain.dto.response.SceneResponse;
+import com.chamberlain.entity.Config;
+import com.chamberlain.entity.Config.Condition;
+import com.chamberlain.exception.ResourceNotFoundException;
+import com.chamberlain.mapper.ConfigMapper;
+import com.chamberlain.mapper.SceneMapper;
+import com.chamberlain.repository.ConfigRepository;
+import com.chamberlain.repository.SceneRepository;
+import com.chamberlain.repository.SchemeVersionRepository;
+import com.chamberlain.service.SceneSnapshotService.SceneSnapshot;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 快照读取模式测试
+ */
+@SpringBootTest(properties = "chamberlain.read-mode=snapshot")
+@ActiveProfiles("test")
+class SceneSnapshotServiceTest {
+    
+    private static final String SCENE_ID = "snapshot_scene";
+    
+    @Autowired
+    private SceneSnapshotService sceneSnapshotService;
+    
+    @Autowired
+    private SceneSnapshotEndpoint sceneSnapshotEndpoint;
+    
+    @Autowired
+    private ConfigService configService;
+    
+    @Autowired
+    private SceneService sceneService;
+    
+    @Autowired
+    private SceneRepository sceneRepository;
+    
+    @Autowired
+    private ConfigRepository configRepository;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private SchemeVersionRepository schemeVersionRepository;
+    
+    @Autowired
+    private SceneMapper sceneMapper;
+    
+    @Autowired
+    private ConfigMapper configMapper;
+    
+    @Autowired
+    private SceneRevisionService sceneRevisionService;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @TempDir
+    Path dir;
+    
+    private ConfigResponse production;
+    
+    @BeforeEach
+    void setUp() {
+        // H2 由 JPA 建表，没有 configs -> scenes 的级联删除
+        configRepository.deleteAll();
+        sceneRepository.findAll().forEach(scene -> sceneService.delete(scene.getId()));
+        
+        ObjectNode schema = objectMapper.createObjectNode();
+        schema.put("type", "object");
+        schema.putObject("properties").putObject("port").put("type", "integer");
+        CreateSceneRequest scene = new CreateSceneRequest();
+        scene.setId(SCENE_ID);
+        scene.setName("Snapshot Scene");
+        scene.setSchema(schema);
+        sceneService.create(scene);
+        
+        production = configService.create(createRequest("production", 3306));
+        configService.create(createRequest("staging", 3307));
+    }
+    
+    @Test
+    void testReadsServedWithoutDatabase() {
+        assertTrue(sceneSnapshotService.isServing());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        
+        assertEquals(3306, configService.getById(production.getId()).getConfig().path("port").asInt());
+        PageResult<ConfigResponse> configs = configService.list(SCENE_ID, null, 1, 1, null);
+        assertEquals(2, configs.getTotal());
+        assertEquals(1, configs.getList().size());
+        assertEquals(List.of(3306, 3307), configService.list(SCENE_ID, 1, 1, 10, "id:asc").getList().stream()
+            .map(config -> config.getConfig().path("port").asInt()).toList());
+        
+        SceneResponse scene = sceneService.getById(SCENE_ID);
+        assertNotNull(scene.getCurrentScheme());
+        assertEquals(1, sceneService.list(1, 10, "snapshot", null).getTotal());
+        assertEquals(0, sceneService.list(1, 10, "missing", null).getTotal());
+        
+        assertNotNull(configService.getETag(production.getId()));
+        assertNotNull(configService.getListETag(SCENE_ID));
+        assertNotNull(sceneService.getETag(SCENE_ID));
+        assertNotNull(sceneService.getListETag());
+        
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+    
+    @Test
+    void testWritesPublishNewSnapshot() {
+        SceneSnapshot before = sceneSnapshotService.find(SCENE_ID).orElseThrow();
+        String etag = configService.getListETag(SCENE_ID);
+        
+        UpdateConfigRequest update = new UpdateConfigRequest();
+        update.setConfig(objectMapper.createObjectNode().put("port", 3308));
+        configService.update(production.getId(), update);
+        
+        // 旧快照保持不变，新快照只替换本场景
+        assertEquals(3306, before.configs().get(production.getId()).getConfig().path("port").asInt());
+        SceneSnapshot after = sceneSnapshotService.find(SCENE_ID).orElseThrow();
+        assertNotSame(before, after);
+        assertEquals(3308, configService.getById(production.getId()).getConfig().path("port").asInt());
+        assertEquals(sceneRepository.findRevisionById(SCENE_ID).orElseThrow(), after.revision());
+        assertNotEquals(etag, configService.getListETag(SCENE_ID));
+        
+        configService.delete(production.getId());
+        assertThrows(ResourceNotFoundException.class, () -> configService.getById(production.getId()));
+        assertEquals(1, configService.list(SCENE_ID, null, 1, 10, null).getTotal());
+        assertEquals(sceneRepository.findRevisionById(SCENE_ID).orElseThrow(),
+            sceneSnapshotService.find(SCENE_ID).orElseThrow().revision());
+    }
+    
+    @Test
+    void testLocalWritesAreNotReloadedByRefresh() {
+        // MySQL 的 scenes.updated_at 为 ON UPDATE CURRENT_TIMESTAMP，H2 由 JPA 建表时没有；
+        // 测试中临时加上，未显式赋值的 UPDATE 把它改为固定的时间，结果与执行时刻无关
+        alterUpdatedAt("SET ON UPDATE TIMESTAMP '2000-01-01 00:00:00'");
+        try {
+            // 先与数据库对齐：场景写入后快照中的更新时间精度高于数据库列，首次刷新会重新加载
+            sceneSnapshotService.refresh();
+            UpdateConfigRequest update = new UpdateConfigRequest();
+            update.setConfig(objectMapper.createObjectNode().put("port", 3308));
+            configService.update(production.getId(), update);
+            SceneSnapshot patched = sceneSnapshotService.find(SCENE_ID).orElseThrow();
+            
+            // 本实例的写入已在快照上原地应用，递增修订号不改变场景更新时间，刷新时不重新加载
+            sceneSnapshotService.refresh();
+            SceneSnapshot after = sceneSnapshotService.find(SCENE_ID).orElseThrow();
+            assertEquals(patched.builtAt(), after.builtAt());
+            assertEquals(sceneRepository.findRevisionById(SCENE_ID).orElseThrow(), after.revision());
+            assertEquals(3308, configService.getById(production.getId()).getConfig().path("port").asInt());
+        } finally {
+            alterUpdatedAt("DROP ON UPDATE");
+        }
+    }
+    
+    @Test
+    void testRefreshPicksUpOtherInstanceWrites() {
+        // 模拟其他实例的写入：直接删除配置并递增场景修订号
+        jdbcTemplate.update("DELETE FROM configs WHERE id = ?", production.getId());
+        jdbcTemplate.update("UPDATE scenes SET revision = revision + 1 WHERE id = ?", SCENE_ID);
+        assertEquals(3306, configService.getById(production.getId()).getConfig().path("port").asInt());
+        
+        sceneSnapshotService.refresh();
+        
+        assertThrows(ResourceNotFoundException.class, () -> configService.getById(production.getId()));
+        assertEquals(1L, sceneSnapshotEndpoint.snapshots().get("configs"));
+        assertEquals(1, sceneSnapshotEndpoint.scene(SCENE_ID).get("configs"));
+        
+        sceneService.delete(SCENE_ID);
+        assertThrows(ResourceNotFoundException.class, () -> sceneService.getById(SCENE_ID));
+        assertNull(sceneSnapshotEndpoint.scene(SCENE_ID));
+    }
+    
+    @Test
+    void testOutOfOrderCommitsAreNotLost() {
+        ConfigResponse staging = configService.list(SCENE_ID, null, 1, 10, "id:asc").getList().get(1);
+        
+        // 两个事务依次取得修订号，提交后的回调以相反顺序到达
+        ConfigResponse first = writeConfig(production.getId(), 3310);
+        ConfigResponse second = writeConfig(staging.getId(), 3311);
+        sceneSnapshotService.putConfig(second);
+        sceneSnapshotService.putConfig(first);
+        
+        SceneSnapshot snapshot = sceneSnapshotService.find(SCENE_ID).orElseThrow();
+        assertEquals(3310, snapshot.configs().get(production.getId()).getConfig().path("port").asInt());
+        assertEquals(3311, snapshot.configs().get(staging.getId()).getConfig().path("port").asInt());
+        assertEquals(second.getRevision(), snapshot.revision());
+    }
+    
+    @Test
+    void testSkippedRevisionRebuildsSnapshot() {
+        ConfigResponse staging = configService.list(SCENE_ID, null, 1, 10, "id:asc").getList().get(1);
+        // 其他实例的写入：直接删除配置并递增场景修订号
+        jdbcTemplate.update("DELETE FROM configs WHERE id = ?", staging.getId());
+        jdbcTemplate.update("UPDATE scenes SET revision = revision + 1 WHERE id = ?", SCENE_ID);
+        
+        UpdateConfigRequest update = new UpdateConfigRequest();
+        update.setConfig(objectMapper.createObjectNode().put("port", 3308));
+        configService.update(production.getId(), update);
+        
+        // 本实例的修订号跳过了其他实例的修订号，快照从数据库重建，包含两者的变更
+        SceneSnapshot snapshot = sceneSnapshotService.find(SCENE_ID).orElseThrow();
+        assertEquals(1, snapshot.configs().size());
+        assertEquals(3308, snapshot.configs().get(production.getId()).getConfig().path("port").asInt());
+        assertEquals(sceneRepository.findRevisionById(SCENE_ID).orElseThrow(), snapshot.revision());
+    }
+    
+    @Test
+    void testRestoreFromFileThenCatchUp() {
+        SceneSnapshotService writer = fileBacked();
+        writer.loadAll();
+        assertTrue(writer.writeFile());
+        assertFalse(writer.writeFile());
+        
+        // 文件写入后数据库发生变更
+        UpdateConfigRequest update = new UpdateConfigRequest();
+        update.setConfig(objectMapper.createObjectNode().put("port", 3309));
+        configService.update(production.getId(), update);
+        
+        SceneSnapshotService restarted = fileBacked();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        restarted.restore();
+        
+        // 恢复后立即提供读取，不访问数据库
+        assertTrue(restarted.isServing());
+        assertTrue(restarted.isRestoredFromFile());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(3306, restarted.findConfig(production.getId()).orElseThrow().getConfig().path("port").asInt());
+        
+        restarted.refresh();
+        assertEquals(3309, restarted.findConfig(production.getId()).orElseThrow().getConfig().path("port").asInt());
+        assertEquals(2, restarted.find(SCENE_ID).orElseThrow().configs().size());
+        assertTrue(restarted.writeFile());
+    }
+    
+    /**
+     * 绕过 {@link ConfigService} 在独立事务中写入配置，不触发快照更新
+     */
+    private ConfigResponse writeConfig(String id, int port) {
+        return transactionTemplate.execute(status -> {
+            Config config = configRepository.findById(id).orElseThrow();
+            config.setConfigData(objectMapper.createObjectNode().put("port", port));
+            config.setRevision(sceneRevisionService.next(SCENE_ID));
+            return configMapper.toResponse(configRepository.saveAndFlush(config));
+        });
+    }
+    
+    private SceneSnapshotService fileBacked() {
+        return new SceneSnapshotService(sceneRepository, schemeVersionRepository, configRepository, sceneMapper,
+            configMapper, objectMapper, SceneSnapshotService.READ_MODE_SNAPSHOT, dir.resolve("snapshots.bin").toString(),
+            Duration.ofDays(1), Duration.ofSeconds(10), Runnable::run);
+    }
+    
+    private CreateConfigRequest createRequest(String environment, int port) {
+        Condition condition = new Condition();
+        condition.setKey("environment");
+        condition.setValue(environment);
+        CreateConfigRequest request = new CreateConfigRequest();
+        request.setSceneId(SCENE_ID);
+        request.setSchemeVersion(1);
+        request.setConditions(List.of(condition));
+        request.setConfig(objectMapper.createObjectNode().put("port", port));
+        return request;
+    }
+    
+    /**
+     * 修改 scenes.updated_at 的列定义；H2 会话缓存已编译的语句，改列定义后不会重新编译，丢弃空闲连接使修改对后续语句生效
+     */
+    private void alterUpdatedAt(String action) {
+        jdbcTemplate.execute("ALTER TABLE scenes ALTER COLUMN updated_at " + action);
+        try {
+            dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean().softEvictConnections();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
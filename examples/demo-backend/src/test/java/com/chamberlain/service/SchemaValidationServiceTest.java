@@ -1,10 +1,18 @@
 package com.chamberlain.service;
 
+import com.chamberlain.dto.common.ValidationError;
+import com.chamberlain.entity.Scene;
+import com.chamberlain.entity.SchemeVersion;
+import com.chamberlain.service.SchemaValidationService.ValidationOptions;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -149,5 +157,151 @@ class SchemaValidationServiceTest {
         // 添加可选字段不是破坏性变更
         assertFalse(service.isBreakingChange(oldSchema, newSchema));
     }
+    
+    @Test
+    void testCompiledSchemaIsCachedPerVersion() {
+        ObjectNode schema = objectMapper.createObjectNode();
+        schema.put("type", "object");
+        
+        SchemeVersion v1 = schemeVersion("test_scene", 1, schema);
+        SchemeVersion v2 = schemeVersion("test_scene", 2, schema);
+        
+        assertSame(service.getSchema(v1), service.getSchema(v1));
+        assertNotSame(service.getSchema(v1), service.getSchema(v2));
+        assertTrue(service.validate(v1, objectMapper.createObjectNode()).isValid());
+    }
+    
+    @Test
+    void testEvictSceneDropsCompiledSchemas() {
+        ObjectNode objectSchema = objectMapper.createObjectNode();
+        objectSchema.put("type", "object");
+        ObjectNode stringSchema = objectMapper.createObjectNode();
+        stringSchema.put("type", "string");
+        
+        SchemeVersion original = schemeVersion("test_scene", 1, objectSchema);
+        service.registerSchema(original, service.compile(objectSchema).orElseThrow());
+        assertTrue(service.validate(original, objectMapper.createObjectNode()).isValid());
+        
+        // 场景删除后以相同 ID 重建，版本 1 的 Schema 已不同
+        service.evictScene("test_scene");
+        SchemeVersion recreated = schemeVersion("test_scene", 1, stringSchema);
+        assertFalse(service.validate(recreated, objectMapper.createObjectNode()).isValid());
+    }
+    
+    @Test
+    void testDiffIsCachedPerVersionAndCandidate() {
+        ObjectNode schema = objectMapper.createObjectNode();
+        schema.put("type", "object");
+        schema.putObject("properties").putObject("name").put("type", "string");
+        ObjectNode candidate = objectMapper.createObjectNode();
+        candidate.put("type", "object");
+        
+        SchemeVersion v1 = schemeVersion("test_scene", 1, schema);
+        var diff = service.diff(v1, candidate);
+        assertTrue(diff.isBreaking());
+        assertSame(diff, service.diff(v1, candidate.deepCopy()));
+        assertNotSame(diff, service.diff(schemeVersion("test_scene", 2, schema), candidate));
+        
+        service.evictScene("test_scene");
+        assertNotSame(diff, service.diff(v1, candidate));
+    }
+    
+    @Test
+    void testErrorLimitStopsValidation() {
+        ObjectNode schema = objectMapper.createObjectNode();
+        ObjectNode properties = schema.putObject("properties");
+        ObjectNode data = objectMapper.createObjectNode();
+        for (int i = 0; i < 30; i++) {
+            properties.putObject("field" + i).put("type", "integer");
+            data.put("field" + i, "x");
+        }
+        var compiled = service.compile(schema).orElseThrow();
+        
+        var full = service.validate(compiled, data, ValidationOptions.FULL);
+        assertEquals(30, full.getDetails().size());
+        assertFalse(full.isTruncated());
+        
+        var limited = service.validate(compiled, data, new ValidationOptions(false, 5));
+        assertFalse(limited.isValid());
+        assertEquals(5, limited.getDetails().size());
+        assertTrue(limited.isTruncated());
+        assertTrue(limited.describe().endsWith("（仅列出前 5 条错误）"));
+        
+        var failFast = service.validate(compiled, data, ValidationOptions.FAIL_FAST);
+        assertEquals(1, failFast.getDetails().size());
+        assertTrue(failFast.isTruncated());
+        
+        // 错误数未达上限时与完整模式一致
+        var underLimit = service.validate(compiled, data, new ValidationOptions(false, 50));
+        assertFalse(underLimit.isTruncated());
+        assertEquals(full.getDetails(), underLimit.getDetails());
+    }
+    
+    @Test
+    void testSpeculativeBranchErrorsAreNotCounted() {
+        var compiled = service.compile(json("{'properties':{"
+            + "'any':{'anyOf':[{'type':'string'},{'type':'integer'}]},"
+            + "'one':{'oneOf':[{'type':'string'},{'type':'integer'}]},"
+            + "'none':{'not':{'type':'string'}},"
+            + "'cond':{'if':{'type':'string'},'then':{'minLength':1}},"
+            + "'list':{'type':'array','contains':{'type':'integer'}}}}")).orElseThrow();
+        
+        // 前面的分支失败但组合整体通过，不应触发上限
+        JsonNode valid = json("{'any':1,'one':1,'none':1,'cond':2,'list':['a',1]}");
+        assertTrue(service.validate(compiled, valid, ValidationOptions.FAIL_FAST).isValid());
+        
+        var invalid = service.validate(compiled, json("{'any':true}"), ValidationOptions.FAIL_FAST);
+        assertFalse(invalid.isValid());
+        assertEquals("/any", invalid.getDetails().get(0).getPointer());
+    }
+    
+    @Test
+    void testStructuredErrors() {
+        var compiled = service.compile(json("{'type':'object','required':['name'],'additionalProperties':false,"
+            + "'properties':{'name':{'type':'string'},'a.b':{'type':'integer'},'a':{'type':'object'},"
+            + "'servers':{'type':'array','items':{'type':'object','required':['host'],"
+            + "'properties':{'port':{'type':'integer'}}}}}}")).orElseThrow();
+        
+        JsonNode data = json("{'a.b':'x','a':{},'servers':[{'host':'h'},{'port':'80'}],'extra':1}");
+        List<ValidationError> errors = service.validate(compiled, data, ValidationOptions.FULL).getDetails();
+        assertError(errors, "/name", "required");
+        assertError(errors, "/a.b", "type");
+        assertError(errors, "/servers/1/port", "type");
+        assertError(errors, "/servers/1/host", "required");
+        assertError(errors, "/extra", "additionalProperties");
+        assertEquals(5, errors.size());
+        assertTrue(errors.stream().allMatch(error -> error.getMessage() != null));
+    }
+    
+    @Test
+    void testToPointer() {
+        JsonNode data = json("{'a':{'b.c':[0,{'d/e~':1}]}}");
+        assertEquals("", SchemaValidationService.toPointer("$", data));
+        assertEquals("/a/b.c/1/d~1e~0", SchemaValidationService.toPointer("$.a.b.c[1].d/e~", data));
+        // 数据中不存在的字段按 "." 拆分
+        assertEquals("/x/y", SchemaValidationService.toPointer("$.x.y", data));
+    }
+    
+    private void assertError(List<ValidationError> errors, String pointer, String keyword) {
+        assertTrue(errors.stream().anyMatch(error -> pointer.equals(error.getPointer()) && keyword.equals(error.getKeyword())),
+            () -> "缺少错误 " + pointer + " " + keyword + "，实际为 " + errors);
+    }
+    
+    private JsonNode json(String json) {
+        try {
+            return objectMapper.readTree(json.replace('\'', '"'));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private SchemeVersion schemeVersion(String sceneId, int version, ObjectNode schema) {
+        Scene scene = new Scene();
+        scene.setId(sceneId);
+        SchemeVersion schemeVersion = new SchemeVersion();
+        schemeVersion.setScene(scene);
+        schemeVersion.setVersion(version);
+        schemeVersion.setSchemaJson(schema);
+        return schemeVersion;
+    }
 }
-
@@ -0,0 +1,203 @@
+package com.chamberlain.service;
+
+import com.chamberlain.dto.common.UpgradeOperation;
+import com.chamberlain.dto.request.CreateConfigRequest;
+import com.chamberlain.dto.request.CreateSceneRequest;
+import com.chamberlain.dto.request.SchemeImpactRequest;
+import com.chamberlain.dto.request.UpdateSchemeRequest;
+import com.chamberlain.dto.response.SchemeImpactResponse;
+import com.chamberlain.entity.Config.Condition;
+import com.chamberlain.exception.ResourceNotFoundException;
+import com.chamberlain.repository.ConfigRepository;
+import com.chamberlain.repository.SceneRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.IntNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Scheme 影响分析测试（测试配置中线程数为 2、分块大小为 4，少量配置即覆盖并行路径）
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SchemeImpactServiceTest {
+    
+    private static final String SCENE_ID = "impact_scene";
+    private static final int CONFIG_COUNT = 30;
+    
+    @Autowired
+    private SchemeImpactService schemeImpactService;
+    
+    @Autowired
+    private ConfigService configService;
+    
+    @Autowired
+    private SceneService sceneService;
+    
+    @Autowired
+    private SceneRepository sceneRepository;
+    
+    @Autowired
+    private ConfigRepository configRepository;
+    
+    @Autowired
+    private WebApplicationContext context;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @BeforeEach
+    void setUp() {
+        // H2 由 JPA 建表，没有 configs -> scenes 的级联删除
+        configRepository.deleteAll();
+        sceneRepository.findAll().forEach(scene -> sceneService.delete(scene.getId()));
+        
+        CreateSceneRequest scene = new CreateSceneRequest();
+        scene.setId(SCENE_ID);
+        scene.setName(SCENE_ID);
+        scene.setSchema(schema(null));
+        sceneService.create(scene);
+        
+        // port 为 0..29
+        for (int i = 0; i < CONFIG_COUNT; i++) {
+            Condition condition = new Condition();
+            condition.setKey("instance");
+            condition.setValue(String.format("i%02d", i));
+            CreateConfigRequest request = new CreateConfigRequest();
+            request.setSceneId(SCENE_ID);
+            request.setSchemeVersion(1);
+            request.setConditions(List.of(condition));
+            request.setConfig(objectMapper.createObjectNode().put("port", i));
+            configService.create(request);
+        }
+    }
+    
+    @Test
+    void testCountsAndSortedSamples() {
+        ObjectNode schema = schema(null);
+        ((ObjectNode) schema.get("properties").get("port")).put("maximum", 9);
+        SchemeImpactRequest request = request(schema);
+        request.setMaxSamples(5);
+        
+        SchemeImpactResponse response = schemeImpactService.analyze(SCENE_ID, request);
+        assertEquals(CONFIG_COUNT, response.getTotal());
+        assertEquals(CONFIG_COUNT, response.getChecked());
+        assertEquals(10, response.getPassed());
+        assertEquals(20, response.getFailed());
+        assertEquals(20, response.getEstimatedFailed());
+        
+        // 样本为 ID 最小的失败配置，与并行调度无关
+        List<String> expected = configRepository.findBySceneId(SCENE_ID).stream()
+            .filter(config -> config.getConfigData().get("port").asInt() > 9)
+            .map(config -> config.getId())
+            .sorted()
+            .limit(5)
+            .toList();
+        assertEquals(expected, response.getSamples().stream().map(SchemeImpactResponse.FailedConfig::getId).toList());
+        assertFalse(response.getSamples().get(0).getErrors().isEmpty());
+        assertEquals(1, response.getSamples().get(0).getSchemeVersion());
+    }
+    
+    @Test
+    void testUpgradeOperationsAreAppliedBeforeValidation() {
+        SchemeImpactRequest request = request(schema("timeout"));
+        assertEquals(CONFIG_COUNT, schemeImpactService.analyze(SCENE_ID, request).getFailed());
+        
+        UpgradeOperation operation = new UpgradeOperation();
+        operation.setOp(UpgradeOperation.Type.DEFAULT);
+        operation.setPath("/timeout");
+        operation.setValue(IntNode.valueOf(30));
+        request.setUpgrade(List.of(operation));
+        assertEquals(0, schemeImpactService.analyze(SCENE_ID, request).getFailed());
+    }
+    
+    @Test
+    void testOldVersionConfigsAreUpgradedFirst() {
+        // 版本 2 要求 timeout 并声明默认值，版本 1 的配置按读取时的结果参与分析
+        UpgradeOperation operation = new UpgradeOperation();
+        operation.setOp(UpgradeOperation.Type.DEFAULT);
+        operation.setPath("/timeout");
+        operation.setValue(IntNode.valueOf(30));
+        UpdateSchemeRequest scheme = new UpdateSchemeRequest();
+        scheme.setSchema(schema("timeout"));
+        scheme.setUpgrade(List.of(operation));
+        sceneService.updateScheme(SCENE_ID, scheme);
+        
+        SchemeImpactResponse response = schemeImpactService.analyze(SCENE_ID, request(schema("timeout")));
+        assertEquals(0, response.getFailed());
+    }
+    
+    @Test
+    void testSamplingIsDeterministic() {
+        SchemeImpactRequest request = request(schema("timeout"));
+        request.setSampleRatio(0.5);
+        
+        SchemeImpactResponse first = schemeImpactService.analyze(SCENE_ID, request);
+        SchemeImpactResponse second = schemeImpactService.analyze(SCENE_ID, request);
+        assertEquals(CONFIG_COUNT, first.getTotal());
+        assertTrue(first.getChecked() > 0 && first.getChecked() < CONFIG_COUNT);
+        assertEquals(first.getChecked(), second.getChecked());
+        assertEquals(first.getSamples(), second.getSamples());
+        assertEquals(Math.round(first.getFailed() / 0.5), first.getEstimatedFailed());
+    }
+    
+    @Test
+    void testUnknownScene() {
+        assertThrows(ResourceNotFoundException.class,
+            () -> schemeImpactService.analyze("missing_scene", request(schema(null))));
+    }
+    
+    @Test
+    void testImpactEndpoint() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        SchemeImpactRequest request = request(schema("timeout"));
+        request.setMaxSamples(3);
+        
+        mockMvc.perform(post("/api/scenes/{id}/schemes:impact", SCENE_ID)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data.total").value(CONFIG_COUNT))
+            .andExpect(jsonPath("$.data.failed").value(CONFIG_COUNT))
+            .andExpect(jsonPath("$.data.samples.length()").value(3));
+        
+        request.setSampleRatio(0.0);
+        mockMvc.perform(post("/api/scenes/{id}/schemes:impact", SCENE_ID)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isBadRequest());
+    }
+    
+    private ObjectNode schema(String required) {
+        ObjectNode schema = objectMapper.createObjectNode();
+        schema.put("type", "object");
+        if (required != null) {
+            schema.putArray("required").add(required);
+        }
+        ObjectNode properties = schema.putObject("properties");
+        properties.putObject("port").put("type", "integer");
+        properties.putObject("timeout").put("type", "integer");
+        return schema;
+    }
+    
+    private SchemeImpactRequest request(ObjectNode schema) {
+        SchemeImpactRequest request = new SchemeImpactRequest();
+        request.setSchema(schema);
+        return request;
+    }
+}
@@ -0,0 +1,127 @@
+package com.chamberlain.service;
+
+import com.chamberlain.dto.response.ConfigResponse;
+import com.chamberlain.dto.response.SceneResponse;
+import com.chamberlain.entity.Config.Condition;
+import com.chamberlain.service.SceneSnapshotService.SceneSnapshot;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SnapshotFile 测试
+ */
+class SnapshotFileTest {
+    
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    
+    @TempDir
+    Path dir;
+    
+    private Path path;
+    private SnapshotFile file;
+    
+    @BeforeEach
+    void setUp() throws Exception {
+        path = dir.resolve("snapshots.bin");
+        file = new SnapshotFile(path, Duration.ofDays(1), objectMapper);
+        assertEquals(2, file.write(List.of(snapshot("scene_a", 3), snapshot("scene_b", 0))));
+    }
+    
+    @Test
+    void testRoundTrip() {
+        List<SceneSnapshot> snapshots = file.read().orElseThrow();
+        
+        assertEquals(2, snapshots.size());
+        SceneSnapshot restored = snapshots.get(0);
+        assertEquals("scene_a", restored.scene().getId());
+        assertEquals(7L, restored.revision());
+        assertEquals(LocalDateTime.of(2024, 1, 2, 3, 4, 5), restored.scene().getUpdatedAt());
+        assertEquals("object", ((Map<?, ?>) restored.scene().getCurrentScheme()).get("type"));
+        assertEquals(3, restored.configs().size());
+        
+        ConfigResponse config = restored.configs().get("scene_a:environment:env1");
+        assertEquals(3307, config.getConfig().path("port").asInt());
+        assertEquals("env1", config.getConditionList().get(0).getValue());
+        assertEquals(0, snapshots.get(1).configs().size());
+    }
+    
+    @Test
+    void testCorruptedFileRejected() throws Exception {
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[bytes.length - 3] ^= 0x01;
+        Files.write(path, bytes);
+        
+        assertTrue(file.read().isEmpty());
+    }
+    
+    @Test
+    void testTruncatedFileRejected() throws Exception {
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 1));
+        assertTrue(file.read().isEmpty());
+        
+        Files.write(path, Arrays.copyOf(bytes, SnapshotFile.HEADER_SIZE - 1));
+        assertTrue(file.read().isEmpty());
+    }
+    
+    @Test
+    void testOtherFormatVersionRejected() throws Exception {
+        byte[] bytes = Files.readAllBytes(path);
+        ByteBuffer.wrap(bytes).putInt(4, SnapshotFile.FORMAT_VERSION + 1);
+        Files.write(path, bytes);
+        
+        assertTrue(file.read().isEmpty());
+    }
+    
+    @Test
+    void testStaleFileRejected() {
+        assertTrue(new SnapshotFile(path, Duration.ofMillis(-1), objectMapper).read().isEmpty());
+    }
+    
+    @Test
+    void testMissingFileIgnored() {
+        assertTrue(new SnapshotFile(dir.resolve("missing.bin"), Duration.ofDays(1), objectMapper).read().isEmpty());
+    }
+    
+    private SceneSnapshot snapshot(String sceneId, int configCount) {
+        SceneResponse scene = new SceneResponse();
+        scene.setId(sceneId);
+        scene.setName(sceneId);
+        scene.setRevision(7L);
+        scene.setCurrentSchemeVersion(1);
+        scene.setCurrentScheme(Map.of("type", "object"));
+        scene.setUpdatedAt(LocalDateTime.of(2024, 1, 2, 3, 4, 5));
+        
+        List<ConfigResponse> configs = new ArrayList<>();
+        for (int i = 0; i < configCount; i++) {
+            Condition condition = new Condition();
+            condition.setKey("environment");
+            condition.setValue("env" + i);
+            ConfigResponse config = new ConfigResponse();
+            config.setId(sceneId + ":environment:env" + i);
+            config.setSceneId(sceneId);
+            config.setSchemeVersion(1);
+            config.setConditionList(List.of(condition));
+            config.setConfig(objectMapper.createObjectNode().put("port", 3306 + i));
+            config.setRevision((long) i);
+            config.setUpdatedAt(LocalDateTime.of(2024, 1, 2, 3, 4, i));
+            configs.add(config);
+        }
+        return new SceneSnapshot(scene, configs, Instant.now(), Duration.ZERO);
+    }
+}
@@ -0,0 +1,76 @@
+package com.chamberlain.util;
+
+import com.chamberlain.entity.Config.Condition;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CanonicalConditions 单元测试
+ */
+class CanonicalConditionsTest {
+    
+    @Test
+    void testOfMatchesSeparateIdAndHash() {
+        List<Condition> conditions = List.of(condition("region", "us-west"), condition("environment", "production"));
+        
+        CanonicalConditions canonical = CanonicalConditions.of("test_scene", conditions);
+        assertEquals("test_scene:environment:production,region:us-west", canonical.id());
+        assertArrayEquals(ConditionHashUtil.hash(conditions), CanonicalConditions.of("test_scene", conditions).hash());
+        // hash() 不改变状态，可重复读取
+        CanonicalConditions again = CanonicalConditions.of("test_scene", conditions);
+        assertArrayEquals(again.hash(), again.hash());
+    }
+    
+    @Test
+    void testLargeListSortedStably() {
+        // 超过插入排序阈值，走 Arrays.sort
+        List<Condition> conditions = new ArrayList<>();
+        StringBuilder expected = new StringBuilder("test_scene:");
+        for (int i = 0; i < 40; i++) {
+            conditions.add(0, condition(String.format("k%02d", i), "v" + i));
+            expected.append(i > 0 ? "," : "").append(String.format("k%02d:v%d", i, i));
+        }
+        assertEquals(expected.toString(), CanonicalConditions.id("test_scene", conditions));
+        
+        // 暂存区复用后不残留上一次的条件
+        assertEquals("test_scene:a:1", CanonicalConditions.id("test_scene", List.of(condition("a", "1"))));
+        assertEquals("test_scene:default", CanonicalConditions.id("test_scene", null));
+    }
+    
+    @Test
+    void testVirtualThreadsUseCallScratch() throws Exception {
+        List<Condition> conditions = List.of(condition("region", "us-west"), condition("environment", "production"));
+        String expectedId = CanonicalConditions.id("test_scene", conditions);
+        byte[] expectedHash = CanonicalConditions.hash(conditions);
+        
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<CanonicalConditions> first = executor.submit(() -> CanonicalConditions.of("test_scene", conditions));
+            Future<CanonicalConditions> second = executor.submit(() -> CanonicalConditions.of("test_scene", conditions));
+            // 虚拟线程每次调用分配独立的暂存区
+            assertNotSame(first.get(), second.get());
+            assertEquals(expectedId, first.get().id());
+            assertArrayEquals(expectedHash, second.get().hash());
+            assertEquals("test_scene:default", executor.submit(() -> CanonicalConditions.id("test_scene", null)).get());
+        }
+    }
+    
+    @Test
+    void testRejectsEmptySceneId() {
+        assertThrows(IllegalArgumentException.class, () -> CanonicalConditions.of("", List.of()));
+        assertThrows(IllegalArgumentException.class, () -> CanonicalConditions.id(null, List.of()));
+    }
+    
+    private static Condition condition(String key, String value) {
+        Condition condition = new Condition();
+        condition.setKey(key);
+        condition.setValue(value);
+        return condition;
+    }
+}
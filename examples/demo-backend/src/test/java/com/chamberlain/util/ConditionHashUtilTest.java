@@ -0,0 +1,82 @@
+package com.chamberlain.util;
+
+import cn.hutool.core.lang.hash.MurmurHash;
+import com.chamberlain.entity.Config.Condition;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ConditionHashUtil 单元测试
+ */
+class ConditionHashUtilTest {
+    
+    @Test
+    void testHashMatchesMurmur3OfCanonicalBytes() {
+        // 覆盖不足一个分块、整分块和多字节字符
+        List<Condition> conditions = List.of(
+            condition("region", "华东-上海"),
+            condition("environment", "production"),
+            condition("emoji", "😀"),
+            condition("optional", null));
+        
+        ByteArrayOutputStream canonical = new ByteArrayOutputStream();
+        for (String[] kv : new String[][]{
+            {"emoji", "😀"}, {"environment", "production"}, {"optional", null}, {"region", "华东-上海"}}) {
+            canonical.writeBytes(kv[0].getBytes(StandardCharsets.UTF_8));
+            canonical.write(0xFF);
+            if (kv[1] == null) {
+                canonical.write(0xFE);
+            } else {
+                canonical.writeBytes(kv[1].getBytes(StandardCharsets.UTF_8));
+            }
+            canonical.write(0xFF);
+        }
+        
+        long[] expected = MurmurHash.hash128(canonical.toByteArray());
+        ByteBuffer actual = ByteBuffer.wrap(ConditionHashUtil.hash(conditions)).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(expected[0], actual.getLong());
+        assertEquals(expected[1], actual.getLong());
+    }
+    
+    @Test
+    void testHashIsOrderIndependent() {
+        List<Condition> conditions = new ArrayList<>();
+        conditions.add(condition("region", "us-west"));
+        conditions.add(condition("environment", "production"));
+        
+        byte[] hash = ConditionHashUtil.hash(conditions);
+        assertEquals(ConditionHashUtil.HASH_LENGTH, hash.length);
+        assertArrayEquals(hash, ConditionHashUtil.hash(List.of(conditions.get(1), conditions.get(0))));
+        assertTrue(ConditionHashUtil.equals(conditions, List.of(conditions.get(1), conditions.get(0))));
+    }
+    
+    @Test
+    void testDistinctCombinationsDoNotCollide() {
+        // 拼接后字符串相同的组合应得到不同哈希
+        assertFalse(ConditionHashUtil.equals(
+            List.of(condition("a", "b:c")),
+            List.of(condition("a:b", "c"))));
+        assertFalse(ConditionHashUtil.equals(
+            List.of(condition("a", "b,c:d")),
+            List.of(condition("a", "b"), condition("c", "d"))));
+        assertFalse(ConditionHashUtil.equals(
+            List.of(condition("a", null)),
+            List.of(condition("a", ""))));
+        assertArrayEquals(ConditionHashUtil.hash(null), ConditionHashUtil.hash(List.of()));
+    }
+    
+    private static Condition condition(String key, String value) {
+        Condition condition = new Condition();
+        condition.setKey(key);
+        condition.setValue(value);
+        return condition;
+    }
+}
@@ -0,0 +1,137 @@
+package com.chamberlain.util;
+
+import com.chamberlain.dto.response.SchemaChange;
+import com.chamberlain.dto.response.SchemaChange.Kind;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SchemaDiff 单元测试
+ */
+class SchemaDiffTest {
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    @Test
+    void testNestedRemovalAndTypeChange() {
+        SchemaDiff diff = SchemaDiff.compare(
+            json("{'type':'object','properties':{'database':{'type':'object','properties':"
+                + "{'host':{'type':'string'},'port':{'type':'string'}}}}}"),
+            json("{'type':'object','properties':{'database':{'type':'object','properties':"
+                + "{'port':{'type':'integer'}}}}}"));
+        
+        assertTrue(diff.isBreaking());
+        assertChange(diff, "/database/host", Kind.REMOVED, true);
+        assertChange(diff, "/database/port", Kind.TYPE_CHANGED, true);
+        assertTrue(diff.getWarnings().contains("字段 'database/host' 已被删除"));
+    }
+    
+    @Test
+    void testAddedOptionalFieldAndWideningAreNotBreaking() {
+        SchemaDiff diff = SchemaDiff.compare(
+            json("{'type':'object','properties':{'ratio':{'type':'integer','maximum':10}}}"),
+            json("{'type':'object','properties':{'ratio':{'type':'number','maximum':20},"
+                + "'name':{'type':'string'}}}"));
+        
+        assertFalse(diff.isBreaking());
+        assertChange(diff, "/name", Kind.ADDED, false);
+        assertChange(diff, "/ratio", Kind.TYPE_CHANGED, false);
+        assertChange(diff, "/ratio", Kind.CONSTRAINT_RELAXED, false);
+        assertTrue(diff.getWarnings().isEmpty());
+    }
+    
+    @Test
+    void testItemsEnumAndConstraints() {
+        SchemaDiff diff = SchemaDiff.compare(
+            json("{'type':'object','required':['mode'],'properties':{"
+                + "'mode':{'enum':['a','b','c']},"
+                + "'tags':{'type':'array','items':{'type':'string','maxLength':64}}}}"),
+            json("{'type':'object','properties':{"
+                + "'mode':{'enum':['a','b']},"
+                + "'tags':{'type':'array','items':{'type':'string','maxLength':32}}}}"));
+        
+        assertTrue(diff.isBreaking());
+        assertChange(diff, "/mode", Kind.ENUM_CHANGED, true);
+        assertChange(diff, "/mode", Kind.REQUIRED_REMOVED, false);
+        assertChange(diff, "/tags/*", Kind.CONSTRAINT_TIGHTENED, true);
+    }
+    
+    @Test
+    void testRequiredAdded() {
+        SchemaDiff diff = SchemaDiff.compare(
+            json("{'type':'object','properties':{'port':{'type':'integer'}}}"),
+            json("{'type':'object','required':['port'],'properties':{'port':{'type':'integer'}}}"));
+        
+        assertChange(diff, "/port", Kind.REQUIRED_ADDED, true);
+        assertEquals(1, diff.getChanges().size());
+    }
+    
+    @Test
+    void testRefsAreResolvedIncludingRecursion() {
+        // 递归定义：节点的 children 又引用节点
+        String node = "'node':{'type':'object','properties':{'name':{'type':'string'},"
+            + "'children':{'type':'array','items':{'$ref':'#/$defs/node'}}}}";
+        JsonNode oldSchema = json("{'$defs':{" + node + "},'$ref':'#/$defs/node'}");
+        JsonNode newSchema = json("{'$defs':{" + node.replace("'string'", "'integer'") + "},"
+            + "'$ref':'#/$defs/node'}");
+        
+        SchemaDiff diff = SchemaDiff.compare(oldSchema, newSchema);
+        assertChange(diff, "/name", Kind.TYPE_CHANGED, true);
+        assertEquals(1, diff.getChanges().size());
+        assertFalse(SchemaDiff.compare(oldSchema, oldSchema.deepCopy()).isBreaking());
+        
+        // 内联定义与引用等价时没有变更
+        JsonNode inlined = json("{'type':'object','properties':{'port':{'type':'integer'}}}");
+        JsonNode referenced = json("{'$defs':{'port':{'type':'integer'}},'type':'object',"
+            + "'properties':{'port':{'$ref':'#/$defs/port'}}}");
+        assertTrue(SchemaDiff.compare(inlined, referenced).getChanges().isEmpty());
+    }
+    
+    @Test
+    void testUnresolvableRefChange() {
+        SchemaDiff diff = SchemaDiff.compare(
+            json("{'properties':{'x':{'$ref':'https://example.com/a.json'}}}"),
+            json("{'properties':{'x':{'$ref':'https://example.com/b.json'}}}"));
+        
+        assertChange(diff, "/x", Kind.REF_CHANGED, true);
+    }
+    
+    @Test
+    void testCompositionBranches() {
+        SchemaDiff narrowed = SchemaDiff.compare(
+            json("{'properties':{'v':{'anyOf':[{'type':'string'},{'type':'integer'}]}}}"),
+            json("{'properties':{'v':{'anyOf':[{'type':'string'}]}}}"));
+        assertChange(narrowed, "/v", Kind.COMPOSITION_CHANGED, true);
+        
+        // 分支按位置递归比较，变更记在组合所在的路径上
+        SchemaDiff tightened = SchemaDiff.compare(
+            json("{'properties':{'v':{'oneOf':[{'type':'string'}]}}}"),
+            json("{'properties':{'v':{'oneOf':[{'type':'string','minLength':1}]}}}"));
+        assertChange(tightened, "/v", Kind.CONSTRAINT_TIGHTENED, true);
+    }
+    
+    @Test
+    void testNullSchemaIsEmpty() {
+        SchemaDiff diff = SchemaDiff.compare(null, json("{'type':'object'}"));
+        assertChange(diff, "", Kind.TYPE_CHANGED, true);
+        assertTrue(SchemaDiff.compare(null, null).getChanges().isEmpty());
+    }
+    
+    private void assertChange(SchemaDiff diff, String path, Kind kind, boolean breaking) {
+        assertTrue(diff.getChanges().stream().anyMatch(change -> path.equals(change.getPath())
+                && kind == change.getKind() && breaking == change.getBreaking()),
+            () -> "缺少变更 " + path + " " + kind + "，实际为 " + diff.getChanges());
+    }
+    
+    private JsonNode json(String json) {
+        try {
+            return objectMapper.readTree(json.replace('\'', '"'));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
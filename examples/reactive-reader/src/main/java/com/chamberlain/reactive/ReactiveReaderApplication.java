@@ -0,0 +1,34 @@
+package com.chamberlain.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+import java.util.Map;
+
+/**
+ * Chamberlain 响应式只读服务启动类
+ * <p>
+ * 以 WebFlux 和 R2DBC 提供配置详情、列表和解析读取，与后端共用同一数据库和响应格式，写入仍由后端负责
+ */
+@SpringBootApplication
+public class ReactiveReaderApplication {
+    
+    /**
+     * 配置文件名（reactive-reader.yml、reactive-reader-{profile}.yml），
+     * 与后端同处一个类路径时（基准测试）不会读到后端的 application.yml
+     */
+    public static final String CONFIG_NAME = "reactive-reader";
+    
+    public static void main(String[] args) {
+        application().run(args);
+    }
+    
+    /**
+     * 创建使用本服务配置文件的 SpringApplication
+     */
+    public static SpringApplication application() {
+        SpringApplication application = new SpringApplication(ReactiveReaderApplication.class);
+        application.setDefaultProperties(Map.of("spring.config.name", CONFIG_NAME));
+        return application;
+    }
+}
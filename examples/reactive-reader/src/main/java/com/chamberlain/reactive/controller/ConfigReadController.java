@@ -0,0 +1,101 @@
+package com.chamberlain.reactive.controller;
+
+import com.chamberlain.dto.common.ApiResponse;
+import com.chamberlain.dto.common.PageResult;
+import com.chamberlain.dto.response.ConfigResponse;
+import com.chamberlain.reactive.service.ConfigReadService;
+import com.chamberlain.util.KeysetCursor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 配置只读控制器
+ * <p>
+ * 路径、参数和响应格式与后端 ConfigController、ConfigResolveController 的读取端点一致，
+ * 可在网关上将配置读取流量整体切到本服务
+ */
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+public class ConfigReadController {
+    
+    private final ConfigReadService configReadService;
+    
+    /**
+     * 获取配置列表
+     * 传入 cursor 或 limit 时使用游标分页，否则使用页码分页
+     * If-None-Match 与当前 ETag（场景修订号和配置数）一致时返回 304
+     */
+    @GetMapping(value = "/configs", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ApiResponse<PageResult<ConfigResponse>>> list(
+        @RequestParam String sceneId,
+        @RequestParam(required = false) Integer schemeVersion,
+        @RequestParam(defaultValue = "1") Integer page,
+        @RequestParam(defaultValue = "10") Integer pageSize,
+        @RequestParam(required = false) String sort,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(required = false) Integer limit,
+        ServerWebExchange exchange
+    ) {
+        if (cursor != null || limit != null) {
+            KeysetCursor.checkSort(sort);
+        }
+        return notModified(configReadService.getListETag(sceneId), exchange)
+            .flatMap(notModified -> notModified ? Mono.empty()
+                : cursor != null || limit != null
+                    ? configReadService.listByCursor(sceneId, schemeVersion, cursor, limit != null ? limit : pageSize)
+                    : configReadService.list(sceneId, schemeVersion, page, pageSize, sort))
+            .map(ApiResponse::success);
+    }
+    
+    /**
+     * 流式获取场景下的全部配置（NDJSON，每行一个配置），按 ID 排序
+     * 按客户端的读取速度从数据库拉取，适合一次性读取大场景
+     */
+    @GetMapping(value = "/configs", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ConfigResponse> stream(
+        @RequestParam String sceneId,
+        @RequestParam(required = false) Integer schemeVersion
+    ) {
+        return configReadService.stream(sceneId, schemeVersion);
+    }
+    
+    /**
+     * 获取配置详情
+     * If-None-Match 与当前 ETag 一致时返回 304，只查询修订号，不读取 config_data
+     */
+    @GetMapping("/configs/{id}")
+    public Mono<ApiResponse<ConfigResponse>> getById(@PathVariable String id, ServerWebExchange exchange) {
+        return notModified(configReadService.getETag(id), exchange)
+            .flatMap(notModified -> notModified ? Mono.empty() : configReadService.getById(id))
+            .map(ApiResponse::success);
+    }
+    
+    /**
+     * 解析生效配置
+     * 除 sceneId 外的查询参数均视为条件，如 ?sceneId=db&environment=production&region=eu
+     */
+    @GetMapping("/configs:resolve")
+    public Mono<ApiResponse<ConfigResponse>> resolve(
+        @RequestParam String sceneId,
+        @RequestParam Map<String, String> params
+    ) {
+        Map<String, String> conditions = new HashMap<>(params);
+        conditions.remove("sceneId");
+        return configReadService.resolve(sceneId, conditions).map(ApiResponse::success);
+    }
+    
+    /**
+     * 比较 If-None-Match 与 ETag，一致时将响应置为 304；ETag 为空（资源不存在）时交由后续读取返回 404
+     */
+    private static Mono<Boolean> notModified(Mono<String> etag, ServerWebExchange exchange) {
+        return etag.map(exchange::checkNotModified).defaultIfEmpty(false);
+    }
+}
@@ -0,0 +1,98 @@
+package com.chamberlain.reactive.exception;
+
+import com.chamberlain.dto.common.ApiResponse;
+import com.chamberlain.exception.BusinessException;
+import com.chamberlain.exception.ResourceNotFoundException;
+import com.chamberlain.exception.ValidationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebInputException;
+
+/**
+ * 全局异常处理器，错误码和响应格式与后端 GlobalExceptionHandler 一致
+ */
+@RestControllerAdvice
+@Slf4j
+public class ReactiveExceptionHandler {
+    
+    /**
+     * 处理资源未找到异常
+     */
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<ApiResponse<Void>> handleResourceNotFoundException(ResourceNotFoundException ex) {
+        log.warn("Resource not found: {}", ex.getMessage());
+        return ResponseEntity
+            .status(HttpStatus.NOT_FOUND)
+            .body(ApiResponse.error(ex.getCode(), ex.getMessage()));
+    }
+    
+    /**
+     * 处理业务异常
+     */
+    @ExceptionHandler(BusinessException.class)
+    public ResponseEntity<ApiResponse<Void>> handleBusinessException(BusinessException ex) {
+        log.warn("Business exception: {} - {}", ex.getCode(), ex.getMessage());
+        return ResponseEntity
+            .status(HttpStatus.BAD_REQUEST)
+            .body(ApiResponse.error(ex.getCode(), ex.getMessage()));
+    }
+    
+    /**
+     * 处理验证异常
+     */
+    @ExceptionHandler(ValidationException.class)
+    public ResponseEntity<ApiResponse<Void>> handleValidationException(ValidationException ex) {
+        log.warn("Validation exception: {} - {}", ex.getCode(), ex.getMessage());
+        return ResponseEntity
+            .status(HttpStatus.BAD_REQUEST)
+            .body(ApiResponse.error(ex.getCode(), ex.getMessage()));
+    }
+    
+    /**
+     * 处理请求参数缺失或类型不正确
+     */
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<ApiResponse<Void>> handleInputException(ServerWebInputException ex) {
+        log.warn("Invalid input: {}", ex.getReason());
+        return ResponseEntity
+            .status(HttpStatus.BAD_REQUEST)
+            .body(ApiResponse.error("INVALID_PARAMETER", ex.getReason()));
+    }
+    
+    /**
+     * 处理其他带状态码的异常（如 406、415）
+     */
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<ApiResponse<Void>> handleResponseStatusException(ResponseStatusException ex) {
+        log.warn("Request failed: {}", ex.getMessage());
+        return ResponseEntity
+            .status(ex.getStatusCode())
+            .body(ApiResponse.error("REQUEST_ERROR", ex.getReason()));
+    }
+    
+    /**
+     * 处理非法参数异常
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ApiResponse<Void>> handleIllegalArgument(IllegalArgumentException ex) {
+        log.warn("Illegal argument: {}", ex.getMessage());
+        return ResponseEntity
+            .status(HttpStatus.BAD_REQUEST)
+            .body(ApiResponse.error("INVALID_PARAMETER", ex.getMessage()));
+    }
+    
+    /**
+     * 处理通用异常
+     */
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ApiResponse<Void>> handleGenericException(Exception ex) {
+        log.error("Unexpected exception", ex);
+        return ResponseEntity
+            .status(HttpStatus.INTERNAL_SERVER_ERROR)
+            .body(ApiResponse.error("INTERNAL_ERROR", "服务器内部错误"));
+    }
+}
@@ -0,0 +1,239 @@
+package com.chamberlain.reactive.repository;
+
+import com.chamberlain.dto.response.ConfigResponse;
+import com.chamberlain.entity.Config.Condition;
+import com.chamberlain.entity.Scene.AvailableCondition;
+import com.chamberlain.entity.Scene.ConflictStrategy;
+import com.chamberlain.exception.ValidationException;
+import com.chamberlain.repository.VersionStamp;
+import com.chamberlain.util.KeysetCursor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * 配置只读仓库
+ * <p>
+ * 直接读取后端的 configs、scenes 表（列名与 JPA 实体一致），行映射为后端的 {@link ConfigResponse}。
+ * JSON 列在 MySQL 和 H2 的 R2DBC 驱动中都以字符串返回，由 ObjectMapper 解析。
+ */
+@Repository
+public class ConfigReadRepository {
+    
+    private static final String CONFIG_COLUMNS = "id, scene_id, scheme_version, condition_list, config_data, "
+        + "revision, created_at, updated_at, created_by, updated_by";
+    
+    /**
+     * 可排序的属性名 -> 列名，属性名与后端实体一致
+     */
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+        "id", "id",
+        "sceneId", "scene_id",
+        "schemeVersion", "scheme_version",
+        "revision", "revision",
+        "createdAt", "created_at",
+        "updatedAt", "updated_at",
+        "createdBy", "created_by",
+        "updatedBy", "updated_by"
+    );
+    
+    private final DatabaseClient databaseClient;
+    private final ObjectMapper objectMapper;
+    private final JavaType conditionListType;
+    private final JavaType availableConditionsType;
+    private final int fetchSize;
+    
+    public ConfigReadRepository(DatabaseClient databaseClient,
+                                ObjectMapper objectMapper,
+                                @Value("${chamberlain.reader.fetch-size:1000}") int fetchSize) {
+        this.databaseClient = databaseClient;
+        this.objectMapper = objectMapper;
+        this.conditionListType = objectMapper.getTypeFactory().constructCollectionType(List.class, Condition.class);
+        this.availableConditionsType = objectMapper.getTypeFactory()
+            .constructCollectionType(List.class, AvailableCondition.class);
+        this.fetchSize = fetchSize;
+    }
+    
+    /**
+     * 根据 ID 查询配置
+     */
+    public Mono<ConfigResponse> findById(String id) {
+        return databaseClient.sql("SELECT " + CONFIG_COLUMNS + " FROM configs WHERE id = :id")
+            .bind("id", id)
+            .map(this::toResponse)
+            .one();
+    }
+    
+    /**
+     * 查询配置的版本元数据（用于 ETag），不读取 JSON 列
+     */
+    public Mono<VersionStamp> findVersionStampById(String id) {
+        return databaseClient.sql("SELECT revision, updated_at FROM configs WHERE id = :id")
+            .bind("id", id)
+            .map(row -> new VersionStamp(row.get("revision", Long.class), row.get("updated_at", LocalDateTime.class), 1L))
+            .one();
+    }
+    
+    /**
+     * 查询场景下配置的版本元数据（用于配置列表 ETag），与后端 SceneRepository#findConfigsVersionStampById 一致
+     */
+    public Mono<VersionStamp> findConfigsVersionStamp(String sceneId) {
+        return databaseClient.sql("SELECT s.revision, s.updated_at, "
+                + "(SELECT COUNT(*) FROM configs c WHERE c.scene_id = s.id) AS config_count "
+                + "FROM scenes s WHERE s.id = :sceneId")
+            .bind("sceneId", sceneId)
+            .map(row -> new VersionStamp(row.get("revision", Long.class), row.get("updated_at", LocalDateTime.class),
+                row.get("config_count", Long.class)))
+            .one();
+    }
+    
+    /**
+     * 按页码查询配置
+     *
+     * @param offset 跳过的行数
+     * @param limit  返回的行数
+     */
+    public Flux<ConfigResponse> findPage(String sceneId, Integer schemeVersion, Sort sort, long offset, int limit) {
+        String sql = "SELECT " + CONFIG_COLUMNS + " FROM configs WHERE " + where(schemeVersion)
+            + " ORDER BY " + orderBy(sort) + " LIMIT " + limit + " OFFSET " + offset;
+        return bind(databaseClient.sql(sql), sceneId, schemeVersion)
+            .map(this::toResponse)
+            .all();
+    }
+    
+    /**
+     * 统计配置数
+     */
+    public Mono<Long> count(String sceneId, Integer schemeVersion) {
+        return bind(databaseClient.sql("SELECT COUNT(*) FROM configs WHERE " + where(schemeVersion)), sceneId, schemeVersion)
+            .map(row -> row.get(0, Long.class))
+            .one();
+    }
+    
+    /**
+     * 按 (updated_at DESC, id DESC) 从游标位置 seek 查询配置
+     *
+     * @param after 上一页最后一条记录，为空时从头开始
+     */
+    public Flux<ConfigResponse> findAfter(String sceneId, Integer schemeVersion, KeysetCursor after, int limit) {
+        String sql = "SELECT " + CONFIG_COLUMNS + " FROM configs WHERE " + where(schemeVersion)
+            + (after != null ? " AND (updated_at < :updatedAt OR (updated_at = :updatedAt AND id < :afterId))" : "")
+            + " ORDER BY updated_at DESC, id DESC LIMIT " + limit;
+        DatabaseClient.GenericExecuteSpec spec = bind(databaseClient.sql(sql), sceneId, schemeVersion);
+        if (after != null) {
+            spec = spec.bind("updatedAt", after.updatedAt()).bind("afterId", after.id());
+        }
+        return spec.map(this::toResponse).all();
+    }
+    
+    /**
+     * 按 ID 顺序流式读取场景下的配置
+     * <p>
+     * 行按下游请求量从驱动拉取，驱动每次最多取 fetch-size 行，内存占用与场景配置数无关
+     */
+    public Flux<ConfigResponse> streamByScene(String sceneId, Integer schemeVersion) {
+        return bind(databaseClient.sql("SELECT " + CONFIG_COLUMNS + " FROM configs WHERE " + where(schemeVersion)
+                + " ORDER BY id"), sceneId, schemeVersion)
+            .filter(statement -> statement.fetchSize(fetchSize))
+            .map(this::toResponse)
+            .all();
+    }
+    
+    /**
+     * 查询场景的条件冲突策略和声明的可用条件（用于构建条件索引）
+     */
+    public Mono<SceneConditions> findSceneConditions(String sceneId) {
+        return databaseClient.sql("SELECT condition_conflict_strategy, available_conditions FROM scenes WHERE id = :id")
+            .bind("id", sceneId)
+            .map(row -> {
+                String strategy = row.get("condition_conflict_strategy", String.class);
+                List<AvailableCondition> available = readJson(row, "available_conditions", availableConditionsType);
+                return new SceneConditions(
+                    strategy != null ? ConflictStrategy.valueOf(strategy) : null,
+                    available == null ? List.of() : available.stream().map(AvailableCondition::getKey).toList());
+            })
+            .one();
+    }
+    
+    private static String where(Integer schemeVersion) {
+        return schemeVersion != null ? "scene_id = :sceneId AND scheme_version = :schemeVersion" : "scene_id = :sceneId";
+    }
+    
+    private static DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec,
+                                                          String sceneId, Integer schemeVersion) {
+        spec = spec.bind("sceneId", sceneId);
+        return schemeVersion != null ? spec.bind("schemeVersion", schemeVersion) : spec;
+    }
+    
+    /**
+     * 排序属性转为 ORDER BY 子句，最后按 id 排序保证分页稳定
+     *
+     * @throws ValidationException 不支持的排序属性
+     */
+    private static String orderBy(Sort sort) {
+        StringJoiner clause = new StringJoiner(", ");
+        boolean hasId = false;
+        for (Sort.Order order : sort) {
+            String column = SORT_COLUMNS.get(order.getProperty());
+            if (column == null) {
+                throw new ValidationException("INVALID_PARAMETER", "不支持的排序字段: " + order.getProperty());
+            }
+            hasId |= "id".equals(column);
+            clause.add(column + (order.isAscending() ? " ASC" : " DESC"));
+        }
+        if (!hasId) {
+            clause.add("id");
+        }
+        return clause.toString();
+    }
+    
+    private ConfigResponse toResponse(Readable row) {
+        ConfigResponse response = new ConfigResponse();
+        response.setId(row.get("id", String.class));
+        response.setSceneId(row.get("scene_id", String.class));
+        response.setSchemeVersion(row.get("scheme_version", Integer.class));
+        response.setConditionList(readJson(row, "condition_list", conditionListType));
+        response.setConfig(readJson(row, "config_data", null));
+        response.setRevision(row.get("revision", Long.class));
+        response.setCreatedAt(row.get("created_at", LocalDateTime.class));
+        response.setUpdatedAt(row.get("updated_at", LocalDateTime.class));
+        response.setCreatedBy(row.get("created_by", String.class));
+        response.setUpdatedBy(row.get("updated_by", String.class));
+        return response;
+    }
+    
+    /**
+     * 读取 JSON 列
+     *
+     * @param type 目标类型，为空时读取为 {@link JsonNode}
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T readJson(Readable row, String column, JavaType type) {
+        String json = row.get(column, String.class);
+        if (json == null) {
+            return null;
+        }
+        try {
+            return type == null ? (T) objectMapper.readTree(json) : objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Malformed JSON in column " + column, e);
+        }
+    }
+    
+    /**
+     * 场景的条件冲突策略和声明的可用条件 key（按声明顺序）
+     */
+    public record SceneConditions(ConflictStrategy strategy, List<String> declaredKeys) {
+    }
+}
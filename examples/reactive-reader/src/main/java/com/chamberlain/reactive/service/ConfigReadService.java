@@ -0,0 +1,199 @@
+package com.chamberlain.reactive.service;
+
+import com.chamberlain.dto.common.PageResult;
+import com.chamberlain.dto.response.ConfigResponse;
+import com.chamberlain.exception.ResourceNotFoundException;
+import com.chamberlain.exception.ValidationException;
+import com.chamberlain.reactive.repository.ConfigReadRepository;
+import com.chamberlain.repository.VersionStamp;
+import com.chamberlain.service.ConfigResolveService.SceneConditionIndex;
+import com.chamberlain.util.KeysetCursor;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 配置只读服务
+ * <p>
+ * 与后端 ConfigService、ConfigResolveService 的读取语义一致：相同的参数校验、错误码、ETag、分页和游标格式。
+ * 条件索引使用后端的 {@link SceneConditionIndex}，本服务不接收写入，后端的写入通过定期刷新感知。
+ */
+@Service
+@Slf4j
+public class ConfigReadService {
+    
+    private final ConfigReadRepository configReadRepository;
+    
+    /**
+     * 场景条件索引，key 为场景 ID
+     */
+    private final AsyncLoadingCache<String, SceneConditionIndex> indexes;
+    
+    public ConfigReadService(ConfigReadRepository configReadRepository,
+                             @Value("${chamberlain.resolve.max-scenes:1024}") long maxScenes,
+                             @Value("${chamberlain.resolve.refresh-interval:30s}") Duration refreshInterval,
+                             MeterRegistry registry) {
+        this.configReadRepository = configReadRepository;
+        this.indexes = Caffeine.newBuilder()
+            .maximumSize(maxScenes)
+            .refreshAfterWrite(refreshInterval)
+            .recordStats()
+            .buildAsync((sceneId, executor) -> loadIndex(sceneId).toFuture());
+        CaffeineCacheMetrics.monitor(registry, indexes.synchronous(), "resolve-indexes");
+    }
+    
+    /**
+     * 根据 ID 获取配置
+     */
+    public Mono<ConfigResponse> getById(String id) {
+        return configReadRepository.findById(id)
+            .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("CONFIG_NOT_FOUND", "配置不存在: " + id)));
+    }
+    
+    /**
+     * 配置详情的 ETag，只查询修订号和更新时间，配置不存在时为空
+     */
+    public Mono<String> getETag(String id) {
+        return configReadRepository.findVersionStampById(id).map(VersionStamp::toETag);
+    }
+    
+    /**
+     * 配置列表的 ETag，由场景修订号和配置数得出，场景不存在时为空
+     */
+    public Mono<String> getListETag(String sceneId) {
+        if (sceneId == null || sceneId.trim().isEmpty()) {
+            return Mono.empty();
+        }
+        return configReadRepository.findConfigsVersionStamp(sceneId).map(VersionStamp::toETag);
+    }
+    
+    /**
+     * 获取配置列表（分页）
+     */
+    public Mono<PageResult<ConfigResponse>> list(String sceneId, Integer schemeVersion,
+                                                 Integer page, Integer pageSize, String sort) {
+        return Mono.defer(() -> {
+            checkSceneId(sceneId);
+            if (page < 1 || pageSize < 1) {
+                throw new ValidationException("INVALID_PARAMETER", "page 和 pageSize 必须大于 0");
+            }
+            return Mono.zip(
+                configReadRepository.findPage(sceneId, schemeVersion, buildSort(sort),
+                    (long) (page - 1) * pageSize, pageSize).collectList(),
+                configReadRepository.count(sceneId, schemeVersion),
+                (configs, total) -> PageResult.<ConfigResponse>builder()
+                    .list(configs)
+                    .total(total)
+                    .page(page)
+                    .pageSize(pageSize)
+                    .build());
+        });
+    }
+    
+    /**
+     * 获取配置列表（游标分页），游标与后端通用
+     */
+    public Mono<PageResult<ConfigResponse>> listByCursor(String sceneId, Integer schemeVersion,
+                                                         String cursor, Integer limit) {
+        return Mono.defer(() -> {
+            checkSceneId(sceneId);
+            int pageSize = KeysetCursor.checkLimit(limit);
+            KeysetCursor after = cursor == null || cursor.isEmpty() ? null : KeysetCursor.decode(cursor);
+            
+            // 多取一条用于判断是否还有下一页
+            return configReadRepository.findAfter(sceneId, schemeVersion, after, pageSize + 1)
+                .collectList()
+                .map(configs -> {
+                    String nextCursor = null;
+                    if (configs.size() > pageSize) {
+                        configs = configs.subList(0, pageSize);
+                        ConfigResponse last = configs.get(pageSize - 1);
+                        nextCursor = new KeysetCursor(last.getUpdatedAt(), last.getId()).encode();
+                    }
+                    return PageResult.<ConfigResponse>builder()
+                        .list(configs)
+                        .pageSize(pageSize)
+                        .nextCursor(nextCursor)
+                        .build();
+                });
+        });
+    }
+    
+    /**
+     * 流式读取场景下的全部配置，按 ID 排序
+     * <p>
+     * 按订阅方的请求量从数据库拉取，慢速客户端不会使整个结果集堆积在内存中
+     */
+    public Flux<ConfigResponse> stream(String sceneId, Integer schemeVersion) {
+        return Flux.defer(() -> {
+            checkSceneId(sceneId);
+            return configReadRepository.streamByScene(sceneId, schemeVersion);
+        });
+    }
+    
+    /**
+     * 解析生效配置
+     *
+     * @param sceneId    场景 ID
+     * @param conditions 请求条件（key -> value）
+     * @return 生效的配置
+     */
+    public Mono<ConfigResponse> resolve(String sceneId, Map<String, String> conditions) {
+        return Mono.defer(() -> {
+            checkSceneId(sceneId);
+            return Mono.fromFuture(indexes.get(sceneId));
+        })
+            .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("SCENE_NOT_FOUND", "场景不存在: " + sceneId)))
+            .flatMap(index -> Mono.justOrEmpty(index.resolve(conditions)))
+            .switchIfEmpty(Mono.error(() ->
+                new ResourceNotFoundException("CONFIG_NOT_FOUND", "没有匹配条件的配置: " + conditions)));
+    }
+    
+    /**
+     * 从数据库加载场景条件索引，场景不存在时为空
+     */
+    private Mono<SceneConditionIndex> loadIndex(String sceneId) {
+        return configReadRepository.findSceneConditions(sceneId)
+            .zipWhen(scene -> configReadRepository.streamByScene(sceneId, null).collectList())
+            .map(tuple -> {
+                List<ConfigResponse> configs = tuple.getT2();
+                log.debug("Built condition index for scene {} with {} configs", sceneId, configs.size());
+                return new SceneConditionIndex(sceneId, tuple.getT1().strategy(), tuple.getT1().declaredKeys(),
+                    configs);
+            });
+    }
+    
+    private static void checkSceneId(String sceneId) {
+        if (sceneId == null || sceneId.trim().isEmpty()) {
+            throw new ValidationException("INVALID_PARAMETER", "sceneId 参数必填");
+        }
+    }
+    
+    /**
+     * 构建排序（与后端一致：默认按更新时间降序，格式为 字段:方向）
+     */
+    private static Sort buildSort(String sortParam) {
+        if (sortParam == null || sortParam.trim().isEmpty()) {
+            return Sort.by(Sort.Direction.DESC, "updatedAt");
+        }
+        
+        String[] parts = sortParam.split(":");
+        String field = parts[0];
+        Sort.Direction direction = parts.length > 1 && "asc".equalsIgnoreCase(parts[1])
+            ? Sort.Direction.ASC
+            : Sort.Direction.DESC;
+        
+        return Sort.by(direction, field);
+    }
+}
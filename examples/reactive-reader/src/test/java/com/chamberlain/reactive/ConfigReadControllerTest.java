@@ -0,0 +1,213 @@
+package com.chamberlain.reactive;
+
+import com.chamberlain.dto.response.ConfigResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 响应式只读端点测试：响应格式、ETag、分页、流式读取和条件解析
+ * <p>
+ * 数据直接写入与后端相同的表结构，配置 ID 沿用后端格式（场景 ID:条件）
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = "spring.config.name=" + ReactiveReaderApplication.CONFIG_NAME)
+@ActiveProfiles("test")
+class ConfigReadControllerTest {
+    
+    private static final String SCENE_ID = "reader_scene";
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2025, 1, 1, 0, 0);
+    
+    @Autowired
+    private WebTestClient webTestClient;
+    
+    @Autowired
+    private DatabaseClient databaseClient;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @BeforeEach
+    void setUp() {
+        databaseClient.sql("DELETE FROM configs").then()
+            .then(databaseClient.sql("DELETE FROM scenes").then())
+            .then(databaseClient.sql("INSERT INTO scenes (id, name, available_conditions, condition_conflict_strategy, "
+                    + "revision, created_at, updated_at) VALUES (:id, :id, :available FORMAT JSON, 'PRIORITY', 12, :time, :time)")
+                .bind("id", SCENE_ID)
+                .bind("available", "[{\"key\":\"region\",\"name\":\"区域\"},{\"key\":\"environment\",\"name\":\"环境\"}]")
+                .bind("time", BASE_TIME)
+                .then())
+            .block();
+        insertConfig(SCENE_ID, "[]", 3000, 1);
+        insertConfig(SCENE_ID + ":environment:production", "[{\"key\":\"environment\",\"value\":\"production\"}]", 3306, 2);
+        insertConfig(SCENE_ID + ":region:eu", "[{\"key\":\"region\",\"value\":\"eu\"}]", 5432, 3);
+        for (int i = 0; i < 9; i++) {
+            insertConfig(SCENE_ID + ":host:h" + i, "[{\"key\":\"host\",\"value\":\"h" + i + "\"}]", 8000 + i, 4 + i);
+        }
+    }
+    
+    @Test
+    void testGetByIdWireFormatAndETag() {
+        String etag = webTestClient.get().uri("/api/configs/{id}", SCENE_ID + ":environment:production")
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().exists(HttpHeaders.ETAG)
+            .expectBody()
+            .jsonPath("$.success").isEqualTo(true)
+            .jsonPath("$.code").doesNotExist()
+            .jsonPath("$.message").doesNotExist()
+            .jsonPath("$.data.id").isEqualTo(SCENE_ID + ":environment:production")
+            .jsonPath("$.data.sceneId").isEqualTo(SCENE_ID)
+            .jsonPath("$.data.schemeVersion").isEqualTo(1)
+            .jsonPath("$.data.conditionList[0].key").isEqualTo("environment")
+            .jsonPath("$.data.conditionList[0].value").isEqualTo("production")
+            .jsonPath("$.data.config.port").isEqualTo(3306)
+            .jsonPath("$.data.revision").isEqualTo(2)
+            .jsonPath("$.data.updatedAt").isEqualTo("2025-01-01T00:00:02")
+            .jsonPath("$.data.createdBy").doesNotExist()
+            .returnResult()
+            .getResponseHeaders().getETag();
+        
+        webTestClient.get().uri("/api/configs/{id}", SCENE_ID + ":environment:production")
+            .header(HttpHeaders.IF_NONE_MATCH, etag)
+            .exchange()
+            .expectStatus().isNotModified()
+            .expectBody().isEmpty();
+    }
+    
+    @Test
+    void testErrorsUseBackendCodes() {
+        webTestClient.get().uri("/api/configs/{id}", "missing")
+            .exchange()
+            .expectStatus().isNotFound()
+            .expectBody()
+            .jsonPath("$.success").isEqualTo(false)
+            .jsonPath("$.code").isEqualTo("CONFIG_NOT_FOUND");
+        
+        webTestClient.get().uri("/api/configs?sceneId=")
+            .exchange()
+            .expectStatus().isBadRequest()
+            .expectBody()
+            .jsonPath("$.code").isEqualTo("INVALID_PARAMETER");
+        
+        webTestClient.get().uri("/api/configs?sceneId={id}&sort=conditionHash", SCENE_ID)
+            .exchange()
+            .expectStatus().isBadRequest()
+            .expectBody()
+            .jsonPath("$.code").isEqualTo("INVALID_PARAMETER");
+        
+        webTestClient.get().uri("/api/configs?sceneId={id}&limit=5&sort=id:asc", SCENE_ID)
+            .exchange()
+            .expectStatus().isBadRequest()
+            .expectBody()
+            .jsonPath("$.code").isEqualTo("INVALID_PARAMETER");
+    }
+    
+    @Test
+    void testPagedList() {
+        webTestClient.get().uri("/api/configs?sceneId={id}&page=2&pageSize=5&sort=revision:asc", SCENE_ID)
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().contentType(MediaType.APPLICATION_JSON)
+            .expectBody()
+            .jsonPath("$.data.total").isEqualTo(12)
+            .jsonPath("$.data.page").isEqualTo(2)
+            .jsonPath("$.data.pageSize").isEqualTo(5)
+            .jsonPath("$.data.list.length()").isEqualTo(5)
+            .jsonPath("$.data.list[0].revision").isEqualTo(6)
+            .jsonPath("$.data.nextCursor").doesNotExist();
+    }
+    
+    @Test
+    void testCursorListVisitsEveryConfigOnce() throws Exception {
+        Set<String> seen = new HashSet<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            String uri = "/api/configs?sceneId=" + SCENE_ID + "&limit=5" + (cursor != null ? "&cursor=" + cursor : "");
+            byte[] body = webTestClient.get().uri(uri)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().returnResult().getResponseBody();
+            JsonNode data = objectMapper.readTree(body).get("data");
+            data.get("list").forEach(config -> assertTrue(seen.add(config.get("id").asText())));
+            cursor = data.hasNonNull("nextCursor") ? data.get("nextCursor").asText() : null;
+            pages++;
+        } while (cursor != null);
+        
+        assertEquals(12, seen.size());
+        assertEquals(3, pages);
+    }
+    
+    @Test
+    void testNdjsonStreamHonorsDemand() {
+        Flux<ConfigResponse> stream = webTestClient.get().uri("/api/configs?sceneId={id}", SCENE_ID)
+            .accept(MediaType.APPLICATION_NDJSON)
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+            .returnResult(ConfigResponse.class)
+            .getResponseBody();
+        
+        StepVerifier.create(stream, 2)
+            .assertNext(config -> assertEquals(SCENE_ID, config.getId()))
+            .assertNext(config -> assertEquals(SCENE_ID + ":environment:production", config.getId()))
+            .thenRequest(Long.MAX_VALUE)
+            .expectNextCount(10)
+            .verifyComplete();
+    }
+    
+    @Test
+    void testResolveByPriority() {
+        // 场景声明 region 优先于 environment
+        webTestClient.get().uri("/api/configs:resolve?sceneId={id}&environment=production&region=eu", SCENE_ID)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.data.id").isEqualTo(SCENE_ID + ":region:eu");
+        
+        webTestClient.get().uri("/api/configs:resolve?sceneId={id}&environment=staging", SCENE_ID)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.data.id").isEqualTo(SCENE_ID);
+        
+        webTestClient.get().uri("/api/configs:resolve?sceneId={id}", "missing_scene")
+            .exchange()
+            .expectStatus().isNotFound()
+            .expectBody()
+            .jsonPath("$.code").isEqualTo("SCENE_NOT_FOUND");
+    }
+    
+    private void insertConfig(String id, String conditions, int port, long revision) {
+        databaseClient.sql("INSERT INTO configs (id, scene_id, scheme_version, condition_list, condition_hash, "
+                + "config_data, revision, created_at, updated_at) "
+                + "VALUES (:id, :sceneId, 1, :conditions FORMAT JSON, :hash, :data FORMAT JSON, :revision, :time, :updatedAt)")
+            .bind("id", id)
+            .bind("sceneId", SCENE_ID)
+            .bind("conditions", conditions)
+            .bind("hash", new byte[16])
+            .bind("data", "{\"port\":" + port + "}")
+            .bind("revision", revision)
+            .bind("time", BASE_TIME)
+            .bind("updatedAt", BASE_TIME.plusSeconds(revision))
+            .then()
+            .block();
+    }
+}
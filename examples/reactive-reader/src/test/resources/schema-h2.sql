@@ -0,0 +1,30 @@
+-- 测试用表结构，与后端 JPA 实体在 H2 上生成的 scenes、configs 表一致（只读服务用到的列）
+
+CREATE TABLE IF NOT EXISTS scenes (
+    id VARCHAR(128) PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    available_conditions JSON,
+    condition_conflict_strategy VARCHAR(50),
+    current_scheme_version INT NOT NULL DEFAULT 1,
+    revision BIGINT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    created_by VARCHAR(64),
+    updated_by VARCHAR(64)
+);
+
+CREATE TABLE IF NOT EXISTS configs (
+    id VARCHAR(512) PRIMARY KEY,
+    scene_id VARCHAR(128) NOT NULL,
+    scheme_version INT NOT NULL,
+    condition_list JSON NOT NULL,
+    condition_hash BINARY(16) NOT NULL,
+    config_data JSON NOT NULL,
+    revision BIGINT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    created_by VARCHAR(64),
+    updated_by VARCHAR(64)
+);
+
+CREATE INDEX IF NOT EXISTS idx_scene_updated ON configs (scene_id, updated_at);